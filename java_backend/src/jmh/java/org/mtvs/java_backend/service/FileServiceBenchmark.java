@@ -0,0 +1,229 @@
+package org.mtvs.java_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.mtvs.java_backend.dto.FileUploadResponse;
+import org.mtvs.java_backend.dto.FileVerificationResponse;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.repository.AuthorStatsRepository;
+import org.mtvs.java_backend.repository.FileChunkRepository;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.repository.RegistrationOutboxRepository;
+import org.mtvs.java_backend.util.BufferPool;
+import org.mtvs.java_backend.util.ChainFileDetails;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.PoseidonHashUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Upload and verify service paths with an in-memory repository and a chain stub
+ * that answers instantly, so only the service's own overhead is measured. Uploads
+ * only queue their registration, so the chain is not part of the upload path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class FileServiceBenchmark {
+    
+    private static final Felt252 REGISTERED_HASH = Felt252.fromHex("0x5d44a3decb2b2e0cc71071f7b802f45dd792d064f0fc7316c46514f70f9891a");
+    private static final Felt252 CHAIN_ONLY_HASH = Felt252.fromHex("0x2272be0f580fd156823304800919530eaa97430e972d7213ee13f4fbf7a5dbc");
+    private static final Felt252 UNKNOWN_HASH = Felt252.fromHex("0x1");
+    private static final Felt252 AUTHOR = Felt252.fromHex("0x06ecb9425da32b868721a6b9dd609879eb81d6b80494bff9dcf2e3b002801d2f");
+    
+    @State(Scope.Benchmark)
+    public static class VerifyState {
+        
+        @Param({"local", "chainOnly", "unknown"})
+        public String verifyTarget;
+        
+        @Param({"false", "true"})
+        public boolean cached;
+        
+        FileService fileService;
+        Felt252 poseidonHash;
+        
+        @Setup(Level.Trial)
+        public void setUp() {
+            fileService = stubbedFileService(cached ? 100_000 : 0);
+            poseidonHash = switch (verifyTarget) {
+                case "local" -> REGISTERED_HASH;
+                case "chainOnly" -> CHAIN_ONLY_HASH;
+                default -> UNKNOWN_HASH;
+            };
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class UploadState {
+        
+        @Param({"1024", "65536", "1048576", "10485760"})
+        public int payloadSize;
+        
+        FileService fileService;
+        MockMultipartFile upload;
+        
+        @Setup(Level.Trial)
+        public void setUp() {
+            fileService = stubbedFileService(0);
+            byte[] payload = new byte[payloadSize];
+            new Random(42).nextBytes(payload);
+            upload = new MockMultipartFile("file", "payload.bin", "application/octet-stream", payload);
+        }
+    }
+    
+    @Benchmark
+    public FileVerificationResponse verifyFile(VerifyState state) {
+        return state.fileService.verifyFile(state.poseidonHash);
+    }
+    
+    @Benchmark
+    public FileUploadResponse uploadFile(UploadState state) throws IOException {
+        return state.fileService.uploadFile(state.upload, AUTHOR);
+    }
+    
+    private static FileService stubbedFileService(long cacheSize) {
+        FileEntity registered = FileEntity.builder()
+                .id(1L)
+                .filename("report.pdf")
+                .fileType("application/pdf")
+                .fileSize(4096L)
+                .poseidonHash(REGISTERED_HASH)
+                .authorAddress(AUTHOR)
+                .starknetTxHash(Felt252.fromHex("0x1234"))
+                .createdAt(LocalDateTime.now())
+                .build();
+        
+        FileRepository fileRepository = stubRepository(Map.of(REGISTERED_HASH, registered));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        // Never rebuilt, so every duplicate check goes to the repository as on a cold start
+        RegisteredHashFilter registeredHashFilter = new RegisteredHashFilter(fileRepository, transactionTemplate, 1_000_000, 0.01);
+        // Loaded up front, so uploads pay for indexing as they do once the app is up
+        FileSearchIndex fileSearchIndex = new FileSearchIndex(fileRepository, transactionTemplate, 1_000_000, 100_000);
+        fileSearchIndex.rebuild();
+        // No chunked uploads in it
+        FileChunkRepository chunkRepository = stub(FileChunkRepository.class, Map.of(
+                "findByPoseidonHashOrderByChunkIndex", args -> List.of(),
+                "saveAll", args -> args[0]));
+        return new FileService(
+                fileRepository,
+                // Accepts and drops every queued registration
+                stub(RegistrationOutboxRepository.class, Map.of("save", args -> args[0])),
+                new PoseidonHashUtil(new BufferPool()),
+                new StubStarknetService(),
+                new VerificationCache(cacheSize, Duration.ofHours(24), Duration.ofSeconds(30),
+                        Duration.ofSeconds(5), Duration.ofSeconds(2)),
+                registeredHashFilter,
+                new DatabaseFileRecordStore(fileRepository),
+                new StageMetrics(ObservationRegistry.NOOP, new SimpleMeterRegistry()),
+                transactionTemplate,
+                new ChunkedHashService(chunkRepository, DataSize.ofKilobytes(256), DataSize.ofMegabytes(1),
+                        DataSize.ofMegabytes(4), DataSize.ofGigabytes(64), 1),
+                new KnownPrefixFilter(fileRepository, transactionTemplate, 1_000_000, 0.01),
+                new DisabledBlobStore(),
+                // Accepts every update and keeps nothing
+                new AuthorStatsService(stub(AuthorStatsRepository.class, Map.of("add", args -> 1))),
+                fileSearchIndex,
+                new RegistrationFeed(1024, Duration.ofSeconds(15)));
+    }
+    
+    /**
+     * Read-only repository over a fixed map; saves are assigned an id but not stored,
+     * so repeated uploads of the same payload are never rejected as duplicates.
+     */
+    private static FileRepository stubRepository(Map<Felt252, FileEntity> rows) {
+        AtomicLong ids = new AtomicLong(rows.size());
+        return stub(FileRepository.class, Map.of(
+                "findByPoseidonHash", args -> Optional.ofNullable(rows.get((Felt252) args[0])),
+                "existsByPoseidonHash", args -> rows.containsKey((Felt252) args[0]),
+                "save", args -> {
+                    FileEntity entity = (FileEntity) args[0];
+                    if (entity.getId() == null) {
+                        entity.setId(ids.incrementAndGet());
+                    }
+                    return entity;
+                },
+                "streamAllById", args -> Stream.empty()));
+    }
+    
+    /**
+     * Implements {@code type} with the given answers by method name; any other call fails,
+     * so a repository call newly added to a measured path shows up instead of returning null
+     */
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "Stub" + type.getSimpleName();
+                    default -> {
+                        Function<Object[], Object> answer = answers.get(method.getName());
+                        if (answer == null) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        yield answer.apply(args);
+                    }
+                }));
+    }
+    
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+        
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+        
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+        
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+    
+    private static class StubStarknetService extends StarknetService {
+        
+        @Override
+        public boolean verifyFileOnChain(Felt252 poseidonHash) {
+            return !UNKNOWN_HASH.equals(poseidonHash);
+        }
+        
+        @Override
+        public Optional<ChainFileDetails> getFileDetailsFromChain(Felt252 poseidonHash) {
+            return Optional.of(new ChainFileDetails(AUTHOR, "report.pdf", "application/pdf", 4096L, 1_700_000_000L));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package org.mtvs.java_backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SHA-256 fingerprinting and hex encoding in {@link FileUtil}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class FileUtilBenchmark {
+    
+    @Param({"1024", "65536", "1048576", "10485760"})
+    public int payloadSize;
+    
+    private final FileUtil fileUtil = new FileUtil();
+    private byte[] payload;
+    private byte[] digest;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        payload = new byte[payloadSize];
+        new Random(42).nextBytes(payload);
+        digest = new byte[32];
+        new Random(7).nextBytes(digest);
+    }
+    
+    @Benchmark
+    public String calculateSHA256() {
+        return fileUtil.calculateSHA256(payload);
+    }
+    
+    @Benchmark
+    public String bytesToHexDigest() {
+        return fileUtil.bytesToHex(digest);
+    }
+    
+    @Benchmark
+    public String bytesToHexPayload() {
+        return fileUtil.bytesToHex(payload);
+    }
+}
\ No newline at end of file
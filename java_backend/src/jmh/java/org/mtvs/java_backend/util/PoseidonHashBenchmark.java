@@ -0,0 +1,68 @@
+package org.mtvs.java_backend.util;
+
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File hashing throughput of the Poseidon hasher, one-shot and streamed through
+ * pooled buffers, against the previous Keccak + BigInteger.mod file hash.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PoseidonHashBenchmark {
+    
+    private static final BigInteger FIELD_SIZE = new BigInteger("3618502788666131213697322783095070105623107215331596699973092056135872020481");
+    
+    @Param({"1024", "65536", "1048576", "10485760"})
+    public int payloadSize;
+    
+    private byte[] payload;
+    private PoseidonHashUtil poseidonHashUtil;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        payload = new byte[payloadSize];
+        new Random(42).nextBytes(payload);
+        poseidonHashUtil = new PoseidonHashUtil(new BufferPool());
+    }
+    
+    @Benchmark
+    public String fileHashPoseidon() {
+        return new PoseidonHasher().update(payload, 0, payload.length).digest();
+    }
+    
+    @Benchmark
+    public String fileHashPoseidonStreamed() throws IOException {
+        return poseidonHashUtil.generatePoseidonHash(new ByteArrayInputStream(payload));
+    }
+    
+    @Benchmark
+    public String fileHashLegacyKeccak() {
+        KeccakDigest keccak = new KeccakDigest(256);
+        keccak.update(payload, 0, payload.length);
+        byte[] hash = new byte[32];
+        keccak.doFinal(hash, 0);
+        return "0x" + new BigInteger(1, hash).mod(FIELD_SIZE).toString(16);
+    }
+}
\ No newline at end of file
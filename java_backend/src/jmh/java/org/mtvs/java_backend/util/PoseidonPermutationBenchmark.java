@@ -0,0 +1,89 @@
+package org.mtvs.java_backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the limb-based Hades permutation with a BigInteger implementation of the same rounds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PoseidonPermutationBenchmark {
+    
+    private static final BigInteger FIELD_SIZE = new BigInteger("3618502788666131213697322783095070105623107215331596699973092056135872020481");
+    private static final BigInteger[] BIGINT_ROUND_CONSTANTS = bigIntegerRoundConstants();
+    
+    private long[] state;
+    private long[] scratch;
+    private BigInteger[] bigIntegerState;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        state = new long[PoseidonPermutation.STATE_LIMBS];
+        scratch = new long[PoseidonPermutation.SCRATCH_LIMBS];
+        bigIntegerState = new BigInteger[]{BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(3)};
+    }
+    
+    @Benchmark
+    public long[] permutationLimbs() {
+        PoseidonPermutation.permute(state, scratch);
+        return state;
+    }
+    
+    @Benchmark
+    public BigInteger[] permutationBigInteger() {
+        bigIntegerState = bigIntegerPermute(bigIntegerState);
+        return bigIntegerState;
+    }
+    
+    private static BigInteger[] bigIntegerPermute(BigInteger[] input) {
+        BigInteger s0 = input[0], s1 = input[1], s2 = input[2];
+        for (int round = 0; round < 91; round++) {
+            s0 = s0.add(BIGINT_ROUND_CONSTANTS[3 * round]).mod(FIELD_SIZE);
+            s1 = s1.add(BIGINT_ROUND_CONSTANTS[3 * round + 1]).mod(FIELD_SIZE);
+            s2 = s2.add(BIGINT_ROUND_CONSTANTS[3 * round + 2]).mod(FIELD_SIZE);
+            if (round < 4 || round >= 87) {
+                s0 = s0.modPow(BigInteger.valueOf(3), FIELD_SIZE);
+                s1 = s1.modPow(BigInteger.valueOf(3), FIELD_SIZE);
+            }
+            s2 = s2.modPow(BigInteger.valueOf(3), FIELD_SIZE);
+            BigInteger t = s0.add(s1).add(s2);
+            s0 = t.add(s0.shiftLeft(1)).mod(FIELD_SIZE);
+            s1 = t.subtract(s1.shiftLeft(1)).mod(FIELD_SIZE);
+            s2 = t.subtract(s2.multiply(BigInteger.valueOf(3))).mod(FIELD_SIZE);
+        }
+        return new BigInteger[]{s0, s1, s2};
+    }
+    
+    private static BigInteger[] bigIntegerRoundConstants() {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            BigInteger[] constants = new BigInteger[91 * 3];
+            for (int i = 0; i < constants.length; i++) {
+                byte[] digest = sha256.digest(("Hades" + i).getBytes(StandardCharsets.US_ASCII));
+                constants[i] = new BigInteger(1, digest).mod(FIELD_SIZE);
+            }
+            return constants;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+package org.mtvs.java_backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link SearchIndex} over synthetic file names drawn from a skewed
+ * vocabulary, with a handful of content types and random hashes. The 10M case needs a
+ * heap of several GB: ./gradlew jmh -PjmhIncludes=SearchIndex
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx8g")
+public class SearchIndexBenchmark {
+    
+    private static final String[] WORDS = {"report", "invoice", "photo", "scan", "contract", "draft",
+            "final", "summary", "budget", "slides", "notes", "backup", "export", "receipt", "statement",
+            "design", "diagram", "screenshot", "archive", "letter"};
+    private static final String[] EXTENSIONS = {"pdf", "png", "jpg", "docx", "xlsx", "zip", "txt"};
+    private static final String[] TYPES = {"application/pdf", "image/png", "image/jpeg",
+            "application/msword", "application/vnd.ms-excel", "application/zip", "text/plain"};
+    
+    @Param({"1000000", "10000000"})
+    public int files;
+    
+    private SearchIndex index;
+    private SearchIndex.Query commonTerm;
+    private SearchIndex.Query prefixTerm;
+    private SearchIndex.Query twoTerms;
+    private SearchIndex.Query rareTerm;
+    private SearchIndex.Query typeOnly;
+    private SearchIndex.Query hashPrefix;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new SearchIndex(files, 100_000);
+        SplittableRandom random = new SplittableRandom(42);
+        String sampleHash = null;
+        for (int i = 0; i < files; i++) {
+            // Zipf-like: low word indexes are far more common
+            String first = WORDS[(int) (WORDS.length * Math.pow(random.nextDouble(), 2))];
+            String second = WORDS[random.nextInt(WORDS.length)];
+            int extension = random.nextInt(EXTENSIONS.length);
+            String name = first + "_" + second + "_" + (2000 + random.nextInt(25)) + "_"
+                    + random.nextInt(100_000) + "." + EXTENSIONS[extension];
+            Felt252 hash = Felt252.fromLimbs(new long[]{random.nextLong(), random.nextLong(), random.nextLong(),
+                    random.nextLong() >>> 5}, 0);
+            index.add(i + 1, name, TYPES[extension], hash);
+            if (i == files / 2) {
+                sampleHash = hash.toHex();
+            }
+        }
+        commonTerm = SearchIndex.Query.of("report", null, null);
+        prefixTerm = SearchIndex.Query.of("sta", null, null);
+        twoTerms = SearchIndex.Query.of("invoice 2024", null, null);
+        rareTerm = SearchIndex.Query.of("letter 31337", null, null);
+        typeOnly = SearchIndex.Query.of(null, "image/*", null);
+        hashPrefix = SearchIndex.Query.of(null, null, sampleHash.substring(0, 8));
+    }
+    
+    @Benchmark
+    public SearchIndex.Page commonTerm() {
+        return index.search(commonTerm, null, 20);
+    }
+    
+    @Benchmark
+    public SearchIndex.Page prefixTerm() {
+        return index.search(prefixTerm, null, 20);
+    }
+    
+    @Benchmark
+    public SearchIndex.Page twoTerms() {
+        return index.search(twoTerms, null, 20);
+    }
+    
+    @Benchmark
+    public SearchIndex.Page rareTerm() {
+        return index.search(rareTerm, null, 20);
+    }
+    
+    @Benchmark
+    public SearchIndex.Page typeOnly() {
+        return index.search(typeOnly, null, 20);
+    }
+    
+    @Benchmark
+    public SearchIndex.Page hashPrefix() {
+        return index.search(hashPrefix, null, 20);
+    }
+}
\ No newline at end of file
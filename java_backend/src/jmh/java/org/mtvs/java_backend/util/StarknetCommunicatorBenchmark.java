@@ -0,0 +1,53 @@
+package org.mtvs.java_backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of short-string felts returned by the contract, from a single felt
+ * (31 characters) up to large concatenated payloads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class StarknetCommunicatorBenchmark {
+    
+    @Param({"31", "1024", "65536"})
+    public int stringLength;
+    
+    private final StarknetCommunicator starknetCommunicator =
+            new StarknetCommunicator("http://localhost:5050", Duration.ofMillis(2), 50, Duration.ofSeconds(5));
+    private String hex;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder("0x");
+        for (int i = 0; i < stringLength; i++) {
+            builder.append(String.format("%02x", 'a' + random.nextInt(26)));
+        }
+        hex = builder.toString();
+    }
+    
+    @Benchmark
+    public String hexToString() {
+        return starknetCommunicator.hexToString(hex);
+    }
+}
\ No newline at end of file
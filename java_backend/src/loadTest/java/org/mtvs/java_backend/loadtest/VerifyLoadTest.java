@@ -0,0 +1,308 @@
+package org.mtvs.java_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Drives a running backend with N concurrent clients (one virtual thread each) for a fixed
+ * duration per scenario and concurrency level, and reports p50/p99 latency, throughput and the
+ * peak number of server platform threads sampled from /api/v1/runtime/threads. Scenarios:
+ * <ul>
+ *   <li>{@code upload}: multipart {@code POST /upload} of fresh content, from random authors so
+ *   the per-author rate limit does not cap it</li>
+ *   <li>{@code verify-content}: {@code POST /verify} with the content of files uploaded beforehand</li>
+ *   <li>{@code verify-hash}: reactive {@code GET /verify/{hash}}</li>
+ * </ul>
+ * The first two are blocking servlet paths that hold a request thread for the whole upload or
+ * hash, which is what the thread mode changes; the reactive one already hands its blocking
+ * lookup to a bounded pool and serves as the baseline. Run it once against a server started
+ * normally and once with the "virtual" profile to compare the two thread modes. Results are
+ * printed and written to build/results/loadtest.
+ */
+public class VerifyLoadTest {
+    
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int CONTENT_SIZE = 4096;
+    private static final int VERIFY_CONTENT_FILES = 200;
+    private static final String BOUNDARY = "loadtest-boundary-7d1f";
+    
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int[] concurrencyLevels = Arrays.stream((args.length > 1 ? args[1] : "1000,5000,10000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        List<String> scenarios = Arrays.stream((args.length > 3 ? args[3] : "upload,verify-content,verify-hash").split(","))
+                .map(String::trim)
+                .toList();
+        
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            
+            boolean virtualThreads = runtimeThreads(client, baseUrl).path("virtualThreadsEnabled").asBoolean();
+            String mode = virtualThreads ? "virtual" : "platform";
+            System.out.printf("Server mode: %s threads%n", mode);
+            System.out.printf("%-16s %-12s %10s %10s %10s %10s %12s %10s%n",
+                    "scenario", "clients", "requests", "errors", "p50 ms", "p99 ms", "req/s", "peak thr");
+            
+            ArrayNode results = OBJECT_MAPPER.createArrayNode();
+            for (String scenario : scenarios) {
+                Supplier<HttpRequest> requests = requests(client, baseUrl, scenario);
+                for (int concurrency : concurrencyLevels) {
+                    ObjectNode result = run(client, baseUrl, requests, concurrency, duration);
+                    result.put("scenario", scenario);
+                    result.put("mode", mode);
+                    results.add(result);
+                    System.out.printf("%-16s %-12d %10d %10d %10.1f %10.1f %12.1f %10d%n",
+                            scenario,
+                            concurrency,
+                            result.get("requests").asLong(),
+                            result.get("errors").asLong(),
+                            result.get("p50Millis").asDouble(),
+                            result.get("p99Millis").asDouble(),
+                            result.get("throughputPerSecond").asDouble(),
+                            result.get("peakPlatformThreads").asInt());
+                }
+            }
+            
+            Path output = Path.of("build", "results", "loadtest", mode + "-" + Instant.now().getEpochSecond() + ".json");
+            Files.createDirectories(output.getParent());
+            OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), results);
+            System.out.println("Results written to " + output.toAbsolutePath());
+        }
+    }
+    
+    /**
+     * Source of the requests one scenario sends; called concurrently by every client
+     */
+    private static Supplier<HttpRequest> requests(HttpClient client, String baseUrl, String scenario)
+            throws IOException, InterruptedException {
+        return switch (scenario) {
+            case "upload" -> () -> upload(baseUrl, randomContent());
+            case "verify-content" -> {
+                List<byte[]> contents = uploadedContents(client, baseUrl);
+                System.out.printf("Verifying the content of %d uploaded file(s)%n", contents.size());
+                yield () -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/files/verify"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/octet-stream")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(
+                                contents.get(ThreadLocalRandom.current().nextInt(contents.size()))))
+                        .build();
+            }
+            case "verify-hash" -> {
+                List<String> hashes = registeredHashes(client, baseUrl);
+                System.out.printf("Verifying %d registered hash(es)%n", hashes.size());
+                yield () -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/files/verify/"
+                                + hashes.get(ThreadLocalRandom.current().nextInt(hashes.size()))))
+                        .timeout(REQUEST_TIMEOUT)
+                        .GET()
+                        .build();
+            }
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+    }
+    
+    private static ObjectNode run(HttpClient client, String baseUrl, Supplier<HttpRequest> requests,
+                                  int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        LatencyRecorder[] recorders = new LatencyRecorder[concurrency];
+        AtomicLong errors = new AtomicLong();
+        AtomicInteger peakPlatformThreads = new AtomicInteger();
+        
+        Thread sampler = Thread.ofVirtual().start(() -> {
+            while (System.nanoTime() < deadline) {
+                try {
+                    int threads = runtimeThreads(client, baseUrl).path("platformThreads").asInt();
+                    peakPlatformThreads.accumulateAndGet(threads, Math::max);
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    // Sampling is best effort while the server is saturated
+                }
+            }
+        });
+        
+        List<Thread> clients = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders[i] = recorder;
+            clients.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = requests.get();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    }
+                    recorder.record(System.nanoTime() - start);
+                }
+            }));
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        sampler.join();
+        
+        long[] latencies = LatencyRecorder.merge(recorders);
+        Arrays.sort(latencies);
+        ObjectNode result = OBJECT_MAPPER.createObjectNode();
+        result.put("concurrency", concurrency);
+        result.put("requests", latencies.length);
+        result.put("errors", errors.get());
+        result.put("p50Millis", percentile(latencies, 0.50) / 1e6);
+        result.put("p99Millis", percentile(latencies, 0.99) / 1e6);
+        result.put("maxMillis", latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        result.put("throughputPerSecond", latencies.length / (double) duration.toSeconds());
+        result.put("peakPlatformThreads", peakPlatformThreads.get());
+        return result;
+    }
+    
+    private static List<String> registeredHashes(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        JsonNode files = get(client, baseUrl + "/api/v1/files/all?limit=1000");
+        List<String> hashes = new ArrayList<>();
+        for (JsonNode file : files) {
+            hashes.add(file.path("poseidonHash").asText());
+            if (hashes.size() == 1000) {
+                break;
+            }
+        }
+        if (hashes.isEmpty()) {
+            // Nothing registered yet: exercise the "not registered" path instead
+            for (int i = 1; i <= 1000; i++) {
+                hashes.add("0x" + Integer.toHexString(i));
+            }
+        }
+        return hashes;
+    }
+    
+    /**
+     * Upload fresh content and keep what was accepted, so verifying it walks the whole
+     * lookup path instead of exiting early on an unknown prefix
+     */
+    private static List<byte[]> uploadedContents(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        List<byte[]> contents = new ArrayList<>(VERIFY_CONTENT_FILES);
+        for (int i = 0; i < VERIFY_CONTENT_FILES; i++) {
+            byte[] content = randomContent();
+            if (client.send(upload(baseUrl, content), HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                contents.add(content);
+            }
+        }
+        if (contents.isEmpty()) {
+            throw new IllegalStateException("No upload was accepted, cannot verify uploaded content");
+        }
+        return contents;
+    }
+    
+    private static HttpRequest upload(String baseUrl, byte[] content) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // 62 hex digits stay below the felt252 modulus
+        String author = "0x" + HexFormat.of().formatHex(randomBytes(31));
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 512);
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"authorAddress\"\r\n\r\n"
+                + author + "\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"load-" + random.nextLong(Long.MAX_VALUE) + ".bin\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/files/upload"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+    
+    private static byte[] randomContent() {
+        return randomBytes(CONTENT_SIZE);
+    }
+    
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+    
+    private static JsonNode runtimeThreads(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        return get(client, baseUrl + "/api/v1/runtime/threads");
+    }
+    
+    private static JsonNode get(HttpClient client, String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET().build();
+        return OBJECT_MAPPER.readTree(client.send(request, HttpResponse.BodyHandlers.ofByteArray()).body());
+    }
+    
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+    
+    /**
+     * Per-verifier latency log, so recording needs no synchronization
+     */
+    private static class LatencyRecorder {
+        
+        private long[] latencies = new long[256];
+        private int count;
+        
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+        
+        static long[] merge(LatencyRecorder[] recorders) {
+            int total = 0;
+            for (LatencyRecorder recorder : recorders) {
+                total += recorder.count;
+            }
+            long[] merged = new long[total];
+            int offset = 0;
+            for (LatencyRecorder recorder : recorders) {
+                System.arraycopy(recorder.latencies, 0, merged, offset, recorder.count);
+                offset += recorder.count;
+            }
+            return merged;
+        }
+    }
+}
\ No newline at end of file
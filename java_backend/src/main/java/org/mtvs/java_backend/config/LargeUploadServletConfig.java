@@ -0,0 +1,41 @@
+package org.mtvs.java_backend.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Second dispatcher servlet for the bulk and chunked upload paths. The container applies
+ * multipart limits per servlet, so these two get {@code upload.large.*} while every other
+ * multipart request keeps the small {@code spring.servlet.multipart.*} limits and cannot
+ * spool more than a plain upload to disk. Both servlets share the application context.
+ */
+@Configuration
+public class LargeUploadServletConfig {
+    
+    public static final String BULK_UPLOAD_PATH = "/api/v1/files/upload/bulk";
+    public static final String CHUNKED_UPLOAD_PATH = "/api/v1/files/upload/chunked";
+    
+    @Bean
+    public ServletRegistrationBean<DispatcherServlet> largeUploadServlet(
+            WebApplicationContext context,
+            MultipartProperties multipart,
+            @Value("${upload.large.max-file-size:64GB}") DataSize maxFileSize,
+            @Value("${upload.large.max-request-size:64GB}") DataSize maxRequestSize) {
+        ServletRegistrationBean<DispatcherServlet> registration =
+                new ServletRegistrationBean<>(new DispatcherServlet(context), BULK_UPLOAD_PATH, CHUNKED_UPLOAD_PATH);
+        registration.setName("largeUploadDispatcherServlet");
+        registration.setMultipartConfig(new MultipartConfigElement(
+                multipart.getLocation(),
+                maxFileSize.toBytes(),
+                maxRequestSize.toBytes(),
+                (int) multipart.getFileSizeThreshold().toBytes()));
+        return registration;
+    }
+}
\ No newline at end of file
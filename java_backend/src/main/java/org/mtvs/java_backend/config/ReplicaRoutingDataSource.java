@@ -0,0 +1,153 @@
+package org.mtvs.java_backend.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. Replicas
+ * are polled for replication lag; one that is behind by more than {@code maxLag}, or cannot
+ * be reached, is skipped until it catches up, and with no usable replica reads fall back to
+ * the primary. Replicas start out unusable until their first lag check.
+ * <p>
+ * Wrap it in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager asks for a connection before the read-only flag is published,
+ * the proxy defers that until the first statement.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+    
+    static final String PRIMARY = "primary";
+    
+    // Zero when the replica has replayed everything it received (an idle primary sends nothing)
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+    
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryFallbacks = new AtomicLong();
+    
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            targets.put(name, dataSource);
+            this.replicas.add(new Replica(name, dataSource));
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.maxLag = maxLag;
+        // Resolve the targets now so the instance also works outside a container
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.usable) {
+                replicaReads.incrementAndGet();
+                return replica.name;
+            }
+        }
+        primaryFallbacks.incrementAndGet();
+        return PRIMARY;
+    }
+    
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval:2s}")
+    public void checkLag() {
+        replicas.forEach(this::check);
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("datasource.replica.usable", replica, r -> r.usable ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+        FunctionCounter.builder("datasource.read-only.routed", replicaReads, AtomicLong::get)
+                .tag("target", "replica")
+                .register(registry);
+        FunctionCounter.builder("datasource.read-only.routed", primaryFallbacks, AtomicLong::get)
+                .tag("target", "primary-fallback")
+                .register(registry);
+    }
+    
+    /**
+     * Close the replica pools; the primary is a bean of its own
+     */
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica pool {}: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void check(Replica replica) {
+        boolean wasUsable = replica.usable;
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(1);
+            try (ResultSet result = statement.executeQuery(LAG_QUERY)) {
+                result.next();
+                replica.lagSeconds = result.getDouble(1);
+            }
+            replica.usable = replica.lagSeconds * 1000 <= maxLag.toMillis();
+        } catch (SQLException e) {
+            replica.lagSeconds = Double.NaN;
+            replica.usable = false;
+        }
+        if (wasUsable != replica.usable) {
+            log.warn("Replica {} {} the read rotation (lag {}s)", replica.name,
+                    replica.usable ? "joined" : "left", replica.lagSeconds);
+        }
+    }
+    
+    private static final class Replica {
+        
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean usable;
+        private volatile double lagSeconds = Double.NaN;
+        
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
\ No newline at end of file
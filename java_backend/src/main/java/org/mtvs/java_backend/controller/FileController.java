@@ -1,39 +1,100 @@
 package org.mtvs.java_backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.dto.BulkUploadResult;
+import org.mtvs.java_backend.dto.FileChunkInfo;
+import org.mtvs.java_backend.dto.FilePage;
 import org.mtvs.java_backend.dto.FileUploadResponse;
 import org.mtvs.java_backend.dto.FileVerificationResponse;
+import org.mtvs.java_backend.service.BlobStore;
+import org.mtvs.java_backend.service.BulkUploadService;
 import org.mtvs.java_backend.service.FileService;
+import org.mtvs.java_backend.service.HashIndexExporter;
+import org.mtvs.java_backend.service.RegistrationFeed;
+import org.mtvs.java_backend.service.UploadAdmission;
+import org.mtvs.java_backend.service.UploadRejectedException;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/files")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*") // For demo purposes, configure properly in production
+@CrossOrigin(origins = "*", exposedHeaders = {"X-Next-Cursor", "Retry-After"}) // For demo purposes, configure properly in production
 public class FileController {
     
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // Tomcat sends a file set in these request attributes with sendfile once the handler returns
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
     private final FileService fileService;
+    private final BulkUploadService bulkUploadService;
+    private final HashIndexExporter hashIndexExporter;
+    private final UploadAdmission uploadAdmission;
+    private final RegistrationFeed registrationFeed;
+    private final ObjectMapper objectMapper;
     
+    /**
+     * Upload one file. With {@code chunked=true} large files are accepted and hashed as a
+     * Merkle tree of content-defined chunks; {@code baseHash} names an earlier chunked upload
+     * this file was edited from, so its unchanged chunks are not hashed again.
+     * <p>
+     * Requests to this path are limited to a plain upload's size; send large files to
+     * {@code /upload/chunked}. Send {@code authorAddress} as a query parameter to have the
+     * request admitted or rejected before its body is read (see {@link UploadAdmissionFilter}).
+     */
     @PostMapping("/upload")
     public ResponseEntity<?> uploadFile(
             @RequestParam("file") MultipartFile file,
-            @RequestParam("authorAddress") String authorAddress) {
+            @RequestParam("authorAddress") String authorAddress,
+            @RequestParam(value = "chunked", defaultValue = "false") boolean chunked,
+            @RequestParam(value = "baseHash", required = false) String baseHash,
+            @RequestAttribute(value = UploadAdmission.AUTHOR_CHECKED, required = false) Boolean authorChecked) {
         
         try {
-            log.info("Uploading file: {} from author: {}", file.getOriginalFilename(), authorAddress);
+            log.info("Uploading file: {} from author: {}{}", file.getOriginalFilename(), authorAddress, chunked ? " (chunked)" : "");
             
-            FileUploadResponse response = fileService.uploadFile(file, authorAddress);
+            Felt252 author = felt("authorAddress", authorAddress);
+            if (authorChecked == null) {
+                uploadAdmission.checkAuthor(author);
+            }
+            FileUploadResponse response = chunked
+                    ? fileService.uploadChunkedFile(file, author, baseHash != null ? felt("baseHash", baseHash) : null)
+                    : fileService.uploadFile(file, author);
             return ResponseEntity.ok(response);
             
+        } catch (UploadRejectedException e) {
+            return rejected(e).body(Map.of("error", e.getMessage()));
+            
         } catch (IllegalArgumentException e) {
             log.error("Validation error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -50,28 +111,447 @@ public class FileController {
         }
     }
     
+    /**
+     * Upload one large file as a Merkle tree of content-defined chunks, the same as
+     * {@code /upload?chunked=true} but served with the large multipart limits
+     * (see {@link org.mtvs.java_backend.config.LargeUploadServletConfig})
+     */
+    @PostMapping("/upload/chunked")
+    public ResponseEntity<?> uploadChunkedFile(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("authorAddress") String authorAddress,
+            @RequestParam(value = "baseHash", required = false) String baseHash,
+            @RequestAttribute(value = UploadAdmission.AUTHOR_CHECKED, required = false) Boolean authorChecked) {
+        return uploadFile(file, authorAddress, true, baseHash, authorChecked);
+    }
+    
+    /**
+     * Upload many files and/or zip, tar and tar.gz archives at once. One NDJSON line
+     * per file is streamed back as its batch is stored.
+     */
+    @PostMapping(value = "/upload/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<BulkUploadResult>> uploadBulk(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "archives", required = false) List<MultipartFile> archives,
+            @RequestParam("authorAddress") String authorAddress,
+            @RequestAttribute(value = UploadAdmission.AUTHOR_CHECKED, required = false) Boolean authorChecked) {
+        
+        files = files != null ? files : List.of();
+        archives = archives != null ? archives : List.of();
+        if ((files.isEmpty() && archives.isEmpty()) || !Felt252.isValid(authorAddress)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (authorChecked == null) {
+            try {
+                uploadAdmission.checkAuthor(Felt252.fromHex(authorAddress));
+            } catch (UploadRejectedException e) {
+                return rejected(e).build();
+            }
+        }
+        
+        log.info("Bulk uploading {} file(s) and {} archive(s) from author: {}", files.size(), archives.size(), authorAddress);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bulkUploadService.upload(files, archives, Felt252.fromHex(authorAddress)));
+    }
+    
     @GetMapping("/verify/{poseidonHash}")
-    public ResponseEntity<FileVerificationResponse> verifyFile(@PathVariable String poseidonHash) {
+    public Mono<ResponseEntity<?>> verifyFile(@PathVariable String poseidonHash) {
         log.info("Verifying file with hash: {}", poseidonHash);
         
-        FileVerificationResponse response = fileService.verifyFile(poseidonHash);
-        return ResponseEntity.ok(response);
+        Felt252 hash;
+        try {
+            hash = felt("poseidonHash", poseidonHash);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", e.getMessage())));
+        }
+        return fileService.verifyFileReactive(hash)
+                .map(ResponseEntity::ok);
+    }
+    
+    @GetMapping("/{poseidonHash}/chunks")
+    public ResponseEntity<?> getChunks(@PathVariable String poseidonHash) {
+        try {
+            List<FileChunkInfo> chunks = fileService.getChunks(felt("poseidonHash", poseidonHash));
+            if (chunks.isEmpty()) {
+                return notChunked();
+            }
+            return ResponseEntity.ok(chunks);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Merkle inclusion proof of one chunk against the file's registered hash
+     */
+    @GetMapping("/{poseidonHash}/chunks/{index}/proof")
+    public ResponseEntity<?> getChunkProof(@PathVariable String poseidonHash, @PathVariable int index) {
+        try {
+            return fileService.getChunkProof(felt("poseidonHash", poseidonHash), index)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(FileController::notChunked);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Verify a byte range of a chunked file; {@code offset} must be a chunk start and only
+     * the chunks the range covers are hashed
+     */
+    @PostMapping("/{poseidonHash}/chunks/verify")
+    public ResponseEntity<?> verifyChunkRange(
+            @PathVariable String poseidonHash,
+            @RequestParam("offset") long offset,
+            @RequestParam("file") MultipartFile range) {
+        try {
+            return fileService.verifyChunkRange(felt("poseidonHash", poseidonHash), offset, range)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(FileController::notChunked);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            log.error("IO error during range verification: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to process file"));
+        }
     }
     
+    /**
+     * Download the stored content of a file (needs a blob store, see {@code blob-store.type}).
+     * A single byte range may be requested; the hash doubles as a strong ETag.
+     */
+    @GetMapping("/{poseidonHash}/content")
+    public ResponseEntity<?> downloadContent(
+            @PathVariable String poseidonHash,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            HttpServletRequest request) {
+        Felt252 hash;
+        FileService.StoredContent content;
+        try {
+            hash = felt("poseidonHash", poseidonHash);
+            content = fileService.openContent(hash).orElse(null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            log.error("IO error opening stored content: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to read file"));
+        }
+        if (content == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Content of this file is not stored"));
+        }
+        
+        BlobStore.Blob blob = content.blob();
+        long size = blob.size();
+        long start = 0;
+        long end = size - 1;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        // Several ranges are answered with the whole content, which RFC 9110 allows
+        List<HttpRange> ranges;
+        try {
+            ranges = range != null ? HttpRange.parseRanges(range) : List.of();
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(size);
+                end = ranges.get(0).getRangeEnd(size);
+                response = ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        } catch (IllegalArgumentException e) {
+            closeQuietly(blob);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+        
+        long length = end - start + 1;
+        String hex = HexFormat.of().formatHex(hash.toBytes());
+        // Always an attachment: the type was chosen by the uploader and must not render inline
+        response.header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag("\"" + hex + "\"")
+                .contentType(mediaType(content.fileType()))
+                .contentLength(length)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(content.filename() != null ? content.filename() : hex, StandardCharsets.UTF_8)
+                        .build()
+                        .toString());
+        
+        if (blob.path().isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // The container copies the file to the socket in the kernel
+            request.setAttribute(SENDFILE_FILENAME, blob.path().get().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            closeQuietly(blob);
+            return response.build();
+        }
+        long from = start;
+        StreamingResponseBody body = out -> {
+            try (blob) {
+                blob.transferTo(from, length, Channels.newChannel(out));
+            }
+        };
+        return response.body(body);
+    }
+    
+    /**
+     * Verify a file by its content: the raw body (chunked transfer encoding is fine) is
+     * hashed as it arrives and never stored. Set {@code chunked=true} for files uploaded in
+     * chunked mode, whose registered hash is a Merkle root.
+     */
+    @PostMapping(value = "/verify", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> verifyContent(
+            InputStream body,
+            @RequestParam(value = "chunked", defaultValue = "false") boolean chunked) {
+        try {
+            return ResponseEntity.ok(fileService.verifyContent(body, chunked));
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+            
+        } catch (IOException e) {
+            log.error("IO error during content verification: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to process file"));
+        }
+    }
+    
+    /**
+     * A page of files, newest first. The cursor for the next page is returned in the
+     * X-Next-Cursor header, so the body keeps its plain list shape.
+     */
     @GetMapping("/all")
-    public ResponseEntity<List<FileVerificationResponse>> getAllFiles() {
-        log.info("Retrieving all files");
+    public ResponseEntity<?> getAllFiles(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        log.info("Retrieving files page, cursor: {}", cursor);
         
-        List<FileVerificationResponse> files = fileService.getAllFiles();
-        return ResponseEntity.ok(files);
+        try {
+            return pageResponse(fileService.getAllFiles(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Search by name terms ({@code q}, each also matching as a prefix), content type
+     * ({@code image/png} or {@code image/*}) and hash prefix; any combination, best match
+     * first. Paged like {@code /all}, with the next cursor in the response header.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchFiles(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "hash", required = false) String hashPrefix,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return pageResponse(fileService.searchFiles(query, type, hashPrefix, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/author/{authorAddress}")
-    public ResponseEntity<List<FileVerificationResponse>> getFilesByAuthor(@PathVariable String authorAddress) {
-        log.info("Retrieving files for author: {}", authorAddress);
+    public ResponseEntity<?> getFilesByAuthor(
+            @PathVariable String authorAddress,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        log.info("Retrieving files page for author: {}, cursor: {}", authorAddress, cursor);
+        
+        try {
+            return pageResponse(fileService.getFilesByAuthor(felt("authorAddress", authorAddress), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * An author's totals for dashboards: file count, bytes, latest upload and files per
+     * type, read from the maintained aggregate instead of the author's rows
+     */
+    @GetMapping("/author/{authorAddress}/summary")
+    public ResponseEntity<?> getAuthorSummary(@PathVariable String authorAddress) {
+        try {
+            return ResponseEntity.ok(fileService.getAuthorSummary(felt("authorAddress", authorAddress)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Server-sent events of files as they are stored, instead of polling {@code /all}. Each
+     * {@code registration} event's id is its sequence: reconnecting with {@code Last-Event-ID}
+     * (which EventSource does by itself) or {@code after} replays what was missed. A
+     * {@code reset} event means that position is gone; reload the list, then resume from the
+     * {@code lastSequence} it carries.
+     */
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> registrationFeed(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(value = "after", required = false) Long after) {
+        return registrationFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+    
+    /**
+     * Every file as NDJSON, written row by row while the database cursor advances
+     */
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllFiles() {
+        log.info("Streaming all files");
+        
+        return ndjsonResponse(fileService::streamAllFiles);
+    }
+    
+    @GetMapping(value = "/author/{authorAddress}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFilesByAuthor(@PathVariable String authorAddress) {
+        log.info("Streaming files for author: {}", authorAddress);
         
-        List<FileVerificationResponse> files = fileService.getFilesByAuthor(authorAddress);
-        return ResponseEntity.ok(files);
+        if (!Felt252.isValid(authorAddress)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Felt252 author = Felt252.fromHex(authorAddress);
+        return ndjsonResponse(consumer -> fileService.streamFilesByAuthor(author, consumer));
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(fileService.getVerificationCacheStats());
+    }
+    
+    @GetMapping("/chain-index/stats")
+    public ResponseEntity<Map<String, Object>> chainIndexStats() {
+        return ResponseEntity.ok(fileService.getChainIndexStats());
+    }
+    
+    @GetMapping("/hash-filter/stats")
+    public ResponseEntity<Map<String, Object>> hashFilterStats() {
+        return ResponseEntity.ok(fileService.getRegisteredHashFilterStats());
+    }
+    
+    @GetMapping("/prefix-filter/stats")
+    public ResponseEntity<Map<String, Object>> prefixFilterStats() {
+        return ResponseEntity.ok(fileService.getKnownPrefixFilterStats());
+    }
+    
+    @GetMapping("/admission/stats")
+    public ResponseEntity<Map<String, Object>> admissionStats() {
+        return ResponseEntity.ok(uploadAdmission.stats());
+    }
+    
+    @GetMapping("/blob-store/stats")
+    public ResponseEntity<Map<String, Object>> blobStoreStats() {
+        return ResponseEntity.ok(fileService.getBlobStoreStats());
+    }
+    
+    @GetMapping("/search/stats")
+    public ResponseEntity<Map<String, Object>> searchIndexStats() {
+        return ResponseEntity.ok(fileService.getSearchIndexStats());
+    }
+    
+    @GetMapping("/feed/stats")
+    public ResponseEntity<Map<String, Object>> feedStats() {
+        return ResponseEntity.ok(registrationFeed.stats());
+    }
+    
+    @GetMapping("/registrations/stats")
+    public ResponseEntity<Map<String, Object>> registrationStats() {
+        return ResponseEntity.ok(fileService.getRegistrationOutboxStats());
+    }
+    
+    @GetMapping("/verification-store/stats")
+    public ResponseEntity<Map<String, Object>> verificationStoreStats() {
+        return ResponseEntity.ok(fileService.getVerificationStoreStats());
+    }
+    
+    /**
+     * Write all records to the hash index file that edge verification nodes map
+     */
+    @PostMapping("/hash-index/export")
+    public ResponseEntity<?> exportHashIndex() {
+        try {
+            return ResponseEntity.ok(hashIndexExporter.export());
+            
+        } catch (Exception e) {
+            log.error("Error exporting hash index: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to export hash index"));
+        }
+    }
+    
+    /**
+     * Parse a felt252 request value; the message ends up in the 400 response
+     */
+    private static Felt252 felt(String name, String value) {
+        try {
+            return Felt252.fromHex(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a felt252 hex value");
+        }
+    }
+    
+    private static ResponseEntity.BodyBuilder rejected(UploadRejectedException e) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(UploadAdmissionFilter.status(e));
+        if (e.retryAfter() != null) {
+            response.header(HttpHeaders.RETRY_AFTER, Long.toString(e.retryAfterSeconds()));
+        }
+        return response;
+    }
+    
+    private static MediaType mediaType(String fileType) {
+        try {
+            return fileType != null ? MediaType.parseMediaType(fileType) : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+    
+    private static void closeQuietly(BlobStore.Blob blob) {
+        try {
+            blob.close();
+        } catch (IOException e) {
+            log.warn("Failed to close blob: {}", e.getMessage());
+        }
+    }
+    
+    private static ResponseEntity<?> notChunked() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", "No chunked upload with this hash"));
+    }
+    
+    private ResponseEntity<List<FileVerificationResponse>> pageResponse(FilePage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getFiles());
+    }
+    
+    private ResponseEntity<StreamingResponseBody> ndjsonResponse(Consumer<Consumer<FileVerificationResponse>> source) {
+        StreamingResponseBody body = out -> {
+            try {
+                source.accept(file -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(file));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Typically the client went away; the read transaction has been rolled back
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
     
     @GetMapping("/health") // health check
@@ -0,0 +1,44 @@
+package org.mtvs.java_backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.mtvs.java_backend.util.VirtualThreadPinningMonitor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/runtime")
+@RequiredArgsConstructor
+public class RuntimeController {
+    
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+    
+    @GetMapping("/threads")
+    public ResponseEntity<Map<String, Object>> threads() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        
+        // ThreadMXBean only counts platform threads
+        Map<String, Object> threads = new LinkedHashMap<>();
+        threads.put("virtualThreadsEnabled", virtualThreadsEnabled);
+        threads.put("platformThreads", threadMXBean.getThreadCount());
+        threads.put("peakPlatformThreads", threadMXBean.getPeakThreadCount());
+        threads.put("daemonThreads", threadMXBean.getDaemonThreadCount());
+        
+        VirtualThreadPinningMonitor monitor = pinningMonitor.getIfAvailable();
+        if (monitor != null) {
+            threads.put("pinnedLocations", monitor.pinnedLocations());
+        }
+        return ResponseEntity.ok(threads);
+    }
+}
\ No newline at end of file
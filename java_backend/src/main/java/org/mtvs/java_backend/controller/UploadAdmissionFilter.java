@@ -0,0 +1,162 @@
+package org.mtvs.java_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.config.LargeUploadServletConfig;
+import org.mtvs.java_backend.service.UploadAdmission;
+import org.mtvs.java_backend.service.UploadRejectedException;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Runs {@link UploadAdmission} on upload requests before the multipart body is parsed, so a
+ * rejected upload is answered without reading it. Only the query string is read here:
+ * {@code getParameter} would make the container parse and spool the whole multipart body.
+ * An {@code authorAddress} sent as a query parameter is checked here, while one sent as a
+ * form field is rate limited by the controller instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+    
+    private static final String UPLOAD_PATH = "/api/v1/files/upload";
+    private static final String BULK_UPLOAD_PATH = LargeUploadServletConfig.BULK_UPLOAD_PATH;
+    private static final String CHUNKED_UPLOAD_PATH = LargeUploadServletConfig.CHUNKED_UPLOAD_PATH;
+    
+    private final UploadAdmission uploadAdmission;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Status for a rejection: 413 when the request is too large, 429 when the author is
+     * over its rate, 503 when the server is full
+     */
+    static HttpStatus status(UploadRejectedException e) {
+        return switch (e.reason()) {
+            case TOO_LARGE -> HttpStatus.PAYLOAD_TOO_LARGE;
+            case RATE_LIMITED -> HttpStatus.TOO_MANY_REQUESTS;
+            case OVERLOADED -> HttpStatus.SERVICE_UNAVAILABLE;
+        };
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod())) {
+            return true;
+        }
+        String path = path(request);
+        return !path.equals(UPLOAD_PATH) && !path.equals(BULK_UPLOAD_PATH) && !path.equals(CHUNKED_UPLOAD_PATH);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Bulk requests are bounded by the multipart request limit only; /upload is served with
+        // the small multipart limits even with chunked=true, so it gets the plain file limit
+        long maxLength = switch (path(request)) {
+            case BULK_UPLOAD_PATH -> Long.MAX_VALUE;
+            case CHUNKED_UPLOAD_PATH -> uploadAdmission.maxRequestSize(true);
+            default -> uploadAdmission.maxRequestSize(false);
+        };
+        Felt252 author = queryAuthor(request);
+        
+        UploadAdmission.Permit permit;
+        try {
+            permit = uploadAdmission.admit(author, request.getContentLengthLong(), maxLength);
+        } catch (UploadRejectedException e) {
+            log.warn("Upload rejected ({}): {}", e.reason(), e.getMessage());
+            reject(response, e);
+            return;
+        }
+        if (author != null) {
+            request.setAttribute(UploadAdmission.AUTHOR_CHECKED, Boolean.TRUE);
+        }
+        
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Bulk uploads stream their results after this thread returns
+                request.getAsyncContext().addListener(new PermitReleasingListener(permit));
+            } else {
+                permit.close();
+            }
+        }
+    }
+    
+    /**
+     * The author from the query string; a missing or malformed value is left to the controller
+     */
+    private static Felt252 queryAuthor(HttpServletRequest request) {
+        String query = request.getQueryString();
+        if (query == null) {
+            return null;
+        }
+        String author = UriComponentsBuilder.newInstance().query(query).build().getQueryParams().getFirst("authorAddress");
+        if (author == null) {
+            return null;
+        }
+        try {
+            return Felt252.fromHex(UriUtils.decode(author, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private void reject(HttpServletResponse response, UploadRejectedException e) throws IOException {
+        response.setStatus(status(e).value());
+        if (e.retryAfter() != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(e.retryAfterSeconds()));
+        }
+        if (e.reason() == UploadRejectedException.Reason.TOO_LARGE) {
+            // The body will not be read, so the connection cannot be reused
+            response.setHeader(HttpHeaders.CONNECTION, "close");
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", e.getMessage()));
+    }
+    
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+    
+    private record PermitReleasingListener(UploadAdmission.Permit permit) implements AsyncListener {
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.close();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.close();
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.close();
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package org.mtvs.java_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.mtvs.java_backend.util.Felt252;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorSummary {
+    
+    private Felt252 authorAddress;
+    private long fileCount;
+    private long totalBytes;
+    
+    // Null until the author has uploaded something
+    private LocalDateTime latestUploadAt;
+    private Felt252 latestPoseidonHash;
+    
+    private Map<String, Long> fileTypes;
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package org.mtvs.java_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.mtvs.java_backend.util.Felt252;
+
+/**
+ * Outcome for one file of a bulk upload, streamed as soon as its batch is stored
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUploadResult {
+    
+    public enum Status {
+        UPLOADED,
+        DUPLICATE,
+        FAILED
+    }
+    
+    private Long id;
+    private String filename;
+    private String fileType;
+    private Long fileSize;
+    private Felt252 poseidonHash;
+    private Status status;
+    private String message;
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package org.mtvs.java_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.PoseidonMerkleTree;
+
+import java.util.List;
+
+/**
+ * Inclusion proof of one chunk: folding {@code chunk.chunkHash} with each sibling in order
+ * ({@code poseidon_hash(sibling, node)} when the sibling is on the left) yields {@code root}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkProof {
+    
+    private Felt252 root;
+    private FileChunkInfo chunk;
+    private List<PoseidonMerkleTree.ProofStep> proof;
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package org.mtvs.java_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.mtvs.java_backend.util.Felt252;
+
+import java.util.List;
+
+/**
+ * Result of checking a byte range of a chunked file against its stored chunk hashes
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkRangeVerification {
+    
+    private Felt252 poseidonHash;
+    private Long offset;
+    private Long length;
+    private Integer chunksChecked;
+    // Chunks whose content differs, including a final chunk the range only partly covers;
+    // the chunk count itself marks bytes past the end of the file
+    private List<Integer> mismatchedChunks;
+    private Boolean verified;
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package org.mtvs.java_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.mtvs.java_backend.util.Felt252;
+
+/**
+ * Position and Merkle leaf of one chunk of a file uploaded in chunked mode
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileChunkInfo {
+    
+    private Integer index;
+    private Long offset;
+    private Integer length;
+    private Felt252 chunkHash;
+}
\ No newline at end of file
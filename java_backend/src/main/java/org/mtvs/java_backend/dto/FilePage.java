@@ -0,0 +1,20 @@
+package org.mtvs.java_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilePage {
+    
+    private List<FileVerificationResponse> files;
+    
+    // Opaque keyset cursor for the next page, null on the last page
+    private String nextCursor;
+}
\ No newline at end of file
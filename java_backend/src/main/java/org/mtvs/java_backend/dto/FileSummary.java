@@ -0,0 +1,25 @@
+package org.mtvs.java_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.mtvs.java_backend.util.Felt252;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listing columns of a file row, selected directly by JPQL constructor expressions
+ * so listings never materialize managed entities
+ */
+@Data
+@AllArgsConstructor
+public class FileSummary {
+    
+    private Long id;
+    private String filename;
+    private String fileType;
+    private Long fileSize;
+    private Felt252 poseidonHash;
+    private Felt252 authorAddress;
+    private Felt252 starknetTxHash;
+    private LocalDateTime createdAt;
+}
\ No newline at end of file
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.mtvs.java_backend.util.Felt252;
 
 import java.time.LocalDateTime;
 
@@ -17,9 +18,11 @@ public class FileUploadResponse {
     private String filename;
     private String fileType;
     private Long fileSize;
-    private String poseidonHash;
-    private String authorAddress;
-    private String starknetTxHash;
+    private Felt252 poseidonHash;
+    private Felt252 authorAddress;
+    private Felt252 starknetTxHash;
     private LocalDateTime createdAt;
+    private Integer chunkCount;
+    private Integer reusedChunks;
     private String message;
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package org.mtvs.java_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.mtvs.java_backend.util.Felt252;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Running totals of an author's files, one row per author. Rows are only written by the
+ * upsert in {@link org.mtvs.java_backend.repository.AuthorStatsRepository}, in the same
+ * transaction as the files they count.
+ */
+@Entity
+@Table(name = "author_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorStatsEntity {
+    
+    // Converters are not applied to ids automatically
+    @Id
+    @Convert(converter = Felt252Converter.class)
+    @Column(name = "author_address", length = Felt252.BYTES)
+    private Felt252 authorAddress;
+    
+    @Column(name = "file_count", nullable = false)
+    private Long fileCount;
+    
+    @Column(name = "total_bytes", nullable = false)
+    private Long totalBytes;
+    
+    @Column(name = "latest_upload_at", nullable = false)
+    private LocalDateTime latestUploadAt;
+    
+    @Column(name = "latest_poseidon_hash", nullable = false, length = Felt252.BYTES)
+    private Felt252 latestPoseidonHash;
+    
+    // File count per file type
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "file_types", nullable = false)
+    private Map<String, Long> fileTypes;
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package org.mtvs.java_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A file registration seen on chain, mirrored from the registry's FileRegistered events
+ */
+@Entity
+@Table(name = "chain_files",
+        indexes = @Index(name = "idx_chain_files_block", columnList = "block_number"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChainFileEntity {
+    
+    @Id
+    @Column(name = "poseidon_hash", length = 66)
+    private String poseidonHash;
+    
+    @Column(name = "author_address", nullable = false, length = 66)
+    private String authorAddress;
+    
+    @Column(nullable = false)
+    private String filename;
+    
+    @Column(name = "file_type", nullable = false)
+    private String fileType;
+    
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+    
+    // Block timestamp of the registration, in seconds
+    @Column(name = "registered_at", nullable = false)
+    private Long registeredAt;
+    
+    @Column(name = "block_number", nullable = false)
+    private Long blockNumber;
+    
+    @Column(name = "block_hash", nullable = false, length = 66)
+    private String blockHash;
+    
+    @Column(name = "transaction_hash", nullable = false, length = 66)
+    private String transactionHash;
+}
\ No newline at end of file
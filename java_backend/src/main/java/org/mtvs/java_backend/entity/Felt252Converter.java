@@ -0,0 +1,23 @@
+package org.mtvs.java_backend.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.mtvs.java_backend.util.Felt252;
+
+/**
+ * Stores {@link Felt252} attributes as 32 big-endian bytes (BYTEA on PostgreSQL)
+ * instead of up to 66 hex characters. Byte-wise order matches numeric order.
+ */
+@Converter(autoApply = true)
+public class Felt252Converter implements AttributeConverter<Felt252, byte[]> {
+    
+    @Override
+    public byte[] convertToDatabaseColumn(Felt252 felt) {
+        return felt != null ? felt.toBytes() : null;
+    }
+    
+    @Override
+    public Felt252 convertToEntityAttribute(byte[] bytes) {
+        return bytes != null ? Felt252.fromBytes(bytes) : null;
+    }
+}
\ No newline at end of file
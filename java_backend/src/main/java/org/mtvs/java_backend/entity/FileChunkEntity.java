@@ -0,0 +1,48 @@
+package org.mtvs.java_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.mtvs.java_backend.util.Felt252;
+
+/**
+ * One content-defined chunk of a file uploaded in chunked mode. The chunk hashes are the
+ * leaves of the Poseidon Merkle tree whose root is the file's registered hash, so proofs
+ * and range checks can be answered without the file.
+ */
+@Entity
+@Table(name = "file_chunks",
+        indexes = @Index(name = "idx_file_chunks_root_index", columnList = "poseidon_hash, chunk_index", unique = true))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileChunkEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "file_chunks_seq")
+    @SequenceGenerator(name = "file_chunks_seq", sequenceName = "file_chunks_id_seq", allocationSize = 50)
+    private Long id;
+    
+    // Merkle root, i.e. the owning file's poseidon_hash
+    @Column(name = "poseidon_hash", nullable = false, length = Felt252.BYTES)
+    private Felt252 poseidonHash;
+    
+    @Column(name = "chunk_index", nullable = false)
+    private Integer chunkIndex;
+    
+    @Column(name = "chunk_offset", nullable = false)
+    private Long chunkOffset;
+    
+    @Column(name = "chunk_length", nullable = false)
+    private Integer chunkLength;
+    
+    @Column(name = "chunk_hash", nullable = false, length = Felt252.BYTES)
+    private Felt252 chunkHash;
+    
+    // Cheap fingerprint used to recognise unchanged chunks without re-running Poseidon
+    @Column(nullable = false, length = 32)
+    private byte[] sha256;
+}
\ No newline at end of file
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.mtvs.java_backend.util.ContentPrefix;
+import org.mtvs.java_backend.util.Felt252;
 
 import java.time.LocalDateTime;
 
@@ -16,8 +18,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class FileEntity {
     
+    // Sequence ids (pre-allocated in blocks) keep Hibernate's JDBC insert batching on
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "files_seq")
+    @SequenceGenerator(name = "files_seq", sequenceName = "files_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -29,14 +33,23 @@ public class FileEntity {
     @Column(name = "file_size", nullable = false)
     private Long fileSize;
     
-    @Column(name = "poseidon_hash", nullable = false, unique = true, length = 66)
-    private String poseidonHash;
+    // Felts are stored as 32 bytes by Felt252Converter
+    @Column(name = "poseidon_hash", nullable = false, unique = true, length = Felt252.BYTES)
+    private Felt252 poseidonHash;
     
-    @Column(name = "author_address", nullable = false, length = 66)
-    private String authorAddress;
+    @Column(name = "author_address", nullable = false, length = Felt252.BYTES)
+    private Felt252 authorAddress;
     
-    @Column(name = "starknet_tx_hash", length = 66)
-    private String starknetTxHash;
+    @Column(name = "starknet_tx_hash", length = Felt252.BYTES)
+    private Felt252 starknetTxHash;
+    
+    // ContentPrefix fingerprint of the first bytes, for the known-prefix filter
+    @Column(name = "content_prefix", length = ContentPrefix.Fingerprint.BYTES)
+    private byte[] contentPrefix;
+    
+    // Set for chunked uploads, whose poseidon_hash is the Merkle root over file_chunks
+    @Column(name = "chunk_count")
+    private Integer chunkCount;
     
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
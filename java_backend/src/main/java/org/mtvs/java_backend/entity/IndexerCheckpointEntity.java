@@ -0,0 +1,40 @@
+package org.mtvs.java_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last block an indexer has fully processed, with its hash for reorg detection
+ */
+@Entity
+@Table(name = "indexer_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexerCheckpointEntity {
+    
+    @Id
+    @Column(length = 64)
+    private String name;
+    
+    @Column(name = "block_number", nullable = false)
+    private Long blockNumber;
+    
+    @Column(name = "block_hash", length = 66)
+    private String blockHash;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
\ No newline at end of file
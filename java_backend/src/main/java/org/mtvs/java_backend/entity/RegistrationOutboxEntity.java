@@ -0,0 +1,78 @@
+package org.mtvs.java_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.mtvs.java_backend.util.Felt252;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Pending on-chain registration, written in the same transaction as the file row
+ * and removed once the registration is accepted on Starknet.
+ */
+@Entity
+@Table(name = "registration_outbox",
+        indexes = @Index(name = "idx_registration_outbox_due", columnList = "status, next_attempt_at"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistrationOutboxEntity {
+    
+    public enum Status {
+        PENDING,
+        // Claimed by a dispatcher until next_attempt_at
+        IN_FLIGHT,
+        FAILED
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registration_outbox_seq")
+    @SequenceGenerator(name = "registration_outbox_seq", sequenceName = "registration_outbox_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "poseidon_hash", nullable = false, unique = true, length = Felt252.BYTES)
+    private Felt252 poseidonHash;
+    
+    @Column(nullable = false)
+    private String filename;
+    
+    @Column(name = "file_type", nullable = false)
+    private String fileType;
+    
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Builder.Default
+    private Status status = Status.PENDING;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+    
+    @Column(name = "attempt_id")
+    private UUID attemptId;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
\ No newline at end of file
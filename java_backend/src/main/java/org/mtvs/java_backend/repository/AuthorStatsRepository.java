@@ -0,0 +1,42 @@
+package org.mtvs.java_backend.repository;
+
+import org.mtvs.java_backend.entity.AuthorStatsEntity;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AuthorStatsRepository extends JpaRepository<AuthorStatsEntity, Felt252> {
+    
+    /**
+     * Add {@code files} files of one type to an author's totals, creating the row on the
+     * author's first upload. Native, so felts are passed as their 32 stored bytes; the
+     * casts let PostgreSQL type the parameters inside the jsonb functions.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO author_stats (author_address, file_count, total_bytes, latest_upload_at,
+                                      latest_poseidon_hash, file_types)
+            VALUES (:author, :files, :bytes, :latestAt, :latestHash,
+                    jsonb_build_object(CAST(:fileType AS text), CAST(:files AS bigint)))
+            ON CONFLICT (author_address) DO UPDATE SET
+                file_count = author_stats.file_count + EXCLUDED.file_count,
+                total_bytes = author_stats.total_bytes + EXCLUDED.total_bytes,
+                latest_poseidon_hash = CASE WHEN EXCLUDED.latest_upload_at >= author_stats.latest_upload_at
+                        THEN EXCLUDED.latest_poseidon_hash ELSE author_stats.latest_poseidon_hash END,
+                latest_upload_at = GREATEST(author_stats.latest_upload_at, EXCLUDED.latest_upload_at),
+                file_types = author_stats.file_types || jsonb_build_object(CAST(:fileType AS text),
+                        COALESCE(CAST(author_stats.file_types ->> CAST(:fileType AS text) AS bigint), 0) + :files)
+            """)
+    int add(@Param("author") byte[] authorAddress,
+            @Param("fileType") String fileType,
+            @Param("files") long files,
+            @Param("bytes") long bytes,
+            @Param("latestAt") LocalDateTime latestAt,
+            @Param("latestHash") byte[] latestPoseidonHash);
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package org.mtvs.java_backend.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.mtvs.java_backend.entity.ChainFileEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface ChainFileRepository extends JpaRepository<ChainFileEntity, String> {
+    
+    /**
+     * Forget registrations from blocks that were reorged away
+     */
+    @Modifying
+    @Query("DELETE FROM ChainFileEntity c WHERE c.blockNumber > :blockNumber")
+    int deleteByBlockNumberGreaterThan(@Param("blockNumber") long blockNumber);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT c.poseidonHash FROM ChainFileEntity c")
+    Stream<String> streamAllHashes();
+}
\ No newline at end of file
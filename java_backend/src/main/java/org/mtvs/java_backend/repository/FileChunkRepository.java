@@ -0,0 +1,14 @@
+package org.mtvs.java_backend.repository;
+
+import org.mtvs.java_backend.entity.FileChunkEntity;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FileChunkRepository extends JpaRepository<FileChunkEntity, Long> {
+    
+    List<FileChunkEntity> findByPoseidonHashOrderByChunkIndex(Felt252 poseidonHash);
+}
\ No newline at end of file
@@ -1,20 +1,102 @@
 package org.mtvs.java_backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.mtvs.java_backend.dto.FileSummary;
 import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FileRepository extends JpaRepository<FileEntity, Long> {
     
-    Optional<FileEntity> findByPoseidonHash(String poseidonHash);
+    String SUMMARY_SELECT = "SELECT new org.mtvs.java_backend.dto.FileSummary(f.id, f.filename, f.fileType, "
+            + "f.fileSize, f.poseidonHash, f.authorAddress, f.starknetTxHash, f.createdAt) FROM FileEntity f ";
     
-    List<FileEntity> findByAuthorAddressOrderByCreatedAtDesc(String authorAddress);
+    String NEWEST_FIRST = " ORDER BY f.createdAt DESC, f.id DESC";
     
-    boolean existsByPoseidonHash(String poseidonHash);
+    // Keyset condition: rows strictly after the cursor row in newest-first order
+    String BEFORE_CURSOR = "(f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id))";
     
-    List<FileEntity> findAllByOrderByCreatedAtDesc();
+    Optional<FileEntity> findByPoseidonHash(Felt252 poseidonHash);
+    
+    boolean existsByPoseidonHash(Felt252 poseidonHash);
+    
+    /**
+     * Which of the given hashes are already stored, in a single IN query
+     */
+    @Query("SELECT f.poseidonHash FROM FileEntity f WHERE f.poseidonHash IN :hashes")
+    List<Felt252> findExistingHashes(@Param("hashes") Collection<Felt252> hashes);
+    
+    @Query(SUMMARY_SELECT + NEWEST_FIRST)
+    List<FileSummary> findFirstPage(Pageable limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<FileSummary> findPageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE f.authorAddress = :author" + NEWEST_FIRST)
+    List<FileSummary> findFirstPageByAuthor(@Param("author") Felt252 authorAddress, Pageable limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE f.authorAddress = :author AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<FileSummary> findPageByAuthorBefore(@Param("author") Felt252 authorAddress,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable limit);
+    
+    /**
+     * Forward-only cursor over all rows; must be consumed inside a transaction and closed
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + NEWEST_FIRST)
+    Stream<FileSummary> streamAll();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + "WHERE f.authorAddress = :author" + NEWEST_FIRST)
+    Stream<FileSummary> streamByAuthor(@Param("author") Felt252 authorAddress);
+    
+    /**
+     * All rows in numeric hash order: hashes are stored as big-endian bytes, which sort numerically
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query(SUMMARY_SELECT + "ORDER BY f.poseidonHash")
+    Stream<FileSummary> streamAllByHash();
+    
+    /**
+     * All rows oldest first, so the search index assigns its ordinals in upload order
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query(SUMMARY_SELECT + "ORDER BY f.id")
+    Stream<FileSummary> streamAllById();
+    
+    @Query(SUMMARY_SELECT + "WHERE f.id IN :ids")
+    List<FileSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT f.poseidonHash FROM FileEntity f")
+    Stream<Felt252> streamAllHashes();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT f.contentPrefix FROM FileEntity f")
+    Stream<byte[]> streamAllContentPrefixes();
+    
+    /**
+     * Store the multicall transaction hash on every file it registered in one statement
+     */
+    @Modifying
+    @Query("UPDATE FileEntity f SET f.starknetTxHash = :txHash, f.updatedAt = :updatedAt WHERE f.poseidonHash IN :hashes")
+    int updateStarknetTxHash(@Param("txHash") Felt252 txHash,
+                             @Param("hashes") Collection<Felt252> hashes,
+                             @Param("updatedAt") LocalDateTime updatedAt);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package org.mtvs.java_backend.repository;
+
+import org.mtvs.java_backend.entity.IndexerCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IndexerCheckpointRepository extends JpaRepository<IndexerCheckpointEntity, String> {
+}
\ No newline at end of file
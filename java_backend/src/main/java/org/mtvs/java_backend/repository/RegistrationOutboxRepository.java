@@ -0,0 +1,33 @@
+package org.mtvs.java_backend.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.mtvs.java_backend.entity.RegistrationOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RegistrationOutboxRepository extends JpaRepository<RegistrationOutboxEntity, Long> {
+    
+    /**
+     * Lock the oldest due registrations, skipping rows another dispatcher already holds
+     * (lock timeout -2 is Hibernate's SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM RegistrationOutboxEntity r WHERE r.status IN :statuses AND r.nextAttemptAt <= :now ORDER BY r.id")
+    List<RegistrationOutboxEntity> findDueForUpdate(@Param("statuses") Collection<RegistrationOutboxEntity.Status> statuses,
+                                                    @Param("now") LocalDateTime now,
+                                                    Pageable pageable);
+    
+    long countByStatus(RegistrationOutboxEntity.Status status);
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package org.mtvs.java_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.mtvs.java_backend.dto.AuthorSummary;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.repository.AuthorStatsRepository;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-author totals (file count, bytes, latest upload, files per type) kept in
+ * {@code author_stats} as files are inserted, so an author's summary is a single
+ * primary-key read however many files they have.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthorStatsService {
+    
+    private final AuthorStatsRepository authorStatsRepository;
+    
+    /**
+     * Add saved files to their authors' totals. Must run in the transaction that inserts
+     * them, so the totals commit or roll back with the rows; one upsert per author and type.
+     */
+    public void record(Collection<FileEntity> files) {
+        Map<Group, Totals> groups = new LinkedHashMap<>();
+        for (FileEntity file : files) {
+            groups.computeIfAbsent(new Group(file.getAuthorAddress(), file.getFileType()), group -> new Totals())
+                    .add(file);
+        }
+        groups.forEach((group, totals) -> authorStatsRepository.add(
+                group.authorAddress().toBytes(),
+                group.fileType(),
+                totals.files,
+                totals.bytes,
+                totals.latest.getCreatedAt(),
+                totals.latest.getPoseidonHash().toBytes()));
+    }
+    
+    public AuthorSummary getSummary(Felt252 authorAddress) {
+        return authorStatsRepository.findById(authorAddress)
+                .map(stats -> AuthorSummary.builder()
+                        .authorAddress(authorAddress)
+                        .fileCount(stats.getFileCount())
+                        .totalBytes(stats.getTotalBytes())
+                        .latestUploadAt(stats.getLatestUploadAt())
+                        .latestPoseidonHash(stats.getLatestPoseidonHash())
+                        .fileTypes(stats.getFileTypes())
+                        .build())
+                .orElseGet(() -> AuthorSummary.builder()
+                        .authorAddress(authorAddress)
+                        .fileTypes(Map.of())
+                        .build());
+    }
+    
+    private record Group(Felt252 authorAddress, String fileType) {
+    }
+    
+    private static final class Totals {
+        
+        private long files;
+        private long bytes;
+        private FileEntity latest;
+        
+        void add(FileEntity file) {
+            files++;
+            bytes += file.getFileSize();
+            if (latest == null || !file.getCreatedAt().isBefore(latest.getCreatedAt())) {
+                latest = file;
+            }
+        }
+    }
+}
\ No newline at end of file
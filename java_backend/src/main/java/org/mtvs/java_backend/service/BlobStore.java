@@ -0,0 +1,66 @@
+package org.mtvs.java_backend.service;
+
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage of uploaded files, keyed by their Poseidon hash. Content is
+ * immutable once stored, and storing a hash that is already present writes nothing.
+ * Selected with {@code blob-store.type}; {@code none} keeps metadata only.
+ */
+public interface BlobStore {
+    
+    default boolean isEnabled() {
+        return true;
+    }
+    
+    /**
+     * Store {@code size} bytes read from {@code content} unless the hash is already stored.
+     * Returns true if the content was written, false if it was already there.
+     */
+    boolean put(Felt252 poseidonHash, InputStream content, long size) throws IOException;
+    
+    /**
+     * Store an uploaded part. A store may take over the file the part was spooled to, so
+     * the part must not be read again once this returns true.
+     */
+    default boolean put(Felt252 poseidonHash, MultipartFile upload) throws IOException {
+        try (InputStream content = upload.getInputStream()) {
+            return put(poseidonHash, content, upload.getSize());
+        }
+    }
+    
+    boolean contains(Felt252 poseidonHash);
+    
+    Optional<Blob> open(Felt252 poseidonHash) throws IOException;
+    
+    Map<String, Object> stats();
+    
+    /**
+     * Stored content opened for reading; close it when done
+     */
+    interface Blob extends Closeable {
+        
+        long size();
+        
+        /**
+         * The file holding the content, when it is one, so the server can send it with sendfile
+         */
+        default Optional<Path> path() {
+            return Optional.empty();
+        }
+        
+        /**
+         * Write {@code count} bytes from {@code position} to the target
+         */
+        void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+    }
+}
\ No newline at end of file
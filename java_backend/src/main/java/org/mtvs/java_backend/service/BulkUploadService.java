@@ -0,0 +1,372 @@
+package org.mtvs.java_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.mtvs.java_backend.dto.BulkUploadResult;
+import org.mtvs.java_backend.dto.FileUploadResponse;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.entity.RegistrationOutboxEntity;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.repository.RegistrationOutboxRepository;
+import org.mtvs.java_backend.util.ContentPrefix;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.PoseidonHashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Uploads many files in one request. Plain files and the entries of zip/tar(.gz) archives
+ * are hashed in parallel on a bounded pool, and their content is kept in the blob store
+ * while it is still at hand. Then they are stored in batches: one IN query finds the
+ * hashes that already exist and the new rows go out as JDBC batch inserts.
+ * Results are emitted batch by batch so the client sees progress while the rest hashes.
+ */
+@Slf4j
+@Service
+public class BulkUploadService {
+    
+    static final String DEFAULT_FILE_TYPE = "application/octet-stream";
+    
+    private final FileRepository fileRepository;
+    private final RegistrationOutboxRepository outboxRepository;
+    private final PoseidonHashUtil poseidonHashUtil;
+    private final VerificationCache verificationCache;
+    private final RegisteredHashFilter registeredHashFilter;
+    private final KnownPrefixFilter knownPrefixFilter;
+    private final FileRecordStore fileRecordStore;
+    private final AuthorStatsService authorStatsService;
+    private final FileSearchIndex fileSearchIndex;
+    private final RegistrationFeed registrationFeed;
+    private final BlobStore blobStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Scheduler hashScheduler;
+    private final int parallelism;
+    private final int batchSize;
+    private final Duration batchWindow;
+    
+    public BulkUploadService(
+            FileRepository fileRepository,
+            RegistrationOutboxRepository outboxRepository,
+            PoseidonHashUtil poseidonHashUtil,
+            VerificationCache verificationCache,
+            RegisteredHashFilter registeredHashFilter,
+            KnownPrefixFilter knownPrefixFilter,
+            FileRecordStore fileRecordStore,
+            AuthorStatsService authorStatsService,
+            FileSearchIndex fileSearchIndex,
+            RegistrationFeed registrationFeed,
+            BlobStore blobStore,
+            TransactionTemplate transactionTemplate,
+            @Value("${bulk-upload.parallelism:0}") int parallelism,
+            @Value("${bulk-upload.batch-size:100}") int batchSize,
+            @Value("${bulk-upload.batch-window:200ms}") Duration batchWindow) {
+        this.fileRepository = fileRepository;
+        this.outboxRepository = outboxRepository;
+        this.poseidonHashUtil = poseidonHashUtil;
+        this.verificationCache = verificationCache;
+        this.registeredHashFilter = registeredHashFilter;
+        this.knownPrefixFilter = knownPrefixFilter;
+        this.fileRecordStore = fileRecordStore;
+        this.authorStatsService = authorStatsService;
+        this.fileSearchIndex = fileSearchIndex;
+        this.registrationFeed = registrationFeed;
+        this.blobStore = blobStore;
+        this.transactionTemplate = transactionTemplate;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.batchWindow = batchWindow;
+        this.hashScheduler = Schedulers.newParallel("bulk-hash", this.parallelism);
+    }
+    
+    public Flux<BulkUploadResult> upload(List<MultipartFile> files, List<MultipartFile> archives, Felt252 authorAddress) {
+        Flux<BulkEntry> entries = Flux.concat(
+                        Flux.fromIterable(files).map(this::fileEntry),
+                        Flux.fromIterable(archives).concatMap(this::archiveEntries))
+                // Archive reading blocks, keep it off the request and hashing threads
+                .subscribeOn(Schedulers.boundedElastic());
+        
+        // At most `parallelism` entries are held in memory while they hash
+        return entries
+                .flatMap(entry -> Mono.fromCallable(() -> hash(entry)).subscribeOn(hashScheduler), parallelism)
+                .bufferTimeout(batchSize, batchWindow)
+                .concatMap(batch -> Mono.fromCallable(() -> store(batch, authorAddress))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMapIterable(results -> results);
+    }
+    
+    @PreDestroy
+    public void close() {
+        hashScheduler.dispose();
+    }
+    
+    private BulkEntry fileEntry(MultipartFile file) {
+        String fileType = file.getContentType() != null ? file.getContentType() : DEFAULT_FILE_TYPE;
+        return new BulkEntry(file.getOriginalFilename(), fileType, file.getSize(), file::getInputStream, file,
+                validate(file.getSize()));
+    }
+    
+    /**
+     * Stream the file entries of one archive; an unreadable archive yields a single failed result
+     */
+    private Flux<BulkEntry> archiveEntries(MultipartFile archive) {
+        return Flux.<BulkEntry, ArchiveInputStream<?>>using(
+                        () -> openArchive(archive),
+                        in -> Flux.<BulkEntry>generate(sink -> {
+                            try {
+                                ArchiveEntry entry = nextFileEntry(in);
+                                if (entry == null) {
+                                    sink.complete();
+                                } else {
+                                    sink.next(readEntry(in, entry));
+                                }
+                            } catch (IOException e) {
+                                sink.error(e);
+                            }
+                        }),
+                        in -> {
+                            try {
+                                in.close();
+                            } catch (IOException e) {
+                                log.warn("Failed to close archive {}: {}", archive.getOriginalFilename(), e.getMessage());
+                            }
+                        })
+                .onErrorResume(e -> {
+                    log.error("Failed to read archive {}: {}", archive.getOriginalFilename(), e.getMessage());
+                    return Mono.just(new BulkEntry(archive.getOriginalFilename(), archive.getContentType(),
+                            archive.getSize(), null, null, "Failed to read archive"));
+                });
+    }
+    
+    private ArchiveInputStream<?> openArchive(MultipartFile archive) throws IOException, ArchiveException {
+        InputStream in = new BufferedInputStream(archive.getInputStream());
+        String name = archive.getOriginalFilename() != null
+                ? archive.getOriginalFilename().toLowerCase(Locale.ROOT)
+                : "";
+        if (name.endsWith(".gz") || name.endsWith(".tgz")) {
+            in = new BufferedInputStream(new GZIPInputStream(in));
+        }
+        // Detects zip or tar from the leading bytes
+        return new ArchiveStreamFactory().createArchiveInputStream(in);
+    }
+    
+    private static ArchiveEntry nextFileEntry(ArchiveInputStream<?> in) throws IOException {
+        ArchiveEntry entry;
+        while ((entry = in.getNextEntry()) != null) {
+            if (!entry.isDirectory() && in.canReadEntryData(entry)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Entries have to be read in archive order, so each one is copied out before it is
+     * handed to the hashing pool. Oversized entries are not buffered past the limit.
+     */
+    private static BulkEntry readEntry(ArchiveInputStream<?> in, ArchiveEntry entry) throws IOException {
+        String name = entry.getName();
+        String guessedType = URLConnection.guessContentTypeFromName(name);
+        String fileType = guessedType != null ? guessedType : DEFAULT_FILE_TYPE;
+        
+        byte[] content = in.readNBytes((int) FileService.MAX_FILE_SIZE + 1);
+        return new BulkEntry(name, fileType, content.length, () -> new ByteArrayInputStream(content), null,
+                validate(content.length));
+    }
+    
+    private static String validate(long fileSize) {
+        if (fileSize > FileService.MAX_FILE_SIZE) {
+            return "File size exceeds 10MB limit";
+        }
+        if (fileSize == 0) {
+            return "File cannot be empty";
+        }
+        return null;
+    }
+    
+    private HashedEntry hash(BulkEntry entry) {
+        if (entry.rejection() != null) {
+            return new HashedEntry(entry.filename(), entry.fileType(), entry.fileSize(), null, null, entry.rejection());
+        }
+        ContentPrefix prefix = new ContentPrefix();
+        Felt252 poseidonHash;
+        try (InputStream in = prefix.recording(entry.content().call())) {
+            poseidonHash = poseidonHashUtil.generatePoseidonFelt(in);
+        } catch (Exception e) {
+            log.error("Failed to hash {}: {}", entry.filename(), e.getMessage());
+            return new HashedEntry(entry.filename(), entry.fileType(), entry.fileSize(), null, null, "Failed to process file");
+        }
+        // As for single uploads, before the duplicate check so content that was not kept is filled in
+        if (blobStore.isEnabled()) {
+            try {
+                keepContent(poseidonHash, entry);
+            } catch (Exception e) {
+                log.error("Failed to store content of {}: {}", entry.filename(), e.getMessage());
+                return new HashedEntry(entry.filename(), entry.fileType(), entry.fileSize(), null, null, "Failed to store file");
+            }
+        }
+        return new HashedEntry(entry.filename(), entry.fileType(), entry.fileSize(), poseidonHash,
+                prefix.fingerprint(), null);
+    }
+    
+    /**
+     * Uploaded parts go to the blob store as they are, so it can take over their spooled
+     * files; archive entries are already on the heap and are streamed in
+     */
+    private void keepContent(Felt252 poseidonHash, BulkEntry entry) throws Exception {
+        if (entry.upload() != null) {
+            blobStore.put(poseidonHash, entry.upload());
+            return;
+        }
+        try (InputStream content = entry.content().call()) {
+            blobStore.put(poseidonHash, content, entry.fileSize());
+        }
+    }
+    
+    private List<BulkUploadResult> store(List<HashedEntry> batch, Felt252 authorAddress) {
+        List<Felt252> hashes = batch.stream()
+                .filter(entry -> entry.poseidonHash() != null)
+                .map(HashedEntry::poseidonHash)
+                .distinct()
+                .toList();
+        
+        List<FileEntity> stored = new ArrayList<>();
+        List<BulkUploadResult> results;
+        try {
+            results = transactionTemplate.execute(status -> storeBatch(batch, hashes, authorAddress, stored));
+        } catch (DataAccessException e) {
+            // Most likely a concurrent upload of the same content; the client may retry these
+            log.error("Failed to store bulk upload batch of {} file(s): {}", batch.size(), e.getMessage());
+            return batch.stream()
+                    .map(entry -> result(entry, BulkUploadResult.Status.FAILED,
+                            entry.error() != null ? entry.error() : "Failed to store file"))
+                    .toList();
+        }
+        
+        // Once committed, record the new hashes and drop any cached "not registered" results
+        results.stream()
+                .filter(result -> result.getStatus() == BulkUploadResult.Status.UPLOADED)
+                .forEach(result -> {
+                    registeredHashFilter.add(result.getPoseidonHash());
+                    verificationCache.invalidate(result.getPoseidonHash());
+                });
+        stored.forEach(file -> {
+            fileRecordStore.add(file);
+            fileSearchIndex.add(file);
+            knownPrefixFilter.add(ContentPrefix.Fingerprint.fromBytes(file.getContentPrefix()));
+            registrationFeed.publish(FileUploadResponse.builder()
+                    .id(file.getId())
+                    .filename(file.getFilename())
+                    .fileType(file.getFileType())
+                    .fileSize(file.getFileSize())
+                    .poseidonHash(file.getPoseidonHash())
+                    .authorAddress(file.getAuthorAddress())
+                    .createdAt(file.getCreatedAt())
+                    .message("File uploaded, Starknet registration queued")
+                    .build());
+        });
+        return results;
+    }
+    
+    private List<BulkUploadResult> storeBatch(List<HashedEntry> batch, List<Felt252> hashes, Felt252 authorAddress,
+                                              List<FileEntity> stored) {
+        // Only hashes the filter cannot rule out need the IN query
+        List<Felt252> candidates = hashes.stream()
+                .filter(hash -> !registeredHashFilter.isDefinitelyNew(hash))
+                .toList();
+        Set<Felt252> taken = new HashSet<>(candidates.isEmpty() ? List.of() : fileRepository.findExistingHashes(candidates));
+        
+        List<BulkUploadResult> results = new ArrayList<>(batch.size());
+        List<BulkUploadResult> uploaded = new ArrayList<>();
+        List<FileEntity> files = new ArrayList<>();
+        List<RegistrationOutboxEntity> registrations = new ArrayList<>();
+        for (HashedEntry entry : batch) {
+            if (entry.error() != null) {
+                results.add(result(entry, BulkUploadResult.Status.FAILED, entry.error()));
+                continue;
+            }
+            // Also catches the same content appearing twice in this batch
+            if (!taken.add(entry.poseidonHash())) {
+                results.add(result(entry, BulkUploadResult.Status.DUPLICATE, "File with this hash already exists"));
+                continue;
+            }
+            
+            files.add(FileEntity.builder()
+                    .filename(entry.filename())
+                    .fileType(entry.fileType())
+                    .fileSize(entry.fileSize())
+                    .poseidonHash(entry.poseidonHash())
+                    .authorAddress(authorAddress)
+                    .contentPrefix(entry.contentPrefix().toBytes())
+                    .build());
+            registrations.add(RegistrationOutboxEntity.builder()
+                    .poseidonHash(entry.poseidonHash())
+                    .filename(entry.filename())
+                    .fileType(entry.fileType())
+                    .fileSize(entry.fileSize())
+                    .build());
+            BulkUploadResult result = result(entry, BulkUploadResult.Status.UPLOADED, "File uploaded, Starknet registration queued");
+            results.add(result);
+            uploaded.add(result);
+        }
+        
+        fileRepository.saveAll(files);
+        outboxRepository.saveAll(registrations);
+        authorStatsService.record(files);
+        for (int i = 0; i < files.size(); i++) {
+            uploaded.get(i).setId(files.get(i).getId());
+        }
+        stored.addAll(files);
+        return results;
+    }
+    
+    private static BulkUploadResult result(HashedEntry entry, BulkUploadResult.Status status, String message) {
+        return BulkUploadResult.builder()
+                .filename(entry.filename())
+                .fileType(entry.fileType())
+                .fileSize(entry.fileSize())
+                .poseidonHash(entry.poseidonHash())
+                .status(status)
+                .message(message)
+                .build();
+    }
+    
+    /**
+     * A file waiting to be hashed; {@code upload} is its part when it was sent as a file
+     * rather than in an archive, and {@code rejection} is set when it fails validation
+     */
+    private record BulkEntry(String filename, String fileType, long fileSize,
+                             Callable<InputStream> content, MultipartFile upload, String rejection) {
+    }
+    
+    /**
+     * Hash result without the content, so batches waiting to be stored stay small
+     */
+    private record HashedEntry(String filename, String fileType, long fileSize,
+                               Felt252 poseidonHash, ContentPrefix.Fingerprint contentPrefix, String error) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,220 @@
+package org.mtvs.java_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.entity.ChainFileEntity;
+import org.mtvs.java_backend.entity.IndexerCheckpointEntity;
+import org.mtvs.java_backend.repository.ChainFileRepository;
+import org.mtvs.java_backend.repository.IndexerCheckpointRepository;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.StarknetCalldata;
+import org.mtvs.java_backend.util.StarknetCommunicator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Follows the registry's FileRegistered events with {@code starknet_getEvents} and mirrors
+ * them into {@code chain_files} and {@link ChainStateIndex}. Progress is checkpointed with
+ * the hash of the last processed block; when that hash no longer matches the chain, the
+ * last {@code reorg-depth} blocks are dropped and indexed again.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "chain-indexer.enabled", havingValue = "true", matchIfMissing = true)
+public class ChainIndexer {
+    
+    static final String CHECKPOINT_NAME = "file-registered";
+    
+    private final StarknetCommunicator starknetCommunicator;
+    private final ChainFileRepository chainFileRepository;
+    private final IndexerCheckpointRepository checkpointRepository;
+    private final ChainStateIndex chainStateIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final long startBlock;
+    private final long confirmations;
+    private final long reorgDepth;
+    private final long maxBlockRange;
+    private final int chunkSize;
+    
+    private boolean indexLoaded;
+    
+    public ChainIndexer(
+            StarknetCommunicator starknetCommunicator,
+            ChainFileRepository chainFileRepository,
+            IndexerCheckpointRepository checkpointRepository,
+            ChainStateIndex chainStateIndex,
+            TransactionTemplate transactionTemplate,
+            @Value("${chain-indexer.start-block:0}") long startBlock,
+            @Value("${chain-indexer.confirmations:2}") long confirmations,
+            @Value("${chain-indexer.reorg-depth:64}") long reorgDepth,
+            @Value("${chain-indexer.max-block-range:1000}") long maxBlockRange,
+            @Value("${chain-indexer.chunk-size:100}") int chunkSize) {
+        this.starknetCommunicator = starknetCommunicator;
+        this.chainFileRepository = chainFileRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.chainStateIndex = chainStateIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.startBlock = startBlock;
+        this.confirmations = confirmations;
+        this.reorgDepth = reorgDepth;
+        this.maxBlockRange = maxBlockRange;
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Catch up to the chain head, one block range at a time
+     */
+    @Scheduled(fixedDelayString = "${chain-indexer.poll-interval:5s}")
+    public void poll() {
+        try {
+            if (!indexLoaded) {
+                loadIndex();
+                indexLoaded = true;
+            }
+            while (syncOnce()) {
+                // keep going until caught up
+            }
+        } catch (Exception e) {
+            log.warn("Chain indexer poll failed, retrying on next poll: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Index the next block range; returns true if more blocks are already waiting
+     */
+    boolean syncOnce() {
+        JsonNode head = starknetCommunicator.blockHashAndNumberAsync().join();
+        long headBlock = head.get("block_number").asLong();
+        long safeHead = headBlock - confirmations;
+        
+        IndexerCheckpointEntity checkpoint = checkpointRepository.findById(CHECKPOINT_NAME).orElse(null);
+        long indexedBlock = checkpoint != null ? checkpoint.getBlockNumber() : startBlock - 1;
+        
+        if (checkpoint != null && checkpoint.getBlockHash() != null
+                && !checkpoint.getBlockHash().equals(blockHash(indexedBlock))) {
+            rewind(indexedBlock);
+            return true;
+        }
+        
+        long fromBlock = indexedBlock + 1;
+        long toBlock = Math.min(safeHead, indexedBlock + maxBlockRange);
+        if (fromBlock > toBlock) {
+            chainStateIndex.markSynced(indexedBlock, headBlock);
+            return false;
+        }
+        
+        String toBlockHash = blockHash(toBlock);
+        List<ChainFileEntity> registrations = fetchRegistrations(fromBlock, toBlock);
+        // A reorg while paging could mix forks; the range is only kept if its last block stood still
+        if (!toBlockHash.equals(blockHash(toBlock))) {
+            log.warn("Block {} changed while indexing, retrying on next poll", toBlock);
+            return false;
+        }
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            chainFileRepository.saveAll(registrations);
+            checkpointRepository.save(IndexerCheckpointEntity.builder()
+                    .name(CHECKPOINT_NAME)
+                    .blockNumber(toBlock)
+                    .blockHash(toBlockHash)
+                    .build());
+        });
+        registrations.forEach(registration -> chainStateIndex.add(Felt252.fromHex(registration.getPoseidonHash())));
+        chainStateIndex.markSynced(toBlock, headBlock);
+        
+        if (!registrations.isEmpty()) {
+            log.info("Indexed {} file registration(s) from blocks {}-{}", registrations.size(), fromBlock, toBlock);
+        }
+        return toBlock < safeHead;
+    }
+    
+    private void rewind(long indexedBlock) {
+        long target = Math.max(startBlock - 1, indexedBlock - reorgDepth);
+        String targetHash = target >= 0 ? blockHash(target) : null;
+        log.warn("Reorg detected at block {}, re-indexing from block {}", indexedBlock, target + 1);
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            chainFileRepository.deleteByBlockNumberGreaterThan(target);
+            checkpointRepository.save(IndexerCheckpointEntity.builder()
+                    .name(CHECKPOINT_NAME)
+                    .blockNumber(target)
+                    .blockHash(targetHash)
+                    .build());
+        });
+        loadIndex();
+    }
+    
+    /**
+     * Rebuild the in-memory index from the persisted mirror
+     */
+    private void loadIndex() {
+        chainStateIndex.reset();
+        // Runs right after a reorg rollback, so it must read the primary, not a replica
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> hashes = chainFileRepository.streamAllHashes()) {
+                hashes.map(Felt252::fromHex).forEach(chainStateIndex::add);
+            }
+        });
+    }
+    
+    private List<ChainFileEntity> fetchRegistrations(long fromBlock, long toBlock) {
+        List<ChainFileEntity> registrations = new ArrayList<>();
+        String continuationToken = null;
+        do {
+            JsonNode page = starknetCommunicator
+                    .getFileRegisteredEventsAsync(fromBlock, toBlock, chunkSize, continuationToken)
+                    .join();
+            for (JsonNode event : page.path("events")) {
+                ChainFileEntity registration = toRegistration(event);
+                if (registration != null) {
+                    registrations.add(registration);
+                }
+            }
+            continuationToken = page.hasNonNull("continuation_token") ? page.get("continuation_token").asText() : null;
+        } while (continuationToken != null);
+        return registrations;
+    }
+    
+    /**
+     * FileRegistered keys are [selector, file_hash, author]; data is
+     * [filename: ByteArray, file_type: ByteArray, file_size: u64, timestamp: u64]
+     */
+    private ChainFileEntity toRegistration(JsonNode event) {
+        try {
+            JsonNode keys = event.get("keys");
+            StarknetCalldata.Reader data = new StarknetCalldata.Reader(texts(event.get("data")));
+            return ChainFileEntity.builder()
+                    .poseidonHash(Felt252.fromHex(keys.get(1).asText()).toHex())
+                    .authorAddress(keys.get(2).asText())
+                    .filename(data.nextByteArray())
+                    .fileType(data.nextByteArray())
+                    .fileSize(data.nextLong())
+                    .registeredAt(data.nextLong())
+                    .blockNumber(event.get("block_number").asLong())
+                    .blockHash(event.get("block_hash").asText())
+                    .transactionHash(event.get("transaction_hash").asText())
+                    .build();
+        } catch (RuntimeException e) {
+            log.error("Skipping malformed FileRegistered event in tx {}: {}",
+                    event.path("transaction_hash").asText(), e.getMessage());
+            return null;
+        }
+    }
+    
+    private String blockHash(long blockNumber) {
+        return starknetCommunicator.getBlockHashAsync(blockNumber).join();
+    }
+    
+    private static List<String> texts(JsonNode array) {
+        List<String> texts = new ArrayList<>(array.size());
+        array.forEach(node -> texts.add(node.asText()));
+        return texts;
+    }
+}
\ No newline at end of file
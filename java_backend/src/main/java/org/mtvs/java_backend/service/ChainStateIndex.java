@@ -0,0 +1,96 @@
+package org.mtvs.java_backend.service;
+
+import org.mtvs.java_backend.util.LongHashSet;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory set of file hashes registered on chain, fed by {@link ChainIndexer}.
+ * Hashes are kept as 64-bit fingerprints of the felt252 (collision odds about n / 2^64),
+ * so membership is answered without touching the database or the RPC node.
+ * A "not registered" answer is only given while the indexer is close to the chain head.
+ */
+@Component
+public class ChainStateIndex {
+    
+    private final LongHashSet registered;
+    private final long maxLagBlocks;
+    private final Duration maxStaleness;
+    
+    private volatile boolean ready;
+    private volatile long indexedBlock = -1;
+    private volatile long headBlock = -1;
+    private volatile Instant lastSyncAt = Instant.EPOCH;
+    
+    public ChainStateIndex(
+            @Value("${chain-indexer.expected-files:1000000}") int expectedFiles,
+            @Value("${chain-indexer.max-lag-blocks:10}") long maxLagBlocks,
+            @Value("${chain-indexer.max-staleness:30s}") Duration maxStaleness) {
+        this.registered = new LongHashSet(expectedFiles);
+        this.maxLagBlocks = maxLagBlocks;
+        this.maxStaleness = maxStaleness;
+    }
+    
+    /**
+     * Whether the hash is registered on chain, or empty if the index cannot tell
+     * (not loaded yet, or too far behind the chain) and the caller should ask the node
+     */
+    public Optional<Boolean> isRegistered(Felt252 poseidonHash) {
+        if (registered.contains(fingerprint(poseidonHash))) {
+            return Optional.of(true);
+        }
+        return isCaughtUp() ? Optional.of(false) : Optional.empty();
+    }
+    
+    public boolean isCaughtUp() {
+        return ready
+                && headBlock - indexedBlock <= maxLagBlocks
+                && Duration.between(lastSyncAt, Instant.now()).compareTo(maxStaleness) <= 0;
+    }
+    
+    public void add(Felt252 poseidonHash) {
+        registered.add(fingerprint(poseidonHash));
+    }
+    
+    /**
+     * Drop everything before a reload; lookups fall back to RPC until the next sync
+     */
+    public void reset() {
+        ready = false;
+        registered.clear();
+    }
+    
+    public void markSynced(long indexedBlock, long headBlock) {
+        this.indexedBlock = indexedBlock;
+        this.headBlock = headBlock;
+        this.lastSyncAt = Instant.now();
+        this.ready = true;
+    }
+    
+    public Map<String, Object> stats() {
+        return Map.of(
+                "ready", ready,
+                "caughtUp", isCaughtUp(),
+                "indexedBlock", indexedBlock,
+                "headBlock", headBlock,
+                "lastSyncAt", lastSyncAt.toString(),
+                "files", registered.size(),
+                "memoryBytes", registered.memoryBytes()
+        );
+    }
+    
+    private static long fingerprint(Felt252 poseidonHash) {
+        long fingerprint = poseidonHash.limb(3);
+        for (int i = 2; i >= 0; i--) {
+            fingerprint = fingerprint * 0x9e3779b97f4a7c15L + poseidonHash.limb(i);
+        }
+        // Zero marks an empty slot in the set
+        return fingerprint != 0 ? fingerprint : 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package org.mtvs.java_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.dto.ChunkProof;
+import org.mtvs.java_backend.dto.ChunkRangeVerification;
+import org.mtvs.java_backend.dto.FileChunkInfo;
+import org.mtvs.java_backend.entity.FileChunkEntity;
+import org.mtvs.java_backend.repository.FileChunkRepository;
+import org.mtvs.java_backend.util.ContentDefinedChunker;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.PoseidonHasher;
+import org.mtvs.java_backend.util.PoseidonMerkleTree;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashing for large files. The content is split into content-defined chunks, the chunks
+ * are Poseidon-hashed in parallel and the registered hash is the root of the Poseidon
+ * Merkle tree over them. The chunk table lets later requests prove or check a single
+ * chunk or byte range, and a re-upload of an edited file only Poseidon-hashes the chunks
+ * whose SHA-256 is not already known for the file it was edited from.
+ */
+@Slf4j
+@Service
+public class ChunkedHashService {
+    
+    private final FileChunkRepository chunkRepository;
+    private final ContentDefinedChunker chunker;
+    private final long maxFileSize;
+    private final int parallelism;
+    private final Scheduler hashScheduler;
+    
+    public ChunkedHashService(
+            FileChunkRepository chunkRepository,
+            @Value("${chunking.min-size:256KB}") DataSize minSize,
+            @Value("${chunking.avg-size:1MB}") DataSize avgSize,
+            @Value("${chunking.max-size:4MB}") DataSize maxSize,
+            @Value("${chunking.max-file-size:64GB}") DataSize maxFileSize,
+            @Value("${chunking.parallelism:0}") int parallelism) {
+        this.chunkRepository = chunkRepository;
+        this.chunker = new ContentDefinedChunker(
+                Math.toIntExact(minSize.toBytes()), Math.toIntExact(avgSize.toBytes()), Math.toIntExact(maxSize.toBytes()));
+        this.maxFileSize = maxFileSize.toBytes();
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.hashScheduler = Schedulers.newParallel("chunk-hash", this.parallelism);
+    }
+    
+    public long maxFileSize() {
+        return maxFileSize;
+    }
+    
+    /**
+     * Chunk and hash the content. Chunks that also occur in the chunked file {@code baseHash}
+     * (may be null) reuse its stored hash. At most {@code parallelism} chunks are in memory.
+     * The returned chunks are not saved and carry the root as their poseidon hash.
+     */
+    public ChunkedDigest hash(InputStream in, Felt252 baseHash) throws IOException {
+        Map<ByteBuffer, FileChunkEntity> known = new HashMap<>();
+        if (baseHash != null) {
+            for (FileChunkEntity chunk : chunkRepository.findByPoseidonHashOrderByChunkIndex(baseHash)) {
+                known.put(ByteBuffer.wrap(chunk.getSha256()), chunk);
+            }
+        }
+        
+        ContentDefinedChunker.Reader reader = chunker.open(in);
+        AtomicInteger reused = new AtomicInteger();
+        List<FileChunkEntity> chunks;
+        try {
+            chunks = Flux.<ContentDefinedChunker.Chunk>generate(sink -> {
+                        try {
+                            ContentDefinedChunker.Chunk chunk = reader.next();
+                            if (chunk == null) {
+                                sink.complete();
+                            } else {
+                                sink.next(chunk);
+                            }
+                        } catch (IOException e) {
+                            sink.error(e);
+                        }
+                    })
+                    // Reading blocks, keep it off the hashing threads
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapSequential(chunk -> Mono.fromCallable(() -> hashChunk(chunk, known, reused))
+                            .subscribeOn(hashScheduler), parallelism, 1)
+                    .collectList()
+                    .block();
+        } catch (RuntimeException e) {
+            if (Exceptions.unwrap(e) instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+        
+        Felt252 root = PoseidonMerkleTree.root(leaves(chunks));
+        chunks.forEach(chunk -> chunk.setPoseidonHash(root));
+        log.debug("Hashed {} chunk(s), {} reused from {}", chunks.size(), reused.get(), baseHash);
+        return new ChunkedDigest(root, chunks, reused.get());
+    }
+    
+    /**
+     * Merkle root of the content, hashing one chunk at a time on the calling thread so a
+     * verification holds a single chunk buffer however large the file is
+     */
+    public Felt252 root(InputStream in) throws IOException {
+        ContentDefinedChunker.Reader reader = chunker.open(in);
+        List<Felt252> leaves = new ArrayList<>();
+        ContentDefinedChunker.Chunk chunk;
+        while ((chunk = reader.next()) != null) {
+            leaves.add(poseidon(chunk.data()));
+        }
+        return PoseidonMerkleTree.root(leaves);
+    }
+    
+    public void save(List<FileChunkEntity> chunks) {
+        chunkRepository.saveAll(chunks);
+    }
+    
+    /**
+     * The chunks of a file in order; empty if it was not uploaded in chunked mode
+     */
+    public List<FileChunkInfo> chunks(Felt252 root) {
+        return chunkRepository.findByPoseidonHashOrderByChunkIndex(root).stream()
+                .map(ChunkedHashService::toInfo)
+                .toList();
+    }
+    
+    public Optional<ChunkProof> proof(Felt252 root, int index) {
+        List<FileChunkEntity> chunks = chunkRepository.findByPoseidonHashOrderByChunkIndex(root);
+        if (chunks.isEmpty()) {
+            return Optional.empty();
+        }
+        if (index < 0 || index >= chunks.size()) {
+            throw new IllegalArgumentException("Chunk index must be between 0 and " + (chunks.size() - 1));
+        }
+        return Optional.of(ChunkProof.builder()
+                .root(root)
+                .chunk(toInfo(chunks.get(index)))
+                .proof(PoseidonMerkleTree.proof(leaves(chunks), index))
+                .build());
+    }
+    
+    /**
+     * Check the bytes of a file from {@code offset} (a chunk start) against the stored chunk
+     * hashes. Only the chunks the range covers are hashed.
+     */
+    public Optional<ChunkRangeVerification> verifyRange(Felt252 root, long offset, InputStream in) throws IOException {
+        List<FileChunkEntity> chunks = chunkRepository.findByPoseidonHashOrderByChunkIndex(root);
+        if (chunks.isEmpty()) {
+            return Optional.empty();
+        }
+        int start = 0;
+        while (start < chunks.size() && chunks.get(start).getChunkOffset() != offset) {
+            start++;
+        }
+        if (start == chunks.size()) {
+            throw new IllegalArgumentException("Offset must be the start of a chunk");
+        }
+        
+        List<Integer> mismatched = new ArrayList<>();
+        long length = 0;
+        int checked = 0;
+        for (int i = start; i < chunks.size(); i++) {
+            FileChunkEntity chunk = chunks.get(i);
+            byte[] data = in.readNBytes(chunk.getChunkLength());
+            if (data.length == 0) {
+                break;
+            }
+            checked++;
+            length += data.length;
+            if (data.length < chunk.getChunkLength() || !poseidon(data).equals(chunk.getChunkHash())) {
+                mismatched.add(chunk.getChunkIndex());
+            }
+        }
+        // Bytes beyond the end of the file cannot match anything
+        if (checked > 0 && in.read() != -1) {
+            mismatched.add(chunks.size());
+        }
+        
+        return Optional.of(ChunkRangeVerification.builder()
+                .poseidonHash(root)
+                .offset(offset)
+                .length(length)
+                .chunksChecked(checked)
+                .mismatchedChunks(mismatched)
+                .verified(checked > 0 && mismatched.isEmpty())
+                .build());
+    }
+    
+    @PreDestroy
+    public void close() {
+        hashScheduler.dispose();
+    }
+    
+    private FileChunkEntity hashChunk(ContentDefinedChunker.Chunk chunk, Map<ByteBuffer, FileChunkEntity> known,
+                                      AtomicInteger reused) {
+        byte[] data = chunk.data();
+        byte[] sha256 = sha256(data);
+        FileChunkEntity previous = known.get(ByteBuffer.wrap(sha256));
+        Felt252 hash;
+        if (previous != null && previous.getChunkLength() == data.length) {
+            hash = previous.getChunkHash();
+            reused.incrementAndGet();
+        } else {
+            hash = poseidon(data);
+        }
+        return FileChunkEntity.builder()
+                .chunkIndex(chunk.index())
+                .chunkOffset(chunk.offset())
+                .chunkLength(data.length)
+                .chunkHash(hash)
+                .sha256(sha256)
+                .build();
+    }
+    
+    /**
+     * Leaves are hashed like a whole file, so a one-chunk file keeps its plain Poseidon hash
+     */
+    private static Felt252 poseidon(byte[] data) {
+        return new PoseidonHasher().update(data, 0, data.length).digestFelt();
+    }
+    
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private static List<Felt252> leaves(List<FileChunkEntity> chunks) {
+        return chunks.stream().map(FileChunkEntity::getChunkHash).toList();
+    }
+    
+    private static FileChunkInfo toInfo(FileChunkEntity chunk) {
+        return FileChunkInfo.builder()
+                .index(chunk.getChunkIndex())
+                .offset(chunk.getChunkOffset())
+                .length(chunk.getChunkLength())
+                .chunkHash(chunk.getChunkHash())
+                .build();
+    }
+    
+    /**
+     * Merkle root of a chunked upload, its unsaved chunk rows and how many chunk hashes were reused
+     */
+    public record ChunkedDigest(Felt252 root, List<FileChunkEntity> chunks, int reusedChunks) {
+    }
+}
\ No newline at end of file
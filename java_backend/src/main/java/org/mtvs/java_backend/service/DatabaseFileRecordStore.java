@@ -0,0 +1,29 @@
+package org.mtvs.java_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Default store: verification reads the files table, on a replica when one is configured
+ * ({@link VerificationCache} covers the replica lag when results are cached)
+ */
+@Component
+@ConditionalOnProperty(name = "verification.store", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DatabaseFileRecordStore implements FileRecordStore {
+    
+    private final FileRepository fileRepository;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<FileEntity> findByPoseidonHash(Felt252 poseidonHash) {
+        return fileRepository.findByPoseidonHash(poseidonHash);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package org.mtvs.java_backend.service;
+
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The default: only metadata is kept and uploaded content is discarded after hashing
+ */
+@Component
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "none", matchIfMissing = true)
+public class DisabledBlobStore implements BlobStore {
+    
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+    
+    @Override
+    public boolean put(Felt252 poseidonHash, InputStream content, long size) {
+        return false;
+    }
+    
+    @Override
+    public boolean contains(Felt252 poseidonHash) {
+        return false;
+    }
+    
+    @Override
+    public Optional<Blob> open(Felt252 poseidonHash) {
+        return Optional.empty();
+    }
+    
+    @Override
+    public Map<String, Object> stats() {
+        return Map.of("store", "none");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package org.mtvs.java_backend.service;
+
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.util.Felt252;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read side of verification: where {@link FileService#verifyFile} looks up the stored
+ * record of a file hash. Selected with {@code verification.store}.
+ */
+public interface FileRecordStore {
+    
+    Optional<FileEntity> findByPoseidonHash(Felt252 poseidonHash);
+    
+    /**
+     * Called once a new file has been committed; stores reading the database ignore it
+     */
+    default void add(FileEntity file) {
+    }
+    
+    /**
+     * Called once the registration transaction of these files has been committed
+     */
+    default void setStarknetTxHash(Collection<Felt252> poseidonHashes, Felt252 txHash) {
+    }
+    
+    default Map<String, Object> stats() {
+        return Map.of("store", getClass().getSimpleName());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package org.mtvs.java_backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.dto.FileSummary;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.util.SearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link SearchIndex} over every stored file, behind {@code GET /search}. Loaded like
+ * {@link RegisteredHashFilter} by a streaming scan after startup, oldest first, and updated
+ * as files are committed. Files committed while the scan runs are held back and indexed
+ * after it, so the index never misses or repeats one; until then searches are refused.
+ */
+@Slf4j
+@Component
+public class FileSearchIndex {
+    
+    private final FileRepository fileRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchIndex index;
+    private final List<FileEntity> pending = new ArrayList<>();
+    private volatile boolean ready;
+    
+    public FileSearchIndex(
+            FileRepository fileRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${file-search.expected-files:1000000}") int expectedFiles,
+            @Value("${file-search.max-candidates:100000}") int maxCandidates) {
+        this.fileRepository = fileRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.index = new SearchIndex(expectedFiles, maxCandidates);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        Thread.ofPlatform()
+                .daemon()
+                .name("file-search-index")
+                .start(this::rebuild);
+    }
+    
+    /**
+     * Called once a new file has been committed
+     */
+    public void add(FileEntity file) {
+        if (!ready) {
+            synchronized (pending) {
+                if (!ready) {
+                    pending.add(file);
+                    return;
+                }
+            }
+        }
+        index.add(file.getId(), file.getFilename(), file.getFileType(), file.getPoseidonHash());
+    }
+    
+    public SearchIndex.Page search(SearchIndex.Query query, SearchIndex.Position after, int limit) {
+        if (!ready) {
+            throw new IllegalStateException("Search index is still loading");
+        }
+        return index.search(query, after, limit);
+    }
+    
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(index.stats());
+        stats.put("ready", ready);
+        return stats;
+    }
+    
+    void rebuild() {
+        long start = System.nanoTime();
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<FileSummary> files = fileRepository.streamAllById()) {
+                    files.forEach(file -> index.add(file.getId(), file.getFilename(), file.getFileType(),
+                            file.getPoseidonHash()));
+                }
+            });
+            // Files the scan also saw are skipped by the index
+            synchronized (pending) {
+                pending.forEach(file -> index.add(file.getId(), file.getFilename(), file.getFileType(),
+                        file.getPoseidonHash()));
+                pending.clear();
+                ready = true;
+            }
+            log.info("File search index loaded {} files in {} ms", index.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            // Stay not ready: searches keep answering 503
+            synchronized (pending) {
+                pending.clear();
+            }
+            log.error("Failed to load file search index: {}", e.getMessage());
+        }
+    }
+}
\ No newline at end of file
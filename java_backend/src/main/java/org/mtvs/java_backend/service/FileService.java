@@ -2,18 +2,53 @@ package org.mtvs.java_backend.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.mtvs.java_backend.dto.AuthorSummary;
+import org.mtvs.java_backend.dto.ChunkProof;
+import org.mtvs.java_backend.dto.ChunkRangeVerification;
+import org.mtvs.java_backend.dto.FileChunkInfo;
+import org.mtvs.java_backend.dto.FilePage;
+import org.mtvs.java_backend.dto.FileSummary;
 import org.mtvs.java_backend.dto.FileUploadResponse;
 import org.mtvs.java_backend.dto.FileVerificationResponse;
+import org.mtvs.java_backend.entity.FileChunkEntity;
 import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.entity.RegistrationOutboxEntity;
 import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.repository.RegistrationOutboxRepository;
+import org.mtvs.java_backend.util.ChainFileDetails;
+import org.mtvs.java_backend.util.ContentPrefix;
+import org.mtvs.java_backend.util.Felt252;
 import org.mtvs.java_backend.util.PoseidonHashUtil;
+import org.mtvs.java_backend.util.SearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -21,61 +56,140 @@ import java.util.stream.Collectors;
 public class FileService {
     
     private final FileRepository fileRepository;
+    private final RegistrationOutboxRepository outboxRepository;
     private final PoseidonHashUtil poseidonHashUtil;
     private final StarknetService starknetService;
+    private final VerificationCache verificationCache;
+    private final RegisteredHashFilter registeredHashFilter;
+    private final FileRecordStore fileRecordStore;
+    private final StageMetrics stageMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final ChunkedHashService chunkedHashService;
+    private final KnownPrefixFilter knownPrefixFilter;
+    private final BlobStore blobStore;
+    private final AuthorStatsService authorStatsService;
+    private final FileSearchIndex fileSearchIndex;
+    private final RegistrationFeed registrationFeed;
     
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final String DUPLICATE_HASH_CONSTRAINT = "uk_files_poseidon_hash";
     
-    public FileUploadResponse uploadFile(MultipartFile file, String authorAddress) throws IOException {
+    @Value("${verification.db-timeout:2s}")
+    private Duration dbTimeout = Duration.ofSeconds(2);
+    
+    @Value("${verification.chain-timeout:3s}")
+    private Duration chainTimeout = Duration.ofSeconds(3);
+    
+    // Each verification upload holds one pooled read buffer (one chunk in chunked mode)
+    @Value("${verification.upload.max-concurrent:256}")
+    private int maxContentVerifications = 256;
+    
+    private final AtomicInteger contentVerifications = new AtomicInteger();
+    
+    public FileUploadResponse uploadFile(MultipartFile file, Felt252 authorAddress) throws IOException {
+        return stageMetrics.observe(StageMetrics.UPLOAD, () -> upload(file, authorAddress, false, null));
+    }
+    
+    /**
+     * Upload a large file in chunked mode: its registered hash is the Poseidon Merkle root of
+     * its content-defined chunks. Chunks shared with {@code baseHash} (an earlier chunked
+     * upload, may be null) are not hashed again.
+     */
+    public FileUploadResponse uploadChunkedFile(MultipartFile file, Felt252 authorAddress, Felt252 baseHash) throws IOException {
+        return stageMetrics.observe(StageMetrics.UPLOAD, () -> upload(file, authorAddress, true, baseHash));
+    }
+    
+    private FileUploadResponse upload(MultipartFile file, Felt252 authorAddress, boolean chunked, Felt252 baseHash) throws IOException {
         // Validate file size
-        if (file.getSize() > MAX_FILE_SIZE) {
+        if (!chunked && file.getSize() > MAX_FILE_SIZE) {
             throw new IllegalArgumentException("File size exceeds 10MB limit");
         }
+        if (chunked && file.getSize() > chunkedHashService.maxFileSize()) {
+            throw new IllegalArgumentException("File size exceeds " + DataSize.ofBytes(chunkedHashService.maxFileSize()).toGigabytes() + "GB limit");
+        }
         
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File cannot be empty");
         }
         
-        // Generate Poseidon hash
-        byte[] fileData = file.getBytes();
-        String poseidonHash = poseidonHashUtil.generatePoseidonHash(fileData);
+        // Generate Poseidon hash while streaming the upload instead of loading it on heap
+        ChunkedHashService.ChunkedDigest digest = null;
+        Felt252 poseidonHash;
+        ContentPrefix prefix = new ContentPrefix();
+        try (InputStream inputStream = prefix.recording(stageMetrics.timedReads(file.getInputStream()))) {
+            if (chunked) {
+                digest = stageMetrics.stage(StageMetrics.UPLOAD, "hash",
+                        () -> chunkedHashService.hash(inputStream, baseHash));
+                poseidonHash = digest.root();
+            } else {
+                poseidonHash = stageMetrics.stage(StageMetrics.UPLOAD, "hash",
+                        () -> poseidonHashUtil.generatePoseidonFelt(inputStream));
+            }
+        }
+        List<FileChunkEntity> chunks = digest != null ? digest.chunks() : List.of();
         
-        // Check if file already exists
-        if (fileRepository.existsByPoseidonHash(poseidonHash)) {
+        // Stored before the duplicate check, so re-uploading a file whose content was not kept
+        // fills it in; content that is already stored is not written again. The upload is
+        // not read after this, as the store may have taken over its spooled file.
+        if (blobStore.isEnabled()) {
+            stageMetrics.stage(StageMetrics.UPLOAD, "store", () -> blobStore.put(poseidonHash, file));
+        }
+        
+        // Check if file already exists; the filter rules out most new hashes without a DB round trip
+        boolean duplicate = stageMetrics.stage(StageMetrics.UPLOAD, "dedupe",
+                () -> !registeredHashFilter.isDefinitelyNew(poseidonHash) && fileRepository.existsByPoseidonHash(poseidonHash));
+        if (duplicate) {
             throw new IllegalArgumentException("File with this hash already exists");
         }
         
         // Create file entity
         FileEntity fileEntity = FileEntity.builder()
                 .filename(file.getOriginalFilename())
-                .fileType(file.getContentType())
+                .fileType(file.getContentType() != null ? file.getContentType() : BulkUploadService.DEFAULT_FILE_TYPE)
                 .fileSize(file.getSize())
                 .poseidonHash(poseidonHash)
                 .authorAddress(authorAddress)
+                .chunkCount(chunked ? chunks.size() : null)
+                .contentPrefix(prefix.fingerprint().toBytes())
                 .build();
         
-        // Save to database
-        FileEntity savedEntity = fileRepository.save(fileEntity);
-        
-        // Register on Starknet (async in real implementation)
+        // Save the file and queue its on-chain registration atomically; the transaction
+        // starts after hashing so no connection is held while the content streams in.
+        // RegistrationDispatcher submits queued registrations in multicall batches.
+        FileEntity savedEntity;
         try {
-            String txHash = starknetService.registerFileOnChain(
-                poseidonHash, 
-                file.getOriginalFilename(),
-                file.getContentType(),
-                file.getSize()
-            );
-            
-            // Update with transaction hash
-            savedEntity.setStarknetTxHash(txHash);
-            fileRepository.save(savedEntity);
-            
-        } catch (Exception e) {
-            log.error("Failed to register on Starknet: {}", e.getMessage());
-            // Continue with local storage even if Starknet fails
+            savedEntity = stageMetrics.stage(StageMetrics.UPLOAD, "insert", () -> transactionTemplate.execute(status -> {
+                FileEntity saved = fileRepository.save(fileEntity);
+                outboxRepository.save(RegistrationOutboxEntity.builder()
+                        .poseidonHash(poseidonHash)
+                        .filename(saved.getFilename())
+                        .fileType(saved.getFileType())
+                        .fileSize(saved.getFileSize())
+                        .build());
+                if (!chunks.isEmpty()) {
+                    chunkedHashService.save(chunks);
+                }
+                authorStatsService.record(List.of(saved));
+                return saved;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, DUPLICATE_HASH_CONSTRAINT)) {
+                throw e;
+            }
+            // Lost a race with a concurrent upload of the same content
+            throw new IllegalArgumentException("File with this hash already exists");
         }
+        registeredHashFilter.add(poseidonHash);
+        knownPrefixFilter.add(prefix.fingerprint());
+        fileRecordStore.add(savedEntity);
+        fileSearchIndex.add(savedEntity);
         
-        return FileUploadResponse.builder()
+        // Drop any cached "not registered" result for this hash
+        verificationCache.invalidate(poseidonHash);
+        
+        FileUploadResponse response = FileUploadResponse.builder()
                 .id(savedEntity.getId())
                 .filename(savedEntity.getFilename())
                 .fileType(savedEntity.getFileType())
@@ -84,17 +198,112 @@ public class FileService {
                 .authorAddress(savedEntity.getAuthorAddress())
                 .starknetTxHash(savedEntity.getStarknetTxHash())
                 .createdAt(savedEntity.getCreatedAt())
-                .message("File uploaded and registered successfully")
+                .chunkCount(savedEntity.getChunkCount())
+                .reusedChunks(digest != null ? digest.reusedChunks() : null)
+                .message("File uploaded, Starknet registration queued")
                 .build();
+        registrationFeed.publish(response);
+        return response;
+    }
+    
+    public FileVerificationResponse verifyFile(Felt252 poseidonHash) {
+        return verificationCache.get(poseidonHash,
+                hash -> stageMetrics.observe(StageMetrics.VERIFY, () -> loadVerification(hash)));
+    }
+    
+    /**
+     * Verify content sent as the raw request body (any length, chunked transfer encoding
+     * included) without storing it. The first bytes are checked against the known-prefix
+     * filter, which answers for most unregistered content before the rest is read; otherwise
+     * the body is hashed as it streams in and the digest is looked up in the local index.
+     * Throws {@link RejectedExecutionException} when too many verifications are streaming.
+     */
+    public FileVerificationResponse verifyContent(InputStream body, boolean chunked) throws IOException {
+        if (contentVerifications.incrementAndGet() > maxContentVerifications) {
+            contentVerifications.decrementAndGet();
+            throw new RejectedExecutionException("Too many verification uploads in progress");
+        }
+        try {
+            return stageMetrics.observe(StageMetrics.VERIFY, () -> loadContentVerification(body, chunked));
+        } finally {
+            contentVerifications.decrementAndGet();
+        }
+    }
+    
+    private FileVerificationResponse loadContentVerification(InputStream body, boolean chunked) throws IOException {
+        ContentPrefix prefix = new ContentPrefix();
+        byte[] head = body.readNBytes(ContentPrefix.LENGTH);
+        if (head.length == 0) {
+            throw new IllegalArgumentException("File cannot be empty");
+        }
+        prefix.update(head, 0, head.length);
+        boolean unknownPrefix = stageMetrics.stage(StageMetrics.VERIFY, "prefix-filter",
+                () -> knownPrefixFilter.isDefinitelyUnknown(prefix.fingerprint()));
+        if (unknownPrefix) {
+            stageMetrics.earlyExit("unknown-prefix");
+            return FileVerificationResponse.builder()
+                    .isRegistered(false)
+                    .build();
+        }
+        
+        InputStream content = new SequenceInputStream(new ByteArrayInputStream(head), body);
+        Felt252 poseidonHash = stageMetrics.stage(StageMetrics.VERIFY, "hash",
+                () -> chunked ? chunkedHashService.root(content) : poseidonHashUtil.generatePoseidonFelt(content));
+        Optional<FileEntity> fileEntity = stageMetrics.stage(StageMetrics.VERIFY, "db-lookup",
+                () -> fileRecordStore.findByPoseidonHash(poseidonHash));
+        return buildVerificationResponse(poseidonHash, fileEntity, false, Optional.empty());
+    }
+    
+    /**
+     * Non-blocking verification: the DB lookup and both chain calls run concurrently
+     * and are zipped together. A chain call that misses its deadline or fails counts
+     * as "not on chain", so the answer falls back to local data.
+     */
+    public Mono<FileVerificationResponse> verifyFileReactive(Felt252 poseidonHash) {
+        return Mono.fromFuture(() -> verificationCache.getAsync(poseidonHash,
+                hash -> loadVerificationReactive(hash).toFuture()));
     }
     
-    public FileVerificationResponse verifyFile(String poseidonHash) {
-        // First check local database
-        Optional<FileEntity> fileEntity = fileRepository.findByPoseidonHash(poseidonHash);
+    private Mono<FileVerificationResponse> loadVerificationReactive(Felt252 poseidonHash) {
+        Mono<Optional<FileEntity>> localLookup = stageMetrics.stage(StageMetrics.VERIFY, "db-lookup",
+                        Mono.fromCallable(() -> fileRecordStore.findByPoseidonHash(poseidonHash))
+                                .subscribeOn(Schedulers.boundedElastic()))
+                .timeout(dbTimeout)
+                .onErrorResume(e -> {
+                    stageMetrics.fallback("db-lookup");
+                    log.warn("Local lookup failed, using Starknet data only: {}", e.getMessage());
+                    return Mono.just(Optional.empty());
+                });
+        
+        Mono<Boolean> registeredOnChain = starknetService.verifyFileOnChainReactive(poseidonHash)
+                .timeout(chainTimeout)
+                .onErrorResume(e -> {
+                    stageMetrics.fallback("chain-verify");
+                    log.warn("Failed to verify on Starknet, using local data only: {}", e.getMessage());
+                    return Mono.just(false);
+                });
+        
+        Mono<Optional<ChainFileDetails>> chainDetails = starknetService.getFileDetailsFromChainReactive(poseidonHash)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .timeout(chainTimeout)
+                .onErrorResume(e -> {
+                    stageMetrics.fallback("chain-details");
+                    return Mono.just(Optional.empty());
+                });
+        
+        return stageMetrics.observe(StageMetrics.VERIFY, Mono.zip(localLookup, registeredOnChain, chainDetails)
+                .map(result -> buildVerificationResponse(poseidonHash, result.getT1(), result.getT2(), result.getT3())));
+    }
+    
+    private FileVerificationResponse loadVerification(Felt252 poseidonHash) {
+        // First check the local store (the database unless configured otherwise)
+        Optional<FileEntity> fileEntity = stageMetrics.stage(StageMetrics.VERIFY, "db-lookup",
+                () -> fileRecordStore.findByPoseidonHash(poseidonHash));
         
         // Also verify on Starknet for real-time verification
         boolean isRegisteredOnChain = false;
-        java.util.Map<String, Object> chainDetails = java.util.Map.of();
+        Optional<ChainFileDetails> chainDetails = Optional.empty();
         
         try {
             isRegisteredOnChain = starknetService.verifyFileOnChain(poseidonHash);
@@ -102,9 +311,15 @@ public class FileService {
                 chainDetails = starknetService.getFileDetailsFromChain(poseidonHash);
             }
         } catch (Exception e) {
+            stageMetrics.fallback("chain-verify");
             log.warn("Failed to verify on Starknet, using local data only: {}", e.getMessage());
         }
         
+        return buildVerificationResponse(poseidonHash, fileEntity, isRegisteredOnChain, chainDetails);
+    }
+    
+    private FileVerificationResponse buildVerificationResponse(Felt252 poseidonHash, Optional<FileEntity> fileEntity,
+                                                               boolean isRegisteredOnChain, Optional<ChainFileDetails> chainDetails) {
         if (fileEntity.isEmpty() && !isRegisteredOnChain) {
             return FileVerificationResponse.builder()
                     .poseidonHash(poseidonHash)
@@ -116,10 +331,10 @@ public class FileService {
         if (fileEntity.isEmpty() && isRegisteredOnChain) {
             return FileVerificationResponse.builder()
                     .poseidonHash(poseidonHash)
-                    .filename((String) chainDetails.getOrDefault("filename", "Unknown"))
-                    .fileType((String) chainDetails.getOrDefault("fileType", "Unknown"))
-                    .fileSize((Long) chainDetails.getOrDefault("fileSize", 0L))
-                    .authorAddress((String) chainDetails.getOrDefault("authorAddress", "Unknown"))
+                    .filename(chainDetails.map(ChainFileDetails::filename).orElse("Unknown"))
+                    .fileType(chainDetails.map(ChainFileDetails::fileType).orElse("Unknown"))
+                    .fileSize(chainDetails.map(ChainFileDetails::fileSize).orElse(0L))
+                    .authorAddress(chainDetails.map(ChainFileDetails::authorAddress).orElse(null))
                     .isRegistered(true)
                     .starknetExplorerUrl(starknetService.getContractExplorerUrl())
                     .build();
@@ -143,47 +358,250 @@ public class FileService {
                 .build();
     }
     
-    public List<FileVerificationResponse> getAllFiles() {
-        return fileRepository.findAllByOrderByCreatedAtDesc()
-                .stream()
-                .map(entity -> FileVerificationResponse.builder()
-                        .id(entity.getId())
-                        .filename(entity.getFilename())
-                        .fileType(entity.getFileType())
-                        .fileSize(entity.getFileSize())
-                        .poseidonHash(entity.getPoseidonHash())
-                        .authorAddress(entity.getAuthorAddress())
-                        .starknetTxHash(entity.getStarknetTxHash())
-                        .createdAt(entity.getCreatedAt())
-                        .isRegistered(true)
-                        .starknetExplorerUrl(generateStarknetExplorerUrl(entity.getStarknetTxHash()))
-                        .build())
-                .collect(Collectors.toList());
+    /**
+     * One page of files, newest first. Pages are keyset-based on (created_at, id), so
+     * every page costs the same no matter how deep the client has scrolled.
+     */
+    @Transactional(readOnly = true)
+    public FilePage getAllFiles(String cursor, int limit) {
+        return getFilesPage(null, cursor, limit);
     }
     
-    public List<FileVerificationResponse> getFilesByAuthor(String authorAddress) {
-        return fileRepository.findByAuthorAddressOrderByCreatedAtDesc(authorAddress)
-                .stream()
-                .map(entity -> FileVerificationResponse.builder()
-                        .id(entity.getId())
-                        .filename(entity.getFilename())
-                        .fileType(entity.getFileType())
-                        .fileSize(entity.getFileSize())
-                        .poseidonHash(entity.getPoseidonHash())
-                        .authorAddress(entity.getAuthorAddress())
-                        .starknetTxHash(entity.getStarknetTxHash())
-                        .createdAt(entity.getCreatedAt())
-                        .isRegistered(true)
-                        .starknetExplorerUrl(generateStarknetExplorerUrl(entity.getStarknetTxHash()))
-                        .build())
+    @Transactional(readOnly = true)
+    public FilePage getFilesByAuthor(Felt252 authorAddress, String cursor, int limit) {
+        return getFilesPage(authorAddress, cursor, limit);
+    }
+    
+    /**
+     * Hand every file, newest first, to the consumer as rows arrive from a server-side cursor
+     */
+    public void streamAllFiles(Consumer<FileVerificationResponse> consumer) {
+        streamFiles(null, consumer);
+    }
+    
+    public void streamFilesByAuthor(Felt252 authorAddress, Consumer<FileVerificationResponse> consumer) {
+        streamFiles(authorAddress, consumer);
+    }
+    
+    private FilePage getFilesPage(Felt252 authorAddress, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page follows
+        Pageable fetchLimit = PageRequest.of(0, pageSize + 1);
+        
+        List<FileSummary> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = authorAddress == null
+                    ? fileRepository.findFirstPage(fetchLimit)
+                    : fileRepository.findFirstPageByAuthor(authorAddress, fetchLimit);
+        } else {
+            Keyset after = decodeCursor(cursor);
+            rows = authorAddress == null
+                    ? fileRepository.findPageBefore(after.createdAt(), after.id(), fetchLimit)
+                    : fileRepository.findPageByAuthorBefore(authorAddress, after.createdAt(), after.id(), fetchLimit);
+        }
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<FileSummary> page = hasMore ? rows.subList(0, pageSize) : rows;
+        return FilePage.builder()
+                .files(page.stream().map(this::toResponse).collect(Collectors.toList()))
+                .nextCursor(hasMore ? encodeCursor(page.get(page.size() - 1)) : null)
+                .build();
+    }
+    
+    /**
+     * Files matching name terms, a content type and/or a hash prefix, best match first (see
+     * {@link SearchIndex}). The index yields the page's ids, whose rows are then read by id.
+     */
+    @Transactional(readOnly = true)
+    public FilePage searchFiles(String text, String type, String hashPrefix, String cursor, int limit) {
+        SearchIndex.Query query = SearchIndex.Query.of(text, type, hashPrefix);
+        int pageSize = Math.max(1, Math.min(limit, MAX_SEARCH_PAGE_SIZE));
+        SearchIndex.Page page = fileSearchIndex.search(query,
+                cursor == null || cursor.isEmpty() ? null : decodeSearchCursor(cursor), pageSize);
+        if (page.truncated()) {
+            log.debug("Search for '{}' ranked only part of its matches", text);
+        }
+        
+        List<Long> ids = page.hits().stream().map(SearchIndex.Hit::fileId).toList();
+        Map<Long, FileSummary> rows = ids.isEmpty() ? Map.of() : fileRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(FileSummary::getId, row -> row));
+        List<FileVerificationResponse> files = ids.stream()
+                .map(rows::get)
+                // Gone from this replica's view, or past the 16 hash digits the index keys on
+                .filter(row -> row != null && (query.hashPrefix() == null
+                        || row.getPoseidonHash().toHex().startsWith(query.hashPrefix(), 2)))
+                .map(this::toResponse)
                 .collect(Collectors.toList());
+        return FilePage.builder()
+                .files(files)
+                .nextCursor(page.next() != null ? encodeSearchCursor(page.next()) : null)
+                .build();
+    }
+    
+    private void streamFiles(Felt252 authorAddress, Consumer<FileVerificationResponse> consumer) {
+        // PostgreSQL only honours the fetch size inside a transaction
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<FileSummary> rows = authorAddress == null
+                    ? fileRepository.streamAll()
+                    : fileRepository.streamByAuthor(authorAddress)) {
+                rows.map(this::toResponse).forEach(consumer);
+            }
+        });
+    }
+    
+    private FileVerificationResponse toResponse(FileSummary file) {
+        return FileVerificationResponse.builder()
+                .id(file.getId())
+                .filename(file.getFilename())
+                .fileType(file.getFileType())
+                .fileSize(file.getFileSize())
+                .poseidonHash(file.getPoseidonHash())
+                .authorAddress(file.getAuthorAddress())
+                .starknetTxHash(file.getStarknetTxHash())
+                .createdAt(file.getCreatedAt())
+                .isRegistered(true)
+                .starknetExplorerUrl(generateStarknetExplorerUrl(file.getStarknetTxHash()))
+                .build();
+    }
+    
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && constraint.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String encodeCursor(FileSummary last) {
+        String position = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String encodeSearchCursor(SearchIndex.Position position) {
+        String value = position.score() + "|" + position.ordinal();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static SearchIndex.Position decodeSearchCursor(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            return new SearchIndex.Position(Integer.parseInt(value.substring(0, separator)),
+                    Integer.parseInt(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    private static Keyset decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            return new Keyset(LocalDateTime.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    /**
+     * Chunk layout of a chunked upload; empty when the file was hashed whole or is unknown
+     */
+    public List<FileChunkInfo> getChunks(Felt252 poseidonHash) {
+        return chunkedHashService.chunks(poseidonHash);
+    }
+    
+    public Optional<ChunkProof> getChunkProof(Felt252 poseidonHash, int index) {
+        return chunkedHashService.proof(poseidonHash, index);
     }
     
-    private String generateStarknetExplorerUrl(String txHash) {
-        if (txHash == null || txHash.isEmpty()) {
+    /**
+     * Check part of a chunked file, starting at a chunk boundary, without the rest of the file
+     */
+    public Optional<ChunkRangeVerification> verifyChunkRange(Felt252 poseidonHash, long offset, MultipartFile range) throws IOException {
+        try (InputStream inputStream = range.getInputStream()) {
+            return stageMetrics.stage(StageMetrics.VERIFY, "range-hash",
+                    () -> chunkedHashService.verifyRange(poseidonHash, offset, inputStream));
+        }
+    }
+    
+    /**
+     * The stored content of a registered file, for download; empty if the file is unknown
+     * or its content was not kept. The caller closes the blob.
+     */
+    public Optional<StoredContent> openContent(Felt252 poseidonHash) throws IOException {
+        Optional<FileEntity> file = fileRepository.findByPoseidonHash(poseidonHash);
+        if (file.isEmpty()) {
+            return Optional.empty();
+        }
+        return blobStore.open(poseidonHash)
+                .map(blob -> new StoredContent(file.get().getFilename(), file.get().getFileType(), blob));
+    }
+    
+    /**
+     * Totals of an author's files from the maintained aggregate, without reading their rows
+     */
+    public AuthorSummary getAuthorSummary(Felt252 authorAddress) {
+        return authorStatsService.getSummary(authorAddress);
+    }
+    
+    public Map<String, Object> getVerificationCacheStats() {
+        return verificationCache.stats();
+    }
+    
+    public Map<String, Object> getChainIndexStats() {
+        return starknetService.getChainIndexStats();
+    }
+    
+    public Map<String, Object> getVerificationStoreStats() {
+        return fileRecordStore.stats();
+    }
+    
+    public Map<String, Object> getKnownPrefixFilterStats() {
+        return knownPrefixFilter.stats();
+    }
+    
+    public Map<String, Object> getRegisteredHashFilterStats() {
+        return registeredHashFilter.stats();
+    }
+    
+    public Map<String, Object> getSearchIndexStats() {
+        return fileSearchIndex.stats();
+    }
+    
+    public Map<String, Object> getBlobStoreStats() {
+        return blobStore.stats();
+    }
+    
+    public Map<String, Object> getRegistrationOutboxStats() {
+        return Map.of(
+                "pending", outboxRepository.countByStatus(RegistrationOutboxEntity.Status.PENDING),
+                "inFlight", outboxRepository.countByStatus(RegistrationOutboxEntity.Status.IN_FLIGHT),
+                "failed", outboxRepository.countByStatus(RegistrationOutboxEntity.Status.FAILED)
+        );
+    }
+    
+    private String generateStarknetExplorerUrl(Felt252 txHash) {
+        if (txHash == null) {
             return null;
         }
         // Use Sepolia testnet explorer for demo
-        return "https://sepolia.starkscan.co/tx/" + txHash;
+        return "https://sepolia.starkscan.co/tx/" + txHash.toHex();
+    }
+    
+    /**
+     * A file's stored bytes with the name and type it was uploaded with
+     */
+    public record StoredContent(String filename, String fileType, BlobStore.Blob blob) {
+    }
+    
+    /**
+     * Position of the last row of a page in (created_at, id) order
+     */
+    private record Keyset(LocalDateTime createdAt, long id) {
     }
 }
\ No newline at end of file
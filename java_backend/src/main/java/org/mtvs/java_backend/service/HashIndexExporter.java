@@ -0,0 +1,81 @@
+package org.mtvs.java_backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.dto.FileSummary;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.util.HashIndexFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes every file record into a {@link HashIndexFile} for edge nodes running with
+ * {@code verification.store=mapped}. Rows come from a server-side cursor already in hash
+ * order, so the export needs no sort and runs in constant memory.
+ */
+@Slf4j
+@Service
+public class HashIndexExporter {
+    
+    private final FileRepository fileRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path exportPath;
+    
+    public HashIndexExporter(
+            FileRepository fileRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${hash-index.export-path:data/hash-index-export.bin}") Path exportPath) {
+        this.fileRepository = fileRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.exportPath = exportPath.toAbsolutePath();
+    }
+    
+    /**
+     * Export to a temporary file and move it over the previous export once complete
+     */
+    public synchronized Map<String, Object> export() throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(exportPath.getParent());
+        Path tmp = exportPath.resolveSibling(exportPath.getFileName() + ".tmp");
+        
+        long records;
+        try (HashIndexFile.Writer writer = HashIndexFile.create(tmp)) {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<FileSummary> rows = fileRepository.streamAllByHash()) {
+                    Iterator<FileSummary> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        FileSummary row = iterator.next();
+                        writer.append(new HashIndexFile.Entry(row.getPoseidonHash(), row.getAuthorAddress(),
+                                row.getFileSize(), row.getCreatedAt(), row.getStarknetTxHash()));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            records = writer.recordCount();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(tmp, exportPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Exported {} record(s) to {} in {} ms", records, exportPath, durationMs);
+        return Map.of(
+                "path", exportPath.toString(),
+                "records", records,
+                "bytes", Files.size(exportPath),
+                "durationMs", durationMs
+        );
+    }
+}
\ No newline at end of file
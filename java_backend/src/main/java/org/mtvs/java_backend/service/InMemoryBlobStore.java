@@ -0,0 +1,105 @@
+package org.mtvs.java_backend.service;
+
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for an object store such as S3: whole objects are put once under their key and
+ * read back by byte range, with no file behind them to hand to sendfile. Objects are held
+ * in memory up to {@code blob-store.memory.max-size}, which suits tests and single-node
+ * demos; a real object store client would implement {@link BlobStore} the same way.
+ */
+@Component
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "memory")
+public class InMemoryBlobStore implements BlobStore {
+    
+    // Largest array the JVM reliably allocates
+    private static final long MAX_OBJECT_SIZE = Integer.MAX_VALUE - 8;
+    
+    private final Map<Felt252, byte[]> objects = new ConcurrentHashMap<>();
+    private final long maxSize;
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    
+    public InMemoryBlobStore(@Value("${blob-store.memory.max-size:1GB}") DataSize maxSize) {
+        this.maxSize = maxSize.toBytes();
+    }
+    
+    @Override
+    public boolean put(Felt252 poseidonHash, InputStream content, long size) throws IOException {
+        if (objects.containsKey(poseidonHash)) {
+            deduplicated.incrementAndGet();
+            return false;
+        }
+        if (size > MAX_OBJECT_SIZE) {
+            throw new IOException("Content is too large for the in-memory blob store");
+        }
+        // Checked before reading; concurrent puts may overshoot by what they hold in flight
+        if (storedBytes.get() + size > maxSize) {
+            throw new IOException("Blob store is full");
+        }
+        byte[] data = content.readNBytes((int) size);
+        if (data.length != size) {
+            throw new IOException("Content ended after " + data.length + " of " + size + " bytes");
+        }
+        if (objects.putIfAbsent(poseidonHash, data) != null) {
+            deduplicated.incrementAndGet();
+            return false;
+        }
+        storedBytes.addAndGet(size);
+        return true;
+    }
+    
+    @Override
+    public boolean contains(Felt252 poseidonHash) {
+        return objects.containsKey(poseidonHash);
+    }
+    
+    @Override
+    public Optional<Blob> open(Felt252 poseidonHash) {
+        return Optional.ofNullable(objects.get(poseidonHash)).map(ObjectBlob::new);
+    }
+    
+    @Override
+    public Map<String, Object> stats() {
+        return Map.of(
+                "store", "memory",
+                "stored", objects.size(),
+                "storedBytes", storedBytes.get(),
+                "maxBytes", maxSize,
+                "deduplicated", deduplicated.get()
+        );
+    }
+    
+    private record ObjectBlob(byte[] data) implements Blob {
+        
+        @Override
+        public long size() {
+            return data.length;
+        }
+        
+        @Override
+        public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            ByteBuffer range = ByteBuffer.wrap(data, Math.toIntExact(position), Math.toIntExact(count));
+            while (range.hasRemaining()) {
+                target.write(range);
+            }
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+}
\ No newline at end of file
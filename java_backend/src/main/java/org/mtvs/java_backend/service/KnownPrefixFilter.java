@@ -0,0 +1,103 @@
+package org.mtvs.java_backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.util.BloomFilter;
+import org.mtvs.java_backend.util.ContentPrefix;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of the content prefix fingerprints of stored files, so a verification upload
+ * whose first bytes match no stored file is answered without hashing the rest. Loaded like
+ * {@link RegisteredHashFilter}; if any stored file has no fingerprint the filter stays off,
+ * since it could then reject content that is in fact stored.
+ */
+@Slf4j
+@Component
+public class KnownPrefixFilter {
+    
+    private final FileRepository fileRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BloomFilter filter;
+    private final AtomicLong missingFingerprints = new AtomicLong();
+    private volatile boolean ready;
+    
+    public KnownPrefixFilter(
+            FileRepository fileRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${known-prefix-filter.expected-insertions:10000000}") long expectedInsertions,
+            @Value("${known-prefix-filter.fpp:0.01}") double fpp) {
+        this.fileRepository = fileRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        Thread.ofPlatform()
+                .daemon()
+                .name("known-prefix-filter")
+                .start(this::rebuild);
+    }
+    
+    /**
+     * True only when no stored file starts with this prefix; false means "hash it and look it up"
+     */
+    public boolean isDefinitelyUnknown(ContentPrefix.Fingerprint fingerprint) {
+        return ready && !filter.mightContain(fingerprint.high(), fingerprint.low());
+    }
+    
+    public void add(ContentPrefix.Fingerprint fingerprint) {
+        filter.put(fingerprint.high(), fingerprint.low());
+    }
+    
+    public Map<String, Object> stats() {
+        return Map.of(
+                "ready", ready,
+                "prefixes", filter.insertions(),
+                "missingFingerprints", missingFingerprints.get(),
+                "prefixBytes", ContentPrefix.LENGTH,
+                "memoryBytes", filter.memoryBytes(),
+                "expectedFpp", filter.expectedFpp()
+        );
+    }
+    
+    void rebuild() {
+        long start = System.nanoTime();
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<byte[]> prefixes = fileRepository.streamAllContentPrefixes()) {
+                    prefixes.forEach(prefix -> {
+                        if (prefix == null) {
+                            missingFingerprints.incrementAndGet();
+                        } else {
+                            add(ContentPrefix.Fingerprint.fromBytes(prefix));
+                        }
+                    });
+                }
+            });
+            if (missingFingerprints.get() > 0) {
+                log.warn("{} stored file(s) have no content prefix fingerprint, prefix filter disabled",
+                        missingFingerprints.get());
+                return;
+            }
+            ready = true;
+            log.info("Known prefix filter loaded {} prefixes in {} ms", filter.insertions(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            // Stay not ready: every verification upload is hashed in full
+            log.error("Failed to load known prefix filter: {}", e.getMessage());
+        }
+    }
+}
\ No newline at end of file
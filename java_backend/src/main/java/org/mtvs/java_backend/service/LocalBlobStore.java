@@ -0,0 +1,198 @@
+package org.mtvs.java_backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Blob store on the local filesystem. A blob lives at {@code <root>/yz/wx/<64 hex digits>},
+ * sharded by the last two bytes of its hash ({@code ...wxyz}) so no directory grows too
+ * large; the leading bytes of a felt252 are below 2^251 and would only fill a few of the
+ * 65536 leaf directories. Content is written to a temp file and then renamed into place,
+ * so a blob is either absent or complete. A multipart part spooled to disk is moved there
+ * by the container, a rename when {@code spring.servlet.multipart.location} is on the same
+ * filesystem, so its bytes never pass through the heap; streamed content such as archive
+ * entries is copied in with {@link FileChannel#transferFrom}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "local")
+public class LocalBlobStore implements BlobStore {
+    
+    private final Path root;
+    private final Path tempDir;
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    
+    public LocalBlobStore(@Value("${blob-store.local.path:data/blobs}") Path root) throws IOException {
+        this.root = root.toAbsolutePath();
+        this.tempDir = this.root.resolve("tmp");
+        Files.createDirectories(tempDir);
+        // Writes interrupted by a crash never made it into place
+        try (Stream<Path> leftovers = Files.list(tempDir)) {
+            for (Path leftover : (Iterable<Path>) leftovers::iterator) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+        log.info("Storing blobs under {}", this.root);
+    }
+    
+    @Override
+    public boolean put(Felt252 poseidonHash, InputStream content, long size) throws IOException {
+        Path target = pathOf(poseidonHash);
+        if (Files.exists(target)) {
+            deduplicated.incrementAndGet();
+            return false;
+        }
+        
+        Path temp = Files.createTempFile(tempDir, null, ".part");
+        try {
+            try (ReadableByteChannel source = Channels.newChannel(content);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                while (position < size) {
+                    long transferred = out.transferFrom(source, position, size - position);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    position += transferred;
+                }
+                if (position != size) {
+                    throw new IOException("Content ended after " + position + " of " + size + " bytes");
+                }
+                out.force(true);
+            }
+            moveIntoPlace(temp, target);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        stored.incrementAndGet();
+        storedBytes.addAndGet(size);
+        return true;
+    }
+    
+    /**
+     * Has the part write itself to the temp file: the container moves the file it spooled
+     * the part to, and only writes bytes for a part it kept in memory
+     */
+    @Override
+    public boolean put(Felt252 poseidonHash, MultipartFile upload) throws IOException {
+        Path target = pathOf(poseidonHash);
+        if (Files.exists(target)) {
+            deduplicated.incrementAndGet();
+            return false;
+        }
+        
+        long size = upload.getSize();
+        Path temp = Files.createTempFile(tempDir, null, ".part");
+        try {
+            // transferTo(File) goes to Part.write; transferTo(Path) would stream the part
+            upload.transferTo(temp.toFile());
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                if (out.size() != size) {
+                    throw new IOException("Upload has " + out.size() + " of " + size + " bytes");
+                }
+                out.force(true);
+            }
+            moveIntoPlace(temp, target);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        stored.incrementAndGet();
+        storedBytes.addAndGet(size);
+        return true;
+    }
+    
+    @Override
+    public boolean contains(Felt252 poseidonHash) {
+        return Files.exists(pathOf(poseidonHash));
+    }
+    
+    @Override
+    public Optional<Blob> open(Felt252 poseidonHash) throws IOException {
+        Path path = pathOf(poseidonHash);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileBlob(path, FileChannel.open(path, StandardOpenOption.READ)));
+    }
+    
+    @Override
+    public Map<String, Object> stats() {
+        return Map.of(
+                "store", "local",
+                "root", root.toString(),
+                "stored", stored.get(),
+                "storedBytes", storedBytes.get(),
+                "deduplicated", deduplicated.get()
+        );
+    }
+    
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        // A concurrent put of the same hash renames identical content over it
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    Path pathOf(Felt252 poseidonHash) {
+        String hex = HexFormat.of().formatHex(poseidonHash.toBytes());
+        int end = hex.length();
+        return root.resolve(hex.substring(end - 2)).resolve(hex.substring(end - 4, end - 2)).resolve(hex);
+    }
+    
+    private record FileBlob(Path file, FileChannel channel) implements Blob {
+        
+        @Override
+        public long size() {
+            try {
+                return channel.size();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read the size of " + file, e);
+            }
+        }
+        
+        @Override
+        public Optional<Path> path() {
+            return Optional.of(file);
+        }
+        
+        @Override
+        public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            long end = position + count;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    throw new IOException("Blob " + file.getFileName() + " is shorter than expected");
+                }
+                position += transferred;
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,258 @@
+package org.mtvs.java_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.HashIndexFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verification store for edge nodes that answers from a memory-mapped {@link HashIndexFile}
+ * instead of Postgres. Records added since the file was written go to a small delta, kept in
+ * memory and in an append-only file next to the index so it survives restarts. Once the delta
+ * reaches {@code hash-index.merge-threshold} records it is merged into a new index file in the
+ * background, which then replaces the old one. The delta is searched first, so a record
+ * rewritten with its tx hash shadows the older copy.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "verification.store", havingValue = "mapped")
+public class MappedFileRecordStore implements FileRecordStore {
+    
+    private final Path indexPath;
+    private final Path deltaPath;
+    private final Path mergingPath;
+    private final int mergeThreshold;
+    
+    // Guards appends to the delta file and swapping generations
+    private final Object appendLock = new Object();
+    private final ByteBuffer record = ByteBuffer.allocate(HashIndexFile.RECORD_SIZE);
+    private FileChannel deltaChannel;
+    
+    private volatile Generation current;
+    
+    /**
+     * The index file, the delta being merged into it (if any) and the delta taking new records
+     */
+    private record Generation(HashIndexFile index, Map<Felt252, HashIndexFile.Entry> merging,
+                              Map<Felt252, HashIndexFile.Entry> delta) {
+    }
+    
+    public MappedFileRecordStore(
+            @Value("${hash-index.path:data/hash-index.bin}") Path indexPath,
+            @Value("${hash-index.merge-threshold:10000}") int mergeThreshold) throws IOException {
+        this.indexPath = indexPath.toAbsolutePath();
+        this.deltaPath = sibling(".delta");
+        this.mergingPath = sibling(".delta.merging");
+        this.mergeThreshold = mergeThreshold;
+        
+        Files.createDirectories(this.indexPath.getParent());
+        if (!Files.exists(this.indexPath)) {
+            HashIndexFile.create(this.indexPath).close();
+        }
+        
+        // A merge interrupted by a crash left its input behind; it is older than the current delta
+        Map<Felt252, HashIndexFile.Entry> delta = new ConcurrentHashMap<>(replay(mergingPath));
+        delta.putAll(replay(deltaPath));
+        if (Files.exists(mergingPath)) {
+            rewrite(deltaPath, delta.values());
+            Files.delete(mergingPath);
+        }
+        
+        this.deltaChannel = openDelta();
+        this.current = new Generation(HashIndexFile.open(this.indexPath), Map.of(), delta);
+        log.info("Opened hash index {} with {} record(s) and {} pending in the delta",
+                this.indexPath, current.index().size(), delta.size());
+    }
+    
+    @Override
+    public Optional<FileEntity> findByPoseidonHash(Felt252 poseidonHash) {
+        return find(current, poseidonHash).map(MappedFileRecordStore::toFileEntity);
+    }
+    
+    @Override
+    public void add(FileEntity file) {
+        append(new HashIndexFile.Entry(file.getPoseidonHash(), file.getAuthorAddress(),
+                file.getFileSize(), file.getCreatedAt(), file.getStarknetTxHash()));
+    }
+    
+    @Override
+    public void setStarknetTxHash(Collection<Felt252> poseidonHashes, Felt252 txHash) {
+        for (Felt252 poseidonHash : poseidonHashes) {
+            find(current, poseidonHash).ifPresent(entry -> append(new HashIndexFile.Entry(poseidonHash,
+                    entry.authorAddress(), entry.fileSize(), entry.createdAt(), txHash)));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${hash-index.merge-interval:1m}")
+    public void mergeIfNeeded() {
+        Generation generation = current;
+        if (generation.delta().size() + generation.merging().size() < mergeThreshold) {
+            return;
+        }
+        try {
+            merge();
+        } catch (IOException e) {
+            log.error("Failed to merge the hash index delta, retrying on next run: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Fold the delta into a new index file and swap it in. Lookups and appends continue
+     * meanwhile: new records go to a fresh delta while the old one is being merged.
+     */
+    synchronized void merge() throws IOException {
+        Generation merging;
+        synchronized (appendLock) {
+            // A failed earlier merge left its delta in place; merge it again together with the new one
+            Map<Felt252, HashIndexFile.Entry> pending = new LinkedHashMap<>(current.merging());
+            pending.putAll(current.delta());
+            deltaChannel.close();
+            try {
+                if (Files.exists(mergingPath)) {
+                    rewrite(mergingPath, pending.values());
+                    Files.delete(deltaPath);
+                } else {
+                    Files.move(deltaPath, mergingPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                deltaChannel = openDelta();
+            }
+            merging = new Generation(current.index(), pending, new ConcurrentHashMap<>());
+            current = merging;
+        }
+        
+        long started = System.nanoTime();
+        Path mergedPath = sibling(".tmp");
+        long records = HashIndexFile.merge(merging.index(), merging.merging().values(), mergedPath);
+        Files.move(mergedPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        HashIndexFile merged = HashIndexFile.open(indexPath);
+        
+        synchronized (appendLock) {
+            current = new Generation(merged, Map.of(), current.delta());
+        }
+        Files.delete(mergingPath);
+        merging.index().close();
+        log.info("Merged {} delta record(s) into the hash index ({} records) in {} ms",
+                merging.merging().size(), records, (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    @Override
+    public Map<String, Object> stats() {
+        Generation generation = current;
+        return Map.of(
+                "store", "mapped",
+                "path", indexPath.toString(),
+                "indexedRecords", generation.index().size(),
+                "indexBytes", generation.index().sizeInBytes(),
+                "deltaRecords", generation.delta().size() + generation.merging().size(),
+                "mergeThreshold", mergeThreshold
+        );
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            deltaChannel.close();
+        }
+        current.index().close();
+    }
+    
+    private static Optional<HashIndexFile.Entry> find(Generation generation, Felt252 key) {
+        HashIndexFile.Entry entry = generation.delta().get(key);
+        if (entry == null) {
+            entry = generation.merging().get(key);
+        }
+        return entry != null ? Optional.of(entry) : generation.index().find(key);
+    }
+    
+    /**
+     * Write the record to the delta file before it becomes visible. Writes are not forced to disk:
+     * the database stays the source of truth and the index can be exported again.
+     */
+    private void append(HashIndexFile.Entry entry) {
+        synchronized (appendLock) {
+            try {
+                record.clear();
+                HashIndexFile.encode(entry, record);
+                record.flip();
+                while (record.hasRemaining()) {
+                    deltaChannel.write(record);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to append to the hash index delta", e);
+            }
+            current.delta().put(entry.poseidonHash(), entry);
+        }
+    }
+    
+    /**
+     * Records of a delta file in write order, later ones replacing earlier ones.
+     * A torn record at the end, from a crash during an append, is ignored.
+     */
+    private static Map<Felt252, HashIndexFile.Entry> replay(Path path) throws IOException {
+        Map<Felt252, HashIndexFile.Entry> entries = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        while (buffer.remaining() >= HashIndexFile.RECORD_SIZE) {
+            HashIndexFile.Entry entry = HashIndexFile.decode(buffer);
+            entries.put(entry.poseidonHash(), entry);
+        }
+        return entries;
+    }
+    
+    private void rewrite(Path path, Collection<HashIndexFile.Entry> entries) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HashIndexFile.RECORD_SIZE);
+            for (HashIndexFile.Entry entry : entries) {
+                buffer.clear();
+                HashIndexFile.encode(entry, buffer);
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private FileChannel openDelta() throws IOException {
+        return FileChannel.open(deltaPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+    
+    private Path sibling(String suffix) {
+        return indexPath.resolveSibling(indexPath.getFileName() + suffix);
+    }
+    
+    private static FileEntity toFileEntity(HashIndexFile.Entry entry) {
+        return FileEntity.builder()
+                .poseidonHash(entry.poseidonHash())
+                .authorAddress(entry.authorAddress())
+                .fileSize(entry.fileSize())
+                .createdAt(entry.createdAt())
+                .starknetTxHash(entry.starknetTxHash())
+                .build();
+    }
+}
\ No newline at end of file
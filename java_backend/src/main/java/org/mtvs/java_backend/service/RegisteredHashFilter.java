@@ -0,0 +1,99 @@
+package org.mtvs.java_backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.util.BloomFilter;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of stored felt252 hashes, so uploads of new content can skip
+ * the duplicate lookup in Postgres. It is rebuilt from a streaming scan after startup
+ * and updated on every insert; until the scan finishes every hash goes to the DB.
+ */
+@Slf4j
+@Component
+public class RegisteredHashFilter {
+    
+    private final FileRepository fileRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BloomFilter filter;
+    private volatile boolean ready;
+    private volatile boolean overfillLogged;
+    
+    public RegisteredHashFilter(
+            FileRepository fileRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${registered-hash-filter.expected-insertions:10000000}") long expectedInsertions,
+            @Value("${registered-hash-filter.fpp:0.01}") double fpp) {
+        this.fileRepository = fileRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        Thread.ofPlatform()
+                .daemon()
+                .name("registered-hash-filter")
+                .start(this::rebuild);
+    }
+    
+    /**
+     * True only when the hash is certainly not stored yet; false means "ask the database"
+     */
+    public boolean isDefinitelyNew(Felt252 poseidonHash) {
+        return ready && !filter.mightContain(poseidonHash.limb(1), poseidonHash.limb(0));
+    }
+    
+    public void add(Felt252 poseidonHash) {
+        filter.put(poseidonHash.limb(1), poseidonHash.limb(0));
+        
+        if (!overfillLogged && filter.insertions() > filter.expectedInsertions()) {
+            overfillLogged = true;
+            log.warn("Registered hash filter holds more than {} hashes, false-positive rate is rising; "
+                    + "raise registered-hash-filter.expected-insertions", filter.expectedInsertions());
+        }
+    }
+    
+    public Map<String, Object> stats() {
+        return Map.of(
+                "ready", ready,
+                "hashes", filter.insertions(),
+                "expectedInsertions", filter.expectedInsertions(),
+                "hashFunctions", filter.hashFunctions(),
+                "memoryBytes", filter.memoryBytes(),
+                "configuredFpp", filter.configuredFpp(),
+                "expectedFpp", filter.expectedFpp(),
+                "memoryBytesFor10M", BloomFilter.bitSize(10_000_000L, filter.configuredFpp()) / 8,
+                "memoryBytesFor100M", BloomFilter.bitSize(100_000_000L, filter.configuredFpp()) / 8
+        );
+    }
+    
+    void rebuild() {
+        long start = System.nanoTime();
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Felt252> hashes = fileRepository.streamAllHashes()) {
+                    hashes.forEach(this::add);
+                }
+            });
+            ready = true;
+            log.info("Registered hash filter loaded {} hashes in {} ms ({} bytes)", filter.insertions(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), filter.memoryBytes());
+        } catch (Exception e) {
+            // Stay not ready: every duplicate check keeps going to the database
+            log.error("Failed to load registered hash filter: {}", e.getMessage());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,231 @@
+package org.mtvs.java_backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.entity.RegistrationOutboxEntity;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.repository.RegistrationOutboxRepository;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.RpcUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Drains the registration outbox in the background. Due registrations are claimed in
+ * batches (marked in flight under a fresh attempt id and committed), then submitted as one
+ * multicall transaction per batch without holding a connection or row locks; the outcome
+ * is recorded in a second transaction. Registrations the chain already knows are completed
+ * without being resubmitted, and a rejected batch is split in halves until the entries that
+ * fail are isolated, so one bad entry does not fail the rest. Those are retried with
+ * exponential backoff until they give up. A registration found on chain before the chain
+ * index has its transaction is kept and looked up again with the same backoff, without
+ * giving up, so the file gets its transaction hash once the indexer has mirrored the event.
+ * A claim left behind by a crash expires after {@code claim-timeout} and is picked up again.
+ */
+@Slf4j
+@Service
+public class RegistrationDispatcher {
+    
+    private static final int MAX_ERROR_LENGTH = 1024;
+    static final String TX_HASH_PENDING = "Registered on chain, waiting for the chain index to report its transaction";
+    private static final List<RegistrationOutboxEntity.Status> CLAIMABLE =
+            List.of(RegistrationOutboxEntity.Status.PENDING, RegistrationOutboxEntity.Status.IN_FLIGHT);
+    
+    private final RegistrationOutboxRepository outboxRepository;
+    private final FileRepository fileRepository;
+    private final StarknetService starknetService;
+    private final VerificationCache verificationCache;
+    private final FileRecordStore fileRecordStore;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+    
+    public RegistrationDispatcher(
+            RegistrationOutboxRepository outboxRepository,
+            FileRepository fileRepository,
+            StarknetService starknetService,
+            VerificationCache verificationCache,
+            FileRecordStore fileRecordStore,
+            TransactionTemplate transactionTemplate,
+            @Value("${registration.outbox.batch-size:50}") int batchSize,
+            @Value("${registration.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${registration.outbox.initial-backoff:5s}") Duration initialBackoff,
+            @Value("${registration.outbox.max-backoff:10m}") Duration maxBackoff,
+            @Value("${registration.outbox.claim-timeout:5m}") Duration claimTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.fileRepository = fileRepository;
+        this.starknetService = starknetService;
+        this.verificationCache = verificationCache;
+        this.fileRecordStore = fileRecordStore;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+    }
+    
+    /**
+     * Keep dispatching while full batches come back, so a backlog drains in one run
+     */
+    @Scheduled(fixedDelayString = "${registration.outbox.flush-interval:5s}",
+            initialDelayString = "${registration.outbox.flush-interval:5s}")
+    public void flush() {
+        List<RegistrationOutboxEntity> batch;
+        do {
+            batch = transactionTemplate.execute(status -> claimBatch());
+            if (!batch.isEmpty()) {
+                dispatch(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+    
+    /**
+     * Mark the oldest due registrations in flight under a new attempt id; they stay claimed
+     * once the transaction commits, until {@code claimTimeout} has passed
+     */
+    private List<RegistrationOutboxEntity> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RegistrationOutboxEntity> batch = outboxRepository.findDueForUpdate(
+                CLAIMABLE, now, PageRequest.of(0, batchSize));
+        UUID attemptId = UUID.randomUUID();
+        for (RegistrationOutboxEntity registration : batch) {
+            registration.setStatus(RegistrationOutboxEntity.Status.IN_FLIGHT);
+            registration.setAttemptId(attemptId);
+            registration.setAttempts(registration.getAttempts() + 1);
+            registration.setNextAttemptAt(now.plus(claimTimeout));
+        }
+        return batch;
+    }
+    
+    private void dispatch(List<RegistrationOutboxEntity> batch) {
+        List<RegistrationOutboxEntity> unregistered = new ArrayList<>(batch.size());
+        Map<Felt252, List<RegistrationOutboxEntity>> registeredByTx = new LinkedHashMap<>();
+        List<RegistrationOutboxEntity> awaitingTxHash = new ArrayList<>();
+        for (RegistrationOutboxEntity registration : batch) {
+            if (!isRegistered(registration)) {
+                unregistered.add(registration);
+                continue;
+            }
+            Optional<Felt252> txHash = starknetService.getRegistrationTxHash(registration.getPoseidonHash());
+            if (txHash.isPresent()) {
+                registeredByTx.computeIfAbsent(txHash.get(), tx -> new ArrayList<>()).add(registration);
+            } else {
+                awaitingTxHash.add(registration);
+            }
+        }
+        
+        registeredByTx.forEach((txHash, registrations) -> complete(registrations, txHash));
+        if (!awaitingTxHash.isEmpty()) {
+            // Deleting the row now would leave the file without a transaction hash for good
+            transactionTemplate.executeWithoutResult(status -> scheduleRetry(awaitingTxHash, TX_HASH_PENDING, false));
+        }
+        if (!unregistered.isEmpty()) {
+            submit(unregistered);
+        }
+    }
+    
+    /**
+     * Already on chain, so submitting it again would revert the whole multicall. The contract
+     * is only asked about a registration that may have been submitted before.
+     */
+    private boolean isRegistered(RegistrationOutboxEntity registration) {
+        Felt252 hash = registration.getPoseidonHash();
+        if (starknetService.isRegisteredInChainIndex(hash).orElse(false)) {
+            return true;
+        }
+        return registration.getAttempts() > 1 && starknetService.verifyFileOnContract(hash);
+    }
+    
+    /**
+     * Submit a batch; if it is rejected, submit each half on its own so the entries that
+     * fail end up alone and only they are retried
+     */
+    private void submit(List<RegistrationOutboxEntity> batch) {
+        Felt252 txHash;
+        try {
+            txHash = starknetService.registerFilesOnChain(batch);
+        } catch (Exception e) {
+            // Splitting cannot help while the node is unreachable
+            if (batch.size() == 1 || e instanceof RpcUnavailableException) {
+                log.error("Failed to register {} file(s) on Starknet: {}", batch.size(), e.getMessage());
+                transactionTemplate.executeWithoutResult(status -> scheduleRetry(batch, String.valueOf(e.getMessage()), true));
+                return;
+            }
+            log.warn("Multicall of {} file(s) rejected, splitting it: {}", batch.size(), e.getMessage());
+            int half = batch.size() / 2;
+            submit(batch.subList(0, half));
+            submit(batch.subList(half, batch.size()));
+            return;
+        }
+        log.info("Registered {} file(s) on Starknet in transaction {}", batch.size(), txHash);
+        complete(batch, txHash);
+    }
+    
+    /**
+     * Record the transaction on the files and remove their outbox rows
+     */
+    private void complete(List<RegistrationOutboxEntity> registrations, Felt252 txHash) {
+        List<Felt252> hashes = registrations.stream()
+                .map(RegistrationOutboxEntity::getPoseidonHash)
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            fileRepository.updateStarknetTxHash(txHash, hashes, LocalDateTime.now());
+            outboxRepository.deleteAllByIdInBatch(registrations.stream().map(RegistrationOutboxEntity::getId).toList());
+        });
+        // Publish after commit so a concurrent verify cannot cache the old tx hash again
+        fileRecordStore.setStarknetTxHash(hashes, txHash);
+        hashes.forEach(verificationCache::invalidate);
+    }
+    
+    /**
+     * Back off the registrations that are still claimed by this attempt; one claimed again
+     * after its claim expired belongs to the newer attempt. Past {@code maxAttempts} they
+     * fail for good if {@code mayGiveUp}, otherwise they keep retrying at the longest backoff.
+     */
+    private void scheduleRetry(List<RegistrationOutboxEntity> registrations, String error, boolean mayGiveUp) {
+        LocalDateTime now = LocalDateTime.now();
+        UUID attemptId = registrations.get(0).getAttemptId();
+        List<Long> ids = registrations.stream().map(RegistrationOutboxEntity::getId).toList();
+        for (RegistrationOutboxEntity registration : outboxRepository.findAllById(ids)) {
+            if (!attemptId.equals(registration.getAttemptId())) {
+                continue;
+            }
+            int attempts = registration.getAttempts();
+            registration.setLastError(truncate(error));
+            registration.setAttemptId(null);
+            
+            if (mayGiveUp && attempts >= maxAttempts) {
+                log.error("Giving up on registering {} after {} attempts", registration.getPoseidonHash(), attempts);
+                registration.setStatus(RegistrationOutboxEntity.Status.FAILED);
+                continue;
+            }
+            registration.setStatus(RegistrationOutboxEntity.Status.PENDING);
+            registration.setNextAttemptAt(now.plus(backoff(attempts)));
+        }
+    }
+    
+    private Duration backoff(int attempts) {
+        // initialBackoff * 2^(attempts - 1), capped before it can overflow
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+    
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
\ No newline at end of file
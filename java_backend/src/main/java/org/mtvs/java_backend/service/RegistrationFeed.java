@@ -0,0 +1,127 @@
+package org.mtvs.java_backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.dto.FileUploadResponse;
+import org.mtvs.java_backend.util.SequenceRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Push feed of newly stored files for {@code GET /feed}, replacing polling of {@code /all}.
+ * Each file is published into a {@link SequenceRing} of the most recent ones and numbered;
+ * the number is the SSE event id, so a client that reconnects with {@code Last-Event-ID}
+ * (or {@code after}) gets what it missed. Subscribers read the ring at their own pace and
+ * publishers only signal that something new is there, so a slow subscriber never holds up
+ * an upload. One that falls a whole ring behind gets a {@code reset} event carrying the
+ * current sequence and is disconnected: it should reload the list and resume from there.
+ */
+@Slf4j
+@Component
+public class RegistrationFeed {
+    
+    public static final String REGISTRATION_EVENT = "registration";
+    public static final String RESET_EVENT = "reset";
+    
+    private static final int READ_BATCH = 256;
+    private static final long HEARTBEAT = -1;
+    
+    private final SequenceRing<FileUploadResponse> ring;
+    // Carries the newest sequence; subscribers without demand simply miss a signal
+    private final Sinks.Many<Long> published = Sinks.many().multicast().directBestEffort();
+    private final Object publishLock = new Object();
+    private final Duration heartbeat;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong resets = new AtomicLong();
+    
+    public RegistrationFeed(
+            @Value("${registration-feed.capacity:4096}") int capacity,
+            @Value("${registration-feed.heartbeat:15s}") Duration heartbeat) {
+        // Sequences continue past any a previous process handed out, so its ids read as stale
+        this.ring = new SequenceRing<>(capacity, System.currentTimeMillis() * 1000);
+        this.heartbeat = heartbeat;
+    }
+    
+    /**
+     * Called once a new file has been committed
+     */
+    public void publish(FileUploadResponse file) {
+        synchronized (publishLock) {
+            long sequence = ring.publish(file);
+            // Emissions must not overlap; fails harmlessly when nobody is subscribed
+            published.tryEmitNext(sequence);
+        }
+    }
+    
+    /**
+     * Files published after {@code after}, then new ones as they arrive; from now on when null
+     */
+    public Flux<ServerSentEvent<Object>> subscribe(Long after) {
+        return Flux.defer(() -> {
+            AtomicLong cursor = new AtomicLong(after != null ? after : ring.lastSequence());
+            // The live signal is subscribed first, so nothing published after the first read is missed
+            return Flux.merge(published.asFlux(), Flux.just(cursor.get()),
+                            Flux.interval(heartbeat).map(tick -> HEARTBEAT))
+                    .onBackpressureLatest()
+                    .publishOn(Schedulers.boundedElastic(), 1)
+                    .concatMap(signal -> Flux.fromIterable(read(cursor, signal == HEARTBEAT)), 1)
+                    .takeUntil(event -> RESET_EVENT.equals(event.event()))
+                    .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                    .doFinally(signal -> subscribers.decrementAndGet());
+        });
+    }
+    
+    public Map<String, Object> stats() {
+        return Map.of(
+                "subscribers", subscribers.get(),
+                "lastSequence", ring.lastSequence(),
+                "capacity", ring.capacity(),
+                "resets", resets.get()
+        );
+    }
+    
+    /**
+     * Everything after the cursor, advancing it; a reset if the ring no longer holds it
+     */
+    private List<ServerSentEvent<Object>> read(AtomicLong cursor, boolean heartbeat) {
+        List<ServerSentEvent<Object>> events = new ArrayList<>();
+        while (true) {
+            SequenceRing.Read<FileUploadResponse> read = ring.readAfter(cursor.get(), READ_BATCH);
+            if (read.overran()) {
+                resets.incrementAndGet();
+                log.debug("Feed subscriber at {} fell behind sequence {}, resetting", cursor.get(), ring.lastSequence());
+                events.add(ServerSentEvent.builder()
+                        .event(RESET_EVENT)
+                        .data(Map.of("lastSequence", ring.lastSequence()))
+                        .build());
+                return events;
+            }
+            if (read.entries().isEmpty()) {
+                break;
+            }
+            for (SequenceRing.Entry<FileUploadResponse> entry : read.entries()) {
+                events.add(ServerSentEvent.builder()
+                        .id(Long.toString(entry.sequence()))
+                        .event(REGISTRATION_EVENT)
+                        .data(entry.item())
+                        .build());
+                cursor.set(entry.sequence());
+            }
+        }
+        if (events.isEmpty() && heartbeat) {
+            // Keeps proxies from closing an idle connection
+            events.add(ServerSentEvent.builder().comment("heartbeat").build());
+        }
+        return events;
+    }
+}
\ No newline at end of file
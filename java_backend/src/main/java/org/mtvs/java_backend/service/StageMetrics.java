@@ -0,0 +1,148 @@
+package org.mtvs.java_backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Observations for the stages of uploads and verifications. Each one is recorded as a
+ * timer ({@code <operation>.stage{stage=...}}, exported with histogram buckets) and, when
+ * tracing is on, as a span under the request's span, so a slow request shows which stage
+ * used up its budget.
+ */
+@Component
+public class StageMetrics {
+    
+    public static final String UPLOAD = "file.upload";
+    public static final String VERIFY = "file.verify";
+    public static final String REGISTER = "starknet.register";
+    
+    // Reactor context key carrying the enclosing observation across scheduler hops
+    private static final String PARENT = StageMetrics.class.getName() + ".parent";
+    
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Timer uploadReads;
+    
+    public StageMetrics(ObservationRegistry observationRegistry, MeterRegistry meterRegistry) {
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+        this.uploadReads = Timer.builder(UPLOAD + ".read")
+                .description("Time spent reading the multipart content while it is hashed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Observe a whole operation; stages run inside it become its children
+     */
+    public <T, E extends Throwable> T observe(String operation, Observation.CheckedCallable<T, E> work) throws E {
+        return Observation.createNotStarted(operation, observationRegistry).observeChecked(work);
+    }
+    
+    public <T, E extends Throwable> T stage(String operation, String stage, Observation.CheckedCallable<T, E> work) throws E {
+        return stageObservation(operation, stage).observeChecked(work);
+    }
+    
+    public <T> Mono<T> observe(String operation, Mono<T> work) {
+        return observe(() -> Observation.createNotStarted(operation, observationRegistry), work);
+    }
+    
+    public <T> Mono<T> stage(String operation, String stage, Mono<T> work) {
+        return observe(() -> stageObservation(operation, stage), work);
+    }
+    
+    /**
+     * Wrap the upload content so the time blocked in reads is recorded separately from
+     * hashing, which consumes the stream as it arrives. Recorded on close.
+     */
+    public InputStream timedReads(InputStream in) {
+        return new TimedInputStream(in, uploadReads);
+    }
+    
+    /**
+     * An answer was given without one of its sources (e.g. the DB timed out)
+     */
+    public void fallback(String reason) {
+        meterRegistry.counter("verification.fallbacks", "reason", reason).increment();
+    }
+    
+    /**
+     * A verification upload was answered before its content was fully read
+     */
+    public void earlyExit(String reason) {
+        meterRegistry.counter("verification.early-exits", "reason", reason).increment();
+    }
+    
+    public void rpcError(String method) {
+        meterRegistry.counter("starknet.rpc.errors", "method", method).increment();
+    }
+    
+    private Observation stageObservation(String operation, String stage) {
+        return Observation.createNotStarted(operation + ".stage", observationRegistry)
+                .contextualName(operation + " " + stage)
+                .lowCardinalityKeyValue("stage", stage);
+    }
+    
+    /**
+     * Reactive work moves between threads, so the parent is taken from the subscriber
+     * context (or the calling thread at subscription) rather than from a thread local
+     */
+    private <T> Mono<T> observe(Supplier<Observation> observations, Mono<T> work) {
+        return Mono.deferContextual(context -> {
+            Observation observation = observations.get();
+            observation.parentObservation(context.getOrDefault(PARENT, observationRegistry.getCurrentObservation()));
+            observation.start();
+            return work.doOnError(observation::error)
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(Context.of(PARENT, observation));
+        });
+    }
+    
+    private static class TimedInputStream extends FilterInputStream {
+        
+        private final Timer timer;
+        private long readNanos;
+        
+        TimedInputStream(InputStream in, Timer timer) {
+            super(in);
+            this.timer = timer;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            long started = System.nanoTime();
+            try {
+                return super.read();
+            } finally {
+                readNanos += System.nanoTime() - started;
+            }
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long started = System.nanoTime();
+            try {
+                return super.read(b, off, len);
+            } finally {
+                readNanos += System.nanoTime() - started;
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            super.close();
+            timer.record(readNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
\ No newline at end of file
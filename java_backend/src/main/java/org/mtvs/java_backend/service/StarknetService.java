@@ -1,66 +1,211 @@
 package org.mtvs.java_backend.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.entity.RegistrationOutboxEntity;
+import org.mtvs.java_backend.repository.ChainFileRepository;
+import org.mtvs.java_backend.util.ChainFileDetails;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.StarknetCalldata;
 import org.mtvs.java_backend.util.StarknetCommunicator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
 public class StarknetService {
     
     private static final String CONTRACT_ADDRESS = "0x06ebf0234be358bd087fdf5165d4b5cf7103fa1d00b8a4edb32b6e61b6d764f0";
+    private static final String REGISTER_FILE_SELECTOR = "0x26cddc969262f582a7f8d266ff49cd908e67da959d147756b1675bc38de833b";
     private static final String EXPLORER_BASE_URL = "https://sepolia.starkscan.co";
     
     @Autowired
     private StarknetCommunicator starknetCommunicator;
     
-    public String registerFileOnChain(String poseidonHash, String filename, String fileType, long fileSize) {
-        log.info("Registering file on Starknet - Hash: {}, Filename: {}, Type: {}, Size: {}", 
-                poseidonHash, filename, fileType, fileSize);
+    @Autowired
+    private ChainStateIndex chainStateIndex;
+    
+    @Autowired
+    private ChainFileRepository chainFileRepository;
+    
+    @Autowired
+    private StageMetrics stageMetrics;
+    
+    /**
+     * Register a batch of files in one multicall transaction and return its hash
+     */
+    public Felt252 registerFilesOnChain(List<RegistrationOutboxEntity> registrations) {
+        return stageMetrics.observe(StageMetrics.REGISTER, () -> submitRegistrations(registrations));
+    }
+    
+    private Felt252 submitRegistrations(List<RegistrationOutboxEntity> registrations) {
+        List<StarknetCalldata.Call> calls = registrations.stream()
+                .map(registration -> new StarknetCalldata.Call(CONTRACT_ADDRESS, REGISTER_FILE_SELECTOR,
+                        registerFileCalldata(registration)))
+                .toList();
+        List<String> executeCalldata = StarknetCalldata.multicall(calls);
+        
+        log.info("Registering {} file(s) on Starknet in one multicall ({} calldata felts)",
+                calls.size(), executeCalldata.size());
         
         // Note: For now returning mock hash as actual contract interaction requires private key
         // In production, this would:
         // 1. Connect to Starknet with account
-        // 2. Call the register_file function on deployed contract
+        // 2. Sign and send an INVOKE transaction calling __execute__ with executeCalldata
         // 3. Return actual transaction hash
         
         String mockTxHash = "0x" + Long.toHexString(System.currentTimeMillis()) + 
-                           Long.toHexString(poseidonHash.hashCode()).substring(0, 8);
+                           String.format("%08x", executeCalldata.hashCode());
         
         log.info("Generated transaction hash: {}", mockTxHash);
-        return mockTxHash;
+        return Felt252.fromHex(mockTxHash);
     }
     
-    public boolean verifyFileOnChain(String poseidonHash) {
+    private List<String> registerFileCalldata(RegistrationOutboxEntity registration) {
+        List<String> calldata = new ArrayList<>();
+        calldata.add(registration.getPoseidonHash().toHex());
+        calldata.addAll(StarknetCalldata.byteArray(registration.getFilename()));
+        calldata.addAll(StarknetCalldata.byteArray(registration.getFileType()));
+        calldata.add(StarknetCalldata.felt(registration.getFileSize()));
+        return calldata;
+    }
+    
+    public boolean verifyFileOnChain(Felt252 poseidonHash) {
         log.info("Verifying file on Starknet - Hash: {}", poseidonHash);
         
+        // The event mirror answers locally while it is caught up with the chain
+        Optional<Boolean> indexed = chainStateIndex.isRegistered(poseidonHash);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+        
+        stageMetrics.fallback("chain-index");
+        return verifyFileOnContract(poseidonHash);
+    }
+    
+    /**
+     * Ask the contract itself, bypassing the event mirror; false when it cannot be reached
+     */
+    public boolean verifyFileOnContract(Felt252 poseidonHash) {
+        // While the RPC circuit is open, answer from local data only
+        if (!starknetCommunicator.isAvailable()) {
+            stageMetrics.fallback("circuit-open");
+            return false;
+        }
         try {
-            return starknetCommunicator.isFileRegistered(poseidonHash);
+            return stageMetrics.stage(StageMetrics.VERIFY, "rpc-is-file-registered",
+                    () -> starknetCommunicator.isFileRegistered(poseidonHash));
         } catch (Exception e) {
+            stageMetrics.rpcError("is_file_registered");
             log.error("Error verifying file on Starknet: {}", e.getMessage());
             return false;
         }
     }
     
-    public Map<String, Object> getFileDetailsFromChain(String poseidonHash) {
+    /**
+     * Whether the event mirror has seen the file registered; empty while it lags the chain
+     */
+    public Optional<Boolean> isRegisteredInChainIndex(Felt252 poseidonHash) {
+        return chainStateIndex.isRegistered(poseidonHash);
+    }
+    
+    /**
+     * Transaction that registered the file, if the event mirror has it
+     */
+    public Optional<Felt252> getRegistrationTxHash(Felt252 poseidonHash) {
+        return chainFileRepository.findById(poseidonHash.toHex())
+                .map(file -> file.getTransactionHash())
+                .filter(Felt252::isValid)
+                .map(Felt252::fromHex);
+    }
+    
+    public Optional<ChainFileDetails> getFileDetailsFromChain(Felt252 poseidonHash) {
         log.info("Getting file details from Starknet - Hash: {}", poseidonHash);
         
+        Optional<ChainFileDetails> mirrored = mirroredFileDetails(poseidonHash);
+        if (mirrored.isPresent()) {
+            return mirrored;
+        }
+        if (!starknetCommunicator.isAvailable()) {
+            stageMetrics.fallback("circuit-open");
+            return Optional.empty();
+        }
+        
         try {
-            return starknetCommunicator.verifyFile(poseidonHash);
+            return stageMetrics.stage(StageMetrics.VERIFY, "rpc-verify-file",
+                    () -> starknetCommunicator.verifyFile(poseidonHash));
         } catch (Exception e) {
+            stageMetrics.rpcError("verify_file");
             log.error("Error getting file details from Starknet: {}", e.getMessage());
-            return Map.of();
+            return Optional.empty();
+        }
+    }
+    
+    public Mono<Boolean> verifyFileOnChainReactive(Felt252 poseidonHash) {
+        return chainStateIndex.isRegistered(poseidonHash)
+                .map(Mono::just)
+                .orElseGet(() -> {
+                    stageMetrics.fallback("chain-index");
+                    if (!starknetCommunicator.isAvailable()) {
+                        stageMetrics.fallback("circuit-open");
+                        return Mono.just(false);
+                    }
+                    return stageMetrics.stage(StageMetrics.VERIFY, "rpc-is-file-registered",
+                                    Mono.fromFuture(() -> starknetCommunicator.isFileRegisteredAsync(poseidonHash)))
+                            .doOnError(e -> stageMetrics.rpcError("is_file_registered"));
+                });
+    }
+    
+    /**
+     * Empty when neither the mirror nor the contract knows the file
+     */
+    public Mono<ChainFileDetails> getFileDetailsFromChainReactive(Felt252 poseidonHash) {
+        return Mono.fromCallable(() -> mirroredFileDetails(poseidonHash).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.defer(() -> {
+                    if (!starknetCommunicator.isAvailable()) {
+                        stageMetrics.fallback("circuit-open");
+                        return Mono.<ChainFileDetails>empty();
+                    }
+                    return stageMetrics.stage(StageMetrics.VERIFY, "rpc-verify-file",
+                                    Mono.fromFuture(() -> starknetCommunicator.verifyFileAsync(poseidonHash)))
+                            .doOnError(e -> stageMetrics.rpcError("verify_file"))
+                            .flatMap(Mono::justOrEmpty);
+                }));
+    }
+    
+    /**
+     * Details from the mirrored FileRegistered event, as the verify_file call would return them
+     */
+    private Optional<ChainFileDetails> mirroredFileDetails(Felt252 poseidonHash) {
+        if (!chainStateIndex.isRegistered(poseidonHash).orElse(false)) {
+            return Optional.empty();
         }
+        return chainFileRepository.findById(poseidonHash.toHex())
+                .map(file -> new ChainFileDetails(
+                        Felt252.isValid(file.getAuthorAddress()) ? Felt252.fromHex(file.getAuthorAddress()) : null,
+                        file.getFilename(),
+                        file.getFileType(),
+                        file.getFileSize(),
+                        file.getRegisteredAt()
+                ));
+    }
+    
+    public Map<String, Object> getChainIndexStats() {
+        return chainStateIndex.stats();
     }
     
     public String getContractAddress() {
         return CONTRACT_ADDRESS;
     }
     
-    public String getExplorerUrl(String txHash) {
+    public String getExplorerUrl(Felt252 txHash) {
         return EXPLORER_BASE_URL + "/tx/" + txHash;
     }
     
@@ -0,0 +1,165 @@
+package org.mtvs.java_backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.mtvs.java_backend.util.ByteBudget;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.TokenBuckets;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decides whether an upload may start, before its body is read:
+ * <ul>
+ *   <li>a declared Content-Length over the endpoint's limit is refused (413);</li>
+ *   <li>each author has a token bucket of upload requests (429 once it is empty);</li>
+ *   <li>all uploads share a budget of bytes in flight, charged by declared length; a
+ *   request waits briefly for room and is refused (503) if none frees up.</li>
+ * </ul>
+ * Rejections carry a Retry-After. Queue depth, bytes in flight and rejections are metered.
+ */
+@Slf4j
+@Component
+public class UploadAdmission {
+    
+    /**
+     * Request attribute set once the author's bucket has been charged for the request
+     */
+    public static final String AUTHOR_CHECKED = UploadAdmission.class.getName() + ".authorChecked";
+    
+    // Room for the multipart boundaries and part headers around the file itself
+    private static final long MULTIPART_OVERHEAD = 64 * 1024;
+    
+    private final ChunkedHashService chunkedHashService;
+    private final MeterRegistry meterRegistry;
+    private final TokenBuckets<Felt252> authorBuckets;
+    private final ByteBudget budget;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    
+    public UploadAdmission(
+            ChunkedHashService chunkedHashService,
+            MeterRegistry meterRegistry,
+            @Value("${upload.admission.max-in-flight:512MB}") DataSize maxInFlight,
+            @Value("${upload.admission.max-queued:64}") int maxQueued,
+            @Value("${upload.admission.max-wait:2s}") Duration maxWait,
+            @Value("${upload.admission.retry-after:1s}") Duration retryAfter,
+            @Value("${upload.admission.author-rate:5}") double authorRate,
+            @Value("${upload.admission.author-burst:20}") int authorBurst) {
+        this.chunkedHashService = chunkedHashService;
+        this.meterRegistry = meterRegistry;
+        this.authorBuckets = new TokenBuckets<>(authorRate, authorBurst);
+        this.budget = new ByteBudget(maxInFlight.toBytes(), maxQueued);
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+        
+        Gauge.builder("upload.admission.in-flight.bytes", budget, ByteBudget::inFlightBytes)
+                .description("Declared bytes of the uploads being processed")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("upload.admission.in-flight.requests", budget, ByteBudget::inFlightRequests)
+                .register(meterRegistry);
+        Gauge.builder("upload.admission.queue.depth", budget, ByteBudget::waiting)
+                .description("Uploads waiting for room in the in-flight byte budget")
+                .register(meterRegistry);
+        Gauge.builder("upload.admission.authors", authorBuckets, TokenBuckets::size)
+                .description("Authors with a partly drained token bucket")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Largest request accepted by the single-file upload, multipart framing included
+     */
+    public long maxRequestSize(boolean chunked) {
+        return (chunked ? chunkedHashService.maxFileSize() : FileService.MAX_FILE_SIZE) + MULTIPART_OVERHEAD;
+    }
+    
+    /**
+     * Admit a request that declared {@code contentLength} bytes (-1 if unknown). The author
+     * is checked here when it is known before the body is read, otherwise pass null and call
+     * {@link #checkAuthor} once it is. The permit must be closed when the request is done.
+     */
+    public Permit admit(Felt252 author, long contentLength, long maxContentLength) {
+        if (contentLength > maxContentLength) {
+            throw reject(UploadRejectedException.Reason.TOO_LARGE,
+                    "Request of " + contentLength + " bytes exceeds the " + maxContentLength + " byte limit", null);
+        }
+        if (author != null) {
+            checkAuthor(author);
+        }
+        // Without a declared length the request is charged as a full single-file upload
+        long charge = contentLength >= 0 ? contentLength : FileService.MAX_FILE_SIZE;
+        boolean acquired;
+        try {
+            acquired = budget.tryAcquire(charge, maxWait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw reject(UploadRejectedException.Reason.OVERLOADED, "Too many uploads in progress", retryAfter);
+        }
+        return new Permit(charge);
+    }
+    
+    /**
+     * Take a token from the author's bucket or throw with the time until the next one
+     */
+    public void checkAuthor(Felt252 author) {
+        long waitNanos = authorBuckets.tryAcquire(author);
+        if (waitNanos > 0) {
+            throw reject(UploadRejectedException.Reason.RATE_LIMITED,
+                    "Upload rate limit exceeded for this author", Duration.ofNanos(waitNanos));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${upload.admission.bucket-sweep-interval:1m}")
+    public void evictIdleAuthors() {
+        int evicted = authorBuckets.evictFull();
+        if (evicted > 0) {
+            log.debug("Dropped {} refilled author bucket(s)", evicted);
+        }
+    }
+    
+    public Map<String, Object> stats() {
+        return Map.of(
+                "inFlightBytes", budget.inFlightBytes(),
+                "inFlightRequests", budget.inFlightRequests(),
+                "queueDepth", budget.waiting(),
+                "maxInFlightBytes", budget.capacity(),
+                "trackedAuthors", authorBuckets.size()
+        );
+    }
+    
+    private UploadRejectedException reject(UploadRejectedException.Reason reason, String message, Duration retryAfter) {
+        meterRegistry.counter("upload.admission.rejections", "reason", reason.name().toLowerCase()).increment();
+        return new UploadRejectedException(reason, message, retryAfter);
+    }
+    
+    /**
+     * A share of the byte budget; closing it more than once is harmless
+     */
+    public final class Permit implements AutoCloseable {
+        
+        private final long bytes;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        
+        private Permit(long bytes) {
+            this.bytes = bytes;
+        }
+        
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                budget.release(bytes);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package org.mtvs.java_backend.service;
+
+import java.time.Duration;
+
+/**
+ * An upload was turned away by {@link UploadAdmission}. {@code retryAfter} is null when
+ * retrying the same request cannot succeed (it is too large).
+ */
+public class UploadRejectedException extends RuntimeException {
+    
+    public enum Reason { TOO_LARGE, RATE_LIMITED, OVERLOADED }
+    
+    private final Reason reason;
+    private final Duration retryAfter;
+    
+    public UploadRejectedException(Reason reason, String message, Duration retryAfter) {
+        super(message);
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+    
+    public Reason reason() {
+        return reason;
+    }
+    
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+    
+    /**
+     * Whole seconds for the Retry-After header, rounded up so a client never retries early
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
\ No newline at end of file
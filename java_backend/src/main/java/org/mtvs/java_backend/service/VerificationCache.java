@@ -0,0 +1,106 @@
+package org.mtvs.java_backend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.mtvs.java_backend.dto.FileVerificationResponse;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of verification results keyed by felt252 hash.
+ * Registered files are immutable on chain, so positive results live long;
+ * "not registered" results expire quickly so new registrations show up soon.
+ * Hits, misses and evictions are exported as {@code cache.*{cache="verification"}}.
+ * <p>
+ * Lookups may read a replica that lags the primary, so a result loaded right after a
+ * write can predate it. Each invalidation is therefore repeated once every replica still in
+ * the read rotation has replayed the write ({@code max-lag} plus one lag check interval).
+ */
+@Component
+public class VerificationCache implements MeterBinder {
+    
+    private final AsyncCache<Felt252, FileVerificationResponse> cache;
+    private final Executor afterReplicaLag;
+    
+    public VerificationCache(
+            @Value("${verification.cache.maximum-size:100000}") long maximumSize,
+            @Value("${verification.cache.positive-ttl:24h}") Duration positiveTtl,
+            @Value("${verification.cache.negative-ttl:30s}") Duration negativeTtl,
+            @Value("${datasource.replicas.max-lag:5s}") Duration replicaMaxLag,
+            @Value("${datasource.replicas.lag-check-interval:2s}") Duration lagCheckInterval) {
+        this.afterReplicaLag = CompletableFuture.delayedExecutor(
+                replicaMaxLag.plus(lagCheckInterval).toMillis(), TimeUnit.MILLISECONDS);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.<Felt252, FileVerificationResponse>writing(
+                        (hash, response) -> response.isRegistered() ? positiveTtl : negativeTtl))
+                .recordStats()
+                .buildAsync();
+    }
+    
+    /**
+     * Return the cached result, or load it once even under concurrent requests for the same hash.
+     * The loader runs outside the cache's internal locks, so a blocking load on a virtual
+     * thread does not pin its carrier.
+     */
+    public FileVerificationResponse get(Felt252 poseidonHash, Function<Felt252, FileVerificationResponse> loader) {
+        CompletableFuture<FileVerificationResponse> placeholder = new CompletableFuture<>();
+        CompletableFuture<FileVerificationResponse> cached = cache.get(poseidonHash, (key, executor) -> placeholder);
+        if (cached == placeholder) {
+            try {
+                placeholder.complete(loader.apply(poseidonHash));
+            } catch (Throwable e) {
+                // Failed futures are dropped from the cache; an incomplete one would block every later get
+                placeholder.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return cached.join();
+    }
+    
+    /**
+     * Non-blocking variant of {@link #get}. Failed loads are not cached.
+     */
+    public CompletableFuture<FileVerificationResponse> getAsync(
+            Felt252 poseidonHash, Function<Felt252, CompletableFuture<FileVerificationResponse>> loader) {
+        return cache.get(poseidonHash, (key, executor) -> loader.apply(poseidonHash));
+    }
+    
+    /**
+     * Drop the cached result now, and again once replicas have caught up with the write
+     */
+    public void invalidate(Felt252 poseidonHash) {
+        cache.synchronous().invalidate(poseidonHash);
+        afterReplicaLag.execute(() -> cache.synchronous().invalidate(poseidonHash));
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache.synchronous(), "verification", Tags.empty()).bindTo(registry);
+    }
+    
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.synchronous().stats();
+        return Map.of(
+                "size", cache.synchronous().estimatedSize(),
+                "hitCount", stats.hitCount(),
+                "missCount", stats.missCount(),
+                "hitRate", stats.hitRate(),
+                "evictionCount", stats.evictionCount()
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package org.mtvs.java_backend.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Bloom filter over 128-bit keys, stored as a flat bitset of longs.
+ * Keys are given as two 64-bit halves and mapped to bits by double hashing, so
+ * callers with already-random keys (felt252 hashes) need no extra hashing pass.
+ * <p>
+ * Sized for {@code expectedInsertions} at false-positive rate {@code fpp}, it uses
+ * {@code -n ln(fpp) / ln(2)^2} bits, e.g. at 1%: 11.4 MiB for 10M keys and
+ * 114 MiB for 100M keys; at 0.1%: 17.1 MiB and 171 MiB.
+ */
+public class BloomFilter {
+    
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final LongAdder insertions = new LongAdder();
+    
+    public BloomFilter(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long bits = bitSize(expectedInsertions, fpp);
+        this.words = new AtomicLongArray(Math.toIntExact(bits >>> 6));
+        this.bitSize = bits;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+    }
+    
+    /**
+     * Bits needed for the given capacity and false-positive rate, rounded up to whole longs
+     */
+    public static long bitSize(long expectedInsertions, double fpp) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        return (bits + 63) & ~63L;
+    }
+    
+    public void put(long high, long low) {
+        long h1 = mix(low);
+        long h2 = mix(high) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                long witness = words.compareAndExchange(word, current, current | mask);
+                if (witness == current) {
+                    break;
+                }
+                current = witness;
+            }
+        }
+        insertions.increment();
+    }
+    
+    /**
+     * False means the key was definitely never put; true means it probably was
+     */
+    public boolean mightContain(long high, long low) {
+        long h1 = mix(low);
+        long h2 = mix(high) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public long bitSize() {
+        return bitSize;
+    }
+    
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+    
+    public long memoryBytes() {
+        return bitSize / 8;
+    }
+    
+    public long expectedInsertions() {
+        return expectedInsertions;
+    }
+    
+    public double configuredFpp() {
+        return fpp;
+    }
+    
+    /**
+     * Keys put so far, counting repeated puts of the same key
+     */
+    public long insertions() {
+        return insertions.sum();
+    }
+    
+    /**
+     * Expected false-positive rate at the current fill, {@code (1 - e^(-kn/m))^k}
+     */
+    public double expectedFpp() {
+        double fill = -(double) hashFunctions * insertions() / bitSize;
+        return Math.pow(1 - Math.exp(fill), hashFunctions);
+    }
+    
+    /**
+     * MurmurHash3 finalizer, so structured keys (small test values) still spread evenly
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
\ No newline at end of file
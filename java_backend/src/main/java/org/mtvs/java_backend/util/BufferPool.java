@@ -0,0 +1,36 @@
+package org.mtvs.java_backend.util;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of fixed-size heap buffers used to stream file contents.
+ * When the pool is empty a fresh buffer is allocated, and buffers released
+ * beyond the pool capacity are simply dropped for the GC.
+ */
+@Component
+public class BufferPool {
+    
+    public static final int BUFFER_SIZE = 64 * 1024; // 64KB
+    private static final int MAX_POOLED_BUFFERS = 256;
+    
+    private final BlockingQueue<ByteBuffer> buffers = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+    
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocate(BUFFER_SIZE);
+    }
+    
+    public void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.capacity() == BUFFER_SIZE && buffer.hasArray()) {
+            buffers.offer(buffer.clear());
+        }
+    }
+    
+    public int pooledCount() {
+        return buffers.size();
+    }
+}
\ No newline at end of file
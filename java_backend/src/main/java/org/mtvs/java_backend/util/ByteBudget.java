@@ -0,0 +1,113 @@
+package org.mtvs.java_backend.util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A budget of bytes in flight. A request larger than the whole budget is charged the whole
+ * budget, so it can still run, but only alone. Callers that do not fit wait for releases,
+ * up to {@code maxWaiting} of them at a time; beyond that they are turned away at once.
+ */
+public class ByteBudget {
+    
+    private final long capacity;
+    private final int maxWaiting;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    
+    private long inFlight;
+    private int requests;
+    private int waiting;
+    
+    public ByteBudget(long capacity, int maxWaiting) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Budget must be at least one byte");
+        }
+        this.capacity = capacity;
+        this.maxWaiting = maxWaiting;
+    }
+    
+    /**
+     * Reserve {@code bytes}, waiting up to {@code maxWait} for room. Returns false if the
+     * budget stayed full or too many callers were already waiting.
+     */
+    public boolean tryAcquire(long bytes, Duration maxWait) throws InterruptedException {
+        long charge = charge(bytes);
+        lock.lock();
+        try {
+            if (inFlight + charge > capacity) {
+                if (waiting >= maxWaiting || maxWait.isZero()) {
+                    return false;
+                }
+                waiting++;
+                try {
+                    long remaining = maxWait.toNanos();
+                    while (inFlight + charge > capacity) {
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        remaining = released.awaitNanos(remaining);
+                    }
+                } finally {
+                    waiting--;
+                }
+            }
+            inFlight += charge;
+            requests++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Give back a reservation made with the same {@code bytes}
+     */
+    public void release(long bytes) {
+        lock.lock();
+        try {
+            inFlight -= charge(bytes);
+            requests--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long capacity() {
+        return capacity;
+    }
+    
+    public long inFlightBytes() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int inFlightRequests() {
+        lock.lock();
+        try {
+            return requests;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int waiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private long charge(long bytes) {
+        return Math.min(Math.max(bytes, 0), capacity);
+    }
+}
\ No newline at end of file
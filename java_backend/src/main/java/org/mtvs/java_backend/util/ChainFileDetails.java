@@ -0,0 +1,8 @@
+package org.mtvs.java_backend.util;
+
+/**
+ * A file registration as the registry contract reports it (verify_file) or as mirrored from
+ * its FileRegistered event. The author is null when the chain value is not a felt.
+ */
+public record ChainFileDetails(Felt252 authorAddress, String filename, String fileType, long fileSize, long timestamp) {
+}
\ No newline at end of file
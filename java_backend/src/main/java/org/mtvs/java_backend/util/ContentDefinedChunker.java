@@ -0,0 +1,151 @@
+package org.mtvs.java_backend.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Content-defined chunking with a gear rolling hash (FastCDC style). A boundary is placed
+ * where the top bits of the fingerprint over the last 64 bytes are all zero, so boundaries
+ * move with the content: an insertion or edit only changes the chunks around it, and the
+ * rest of the file splits the same way as before.
+ * <p>
+ * Chunks are between {@code minSize} and {@code maxSize} bytes. Below {@code avgSize} a
+ * stricter mask is used and above it a looser one (normalized chunking), which keeps most
+ * chunks close to the average. The gear table comes from a fixed seed, so every node
+ * splits the same content at the same offsets.
+ */
+public class ContentDefinedChunker {
+    
+    private static final long[] GEAR = gearTable(0x5eed_cdc0_f11e_5L);
+    // Bits of the fingerprint that depend on a byte: shifted out after 64 more bytes
+    private static final int WINDOW = 64;
+    
+    private final int minSize;
+    private final int avgSize;
+    private final int maxSize;
+    private final long strictMask;
+    private final long looseMask;
+    
+    public ContentDefinedChunker(int minSize, int avgSize, int maxSize) {
+        if (Integer.bitCount(avgSize) != 1) {
+            throw new IllegalArgumentException("Average chunk size must be a power of two");
+        }
+        if (minSize < WINDOW || minSize >= avgSize || avgSize >= maxSize) {
+            throw new IllegalArgumentException("Chunk sizes must satisfy " + WINDOW + " <= min < avg < max");
+        }
+        this.minSize = minSize;
+        this.avgSize = avgSize;
+        this.maxSize = maxSize;
+        int bits = Integer.numberOfTrailingZeros(avgSize);
+        this.strictMask = topBits(bits + 1);
+        this.looseMask = topBits(bits - 1);
+    }
+    
+    public int maxSize() {
+        return maxSize;
+    }
+    
+    /**
+     * Length of the chunk starting at {@code offset}, given {@code length} available bytes.
+     * Returns {@code length} when no boundary is found before the end of the data (or before
+     * {@code maxSize}), so callers must pass at least {@code maxSize} bytes unless the
+     * content ends sooner.
+     */
+    public int cut(byte[] data, int offset, int length) {
+        if (length <= minSize) {
+            return length;
+        }
+        int normal = Math.min(length, avgSize);
+        int end = Math.min(length, maxSize);
+        
+        // Warm the fingerprint up over the window before the first allowed boundary
+        long fingerprint = 0;
+        for (int i = minSize - WINDOW; i < minSize; i++) {
+            fingerprint = (fingerprint << 1) + GEAR[data[offset + i] & 0xFF];
+        }
+        int i = minSize;
+        for (; i < normal; i++) {
+            fingerprint = (fingerprint << 1) + GEAR[data[offset + i] & 0xFF];
+            if ((fingerprint & strictMask) == 0) {
+                return i + 1;
+            }
+        }
+        for (; i < end; i++) {
+            fingerprint = (fingerprint << 1) + GEAR[data[offset + i] & 0xFF];
+            if ((fingerprint & looseMask) == 0) {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+    
+    /**
+     * Split a stream into chunks, one at a time. The stream is not closed.
+     */
+    public Reader open(InputStream in) {
+        return new Reader(in);
+    }
+    
+    /**
+     * A chunk's position in the content and its bytes (an array of exactly that length)
+     */
+    public record Chunk(int index, long offset, byte[] data) {
+    }
+    
+    /**
+     * Pulls chunks from a stream through a buffer of {@code maxSize} bytes; not thread-safe
+     */
+    public class Reader {
+        
+        private final InputStream in;
+        private final byte[] buffer = new byte[maxSize];
+        private int filled;
+        private boolean eof;
+        private int index;
+        private long offset;
+        
+        private Reader(InputStream in) {
+            this.in = in;
+        }
+        
+        /**
+         * The next chunk, or null at the end of the content
+         */
+        public Chunk next() throws IOException {
+            if (!eof) {
+                int read = in.readNBytes(buffer, filled, buffer.length - filled);
+                filled += read;
+                eof = filled < buffer.length;
+            }
+            if (filled == 0) {
+                return null;
+            }
+            int length = cut(buffer, 0, filled);
+            Chunk chunk = new Chunk(index++, offset, Arrays.copyOf(buffer, length));
+            System.arraycopy(buffer, length, buffer, 0, filled - length);
+            filled -= length;
+            offset += length;
+            return chunk;
+        }
+    }
+    
+    private static long topBits(int count) {
+        return count <= 0 ? 0 : -1L << (64 - count);
+    }
+    
+    /**
+     * SplitMix64, spelled out so the table never depends on a JDK generator's implementation
+     */
+    private static long[] gearTable(long seed) {
+        long[] table = new long[256];
+        long state = seed;
+        for (int i = 0; i < table.length; i++) {
+            long z = (state += 0x9e3779b97f4a7c15L);
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            table[i] = z ^ (z >>> 31);
+        }
+        return table;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package org.mtvs.java_backend.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Collects the first {@link #LENGTH} bytes of a file's content (all of it when shorter) and
+ * reduces them to a 128-bit fingerprint. A verification upload whose prefix fingerprint was
+ * never stored cannot match any registered file and is answered before the rest is read.
+ * Not thread-safe.
+ */
+public class ContentPrefix {
+    
+    public static final int LENGTH = 4096;
+    
+    private final byte[] prefix = new byte[LENGTH];
+    private int length;
+    
+    public void update(byte[] data, int offset, int count) {
+        int take = Math.min(count, LENGTH - length);
+        if (take > 0) {
+            System.arraycopy(data, offset, prefix, length, take);
+            length += take;
+        }
+    }
+    
+    public boolean isComplete() {
+        return length == LENGTH;
+    }
+    
+    /**
+     * First 16 bytes of the SHA-256 of the prefix collected so far
+     */
+    public Fingerprint fingerprint() {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(prefix, 0, length);
+            return Fingerprint.fromBytes(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    /**
+     * Pass reads through while collecting the prefix from them
+     */
+    public InputStream recording(InputStream in) {
+        return new FilterInputStream(in) {
+            
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    update(new byte[]{(byte) b}, 0, 1);
+                }
+                return b;
+            }
+            
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                if (read > 0) {
+                    update(b, off, read);
+                }
+                return read;
+            }
+        };
+    }
+    
+    public record Fingerprint(long high, long low) {
+        
+        public static final int BYTES = 16;
+        
+        /**
+         * Read the first {@link #BYTES} bytes, big-endian
+         */
+        public static Fingerprint fromBytes(byte[] bytes) {
+            long high = 0;
+            long low = 0;
+            for (int i = 0; i < 8; i++) {
+                high = (high << 8) | (bytes[i] & 0xFFL);
+                low = (low << 8) | (bytes[i + 8] & 0xFFL);
+            }
+            return new Fingerprint(high, low);
+        }
+        
+        public byte[] toBytes() {
+            byte[] bytes = new byte[BYTES];
+            for (int i = 0; i < 8; i++) {
+                bytes[i] = (byte) (high >>> (56 - 8 * i));
+                bytes[i + 8] = (byte) (low >>> (56 - 8 * i));
+            }
+            return bytes;
+        }
+    }
+}
\ No newline at end of file
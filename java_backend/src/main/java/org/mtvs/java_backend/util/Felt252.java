@@ -0,0 +1,245 @@
+package org.mtvs.java_backend.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.CharBuffer;
+
+/**
+ * Immutable felt252 (a value below the Stark prime) held as four 64-bit limbs, least
+ * significant first. File hashes, addresses and transaction hashes use it instead of hex
+ * strings: 32 bytes in the database, allocation-free equals/hashCode as a cache key, and hex
+ * is only produced when a value leaves the process. JSON carries it as a 0x-prefixed hex string.
+ */
+@JsonSerialize(using = Felt252.Serializer.class)
+@JsonDeserialize(using = Felt252.Deserializer.class)
+public final class Felt252 implements Comparable<Felt252>, Serializable {
+    
+    public static final int BYTES = 32;
+    public static final Felt252 ZERO = new Felt252(0, 0, 0, 0);
+    
+    // "0x" and up to 63 digits, the top limb of a felt is below 2^60
+    private static final int MAX_HEX_LENGTH = 2 + 63;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    
+    private final long l0;
+    private final long l1;
+    private final long l2;
+    private final long l3;
+    
+    private Felt252(long l0, long l1, long l2, long l3) {
+        this.l0 = l0;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.l3 = l3;
+    }
+    
+    /**
+     * Parse hex with or without a 0x prefix. Throws {@link NumberFormatException}
+     * (an {@link IllegalArgumentException}) on malformed input or values not below p.
+     */
+    public static Felt252 fromHex(CharSequence hex) {
+        long[] limbs = new long[StarkField.LIMBS];
+        StarkField.parseHex(hex, limbs, 0);
+        return fromLimbs(limbs, 0);
+    }
+    
+    /**
+     * Same as {@link #fromHex}; lets Spring convert request parameters and path variables
+     */
+    public static Felt252 valueOf(String hex) {
+        return fromHex(hex);
+    }
+    
+    public static Felt252 fromLimbs(long[] a, int ao) {
+        return new Felt252(a[ao], a[ao + 1], a[ao + 2], a[ao + 3]);
+    }
+    
+    /**
+     * Decode 32 big-endian bytes
+     */
+    public static Felt252 fromBytes(byte[] bytes) {
+        if (bytes.length != BYTES) {
+            throw new IllegalArgumentException("A felt252 is " + BYTES + " bytes, got " + bytes.length);
+        }
+        long[] limbs = new long[StarkField.LIMBS];
+        for (int i = 0; i < StarkField.LIMBS; i++) {
+            long limb = 0;
+            for (int j = 0; j < 8; j++) {
+                limb = (limb << 8) | (bytes[i * 8 + j] & 0xFFL);
+            }
+            limbs[StarkField.LIMBS - 1 - i] = limb;
+        }
+        if (!StarkField.isCanonical(limbs, 0)) {
+            throw new IllegalArgumentException("Value is not a valid felt252");
+        }
+        return fromLimbs(limbs, 0);
+    }
+    
+    public static boolean isValid(String hex) {
+        if (hex == null) {
+            return false;
+        }
+        try {
+            fromHex(hex);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Limb {@code index}, 0 being the least significant
+     */
+    public long limb(int index) {
+        return switch (index) {
+            case 0 -> l0;
+            case 1 -> l1;
+            case 2 -> l2;
+            case 3 -> l3;
+            default -> throw new IndexOutOfBoundsException(index);
+        };
+    }
+    
+    public void toLimbs(long[] r, int ro) {
+        r[ro] = l0;
+        r[ro + 1] = l1;
+        r[ro + 2] = l2;
+        r[ro + 3] = l3;
+    }
+    
+    /**
+     * 32 big-endian bytes, so byte-wise order (as in a BYTEA index) is numeric order
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[BYTES];
+        putLong(bytes, 0, l3);
+        putLong(bytes, 8, l2);
+        putLong(bytes, 16, l1);
+        putLong(bytes, 24, l0);
+        return bytes;
+    }
+    
+    /**
+     * Minimal 0x-prefixed lowercase hex, the form Starknet tooling prints
+     */
+    public String toHex() {
+        char[] hex = new char[MAX_HEX_LENGTH];
+        return new String(hex, 0, writeHex(hex));
+    }
+    
+    public boolean isZero() {
+        return (l0 | l1 | l2 | l3) == 0;
+    }
+    
+    @Override
+    public int compareTo(Felt252 other) {
+        int comparison = Long.compareUnsigned(l3, other.l3);
+        if (comparison == 0) {
+            comparison = Long.compareUnsigned(l2, other.l2);
+        }
+        if (comparison == 0) {
+            comparison = Long.compareUnsigned(l1, other.l1);
+        }
+        if (comparison == 0) {
+            comparison = Long.compareUnsigned(l0, other.l0);
+        }
+        return comparison;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof Felt252 other
+                && l0 == other.l0 && l1 == other.l1 && l2 == other.l2 && l3 == other.l3;
+    }
+    
+    @Override
+    public int hashCode() {
+        long h = l0 * 0x9e3779b97f4a7c15L + l1;
+        h = h * 0x9e3779b97f4a7c15L + l2;
+        h = h * 0x9e3779b97f4a7c15L + l3;
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    @Override
+    public String toString() {
+        return toHex();
+    }
+    
+    /**
+     * Write the hex form into {@code out} (at least 65 chars) and return its length
+     */
+    private int writeHex(char[] out) {
+        out[0] = '0';
+        out[1] = 'x';
+        int top = l3 != 0 ? 3 : l2 != 0 ? 2 : l1 != 0 ? 1 : 0;
+        long limb = limb(top);
+        // Leading zeros are dropped in the top limb only; a zero value prints as 0x0
+        int digits = Math.max(1, 16 - Long.numberOfLeadingZeros(limb) / 4);
+        int length = 2;
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            out[length++] = HEX_DIGITS[(int) (limb >>> shift) & 0xF];
+        }
+        for (int i = top - 1; i >= 0; i--) {
+            limb = limb(i);
+            for (int shift = 60; shift >= 0; shift -= 4) {
+                out[length++] = HEX_DIGITS[(int) (limb >>> shift) & 0xF];
+            }
+        }
+        return length;
+    }
+    
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+    
+    /**
+     * Writes the hex form straight from a char buffer, without an intermediate String
+     */
+    public static class Serializer extends StdSerializer<Felt252> {
+        
+        public Serializer() {
+            super(Felt252.class);
+        }
+        
+        @Override
+        public void serialize(Felt252 value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            char[] hex = new char[MAX_HEX_LENGTH];
+            generator.writeString(hex, 0, value.writeHex(hex));
+        }
+    }
+    
+    /**
+     * Parses the parser's own character buffer, without an intermediate String
+     */
+    public static class Deserializer extends StdDeserializer<Felt252> {
+        
+        public Deserializer() {
+            super(Felt252.class);
+        }
+        
+        @Override
+        public Felt252 deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.VALUE_STRING) {
+                return (Felt252) context.handleUnexpectedToken(Felt252.class, parser);
+            }
+            try {
+                return fromHex(CharBuffer.wrap(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+            } catch (NumberFormatException e) {
+                return (Felt252) context.handleWeirdStringValue(Felt252.class, parser.getText(), e.getMessage());
+            }
+        }
+    }
+}
\ No newline at end of file
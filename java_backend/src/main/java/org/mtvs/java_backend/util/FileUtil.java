@@ -4,26 +4,33 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 @Slf4j
 @Component
 public class FileUtil {
     
+    /**
+     * Read the whole file into a single array sized from the declared file size.
+     * Prefer {@link PoseidonHashUtil#generatePoseidonHash(InputStream)} for hashing,
+     * which streams through pooled buffers instead of holding the file on heap.
+     */
     public byte[] readFileBytes(MultipartFile file) throws IOException {
-        try (InputStream inputStream = file.getInputStream();
-             ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+        try (InputStream inputStream = file.getInputStream()) {
+            long size = file.getSize();
+            if (size < 0 || size > Integer.MAX_VALUE - 8) {
+                return inputStream.readAllBytes();
+            }
             
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
+            byte[] data = inputStream.readNBytes((int) size);
+            if (inputStream.read() != -1) {
+                throw new IOException("File is larger than its declared size");
             }
-            return outputStream.toByteArray();
+            return data;
         }
     }
     
@@ -75,11 +82,7 @@ public class FileUtil {
         }
     }
     
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
-        }
-        return "0x" + result;
+    String bytesToHex(byte[] bytes) {
+        return "0x" + HexFormat.of().formatHex(bytes);
     }
 }
\ No newline at end of file
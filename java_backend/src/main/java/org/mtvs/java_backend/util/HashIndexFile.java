@@ -0,0 +1,410 @@
+package org.mtvs.java_backend.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Read-only, memory-mapped file of verification records sorted by file hash.
+ * <p>
+ * Layout: a 32-byte header ({@code magic, version, record size, record count}) followed by
+ * fixed-width 112-byte records: file hash, author address and tx hash as 32-byte big-endian
+ * felts (a zero tx hash means none), then file size and creation time in epoch microseconds.
+ * Lookups interpolate on the top 64 bits of the hash, which Poseidon spreads uniformly over
+ * the field, and finish with a binary search; no objects are allocated until a record is found.
+ */
+public class HashIndexFile implements Closeable {
+    
+    public static final int RECORD_SIZE = 112;
+    
+    private static final int MAGIC = 0x50484958; // "PHIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int HASH_OFFSET = 0;
+    private static final int AUTHOR_OFFSET = 32;
+    private static final int TX_HASH_OFFSET = 64;
+    private static final int FILE_SIZE_OFFSET = 96;
+    private static final int CREATED_AT_OFFSET = 104;
+    
+    // One mapping is limited to 2 GiB, larger files are mapped in several segments
+    private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_SIZE;
+    
+    // Interpolation converges in a few probes on uniform keys; bisect if it does not
+    private static final int MAX_INTERPOLATION_PROBES = 8;
+    
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long recordCount;
+    
+    private HashIndexFile(FileChannel channel, MappedByteBuffer[] segments, long recordCount) {
+        this.channel = channel;
+        this.segments = segments;
+        this.recordCount = recordCount;
+    }
+    
+    public record Entry(Felt252 poseidonHash, Felt252 authorAddress, long fileSize,
+                        LocalDateTime createdAt, Felt252 starknetTxHash) {
+    }
+    
+    public static HashIndexFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) != -1) {
+                // read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("Not a hash index file: " + path);
+            }
+            if (header.getInt() != VERSION || header.getInt() != RECORD_SIZE) {
+                throw new IOException("Unsupported hash index version: " + path);
+            }
+            long recordCount = header.getLong(16);
+            if (HEADER_SIZE + recordCount * RECORD_SIZE > channel.size()) {
+                throw new IOException("Truncated hash index file: " + path);
+            }
+            
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((recordCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT)];
+            for (int i = 0; i < segments.length; i++) {
+                long first = (long) i * RECORDS_PER_SEGMENT;
+                long records = Math.min(RECORDS_PER_SEGMENT, recordCount - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE);
+            }
+            return new HashIndexFile(channel, segments, recordCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    public static Writer create(Path path) throws IOException {
+        return new Writer(path);
+    }
+    
+    public long size() {
+        return recordCount;
+    }
+    
+    public Optional<Entry> find(Felt252 poseidonHash) {
+        long[] key = new long[StarkField.LIMBS];
+        poseidonHash.toLimbs(key, 0);
+        long index = indexOf(key);
+        return index < 0 ? Optional.empty() : Optional.of(get(index));
+    }
+    
+    /**
+     * Position of the record with this hash (canonical limbs, least significant first), or -1
+     */
+    public long indexOf(long[] key) {
+        long low = 0;
+        long high = recordCount - 1;
+        int probes = 0;
+        while (low <= high) {
+            long mid;
+            if (probes++ < MAX_INTERPOLATION_PROBES) {
+                // Top limbs of felts are below 2^60, so signed arithmetic is safe here
+                long lowTop = topLimb(low);
+                long highTop = topLimb(high);
+                if (key[3] < lowTop || key[3] > highTop) {
+                    return -1;
+                }
+                mid = highTop == lowTop
+                        ? (low + high) >>> 1
+                        : low + (long) ((double) (key[3] - lowTop) / (highTop - lowTop) * (high - low));
+            } else {
+                mid = (low + high) >>> 1;
+            }
+            
+            int comparison = compareAt(mid, key);
+            if (comparison == 0) {
+                return mid;
+            }
+            if (comparison < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -1;
+    }
+    
+    public Entry get(long index) {
+        return decode(segment(index), offset(index));
+    }
+    
+    /**
+     * All records in hash order
+     */
+    public Iterator<Entry> iterator() {
+        return new Iterator<>() {
+            private long next;
+            
+            @Override
+            public boolean hasNext() {
+                return next < recordCount;
+            }
+            
+            @Override
+            public Entry next() {
+                if (next >= recordCount) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+    
+    public long sizeInBytes() {
+        return HEADER_SIZE + recordCount * RECORD_SIZE;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        // The mappings stay valid until they are garbage collected
+        channel.close();
+    }
+    
+    /**
+     * Write a new index at {@code target} holding the records of {@code base} and {@code updates};
+     * an update replaces the base record with the same hash. Base records are copied as raw bytes.
+     */
+    public static long merge(HashIndexFile base, Collection<Entry> updates, Path target) throws IOException {
+        List<Keyed> sorted = new ArrayList<>(updates.size());
+        for (Entry update : updates) {
+            long[] key = new long[StarkField.LIMBS];
+            update.poseidonHash().toLimbs(key, 0);
+            sorted.add(new Keyed(key, update));
+        }
+        sorted.sort((a, b) -> compare(a.key(), b.key()));
+        
+        try (Writer writer = create(target)) {
+            long[] baseKey = new long[StarkField.LIMBS];
+            long next = 0;
+            int update = 0;
+            while (next < base.recordCount || update < sorted.size()) {
+                int comparison;
+                if (next == base.recordCount) {
+                    comparison = 1;
+                } else if (update == sorted.size()) {
+                    comparison = -1;
+                } else {
+                    base.readKey(next, baseKey);
+                    comparison = compare(baseKey, sorted.get(update).key());
+                }
+                
+                if (comparison < 0) {
+                    writer.copy(base, next++);
+                } else {
+                    writer.append(sorted.get(update++).entry());
+                    if (comparison == 0) {
+                        next++;
+                    }
+                }
+            }
+            return writer.recordCount();
+        }
+    }
+    
+    /**
+     * Compare two felts given as limbs, least significant first, as unsigned numbers
+     */
+    public static int compare(long[] a, long[] b) {
+        for (int i = StarkField.LIMBS - 1; i >= 0; i--) {
+            int comparison = Long.compareUnsigned(a[i], b[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Encode one record; {@code record} must have {@link #RECORD_SIZE} bytes remaining
+     */
+    public static void encode(Entry entry, ByteBuffer record) {
+        writeFelt(record, entry.poseidonHash());
+        writeFelt(record, entry.authorAddress());
+        writeFelt(record, entry.starknetTxHash() != null ? entry.starknetTxHash() : Felt252.ZERO);
+        record.putLong(entry.fileSize());
+        LocalDateTime createdAt = entry.createdAt();
+        record.putLong(createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + createdAt.getNano() / 1000);
+    }
+    
+    /**
+     * Decode one record at the buffer's position and move past it
+     */
+    public static Entry decode(ByteBuffer record) {
+        Entry entry = decode(record, record.position());
+        record.position(record.position() + RECORD_SIZE);
+        return entry;
+    }
+    
+    private static Entry decode(ByteBuffer buffer, int offset) {
+        long[] felt = new long[StarkField.LIMBS];
+        Felt252 poseidonHash = readValue(buffer, offset + HASH_OFFSET, felt);
+        Felt252 authorAddress = readValue(buffer, offset + AUTHOR_OFFSET, felt);
+        Felt252 txHash = readFelt(buffer, offset + TX_HASH_OFFSET, felt) ? Felt252.fromLimbs(felt, 0) : null;
+        long createdAtMicros = buffer.getLong(offset + CREATED_AT_OFFSET);
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(Math.floorDiv(createdAtMicros, 1_000_000L),
+                (int) Math.floorMod(createdAtMicros, 1_000_000L) * 1000, ZoneOffset.UTC);
+        return new Entry(poseidonHash, authorAddress, buffer.getLong(offset + FILE_SIZE_OFFSET), createdAt, txHash);
+    }
+    
+    private int compareAt(long index, long[] key) {
+        MappedByteBuffer segment = segment(index);
+        int offset = offset(index) + HASH_OFFSET;
+        for (int i = StarkField.LIMBS - 1; i >= 0; i--) {
+            int comparison = Long.compareUnsigned(segment.getLong(offset + (StarkField.LIMBS - 1 - i) * 8), key[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+    
+    private void readKey(long index, long[] key) {
+        readFelt(segment(index), offset(index) + HASH_OFFSET, key);
+    }
+    
+    private long topLimb(long index) {
+        return segment(index).getLong(offset(index) + HASH_OFFSET);
+    }
+    
+    private MappedByteBuffer segment(long index) {
+        return segments[(int) (index / RECORDS_PER_SEGMENT)];
+    }
+    
+    private static int offset(long index) {
+        return (int) (index % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+    }
+    
+    private static void writeFelt(ByteBuffer buffer, Felt252 felt) {
+        for (int i = StarkField.LIMBS - 1; i >= 0; i--) {
+            buffer.putLong(felt.limb(i));
+        }
+    }
+    
+    /**
+     * Read a felt into {@code felt} and return whether it is non-zero
+     */
+    private static boolean readFelt(ByteBuffer buffer, int offset, long[] felt) {
+        for (int i = 0; i < StarkField.LIMBS; i++) {
+            felt[StarkField.LIMBS - 1 - i] = buffer.getLong(offset + i * 8);
+        }
+        return !StarkField.isZero(felt, 0);
+    }
+    
+    private static Felt252 readValue(ByteBuffer buffer, int offset, long[] felt) {
+        readFelt(buffer, offset, felt);
+        return Felt252.fromLimbs(felt, 0);
+    }
+    
+    private record Keyed(long[] key, Entry entry) {
+    }
+    
+    /**
+     * Streams records into a new index file; they must arrive in strictly ascending hash order.
+     * The header is written on {@link #close()}; write to a temporary path and move it into place.
+     */
+    public static class Writer implements Closeable {
+        
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * 1024);
+        private final long[] previous = new long[StarkField.LIMBS];
+        private final long[] scratch = new long[StarkField.LIMBS];
+        private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        private long recordCount;
+        
+        private Writer(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            channel.position(HEADER_SIZE);
+        }
+        
+        /**
+         * Append a record; throws {@link IllegalArgumentException} without writing anything
+         * if it is not after the previous one
+         */
+        public void append(Entry entry) throws IOException {
+            record.clear();
+            encode(entry, record);
+            readFelt(record, HASH_OFFSET, scratch);
+            checkOrder(scratch);
+            
+            if (buffer.remaining() < RECORD_SIZE) {
+                flush();
+            }
+            buffer.put(record.flip());
+            recordCount++;
+        }
+        
+        /**
+         * Append a record of another index file without decoding it
+         */
+        void copy(HashIndexFile source, long index) throws IOException {
+            source.readKey(index, scratch);
+            checkOrder(scratch);
+            
+            if (buffer.remaining() < RECORD_SIZE) {
+                flush();
+            }
+            MappedByteBuffer segment = source.segment(index);
+            int offset = offset(index);
+            for (int i = 0; i < RECORD_SIZE; i += 8) {
+                buffer.putLong(segment.getLong(offset + i));
+            }
+            recordCount++;
+        }
+        
+        public long recordCount() {
+            return recordCount;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putInt(RECORD_SIZE)
+                        .putInt(0)
+                        .putLong(recordCount)
+                        .putLong(0);
+                header.flip();
+                channel.write(header, 0);
+                channel.force(true);
+            } finally {
+                channel.close();
+            }
+        }
+        
+        private void checkOrder(long[] key) {
+            if (recordCount > 0 && compare(key, previous) <= 0) {
+                throw new IllegalArgumentException("Records out of hash order at " + StarkField.toHex(key, 0));
+            }
+            System.arraycopy(key, 0, previous, 0, StarkField.LIMBS);
+        }
+        
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,284 @@
+package org.mtvs.java_backend.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * JSON-RPC calls over several equivalent endpoints, bounded in time and concurrency.
+ * <ul>
+ *   <li>Each call goes to the first endpoint; if it has not answered after the p95 of recent
+ *   call latencies, the same call is also sent to the next endpoint (a hedge) and the first
+ *   answer wins. A transport failure moves on to the next endpoint right away.</li>
+ *   <li>The whole call, hedges included, fails after {@code deadline}.</li>
+ *   <li>A bulkhead caps the attempts in flight: each attempt holds a permit until it completes,
+ *   so attempts that lost the race or outlived the deadline still count until their endpoint
+ *   answers or times them out. Losing attempts still queued for sending are withdrawn. A hedge
+ *   is skipped when there is no room.</li>
+ *   <li>Timeouts and transport failures feed a {@link CircuitBreaker}; while it is open, calls
+ *   fail immediately with {@link RpcUnavailableException}. An error object returned by a node
+ *   is an answer, not a failure, and is not retried elsewhere.</li>
+ * </ul>
+ */
+@Slf4j
+public class HedgedRpcClient implements AutoCloseable {
+    
+    private final List<JsonRpcBatchClient> endpoints;
+    private final Duration deadline;
+    private final long minHedgeDelayNanos;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyWindow latencies = new LatencyWindow(256);
+    private final ScheduledExecutorService scheduler;
+    
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong rejectedByBulkhead = new AtomicLong();
+    private final AtomicLong rejectedByCircuit = new AtomicLong();
+    
+    public HedgedRpcClient(List<JsonRpcBatchClient> endpoints, Duration deadline, Duration minHedgeDelay,
+                           int maxConcurrentCalls, CircuitBreaker circuitBreaker) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one RPC endpoint is required");
+        }
+        this.endpoints = List.copyOf(endpoints);
+        this.deadline = deadline;
+        this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.circuitBreaker = circuitBreaker;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "json-rpc-hedger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Send a call and return a future completed with its {@code result} node. Fails with
+     * {@link RpcUnavailableException} without sending anything when the circuit is open or
+     * the bulkhead is full.
+     */
+    public CompletableFuture<JsonNode> call(String method, Object params) {
+        return hedged(method, endpoint -> endpoint.call(method, params));
+    }
+    
+    public <T> CompletableFuture<T> call(String method, byte[] params, JsonRpcBatchClient.ResultReader<T> reader) {
+        return hedged(method, endpoint -> endpoint.call(method, params, reader));
+    }
+    
+    private <T> CompletableFuture<T> hedged(String method, Function<JsonRpcBatchClient, CompletableFuture<T>> attempt) {
+        if (!bulkhead.tryAcquire()) {
+            rejectedByBulkhead.incrementAndGet();
+            return CompletableFuture.failedFuture(new RpcUnavailableException(
+                    "Too many Starknet RPC calls in flight (" + maxConcurrentCalls + ")"));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            rejectedByCircuit.incrementAndGet();
+            return CompletableFuture.failedFuture(new RpcUnavailableException("Starknet RPC circuit is open"));
+        }
+        return new HedgedCall<>(method, attempt).start();
+    }
+    
+    /**
+     * False while the circuit is open, so callers can skip the chain instead of failing
+     */
+    public boolean isAvailable() {
+        return circuitBreaker.isCallPermitted();
+    }
+    
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+    
+    public int inFlight() {
+        return maxConcurrentCalls - bulkhead.availablePermits();
+    }
+    
+    public long hedges() {
+        return hedges.get();
+    }
+    
+    public long rejectedByBulkhead() {
+        return rejectedByBulkhead.get();
+    }
+    
+    public long rejectedByCircuit() {
+        return rejectedByCircuit.get();
+    }
+    
+    /**
+     * Time the first endpoint gets before a hedge is sent
+     */
+    public Duration hedgeDelay() {
+        return Duration.ofNanos(hedgeDelayNanos());
+    }
+    
+    private long hedgeDelayNanos() {
+        return Math.min(Math.max(latencies.p95(), minHedgeDelayNanos), deadline.toNanos());
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        endpoints.forEach(JsonRpcBatchClient::close);
+    }
+    
+    private final class HedgedCall<T> {
+        
+        private final String method;
+        private final Function<JsonRpcBatchClient, CompletableFuture<T>> attempt;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long startedAt = System.nanoTime();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final List<Attempt<T>> sent = new CopyOnWriteArrayList<>();
+        private volatile ScheduledFuture<?> hedgeTimer;
+        
+        HedgedCall(String method, Function<JsonRpcBatchClient, CompletableFuture<T>> attempt) {
+            this.method = method;
+            this.attempt = attempt;
+        }
+        
+        /**
+         * Runs under the permit taken in call()
+         */
+        CompletableFuture<T> start() {
+            result.orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS)
+                    .whenComplete((value, error) -> finish(error));
+            send();
+            if (endpoints.size() > 1) {
+                hedgeTimer = scheduler.schedule(this::hedge, hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+            }
+            return result;
+        }
+        
+        private void hedge() {
+            if (result.isDone() || attempts.get() >= endpoints.size()) {
+                return;
+            }
+            if (!bulkhead.tryAcquire()) {
+                return;
+            }
+            hedges.incrementAndGet();
+            log.debug("Hedging {} after {} ms", method, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            send();
+        }
+        
+        /**
+         * Send the next attempt under a permit the caller holds. The permit is released when
+         * that attempt completes, handed on when it fails over, and released right away when
+         * there is nothing left to send.
+         */
+        private void send() {
+            int index = attempts.getAndIncrement();
+            if (index >= endpoints.size() || result.isDone()) {
+                bulkhead.release();
+                return;
+            }
+            JsonRpcBatchClient endpoint = endpoints.get(index);
+            CompletableFuture<T> future = attempt.apply(endpoint);
+            sent.add(new Attempt<>(endpoint, future));
+            if (result.isDone()) {
+                // finish() ran before this attempt was listed
+                endpoint.withdraw(future);
+            }
+            future.whenComplete((value, error) -> {
+                if (error == null) {
+                    bulkhead.release();
+                    result.complete(value);
+                    return;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof JsonRpcException) {
+                    bulkhead.release();
+                    result.completeExceptionally(cause);
+                } else if (failures.incrementAndGet() >= endpoints.size()) {
+                    bulkhead.release();
+                    result.completeExceptionally(cause);
+                } else if (failures.get() >= attempts.get()) {
+                    // Every endpoint tried so far has failed; fail over without waiting for the hedge
+                    send();
+                } else {
+                    bulkhead.release();
+                }
+            });
+        }
+        
+        private void finish(Throwable error) {
+            ScheduledFuture<?> timer = hedgeTimer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            for (Attempt<T> losing : sent) {
+                if (!losing.future().isDone()) {
+                    losing.endpoint().withdraw(losing.future());
+                }
+            }
+            if (error == null || error instanceof JsonRpcException) {
+                latencies.record(System.nanoTime() - startedAt);
+                circuitBreaker.onSuccess();
+            } else {
+                circuitBreaker.onFailure();
+            }
+        }
+    }
+    
+    private record Attempt<T>(JsonRpcBatchClient endpoint, CompletableFuture<T> future) {
+    }
+    
+    /**
+     * Latencies of the most recent calls; the p95 is recomputed every few samples rather
+     * than on every call
+     */
+    private static final class LatencyWindow {
+        
+        private static final int RECOMPUTE_EVERY = 16;
+        
+        private final AtomicLongArray samples;
+        private final AtomicLong count = new AtomicLong();
+        private volatile long cachedP95;
+        
+        LatencyWindow(int size) {
+            this.samples = new AtomicLongArray(size);
+        }
+        
+        void record(long nanos) {
+            long n = count.getAndIncrement();
+            samples.set((int) (n % samples.length()), nanos);
+            if (n % RECOMPUTE_EVERY == RECOMPUTE_EVERY - 1) {
+                cachedP95 = compute();
+            }
+        }
+        
+        long p95() {
+            return cachedP95;
+        }
+        
+        private long compute() {
+            int size = (int) Math.min(count.get(), samples.length());
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(0.95 * size) - 1];
+        }
+    }
+}
\ No newline at end of file
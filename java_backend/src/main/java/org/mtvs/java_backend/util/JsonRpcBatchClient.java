@@ -0,0 +1,339 @@
+package org.mtvs.java_backend.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JSON-RPC client that coalesces concurrent calls into batch requests.
+ * Calls are queued and sent as one JSON array when the batch is full or the
+ * batching window has passed since the first queued call, whichever comes first.
+ * Responses are matched back to callers by id, so the node may answer in any order.
+ * <p>
+ * Requests are written as bytes around params the caller may have pre-encoded, and each
+ * response is parsed with a streaming parser over the pooled response buffers, with every
+ * result decoded by its call's {@link ResultReader}; no intermediate tree or byte[] copy
+ * of the body is built.
+ */
+@Slf4j
+public class JsonRpcBatchClient implements AutoCloseable {
+    
+    // Upper bound on one batch response held in memory while it is parsed
+    private static final int MAX_RESPONSE_BYTES = 16 * 1024 * 1024;
+    private static final byte[] ID_FIELD = ",\"id\":".getBytes(StandardCharsets.US_ASCII);
+    
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final String rpcUrl;
+    private final Duration batchWindow;
+    private final int maxBatchSize;
+    private final Duration callTimeout;
+    
+    private final ResultReader<JsonNode> treeReader;
+    // {"jsonrpc":"2.0","method":"...","params": per method
+    private final Map<String, byte[]> requestPrefixes = new ConcurrentHashMap<>();
+    
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Queue<PendingCall<?>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+    
+    public JsonRpcBatchClient(WebClient webClient, ObjectMapper objectMapper, String rpcUrl,
+                              Duration batchWindow, int maxBatchSize, Duration callTimeout) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.webClient = webClient;
+        this.objectMapper = objectMapper;
+        this.rpcUrl = rpcUrl;
+        this.batchWindow = batchWindow;
+        this.maxBatchSize = maxBatchSize;
+        this.callTimeout = callTimeout;
+        this.treeReader = parser -> objectMapper.readTree(parser);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "json-rpc-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Queue a call and return a future completed with its {@code result} node.
+     * The future fails with {@link JsonRpcException} if the node returned an error for
+     * this call, or with a {@link java.util.concurrent.TimeoutException} after the call timeout.
+     */
+    public CompletableFuture<JsonNode> call(String method, Object params) {
+        try {
+            return call(method, objectMapper.writeValueAsBytes(params), treeReader);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Queue a call whose params are already encoded as JSON and decode its result with {@code reader}
+     */
+    public <T> CompletableFuture<T> call(String method, byte[] params, ResultReader<T> reader) {
+        PendingCall<T> call = new PendingCall<>(nextId.getAndIncrement(), method, params, reader,
+                new CompletableFuture<>(), new AtomicBoolean());
+        pending.add(call);
+        
+        if (pendingCount.incrementAndGet() >= maxBatchSize) {
+            flush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::scheduledFlush, batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return call.future().orTimeout(callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Withdraw a call that is still queued, cancelling its future. A call already sent is left
+     * to complete; returns whether the call was withdrawn.
+     */
+    public boolean withdraw(CompletableFuture<?> future) {
+        for (PendingCall<?> call : pending) {
+            if (call.future() == future) {
+                if (call.claimed().compareAndSet(false, true)) {
+                    future.cancel(false);
+                    return true;
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+    
+    private void scheduledFlush() {
+        // Reset before draining so calls queued during the drain schedule their own flush
+        flushScheduled.set(false);
+        flush();
+    }
+    
+    private void flush() {
+        while (true) {
+            List<PendingCall<?>> batch = new ArrayList<>(Math.min(pendingCount.get(), maxBatchSize));
+            PendingCall<?> call;
+            int polled = 0;
+            while (batch.size() < maxBatchSize && (call = pending.poll()) != null) {
+                polled++;
+                // Withdrawn or timed out while queued: not worth sending
+                if (call.claimed().compareAndSet(false, true) && !call.future().isDone()) {
+                    batch.add(call);
+                }
+            }
+            if (polled == 0) {
+                return;
+            }
+            pendingCount.addAndGet(-polled);
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        }
+    }
+    
+    private void send(List<PendingCall<?>> batch) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(estimateSize(batch));
+        body.write('[');
+        for (int i = 0; i < batch.size(); i++) {
+            PendingCall<?> call = batch.get(i);
+            if (i > 0) {
+                body.write(',');
+            }
+            body.writeBytes(requestPrefix(call.method()));
+            body.writeBytes(call.params());
+            body.writeBytes(ID_FIELD);
+            body.writeBytes(Long.toString(call.id()).getBytes(StandardCharsets.US_ASCII));
+            body.write('}');
+        }
+        body.write(']');
+        
+        log.debug("Sending JSON-RPC batch of {} call(s)", batch.size());
+        webClient.post()
+                .uri(rpcUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body.toByteArray())
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .as(buffers -> DataBufferUtils.join(buffers, MAX_RESPONSE_BYTES))
+                .switchIfEmpty(Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance.allocateBuffer(0)))
+                .timeout(callTimeout)
+                .subscribe(response -> complete(batch, response), error -> failAll(batch, error));
+    }
+    
+    private int estimateSize(List<PendingCall<?>> batch) {
+        int size = 2;
+        for (PendingCall<?> call : batch) {
+            size += requestPrefix(call.method()).length + call.params().length + ID_FIELD.length + 21;
+        }
+        return size;
+    }
+    
+    private byte[] requestPrefix(String method) {
+        return requestPrefixes.computeIfAbsent(method, name -> {
+            ByteArrayOutputStream prefix = new ByteArrayOutputStream();
+            prefix.writeBytes("{\"jsonrpc\":\"2.0\",\"method\":\"".getBytes(StandardCharsets.US_ASCII));
+            prefix.writeBytes(JsonStringEncoder.getInstance().quoteAsUTF8(name));
+            prefix.writeBytes("\",\"params\":".getBytes(StandardCharsets.US_ASCII));
+            return prefix.toByteArray();
+        });
+    }
+    
+    private void complete(List<PendingCall<?>> batch, DataBuffer response) {
+        Map<Long, PendingCall<?>> callsById = new HashMap<>(batch.size() * 2);
+        for (PendingCall<?> call : batch) {
+            callsById.put(call.id(), call);
+        }
+        
+        // Released when the parser closes its input
+        try (JsonParser parser = objectMapper.createParser(response.asInputStream(true))) {
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_ARRAY) {
+                // Nodes answer a malformed or rejected batch with a single error object
+                JsonNode error = token == JsonToken.START_OBJECT ? objectMapper.<JsonNode>readTree(parser).get("error") : null;
+                failAll(batch, toException(error));
+                return;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                completeOne(parser, callsById);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The rest of the body can no longer be trusted; calls already answered keep their result
+            failAll(batch, e);
+            return;
+        }
+        
+        for (PendingCall<?> call : callsById.values()) {
+            call.future().completeExceptionally(new JsonRpcException(-32603, "No response for request id " + call.id()));
+        }
+    }
+    
+    /**
+     * Read one response object. The result is decoded in place when the id came first (the
+     * usual field order) and is otherwise buffered as tokens until the id is known.
+     */
+    private void completeOne(JsonParser parser, Map<Long, PendingCall<?>> callsById) throws IOException {
+        PendingCall<?> call = null;
+        boolean decoded = false;
+        TokenBuffer bufferedResult = null;
+        JsonNode error = null;
+        
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> {
+                    if (value == JsonToken.VALUE_NUMBER_INT) {
+                        call = callsById.remove(parser.getLongValue());
+                    }
+                }
+                case "result" -> {
+                    if (call != null) {
+                        call.complete(parser);
+                        decoded = true;
+                    } else {
+                        bufferedResult = TokenBuffer.asCopyOfValue(parser);
+                    }
+                }
+                case "error" -> error = objectMapper.readTree(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        
+        if (call == null || decoded) {
+            return;
+        }
+        if (error != null && !error.isNull()) {
+            call.future().completeExceptionally(toException(error));
+        } else if (bufferedResult != null) {
+            try (JsonParser buffered = bufferedResult.asParser(objectMapper)) {
+                buffered.nextToken();
+                call.complete(buffered);
+            }
+        } else {
+            call.future().completeExceptionally(new JsonRpcException(-32603, "No result for request id " + call.id()));
+        }
+    }
+    
+    private void failAll(List<PendingCall<?>> batch, Throwable error) {
+        log.warn("JSON-RPC batch of {} call(s) failed: {}", batch.size(), error.getMessage());
+        for (PendingCall<?> call : batch) {
+            call.future().completeExceptionally(error);
+        }
+    }
+    
+    private JsonRpcException toException(JsonNode error) {
+        if (error == null || !error.isObject()) {
+            return new JsonRpcException(-32603, "Unexpected JSON-RPC response");
+        }
+        return new JsonRpcException(error.path("code").asInt(-32603), error.path("message").asText("Unknown error"));
+    }
+    
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        flush();
+    }
+    
+    /**
+     * Decodes a call's {@code result}. The parser is positioned on the first token of the
+     * value, and the reader must consume exactly that value.
+     */
+    @FunctionalInterface
+    public interface ResultReader<T> {
+        
+        T read(JsonParser parser) throws IOException;
+    }
+    
+    /**
+     * {@code claimed} is set once, by whichever comes first of the flush that sends the call
+     * and a withdrawal
+     */
+    private record PendingCall<T>(long id, String method, byte[] params, ResultReader<T> reader,
+                                  CompletableFuture<T> future, AtomicBoolean claimed) {
+        
+        /**
+         * A reader that fails after consuming its value only fails this call
+         */
+        void complete(JsonParser parser) throws IOException {
+            T result;
+            try {
+                result = reader.read(parser);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            future.complete(result);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package org.mtvs.java_backend.util;
+
+import lombok.Getter;
+
+/**
+ * Error object returned by a JSON-RPC node for a single request
+ */
+@Getter
+public class JsonRpcException extends RuntimeException {
+    
+    private final int code;
+    
+    public JsonRpcException(int code, String message) {
+        super(message);
+        this.code = code;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package org.mtvs.java_backend.util;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing set of non-zero longs in a single {@code long[]}, about 11 bytes per
+ * element at the maximum load factor. Writers are serialized; readers use optimistic
+ * reads and only take the lock when a write raced with them.
+ */
+public class LongHashSet {
+    
+    private static final long EMPTY = 0;
+    private static final double MAX_LOAD = 0.75;
+    
+    private final StampedLock lock = new StampedLock();
+    private long[] table;
+    private int size;
+    
+    public LongHashSet(int expectedSize) {
+        this.table = new long[tableSize(expectedSize)];
+    }
+    
+    /**
+     * Add a value; zero is reserved as the empty marker and rejected
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("Zero cannot be stored");
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (size + 1 > table.length * MAX_LOAD) {
+                table = rehash(table, table.length * 2);
+            }
+            if (!insert(table, value)) {
+                return false;
+            }
+            size++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public boolean contains(long value) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = probe(table, value);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+        stamp = lock.readLock();
+        try {
+            return probe(table, value);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new long[table.length];
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    public long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) table.length * Long.BYTES;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    private static boolean probe(long[] table, long value) {
+        int mask = table.length - 1;
+        int slot = (int) mix(value) & mask;
+        // Bounded so a torn optimistic read can never spin forever
+        for (int i = 0; i < table.length; i++) {
+            long current = table[slot];
+            if (current == value) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+    
+    private static boolean insert(long[] table, long value) {
+        int mask = table.length - 1;
+        int slot = (int) mix(value) & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        return true;
+    }
+    
+    private static long[] rehash(long[] table, int newLength) {
+        long[] resized = new long[newLength];
+        for (long value : table) {
+            if (value != EMPTY) {
+                insert(resized, value);
+            }
+        }
+        return resized;
+    }
+    
+    private static int tableSize(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD);
+        return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+    }
+    
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        return value;
+    }
+}
\ No newline at end of file
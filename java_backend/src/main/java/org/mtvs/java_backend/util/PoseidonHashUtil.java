@@ -1,36 +1,104 @@
 package org.mtvs.java_backend.util;
 
-import org.bouncycastle.crypto.digests.KeccakDigest;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.math.BigInteger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Component
+@RequiredArgsConstructor
 public class PoseidonHashUtil {
     
-    private static final BigInteger FIELD_SIZE = new BigInteger("3618502788666131213697322783095070105623107215331596699973092056135872020481");
+    private final BufferPool bufferPool;
     
     /**
-     * Simplified Poseidon-like hash function for demo purposes.
-     * In production, this should use a proper Poseidon hash implementation
-     * that matches the Cairo/Starknet implementation.
+     * Starknet Poseidon hash of the file content, see {@link PoseidonHasher} for
+     * how bytes are packed into felt252 words.
      */
     public String generatePoseidonHash(byte[] fileData) {
-        // For demo purposes, we'll use Keccak and map to field
-        // In production, use actual Poseidon hash that matches Cairo
-        KeccakDigest keccak = new KeccakDigest(256);
-        keccak.update(fileData, 0, fileData.length);
-        
-        byte[] hash = new byte[32];
-        keccak.doFinal(hash, 0);
-        
-        // Convert to BigInteger and reduce modulo field size
-        BigInteger hashValue = new BigInteger(1, hash);
-        BigInteger reducedHash = hashValue.mod(FIELD_SIZE);
-        
-        // Convert to hex string with 0x prefix (felt252 format)
-        return "0x" + reducedHash.toString(16);
+        return newHasher()
+                .update(fileData, 0, fileData.length)
+                .digest();
+    }
+    
+    /**
+     * Hash a stream chunk by chunk through a pooled buffer, so heap usage
+     * does not grow with the content size. The stream is not closed.
+     */
+    public String generatePoseidonHash(InputStream inputStream) throws IOException {
+        return generatePoseidonFelt(inputStream).toHex();
+    }
+    
+    /**
+     * Same as {@link #generatePoseidonHash(InputStream)}, returning the felt itself
+     */
+    public Felt252 generatePoseidonFelt(InputStream inputStream) throws IOException {
+        PoseidonHasher hasher = newHasher();
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            byte[] chunk = buffer.array();
+            int bytesRead;
+            while ((bytesRead = inputStream.read(chunk, 0, chunk.length)) != -1) {
+                hasher.update(chunk, 0, bytesRead);
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+        return hasher.digestFelt();
+    }
+    
+    /**
+     * Hash a channel (e.g. a {@link java.nio.channels.FileChannel}) through a pooled buffer.
+     * The channel is not closed.
+     */
+    public String generatePoseidonHash(ReadableByteChannel channel) throws IOException {
+        PoseidonHasher hasher = newHasher();
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                hasher.update(buffer);
+                buffer.clear();
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+        return hasher.digest();
+    }
+    
+    /**
+     * Create an incremental hasher for callers that receive content in chunks
+     */
+    public PoseidonHasher newHasher() {
+        return new PoseidonHasher();
+    }
+    
+    /**
+     * Cairo's {@code poseidon_hash(x, y)} on two felt252 hex strings
+     */
+    public String poseidonHash(String x, String y) {
+        long[] out = new long[StarkField.LIMBS];
+        PoseidonPermutation.hash(StarkField.fromHexCanonical(x), 0, StarkField.fromHexCanonical(y), 0, out, 0);
+        return StarkField.toHex(out, 0);
+    }
+    
+    /**
+     * Cairo's {@code poseidon_hash_span} on felt252 hex strings
+     */
+    public String poseidonHashMany(List<String> values) {
+        PoseidonSponge sponge = new PoseidonSponge();
+        long[] felt = new long[StarkField.LIMBS];
+        for (String value : values) {
+            StarkField.parseHex(value, felt, 0);
+            sponge.absorb(felt, 0);
+        }
+        sponge.squeeze(felt, 0);
+        return StarkField.toHex(felt, 0);
     }
     
     /**
@@ -44,15 +112,6 @@ public class PoseidonHashUtil {
      * Validate if a hash string is a valid felt252
      */
     public boolean isValidFelt252(String hash) {
-        if (hash == null || !hash.startsWith("0x")) {
-            return false;
-        }
-        
-        try {
-            BigInteger value = new BigInteger(hash.substring(2), 16);
-            return value.compareTo(FIELD_SIZE) < 0;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return hash != null && hash.startsWith("0x") && Felt252.isValid(hash);
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package org.mtvs.java_backend.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental felt252 hasher. Feed the content in chunks with {@code update}
+ * and call {@link #digest()} once at the end; the result is identical to
+ * hashing the whole content in one call.
+ * <p>
+ * The content is split into 31-byte big-endian words (like Cairo's {@code bytes31}),
+ * followed by the trailing partial word and its length in bytes, and the resulting
+ * felts are hashed with {@code poseidon_hash_many}. The same digest is obtained in
+ * Cairo with {@code poseidon_hash_span} over that word sequence.
+ * Instances are not thread-safe and must not be reused after {@code digest()}.
+ */
+public class PoseidonHasher {
+    
+    private static final int WORD_SIZE = 31;
+    
+    private final PoseidonSponge sponge = new PoseidonSponge();
+    private final byte[] word = new byte[WORD_SIZE];
+    private final long[] felt = new long[StarkField.LIMBS];
+    private int wordLength;
+    
+    public PoseidonHasher update(byte[] data, int offset, int length) {
+        int end = offset + length;
+        
+        // Top up a partially filled word first
+        if (wordLength > 0) {
+            int take = Math.min(WORD_SIZE - wordLength, length);
+            System.arraycopy(data, offset, word, wordLength, take);
+            wordLength += take;
+            offset += take;
+            if (wordLength < WORD_SIZE) {
+                return this;
+            }
+            absorbWord(word, 0, WORD_SIZE);
+            wordLength = 0;
+        }
+        
+        // Absorb full words straight from the input
+        while (end - offset >= WORD_SIZE) {
+            absorbWord(data, offset, WORD_SIZE);
+            offset += WORD_SIZE;
+        }
+        
+        wordLength = end - offset;
+        System.arraycopy(data, offset, word, 0, wordLength);
+        return this;
+    }
+    
+    /**
+     * Consume all remaining bytes of the buffer, leaving its position at its limit.
+     */
+    public PoseidonHasher update(ByteBuffer data) {
+        if (data.hasArray()) {
+            update(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            data.position(data.limit());
+            return this;
+        }
+        
+        // Direct buffers have no backing array, copy through the word buffer
+        while (data.hasRemaining()) {
+            int take = Math.min(WORD_SIZE - wordLength, data.remaining());
+            data.get(word, wordLength, take);
+            wordLength += take;
+            if (wordLength == WORD_SIZE) {
+                absorbWord(word, 0, WORD_SIZE);
+                wordLength = 0;
+            }
+        }
+        return this;
+    }
+    
+    /**
+     * Finish hashing and return the felt252 as a 0x-prefixed hex string.
+     */
+    public String digest() {
+        return digestFelt().toHex();
+    }
+    
+    /**
+     * Finish hashing and return the felt252 without going through hex.
+     */
+    public Felt252 digestFelt() {
+        absorbWord(word, 0, wordLength);
+        
+        felt[0] = wordLength;
+        felt[1] = 0;
+        felt[2] = 0;
+        felt[3] = 0;
+        sponge.absorb(felt, 0);
+        
+        sponge.squeeze(felt, 0);
+        return Felt252.fromLimbs(felt, 0);
+    }
+    
+    private void absorbWord(byte[] bytes, int offset, int length) {
+        StarkField.fromBytes31(bytes, offset, length, felt, 0);
+        sponge.absorb(felt, 0);
+    }
+}
\ No newline at end of file
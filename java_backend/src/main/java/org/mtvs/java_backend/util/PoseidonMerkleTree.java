@@ -0,0 +1,94 @@
+package org.mtvs.java_backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary Merkle tree over felt252 leaves with Cairo's {@code poseidon_hash(left, right)} as
+ * the node hash. An unpaired node at the end of a level is carried up unchanged, so a
+ * single leaf is its own root and a file hashed as one chunk keeps its plain Poseidon hash.
+ */
+public final class PoseidonMerkleTree {
+    
+    private PoseidonMerkleTree() {
+    }
+    
+    /**
+     * One step of an inclusion proof: the sibling at that level and which side it is on
+     */
+    public record ProofStep(Felt252 sibling, boolean left) {
+    }
+    
+    public static Felt252 root(List<Felt252> leaves) {
+        if (leaves.isEmpty()) {
+            throw new IllegalArgumentException("A Merkle tree needs at least one leaf");
+        }
+        long[] level = toLimbs(leaves);
+        int size = leaves.size();
+        while (size > 1) {
+            size = reduce(level, size);
+        }
+        return Felt252.fromLimbs(level, 0);
+    }
+    
+    /**
+     * Siblings from the leaf up to the root, skipping levels where the node has none
+     */
+    public static List<ProofStep> proof(List<Felt252> leaves, int index) {
+        if (index < 0 || index >= leaves.size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        List<ProofStep> steps = new ArrayList<>();
+        long[] level = toLimbs(leaves);
+        int size = leaves.size();
+        while (size > 1) {
+            int sibling = index ^ 1;
+            if (sibling < size) {
+                steps.add(new ProofStep(Felt252.fromLimbs(level, sibling * StarkField.LIMBS), sibling < index));
+            }
+            size = reduce(level, size);
+            index >>= 1;
+        }
+        return steps;
+    }
+    
+    public static boolean verify(Felt252 leaf, List<ProofStep> proof, Felt252 root) {
+        long[] node = new long[2 * StarkField.LIMBS];
+        leaf.toLimbs(node, 0);
+        for (ProofStep step : proof) {
+            if (step.left()) {
+                System.arraycopy(node, 0, node, StarkField.LIMBS, StarkField.LIMBS);
+                step.sibling().toLimbs(node, 0);
+            } else {
+                step.sibling().toLimbs(node, StarkField.LIMBS);
+            }
+            PoseidonPermutation.hash(node, 0, node, StarkField.LIMBS, node, 0);
+        }
+        return Felt252.fromLimbs(node, 0).equals(root);
+    }
+    
+    /**
+     * Hash pairs of the first {@code size} nodes in place into the next level and return its size
+     */
+    private static int reduce(long[] level, int size) {
+        int next = 0;
+        for (int i = 0; i < size; i += 2, next++) {
+            int out = next * StarkField.LIMBS;
+            int left = i * StarkField.LIMBS;
+            if (i + 1 < size) {
+                PoseidonPermutation.hash(level, left, level, left + StarkField.LIMBS, level, out);
+            } else {
+                System.arraycopy(level, left, level, out, StarkField.LIMBS);
+            }
+        }
+        return next;
+    }
+    
+    private static long[] toLimbs(List<Felt252> leaves) {
+        long[] limbs = new long[leaves.size() * StarkField.LIMBS];
+        for (int i = 0; i < leaves.size(); i++) {
+            leaves.get(i).toLimbs(limbs, i * StarkField.LIMBS);
+        }
+        return limbs;
+    }
+}
\ No newline at end of file
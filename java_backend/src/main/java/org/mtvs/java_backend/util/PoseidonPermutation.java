@@ -0,0 +1,121 @@
+package org.mtvs.java_backend.util;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Starknet's Hades permutation (Poseidon with state width 3, 8 full rounds,
+ * 83 partial rounds and the x^3 S-box), as used by Cairo's {@code core::poseidon}.
+ * State and round constants are kept in Montgomery form; a permutation performs
+ * no allocation.
+ */
+public final class PoseidonPermutation {
+    
+    public static final int STATE_LIMBS = 3 * StarkField.LIMBS;
+    public static final int SCRATCH_LIMBS = 2 * StarkField.LIMBS;
+    
+    private static final int FULL_ROUNDS = 8;
+    private static final int PARTIAL_ROUNDS = 83;
+    private static final int TOTAL_ROUNDS = FULL_ROUNDS + PARTIAL_ROUNDS;
+    
+    private static final long[] ROUND_CONSTANTS = generateRoundConstants();
+    
+    private PoseidonPermutation() {
+    }
+    
+    /**
+     * Permute a 12-limb Montgomery-form state in place, using 8 limbs of scratch space
+     */
+    public static void permute(long[] state, long[] scratch) {
+        int round = 0;
+        for (int i = 0; i < FULL_ROUNDS / 2; i++, round++) {
+            fullRound(state, scratch, round);
+        }
+        for (int i = 0; i < PARTIAL_ROUNDS; i++, round++) {
+            partialRound(state, scratch, round);
+        }
+        for (int i = 0; i < FULL_ROUNDS / 2; i++, round++) {
+            fullRound(state, scratch, round);
+        }
+    }
+    
+    /**
+     * Cairo's {@code poseidon_hash(x, y)} on canonical limbs: the first element of hades([x, y, 2])
+     */
+    public static void hash(long[] x, int xo, long[] y, int yo, long[] out, int oo) {
+        long[] state = new long[STATE_LIMBS];
+        long[] scratch = new long[SCRATCH_LIMBS];
+        StarkField.toMontgomery(x, xo, state, 0);
+        StarkField.toMontgomery(y, yo, state, 4);
+        scratch[0] = 2;
+        StarkField.toMontgomery(scratch, 0, state, 8);
+        permute(state, scratch);
+        StarkField.fromMontgomery(state, 0, out, oo);
+    }
+    
+    private static void fullRound(long[] state, long[] scratch, int round) {
+        addRoundConstants(state, round);
+        StarkField.cube(state, 0, state, 0, scratch, 4);
+        StarkField.cube(state, 4, state, 4, scratch, 4);
+        StarkField.cube(state, 8, state, 8, scratch, 4);
+        mix(state, scratch);
+    }
+    
+    private static void partialRound(long[] state, long[] scratch, int round) {
+        addRoundConstants(state, round);
+        StarkField.cube(state, 8, state, 8, scratch, 4);
+        mix(state, scratch);
+    }
+    
+    private static void addRoundConstants(long[] state, int round) {
+        int offset = round * STATE_LIMBS;
+        StarkField.add(state, 0, ROUND_CONSTANTS, offset, state, 0);
+        StarkField.add(state, 4, ROUND_CONSTANTS, offset + 4, state, 4);
+        StarkField.add(state, 8, ROUND_CONSTANTS, offset + 8, state, 8);
+    }
+    
+    /**
+     * Multiply by the MDS matrix [[3, 1, 1], [1, -1, 1], [1, 1, -2]].
+     * The entries are small, so this is a handful of additions on t = s0 + s1 + s2:
+     * s0' = t + 2*s0, s1' = t - 2*s1, s2' = t - 3*s2.
+     */
+    private static void mix(long[] state, long[] scratch) {
+        StarkField.add(state, 0, state, 4, scratch, 0);
+        StarkField.add(scratch, 0, state, 8, scratch, 0);
+        
+        StarkField.add(state, 0, state, 0, state, 0);
+        StarkField.add(state, 0, scratch, 0, state, 0);
+        
+        StarkField.add(state, 4, state, 4, state, 4);
+        StarkField.sub(scratch, 0, state, 4, state, 4);
+        
+        StarkField.add(state, 8, state, 8, scratch, 4);
+        StarkField.add(scratch, 4, state, 8, state, 8);
+        StarkField.sub(scratch, 0, state, 8, state, 8);
+    }
+    
+    /**
+     * Round constants as defined by cairo-lang: sha256("Hades" + index) mod p,
+     * three per round. Computed once at class load and stored in Montgomery form.
+     */
+    private static long[] generateRoundConstants() {
+        BigInteger prime = BigInteger.ONE.shiftLeft(251)
+                .add(BigInteger.valueOf(17).shiftLeft(192))
+                .add(BigInteger.ONE);
+        long[] constants = new long[TOTAL_ROUNDS * STATE_LIMBS];
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (int i = 0; i < TOTAL_ROUNDS * 3; i++) {
+                byte[] digest = sha256.digest(("Hades" + i).getBytes(StandardCharsets.US_ASCII));
+                BigInteger constant = new BigInteger(1, digest).mod(prime);
+                StarkField.parseHex(constant.toString(16), constants, i * StarkField.LIMBS);
+                StarkField.toMontgomery(constants, i * StarkField.LIMBS, constants, i * StarkField.LIMBS);
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+        return constants;
+    }
+}
\ No newline at end of file
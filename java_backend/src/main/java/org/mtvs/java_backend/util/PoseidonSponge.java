@@ -0,0 +1,40 @@
+package org.mtvs.java_backend.util;
+
+/**
+ * Cairo's {@code poseidon_hash_many} sponge (rate 2, capacity 1) over felt252 values.
+ * Values are absorbed one at a time as canonical limbs; {@link #squeeze} applies the
+ * standard padding (a 1, then a 0 if needed to fill the last pair).
+ * Instances are not thread-safe and must not be reused after {@code squeeze}.
+ */
+public final class PoseidonSponge {
+    
+    private static final long[] ONE = {1L, 0L, 0L, 0L};
+    private static final long[] ZERO = {0L, 0L, 0L, 0L};
+    
+    private final long[] state = new long[PoseidonPermutation.STATE_LIMBS];
+    private final long[] scratch = new long[PoseidonPermutation.SCRATCH_LIMBS];
+    private final long[] pending = new long[StarkField.LIMBS];
+    private boolean hasPending;
+    
+    public void absorb(long[] felt, int offset) {
+        if (!hasPending) {
+            StarkField.toMontgomery(felt, offset, pending, 0);
+            hasPending = true;
+            return;
+        }
+        
+        StarkField.toMontgomery(felt, offset, scratch, 0);
+        StarkField.add(state, 0, pending, 0, state, 0);
+        StarkField.add(state, 4, scratch, 0, state, 4);
+        PoseidonPermutation.permute(state, scratch);
+        hasPending = false;
+    }
+    
+    public void squeeze(long[] out, int offset) {
+        absorb(ONE, 0);
+        if (hasPending) {
+            absorb(ZERO, 0);
+        }
+        StarkField.fromMontgomery(state, 0, out, offset);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package org.mtvs.java_backend.util;
+
+/**
+ * A call was rejected before it was sent: the circuit breaker is open or too many
+ * calls are already in flight
+ */
+public class RpcUnavailableException extends RuntimeException {
+    
+    public RpcUnavailableException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,598 @@
+package org.mtvs.java_backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of file names, content types and hash prefixes. Each indexed file
+ * gets an ordinal in insertion order, so a higher ordinal is a newer file, and postings lists
+ * are ascending int arrays that only ever grow at the end.
+ * <ul>
+ *     <li>Names are split into lowercase terms at punctuation, letter/digit boundaries and
+ *     camelCase humps ({@code IMG_2024Report.pdf} is {@code img 2024 report pdf}), held in a
+ *     sorted dictionary so a query term also matches the terms it is a prefix of.</li>
+ *     <li>Content types are few, so each has its own postings list.</li>
+ *     <li>Hashes are keyed by their first 16 hex digits as printed ({@link Felt252#toHex}),
+ *     left-aligned in a long and kept sorted in 65536 buckets by their first four digits.</li>
+ * </ul>
+ * Clauses are intersected newest first with galloping search. Results are ranked by score
+ * (2 per query term matched exactly, 1 per term matched as a prefix), then newest first.
+ * Writers take a write lock; searches share a read lock.
+ */
+public class SearchIndex {
+    
+    public static final int MIN_HASH_PREFIX = 4;
+    public static final int MAX_QUERY_TERMS = 8;
+    // Longer terms are not indexed, so no file name can bloat the dictionary
+    public static final int MAX_TERM_LENGTH = 64;
+    // Dictionary terms a prefix may expand to; single-character terms match exactly only
+    static final int MAX_EXPANSIONS = 64;
+    
+    private static final int HASH_BUCKETS = 1 << 16;
+    private static final int NO_MORE = -1;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxCandidates;
+    
+    private long[] fileIds;
+    private int size;
+    private final TreeMap<String, IntList> terms = new TreeMap<>();
+    private final Map<String, IntList> types = new HashMap<>();
+    private final long[][] hashKeys = new long[HASH_BUCKETS][];
+    private final int[][] hashDocs = new int[HASH_BUCKETS][];
+    private final int[] hashBucketSizes = new int[HASH_BUCKETS];
+    private long postings;
+    
+    /**
+     * @param maxCandidates matches a ranked query scores at most, newest first, before it
+     *                      returns the best of those; filter-only queries stop at a page
+     */
+    public SearchIndex(int expectedFiles, int maxCandidates) {
+        this.fileIds = new long[Math.max(16, expectedFiles)];
+        this.maxCandidates = maxCandidates;
+    }
+    
+    /**
+     * Index a file; false if this file id is already indexed under the same hash
+     */
+    public boolean add(long fileId, String filename, String fileType, Felt252 poseidonHash) {
+        long hashKey = hashKey(poseidonHash);
+        lock.writeLock().lock();
+        try {
+            if (containsHash(hashKey, fileId)) {
+                return false;
+            }
+            int doc = size;
+            if (doc == fileIds.length) {
+                fileIds = Arrays.copyOf(fileIds, doc + (doc >> 1));
+            }
+            fileIds[doc] = fileId;
+            size++;
+            
+            for (String term : new LinkedHashSet<>(tokenize(filename))) {
+                terms.computeIfAbsent(term, t -> new IntList()).add(doc);
+                postings++;
+            }
+            if (fileType != null && !fileType.isBlank()) {
+                types.computeIfAbsent(fileType.trim().toLowerCase(Locale.ROOT), t -> new IntList()).add(doc);
+                postings++;
+            }
+            addHash(hashKey, doc);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * One page of matches strictly after {@code after} (null for the first page)
+     */
+    public Page search(Query query, Position after, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Clause> clauses = new ArrayList<>();
+            boolean truncated = false;
+            // Best score any file could reach: 2 for a term in the dictionary, 1 for a bare prefix
+            int maxScore = 0;
+            for (String term : query.terms()) {
+                TermClause clause = termClause(term);
+                if (clause == null) {
+                    return Page.EMPTY;
+                }
+                truncated |= clause.truncated;
+                maxScore += clause.exact ? 2 : 1;
+                clauses.add(clause);
+            }
+            boolean ranked = !clauses.isEmpty();
+            if (query.type() != null) {
+                Clause clause = typeClause(query.type());
+                if (clause == null) {
+                    return Page.EMPTY;
+                }
+                clauses.add(clause);
+            }
+            if (query.hashPrefix() != null) {
+                Clause clause = hashClause(query.hashPrefix());
+                if (clause == null) {
+                    return Page.EMPTY;
+                }
+                clauses.add(clause);
+            }
+            // The rarest clause leads; the others are probed with advance()
+            clauses.sort((a, b) -> Long.compare(a.cost(), b.cost()));
+            
+            Page page = ranked
+                    ? ranked(clauses, maxScore, after, limit)
+                    : newestFirst(clauses, after, limit);
+            return truncated ? new Page(page.hits(), page.next(), true) : page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            return Map.of(
+                    "files", size,
+                    "terms", terms.size(),
+                    "types", types.size(),
+                    "postings", postings,
+                    "maxCandidates", maxCandidates,
+                    "approximateMemoryBytes", approximateMemoryBytes()
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Lowercase name terms: runs of letters or digits, also split where letters meet digits
+     * and where a lowercase letter is followed by an uppercase one
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            boolean word = Character.isLetterOrDigit(c);
+            if (start >= 0 && (!word || startsNewTerm(text.charAt(i - 1), c))) {
+                if (i - start <= MAX_TERM_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+            if (word && start < 0) {
+                start = i;
+            }
+        }
+        return tokens;
+    }
+    
+    /**
+     * The first 16 hex digits of the printed hash, left-aligned, so a hex prefix is a key range
+     */
+    static long hashKey(Felt252 hash) {
+        int top = 3;
+        while (top > 0 && hash.limb(top) == 0) {
+            top--;
+        }
+        int shift = Long.numberOfLeadingZeros(hash.limb(top)) & ~3;
+        if (shift == 64) {
+            return 0;
+        }
+        long high = hash.limb(top) << shift;
+        return top == 0 || shift == 0 ? high : high | hash.limb(top - 1) >>> (64 - shift);
+    }
+    
+    private static boolean startsNewTerm(char previous, char c) {
+        return Character.isDigit(previous) != Character.isDigit(c)
+                || Character.isLowerCase(previous) && Character.isUpperCase(c);
+    }
+    
+    private TermClause termClause(String term) {
+        List<IntList> matches = new ArrayList<>();
+        boolean exact = false;
+        boolean truncated = false;
+        if (term.length() == 1) {
+            IntList list = terms.get(term);
+            if (list != null) {
+                matches.add(list);
+                exact = true;
+            }
+        } else {
+            for (Map.Entry<String, IntList> entry : terms.tailMap(term, true).entrySet()) {
+                if (!entry.getKey().startsWith(term)) {
+                    break;
+                }
+                if (matches.size() == MAX_EXPANSIONS) {
+                    truncated = true;
+                    break;
+                }
+                // The exact term sorts first among those it prefixes
+                exact |= matches.isEmpty() && entry.getKey().length() == term.length();
+                matches.add(entry.getValue());
+            }
+        }
+        return matches.isEmpty() ? null : new TermClause(matches, exact, truncated);
+    }
+    
+    private Clause typeClause(String type) {
+        List<IntList> matches = new ArrayList<>();
+        if (type.endsWith("/")) {
+            types.forEach((name, list) -> {
+                if (name.startsWith(type)) {
+                    matches.add(list);
+                }
+            });
+        } else if (types.containsKey(type)) {
+            matches.add(types.get(type));
+        }
+        return matches.isEmpty() ? null : new UnionClause(matches);
+    }
+    
+    private Clause hashClause(String hexPrefix) {
+        int digits = Math.min(hexPrefix.length(), 16);
+        long low = Long.parseUnsignedLong(hexPrefix.substring(0, digits), 16) << (64 - 4 * digits);
+        long high = digits == 16 ? low : low | -1L >>> (4 * digits);
+        int bucket = (int) (low >>> 48);
+        int count = hashBucketSizes[bucket];
+        if (count == 0) {
+            return null;
+        }
+        long[] keys = hashKeys[bucket];
+        int from = lowerBound(keys, count, low);
+        int to = from;
+        while (to < count && Long.compareUnsigned(keys[to], high) <= 0) {
+            to++;
+        }
+        if (from == to) {
+            return null;
+        }
+        int[] docs = Arrays.copyOfRange(hashDocs[bucket], from, to);
+        Arrays.sort(docs);
+        return new UnionClause(List.of(new IntList(docs, docs.length)));
+    }
+    
+    /**
+     * Unranked: every match scores the same, so the page is simply the next newest matches
+     */
+    private Page newestFirst(List<Clause> clauses, Position after, int limit) {
+        List<Hit> hits = new ArrayList<>(limit + 1);
+        int doc = conjunction(clauses, after == null ? Integer.MAX_VALUE : after.ordinal() - 1);
+        while (doc != NO_MORE && hits.size() <= limit) {
+            hits.add(new Hit(fileIds[doc], 0, doc));
+            doc = conjunction(clauses, doc - 1);
+        }
+        return page(hits, limit, false);
+    }
+    
+    /**
+     * Ranked: score up to maxCandidates matches newest first and keep the best page after the
+     * cursor. Stops as soon as the page is full of matches no older file could outscore.
+     */
+    private Page ranked(List<Clause> clauses, int maxScore, Position after, int limit) {
+        int ceiling = after == null ? maxScore : Math.min(maxScore, after.score());
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, Hit.RANKING.reversed());
+        int examined = 0;
+        int doc = conjunction(clauses, Integer.MAX_VALUE);
+        while (doc != NO_MORE) {
+            if (examined++ == maxCandidates) {
+                break;
+            }
+            int score = 0;
+            for (Clause clause : clauses) {
+                score += clause.score(doc);
+            }
+            Hit hit = new Hit(fileIds[doc], score, doc);
+            if (after == null || Hit.RANKING.compare(hit, after.hit()) > 0) {
+                best.add(hit);
+                if (best.size() > limit + 1) {
+                    best.poll();
+                }
+                if (best.size() == limit + 1 && best.peek().score() >= ceiling) {
+                    return page(sorted(best), limit, false);
+                }
+            }
+            doc = conjunction(clauses, doc - 1);
+        }
+        return page(sorted(best), limit, doc != NO_MORE);
+    }
+    
+    /**
+     * The newest document at or below {@code target} that every clause matches
+     */
+    private static int conjunction(List<Clause> clauses, int target) {
+        int doc = clauses.get(0).advance(target);
+        int agreed = 1;
+        for (int i = 1; doc != NO_MORE && agreed < clauses.size(); i = (i + 1) % clauses.size()) {
+            int next = clauses.get(i).advance(doc);
+            if (next == doc) {
+                agreed++;
+            } else {
+                doc = next;
+                agreed = 1;
+            }
+        }
+        return doc;
+    }
+    
+    private static List<Hit> sorted(PriorityQueue<Hit> best) {
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Hit.RANKING);
+        return hits;
+    }
+    
+    private static Page page(List<Hit> hits, int limit, boolean truncated) {
+        boolean hasMore = hits.size() > limit;
+        List<Hit> page = hasMore ? List.copyOf(hits.subList(0, limit)) : List.copyOf(hits);
+        Position next = hasMore ? new Position(page.get(limit - 1).score(), page.get(limit - 1).ordinal()) : null;
+        return new Page(page, next, truncated);
+    }
+    
+    private boolean containsHash(long key, long fileId) {
+        int bucket = (int) (key >>> 48);
+        long[] keys = hashKeys[bucket];
+        int count = hashBucketSizes[bucket];
+        for (int i = lowerBound(keys, count, key); i < count && keys[i] == key; i++) {
+            if (fileIds[hashDocs[bucket][i]] == fileId) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void addHash(long key, int doc) {
+        int bucket = (int) (key >>> 48);
+        int count = hashBucketSizes[bucket];
+        if (hashKeys[bucket] == null) {
+            hashKeys[bucket] = new long[4];
+            hashDocs[bucket] = new int[4];
+        } else if (count == hashKeys[bucket].length) {
+            hashKeys[bucket] = Arrays.copyOf(hashKeys[bucket], count * 2);
+            hashDocs[bucket] = Arrays.copyOf(hashDocs[bucket], count * 2);
+        }
+        int at = lowerBound(hashKeys[bucket], count, key);
+        System.arraycopy(hashKeys[bucket], at, hashKeys[bucket], at + 1, count - at);
+        System.arraycopy(hashDocs[bucket], at, hashDocs[bucket], at + 1, count - at);
+        hashKeys[bucket][at] = key;
+        hashDocs[bucket][at] = doc;
+        hashBucketSizes[bucket] = count + 1;
+    }
+    
+    private static int lowerBound(long[] keys, int count, long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keys[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private long approximateMemoryBytes() {
+        long bytes = fileIds.length * 8L + postings * 4L;
+        // Dictionary entry, term string and list header per term, roughly
+        bytes += terms.size() * 120L + types.size() * 120L;
+        for (int bucket = 0; bucket < HASH_BUCKETS; bucket++) {
+            if (hashKeys[bucket] != null) {
+                bytes += hashKeys[bucket].length * 12L;
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * Normalized query: lowercase name terms, a content type ({@code image/png}, or a
+     * {@code image/} prefix) and the hex digits of a hash prefix, each optional but not all
+     */
+    public record Query(List<String> terms, String type, String hashPrefix) {
+        
+        public static Query of(String text, String type, String hashPrefix) {
+            List<String> terms = List.copyOf(new LinkedHashSet<>(tokenize(text)));
+            if (terms.size() > MAX_QUERY_TERMS) {
+                throw new IllegalArgumentException("At most " + MAX_QUERY_TERMS + " search terms are allowed");
+            }
+            String normalizedType = null;
+            if (type != null && !type.isBlank()) {
+                normalizedType = type.trim().toLowerCase(Locale.ROOT);
+                if (normalizedType.endsWith("/*")) {
+                    normalizedType = normalizedType.substring(0, normalizedType.length() - 1);
+                }
+            }
+            String digits = null;
+            if (hashPrefix != null && !hashPrefix.isBlank()) {
+                digits = hashPrefix.trim().toLowerCase(Locale.ROOT);
+                if (digits.startsWith("0x")) {
+                    digits = digits.substring(2);
+                }
+                if (digits.length() < MIN_HASH_PREFIX || digits.length() > 64 || !digits.matches("[0-9a-f]+")) {
+                    throw new IllegalArgumentException("Hash prefix must be " + MIN_HASH_PREFIX + " to 64 hex digits");
+                }
+            }
+            if (terms.isEmpty() && normalizedType == null && digits == null) {
+                throw new IllegalArgumentException("Search needs a query, a file type or a hash prefix");
+            }
+            return new Query(terms, normalizedType, digits);
+        }
+    }
+    
+    /**
+     * Where a page ended; the next page starts strictly after it in ranking order
+     */
+    public record Position(int score, int ordinal) {
+        
+        Hit hit() {
+            return new Hit(0, score, ordinal);
+        }
+    }
+    
+    public record Hit(long fileId, int score, int ordinal) {
+        
+        // Best first: higher score, then newer
+        static final Comparator<Hit> RANKING = (a, b) -> a.score != b.score
+                ? Integer.compare(b.score, a.score)
+                : Integer.compare(b.ordinal, a.ordinal);
+    }
+    
+    /**
+     * @param truncated true when the ranking only considered part of the matches, either
+     *                  because a term prefixed too many terms or the candidate cap was hit
+     */
+    public record Page(List<Hit> hits, Position next, boolean truncated) {
+        
+        static final Page EMPTY = new Page(List.of(), null, false);
+    }
+    
+    /**
+     * Matching documents walked from newest to oldest
+     */
+    private interface Clause {
+        
+        /**
+         * The newest matching document at or below {@code target}, or {@link #NO_MORE}
+         */
+        int advance(int target);
+        
+        default int score(int doc) {
+            return 0;
+        }
+        
+        long cost();
+    }
+    
+    private static class UnionClause implements Clause {
+        
+        final IntList[] lists;
+        // Per list: index of the last element not yet ruled out; targets only decrease
+        final int[] positions;
+        final long cost;
+        
+        UnionClause(List<IntList> lists) {
+            this.lists = lists.toArray(IntList[]::new);
+            this.positions = new int[this.lists.length];
+            long total = 0;
+            for (int i = 0; i < this.lists.length; i++) {
+                positions[i] = this.lists[i].size - 1;
+                total += this.lists[i].size;
+            }
+            this.cost = total;
+        }
+        
+        @Override
+        public int advance(int target) {
+            int best = NO_MORE;
+            for (int i = 0; i < lists.length; i++) {
+                positions[i] = lists[i].floor(target, positions[i]);
+                if (positions[i] >= 0) {
+                    best = Math.max(best, lists[i].values[positions[i]]);
+                }
+            }
+            return best;
+        }
+        
+        @Override
+        public long cost() {
+            return cost;
+        }
+    }
+    
+    private static class TermClause extends UnionClause {
+        
+        final boolean exact;
+        final boolean truncated;
+        
+        TermClause(List<IntList> lists, boolean exact, boolean truncated) {
+            super(lists);
+            this.exact = exact;
+            this.truncated = truncated;
+        }
+        
+        /**
+         * Called right after every clause agreed on {@code doc}, so positions point at it
+         */
+        @Override
+        public int score(int doc) {
+            return exact && positions[0] >= 0 && lists[0].values[positions[0]] == doc ? 2 : 1;
+        }
+    }
+    
+    /**
+     * Growable ascending postings list
+     */
+    private static final class IntList {
+        
+        int[] values;
+        int size;
+        
+        IntList() {
+            this(new int[2], 0);
+        }
+        
+        IntList(int[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + Math.max(2, size >> 1));
+            }
+            values[size++] = value;
+        }
+        
+        /**
+         * Index of the last value at or below {@code target}, searching no further than
+         * {@code from}: gallops down from there, then binary-searches the bracket
+         */
+        int floor(int target, int from) {
+            if (from < 0 || values[from] <= target) {
+                return from;
+            }
+            int step = 1;
+            int high = from;
+            int low = from - step;
+            while (low >= 0 && values[low] > target) {
+                high = low;
+                step <<= 1;
+                low = from - step;
+            }
+            low = Math.max(low, -1);
+            // values[low] <= target (or low == -1) and values[high] > target
+            while (high - low > 1) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= target) {
+                    low = mid;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
\ No newline at end of file
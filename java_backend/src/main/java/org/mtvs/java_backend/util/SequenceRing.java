@@ -0,0 +1,87 @@
+package org.mtvs.java_backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recent items, each numbered with a sequence that increases by
+ * one per item. Readers keep their own position and read everything after it; a reader that
+ * falls a full ring behind finds its next item overwritten and is told it overran. Writers
+ * are serialized with each other but never wait for readers, and readers take no lock: each
+ * slot holds an immutable entry, so a read sees either the old or the new entry whole.
+ */
+public class SequenceRing<T> {
+    
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final int mask;
+    private final long firstSequence;
+    private volatile long lastSequence;
+    
+    /**
+     * @param capacity      rounded up to a power of two
+     * @param firstSequence sequence of the first item; start above anything handed out before
+     *                      (e.g. by a previous process) so stale positions are recognized
+     */
+    public SequenceRing(int capacity, long firstSequence) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.firstSequence = firstSequence;
+        this.lastSequence = firstSequence - 1;
+    }
+    
+    /**
+     * Append an item and return its sequence
+     */
+    public synchronized long publish(T item) {
+        long sequence = lastSequence + 1;
+        slots.set((int) (sequence & mask), new Entry<>(sequence, item));
+        // Volatile write after the slot, so readers that see the sequence see the entry
+        lastSequence = sequence;
+        return sequence;
+    }
+    
+    /**
+     * Sequence of the newest item, or one below the first sequence while empty
+     */
+    public long lastSequence() {
+        return lastSequence;
+    }
+    
+    public int capacity() {
+        return slots.length();
+    }
+    
+    /**
+     * Up to {@code max} items after {@code after}, oldest first. Overran when items after
+     * {@code after} are no longer held, or when {@code after} was never handed out.
+     */
+    public Read<T> readAfter(long after, int max) {
+        long last = lastSequence;
+        if (after > last || after < firstSequence - 1 || last - after > slots.length()) {
+            return Read.overrun();
+        }
+        long end = Math.min(last, after + max);
+        List<Entry<T>> entries = new ArrayList<>((int) (end - after));
+        for (long sequence = after + 1; sequence <= end; sequence++) {
+            Entry<T> entry = slots.get((int) (sequence & mask));
+            if (entry == null || entry.sequence() != sequence) {
+                // Overwritten by a writer that lapped this reader while it read
+                return Read.overrun();
+            }
+            entries.add(entry);
+        }
+        return new Read<>(entries, false);
+    }
+    
+    public record Entry<T>(long sequence, T item) {
+    }
+    
+    public record Read<T>(List<Entry<T>> entries, boolean overran) {
+        
+        static <T> Read<T> overrun() {
+            return new Read<>(List.of(), true);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,310 @@
+package org.mtvs.java_backend.util;
+
+/**
+ * Allocation-free arithmetic over the Stark prime p = 2^251 + 17 * 2^192 + 1.
+ * Field elements are four little-endian 64-bit limbs stored at an offset of a
+ * {@code long[]}, kept in Montgomery form (x * 2^256 mod p) between operations.
+ * Results may alias either operand.
+ */
+public final class StarkField {
+    
+    public static final int LIMBS = 4;
+    
+    private static final long P0 = 1L;
+    private static final long P1 = 0L;
+    private static final long P2 = 0L;
+    private static final long P3 = 0x0800000000000011L;
+    
+    // -p^-1 mod 2^64, which is -1 because the lowest limb of p is 1
+    private static final long P_INV_NEG = -1L;
+    
+    // 2^512 mod p, used to move values into Montgomery form
+    private static final long[] R2 = fromHexCanonical("7ffd4ab5e008810ffffffffff6f800000000001330ffffffffffd737e000401");
+    
+    private static final long[] ONE_CANONICAL = {1L, 0L, 0L, 0L};
+    
+    private StarkField() {
+    }
+    
+    public static void add(long[] a, int ao, long[] b, int bo, long[] r, int ro) {
+        long a0 = a[ao], a1 = a[ao + 1], a2 = a[ao + 2], a3 = a[ao + 3];
+        long b0 = b[bo], b1 = b[bo + 1], b2 = b[bo + 2], b3 = b[bo + 3];
+        
+        // Both operands are below 2^252, so the sum cannot overflow 256 bits
+        long r0 = a0 + b0;
+        long c = Long.compareUnsigned(r0, a0) < 0 ? 1 : 0;
+        long r1 = a1 + b1 + c;
+        c = (Long.compareUnsigned(r1, a1) < 0 || (c == 1 && r1 == a1)) ? 1 : 0;
+        long r2 = a2 + b2 + c;
+        c = (Long.compareUnsigned(r2, a2) < 0 || (c == 1 && r2 == a2)) ? 1 : 0;
+        long r3 = a3 + b3 + c;
+        
+        reduceOnce(r0, r1, r2, r3, r, ro);
+    }
+    
+    public static void sub(long[] a, int ao, long[] b, int bo, long[] r, int ro) {
+        long a0 = a[ao], a1 = a[ao + 1], a2 = a[ao + 2], a3 = a[ao + 3];
+        long b0 = b[bo], b1 = b[bo + 1], b2 = b[bo + 2], b3 = b[bo + 3];
+        
+        long r0 = a0 - b0;
+        long borrow = Long.compareUnsigned(a0, b0) < 0 ? 1 : 0;
+        long r1 = a1 - b1 - borrow;
+        borrow = (Long.compareUnsigned(a1, b1) < 0 || (borrow == 1 && a1 == b1)) ? 1 : 0;
+        long r2 = a2 - b2 - borrow;
+        borrow = (Long.compareUnsigned(a2, b2) < 0 || (borrow == 1 && a2 == b2)) ? 1 : 0;
+        long r3 = a3 - b3 - borrow;
+        borrow = (Long.compareUnsigned(a3, b3) < 0 || (borrow == 1 && a3 == b3)) ? 1 : 0;
+        
+        if (borrow != 0) {
+            // Wrapped below zero, add p back
+            long s0 = r0 + P0;
+            long c = Long.compareUnsigned(s0, r0) < 0 ? 1 : 0;
+            long s1 = r1 + P1 + c;
+            c = (Long.compareUnsigned(s1, r1) < 0 || (c == 1 && s1 == r1)) ? 1 : 0;
+            long s2 = r2 + P2 + c;
+            c = (Long.compareUnsigned(s2, r2) < 0 || (c == 1 && s2 == r2)) ? 1 : 0;
+            r0 = s0;
+            r1 = s1;
+            r2 = s2;
+            r3 = r3 + P3 + c;
+        }
+        
+        r[ro] = r0;
+        r[ro + 1] = r1;
+        r[ro + 2] = r2;
+        r[ro + 3] = r3;
+    }
+    
+    /**
+     * Montgomery multiplication (CIOS): r = a * b * 2^-256 mod p
+     */
+    public static void mul(long[] a, int ao, long[] b, int bo, long[] r, int ro) {
+        long a0 = a[ao], a1 = a[ao + 1], a2 = a[ao + 2], a3 = a[ao + 3];
+        long b0 = b[bo], b1 = b[bo + 1], b2 = b[bo + 2], b3 = b[bo + 3];
+        long t0 = 0, t1 = 0, t2 = 0, t3 = 0, t4 = 0;
+        
+        for (int i = 0; i < LIMBS; i++) {
+            long bi = i == 0 ? b0 : i == 1 ? b1 : i == 2 ? b2 : b3;
+            long lo, hi, c;
+            
+            // t += a * b[i]
+            lo = a0 * bi;
+            hi = mulHigh(a0, bi);
+            t0 += lo;
+            c = hi + (Long.compareUnsigned(t0, lo) < 0 ? 1 : 0);
+            
+            lo = a1 * bi;
+            hi = mulHigh(a1, bi);
+            t1 += lo;
+            hi += Long.compareUnsigned(t1, lo) < 0 ? 1 : 0;
+            t1 += c;
+            hi += Long.compareUnsigned(t1, c) < 0 ? 1 : 0;
+            c = hi;
+            
+            lo = a2 * bi;
+            hi = mulHigh(a2, bi);
+            t2 += lo;
+            hi += Long.compareUnsigned(t2, lo) < 0 ? 1 : 0;
+            t2 += c;
+            hi += Long.compareUnsigned(t2, c) < 0 ? 1 : 0;
+            c = hi;
+            
+            lo = a3 * bi;
+            hi = mulHigh(a3, bi);
+            t3 += lo;
+            hi += Long.compareUnsigned(t3, lo) < 0 ? 1 : 0;
+            t3 += c;
+            hi += Long.compareUnsigned(t3, c) < 0 ? 1 : 0;
+            c = hi;
+            
+            t4 += c;
+            long t5 = Long.compareUnsigned(t4, c) < 0 ? 1 : 0;
+            
+            // t = (t + m * p) / 2^64. With p = 2^192 * P3 + 1 only the lowest and highest
+            // limbs of p contribute, and t0 + m is always 0 mod 2^64, carrying iff t0 != 0
+            long m = t0 * P_INV_NEG;
+            c = t0 != 0 ? 1 : 0;
+            
+            t0 = t1 + c;
+            c = Long.compareUnsigned(t0, c) < 0 ? 1 : 0;
+            
+            t1 = t2 + c;
+            c = Long.compareUnsigned(t1, c) < 0 ? 1 : 0;
+            
+            lo = m * P3;
+            hi = mulHigh(m, P3);
+            long s = t3 + lo;
+            hi += Long.compareUnsigned(s, lo) < 0 ? 1 : 0;
+            s += c;
+            hi += Long.compareUnsigned(s, c) < 0 ? 1 : 0;
+            t2 = s;
+            c = hi;
+            
+            t3 = t4 + c;
+            t4 = t5 + (Long.compareUnsigned(t3, c) < 0 ? 1 : 0);
+        }
+        
+        // Inputs below p keep the result below 2p < 2^256, so t4 is always zero here
+        reduceOnce(t0, t1, t2, t3, r, ro);
+    }
+    
+    public static void square(long[] a, int ao, long[] r, int ro) {
+        mul(a, ao, a, ao, r, ro);
+    }
+    
+    /**
+     * r = a^3, the Poseidon S-box. Needs four limbs of scratch space.
+     */
+    public static void cube(long[] a, int ao, long[] r, int ro, long[] scratch, int so) {
+        mul(a, ao, a, ao, scratch, so);
+        mul(scratch, so, a, ao, r, ro);
+    }
+    
+    /**
+     * Convert a canonical value into Montgomery form
+     */
+    public static void toMontgomery(long[] a, int ao, long[] r, int ro) {
+        mul(a, ao, R2, 0, r, ro);
+    }
+    
+    /**
+     * Convert a Montgomery-form value back into its canonical representation
+     */
+    public static void fromMontgomery(long[] a, int ao, long[] r, int ro) {
+        mul(a, ao, ONE_CANONICAL, 0, r, ro);
+    }
+    
+    public static boolean isZero(long[] a, int ao) {
+        return (a[ao] | a[ao + 1] | a[ao + 2] | a[ao + 3]) == 0;
+    }
+    
+    /**
+     * Check that four canonical limbs encode a value below p
+     */
+    public static boolean isCanonical(long[] a, int ao) {
+        return !geqP(a[ao], a[ao + 1], a[ao + 2], a[ao + 3]);
+    }
+    
+    /**
+     * Parse a hex string (with or without 0x prefix) into canonical limbs.
+     * Throws {@link NumberFormatException} on malformed input or values not below p.
+     */
+    public static long[] fromHexCanonical(String hex) {
+        long[] limbs = new long[LIMBS];
+        parseHex(hex, limbs, 0);
+        return limbs;
+    }
+    
+    public static void parseHex(CharSequence hex, long[] r, int ro) {
+        int start = hex.length() >= 2 && hex.charAt(0) == '0' && (hex.charAt(1) == 'x' || hex.charAt(1) == 'X') ? 2 : 0;
+        int end = hex.length();
+        if (start == end) {
+            throw new NumberFormatException("Empty hex value");
+        }
+        while (start < end - 1 && hex.charAt(start) == '0') {
+            start++;
+        }
+        if (end - start > 64) {
+            throw new NumberFormatException("Hex value does not fit in 256 bits");
+        }
+        
+        long l0 = 0, l1 = 0, l2 = 0, l3 = 0;
+        int shift = 0;
+        for (int i = end - 1; i >= start; i--, shift += 4) {
+            long digit = Character.digit(hex.charAt(i), 16);
+            if (digit < 0) {
+                throw new NumberFormatException("Invalid hex digit in: " + hex);
+            }
+            switch (shift >>> 6) {
+                case 0 -> l0 |= digit << (shift & 63);
+                case 1 -> l1 |= digit << (shift & 63);
+                case 2 -> l2 |= digit << (shift & 63);
+                default -> l3 |= digit << (shift & 63);
+            }
+        }
+        if (geqP(l0, l1, l2, l3)) {
+            throw new NumberFormatException("Value is not a valid felt252: " + hex);
+        }
+        r[ro] = l0;
+        r[ro + 1] = l1;
+        r[ro + 2] = l2;
+        r[ro + 3] = l3;
+    }
+    
+    /**
+     * Format canonical limbs as a minimal 0x-prefixed lowercase hex string
+     */
+    public static String toHex(long[] a, int ao) {
+        int top = 3;
+        while (top > 0 && a[ao + top] == 0) {
+            top--;
+        }
+        StringBuilder hex = new StringBuilder(2 + 16 * (top + 1)).append("0x");
+        hex.append(Long.toHexString(a[ao + top]));
+        for (int i = top - 1; i >= 0; i--) {
+            String limb = Long.toHexString(a[ao + i]);
+            for (int pad = limb.length(); pad < 16; pad++) {
+                hex.append('0');
+            }
+            hex.append(limb);
+        }
+        return hex.toString();
+    }
+    
+    /**
+     * Load up to 31 big-endian bytes as canonical limbs. Any 31-byte value is below p.
+     */
+    public static void fromBytes31(byte[] bytes, int offset, int length, long[] r, int ro) {
+        long l0 = 0, l1 = 0, l2 = 0, l3 = 0;
+        int shift = 0;
+        for (int i = offset + length - 1; i >= offset; i--, shift += 8) {
+            long b = bytes[i] & 0xFFL;
+            switch (shift >>> 6) {
+                case 0 -> l0 |= b << (shift & 63);
+                case 1 -> l1 |= b << (shift & 63);
+                case 2 -> l2 |= b << (shift & 63);
+                default -> l3 |= b << (shift & 63);
+            }
+        }
+        r[ro] = l0;
+        r[ro + 1] = l1;
+        r[ro + 2] = l2;
+        r[ro + 3] = l3;
+    }
+    
+    private static void reduceOnce(long r0, long r1, long r2, long r3, long[] r, int ro) {
+        if (geqP(r0, r1, r2, r3)) {
+            long s0 = r0 - P0;
+            long borrow = Long.compareUnsigned(r0, P0) < 0 ? 1 : 0;
+            long s1 = r1 - P1 - borrow;
+            borrow = (Long.compareUnsigned(r1, P1) < 0 || (borrow == 1 && r1 == P1)) ? 1 : 0;
+            long s2 = r2 - P2 - borrow;
+            borrow = (Long.compareUnsigned(r2, P2) < 0 || (borrow == 1 && r2 == P2)) ? 1 : 0;
+            r0 = s0;
+            r1 = s1;
+            r2 = s2;
+            r3 = r3 - P3 - borrow;
+        }
+        r[ro] = r0;
+        r[ro + 1] = r1;
+        r[ro + 2] = r2;
+        r[ro + 3] = r3;
+    }
+    
+    private static boolean geqP(long r0, long r1, long r2, long r3) {
+        if (r3 != P3) {
+            return Long.compareUnsigned(r3, P3) > 0;
+        }
+        if (r2 != P2) {
+            return Long.compareUnsigned(r2, P2) > 0;
+        }
+        if (r1 != P1) {
+            return Long.compareUnsigned(r1, P1) > 0;
+        }
+        return Long.compareUnsigned(r0, P0) >= 0;
+    }
+    
+    private static long mulHigh(long x, long y) {
+        return Math.unsignedMultiplyHigh(x, y);
+    }
+}
\ No newline at end of file
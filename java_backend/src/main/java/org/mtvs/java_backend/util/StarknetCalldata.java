@@ -0,0 +1,119 @@
+package org.mtvs.java_backend.util;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cairo calldata serialization for the values this backend sends on chain
+ */
+public final class StarknetCalldata {
+    
+    private static final int WORD_SIZE = 31;
+    
+    private StarknetCalldata() {
+    }
+    
+    /**
+     * A call to one contract entry point, as carried by an account's {@code __execute__}
+     */
+    public record Call(String contractAddress, String selector, List<String> calldata) {
+    }
+    
+    /**
+     * Serialize a string as Cairo's {@code ByteArray}: the number of full 31-byte words,
+     * the words themselves, then the pending word and its length in bytes.
+     */
+    public static List<String> byteArray(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int fullWords = bytes.length / WORD_SIZE;
+        int pendingLength = bytes.length - fullWords * WORD_SIZE;
+        
+        List<String> felts = new ArrayList<>(fullWords + 3);
+        felts.add(felt(fullWords));
+        for (int i = 0; i < fullWords; i++) {
+            felts.add(felt(bytes, i * WORD_SIZE, WORD_SIZE));
+        }
+        felts.add(felt(bytes, fullWords * WORD_SIZE, pendingLength));
+        felts.add(felt(pendingLength));
+        return felts;
+    }
+    
+    /**
+     * Serialize calls as {@code Array<Call>} for a Cairo 1 account's {@code __execute__},
+     * so all of them run in a single transaction.
+     */
+    public static List<String> multicall(List<Call> calls) {
+        List<String> calldata = new ArrayList<>();
+        calldata.add(felt(calls.size()));
+        for (Call call : calls) {
+            calldata.add(call.contractAddress());
+            calldata.add(call.selector());
+            calldata.add(felt(call.calldata().size()));
+            calldata.addAll(call.calldata());
+        }
+        return calldata;
+    }
+    
+    /**
+     * Sequential decoder for felts returned by the node, e.g. event data
+     */
+    public static final class Reader {
+        
+        private final List<String> felts;
+        private int position;
+        
+        public Reader(List<String> felts) {
+            this.felts = felts;
+        }
+        
+        public String nextFelt() {
+            if (position >= felts.size()) {
+                throw new IllegalArgumentException("Calldata ended after " + position + " felts");
+            }
+            return felts.get(position++);
+        }
+        
+        public long nextLong() {
+            return new BigInteger(strip(nextFelt()), 16).longValueExact();
+        }
+        
+        /**
+         * Decode a Cairo {@code ByteArray} written by {@link #byteArray(String)}
+         */
+        public String nextByteArray() {
+            long fullWords = nextLong();
+            byte[] bytes = new byte[Math.toIntExact(fullWords * WORD_SIZE + WORD_SIZE)];
+            int length = 0;
+            for (long i = 0; i < fullWords; i++) {
+                length += copyWord(nextFelt(), WORD_SIZE, bytes, length);
+            }
+            String pendingWord = nextFelt();
+            int pendingLength = Math.toIntExact(nextLong());
+            length += copyWord(pendingWord, pendingLength, bytes, length);
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        
+        private static int copyWord(String felt, int length, byte[] target, int offset) {
+            byte[] value = new BigInteger(strip(felt), 16).toByteArray();
+            // toByteArray may add a sign byte or drop leading zeros; right-align into the word
+            int copy = Math.min(value.length, length);
+            System.arraycopy(value, value.length - copy, target, offset + length - copy, copy);
+            return length;
+        }
+        
+        private static String strip(String felt) {
+            return felt.startsWith("0x") ? felt.substring(2) : felt;
+        }
+    }
+    
+    public static String felt(long value) {
+        return "0x" + Long.toHexString(value);
+    }
+    
+    private static String felt(byte[] bytes, int offset, int length) {
+        return "0x" + new BigInteger(1, Arrays.copyOfRange(bytes, offset, offset + length)).toString(16);
+    }
+}
\ No newline at end of file
@@ -1,113 +1,255 @@
 package org.mtvs.java_backend.util;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * Registry contract calls and chain queries. Calls go through a {@link HedgedRpcClient} over
+ * the configured endpoints ({@code starknet.rpc.urls}, comma separated), so each one has a
+ * deadline, is hedged to the next endpoint when slow, and fails fast while the circuit is open.
+ * Connections come from a dedicated keep-alive pool (HTTP/2 over TLS where the node offers it),
+ * contract calls are sent from pre-encoded byte templates, and their results are streamed
+ * into typed values.
+ */
 @Slf4j
 @Component
-public class StarknetCommunicator {
+public class StarknetCommunicator implements MeterBinder {
     
     private static final String STARKNET_RPC_URL = "https://starknet-sepolia.public.blastapi.io/rpc/v0_7";
     private static final String CONTRACT_ADDRESS = "0x06ebf0234be358bd087fdf5165d4b5cf7103fa1d00b8a4edb32b6e61b6d764f0";
+    static final String FILE_REGISTERED_SELECTOR = "0x22ea322d63f1396ce707626b1e29dc2ebcf058d4c23d202d4e9de17e953d6b";
     
-    private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final ConnectionProvider connectionPool;
+    private final HedgedRpcClient rpcClient;
     
-    public StarknetCommunicator() {
-        this.webClient = WebClient.builder().build();
+    /**
+     * Single endpoint with the default pool, deadline, bulkhead and circuit breaker
+     */
+    public StarknetCommunicator(String rpcUrl, Duration batchWindow, int maxBatchSize, Duration callTimeout) {
+        this(new String[]{rpcUrl}, batchWindow, maxBatchSize, callTimeout, callTimeout,
+                Duration.ofMillis(50), 64, 0.5, 20, Duration.ofSeconds(30),
+                50, Duration.ofSeconds(2), Duration.ofSeconds(30));
+    }
+    
+    @Autowired
+    public StarknetCommunicator(
+            @Value("${starknet.rpc.urls:${starknet.rpc.url:" + STARKNET_RPC_URL + "}}") String[] rpcUrls,
+            @Value("${starknet.rpc.batch-window:2ms}") Duration batchWindow,
+            @Value("${starknet.rpc.max-batch-size:50}") int maxBatchSize,
+            @Value("${starknet.rpc.call-timeout:5s}") Duration callTimeout,
+            @Value("${starknet.rpc.deadline:5s}") Duration deadline,
+            @Value("${starknet.rpc.hedge-min-delay:50ms}") Duration minHedgeDelay,
+            @Value("${starknet.rpc.max-concurrent-calls:64}") int maxConcurrentCalls,
+            @Value("${starknet.rpc.circuit-breaker.failure-rate:0.5}") double failureRate,
+            @Value("${starknet.rpc.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${starknet.rpc.circuit-breaker.open-duration:30s}") Duration openDuration,
+            @Value("${starknet.rpc.pool.max-connections:50}") int maxConnections,
+            @Value("${starknet.rpc.pool.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${starknet.rpc.pool.max-idle-time:30s}") Duration maxIdleTime) {
         this.objectMapper = new ObjectMapper();
+        this.connectionPool = ConnectionProvider.builder("starknet-rpc")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build();
+        List<JsonRpcBatchClient> endpoints = Arrays.stream(rpcUrls)
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> new JsonRpcBatchClient(webClient(url, connectionPool), objectMapper, url,
+                        batchWindow, maxBatchSize, callTimeout))
+                .toList();
+        this.rpcClient = new HedgedRpcClient(endpoints, deadline, minHedgeDelay, maxConcurrentCalls,
+                new CircuitBreaker(windowSize, failureRate, openDuration));
+        log.info("Starknet RPC over {} endpoint(s), deadline {}", endpoints.size(), deadline);
     }
     
-    public boolean isFileRegistered(String fileHash) {
-        try {
-            String response = callContract("is_file_registered", List.of(fileHash));
-            JsonNode jsonResponse = objectMapper.readTree(response);
-            
-            if (jsonResponse.has("result")) {
-                JsonNode result = jsonResponse.get("result");
-                if (result.isArray() && result.size() > 0) {
-                    return "0x1".equals(result.get(0).asText());
-                }
-            }
-            return false;
-        } catch (Exception e) {
-            log.error("Error checking if file is registered: {}", e.getMessage());
-            return false;
+    /**
+     * False while the circuit breaker is open; verification then answers from local data only
+     */
+    public boolean isAvailable() {
+        return rpcClient.isAvailable();
+    }
+    
+    /**
+     * Blocks until the call completes or its deadline passes; failures are thrown, not swallowed
+     */
+    public boolean isFileRegistered(Felt252 fileHash) {
+        return await(isFileRegisteredAsync(fileHash));
+    }
+    
+    public CompletableFuture<Boolean> isFileRegisteredAsync(Felt252 fileHash) {
+        return rpcClient.call("starknet_call", ContractFunction.IS_FILE_REGISTERED.params(fileHash),
+                parser -> {
+                    List<String> felts = readFelts(parser);
+                    return !felts.isEmpty() && "0x1".equals(felts.get(0));
+                });
+    }
+    
+    public Optional<ChainFileDetails> verifyFile(Felt252 fileHash) {
+        return await(verifyFileAsync(fileHash));
+    }
+    
+    /**
+     * Empty when the contract does not know the file
+     */
+    public CompletableFuture<Optional<ChainFileDetails>> verifyFileAsync(Felt252 fileHash) {
+        return rpcClient.call("starknet_call", ContractFunction.VERIFY_FILE.params(fileHash), StarknetCommunicator::readFileDetails);
+    }
+    
+    /**
+     * Latest accepted block as {@code {block_hash, block_number}}
+     */
+    public CompletableFuture<JsonNode> blockHashAndNumberAsync() {
+        return rpcClient.call("starknet_blockHashAndNumber", List.of());
+    }
+    
+    public CompletableFuture<String> getBlockHashAsync(long blockNumber) {
+        return rpcClient.call("starknet_getBlockWithTxHashes", Map.of("block_id", Map.of("block_number", blockNumber)))
+                .thenApply(block -> block.get("block_hash").asText());
+    }
+    
+    /**
+     * One page of the registry's FileRegistered events between two blocks, inclusive.
+     * Pass the previous page's {@code continuation_token} to get the next page.
+     */
+    public CompletableFuture<JsonNode> getFileRegisteredEventsAsync(long fromBlock, long toBlock,
+                                                                     int chunkSize, String continuationToken) {
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("from_block", Map.of("block_number", fromBlock));
+        filter.put("to_block", Map.of("block_number", toBlock));
+        filter.put("address", CONTRACT_ADDRESS);
+        filter.put("keys", List.of(List.of(FILE_REGISTERED_SELECTOR)));
+        filter.put("chunk_size", chunkSize);
+        if (continuationToken != null) {
+            filter.put("continuation_token", continuationToken);
         }
+        return rpcClient.call("starknet_getEvents", Map.of("filter", filter));
     }
     
-    public Map<String, Object> verifyFile(String fileHash) {
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("starknet.rpc.circuit.open", rpcClient, client -> client.isAvailable() ? 0 : 1)
+                .description("1 while the RPC circuit breaker rejects calls")
+                .register(registry);
+        Gauge.builder("starknet.rpc.in-flight", rpcClient, HedgedRpcClient::inFlight)
+                .register(registry);
+        FunctionCounter.builder("starknet.rpc.hedges", rpcClient, HedgedRpcClient::hedges)
+                .register(registry);
+        FunctionCounter.builder("starknet.rpc.rejected", rpcClient, HedgedRpcClient::rejectedByCircuit)
+                .tag("reason", "circuit-open")
+                .register(registry);
+        FunctionCounter.builder("starknet.rpc.rejected", rpcClient, HedgedRpcClient::rejectedByBulkhead)
+                .tag("reason", "bulkhead-full")
+                .register(registry);
+    }
+    
+    @PreDestroy
+    public void close() {
+        rpcClient.close();
+        connectionPool.dispose();
+    }
+    
+    private static WebClient webClient(String url, ConnectionProvider connectionPool) {
+        HttpClient httpClient = HttpClient.create(connectionPool)
+                .keepAlive(true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                // HTTP/2 is negotiated over TLS (ALPN); plain-text nodes such as a local devnet stay on HTTP/1.1
+                .protocol(url.startsWith("https:")
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+    
+    /**
+     * verify_file returns (author, filename: ByteArray, file_type: ByteArray, file_size, timestamp).
+     * The contract reverts for an unknown file; an empty result or a zero author is read the same way.
+     */
+    static Optional<ChainFileDetails> readFileDetails(JsonParser parser) throws IOException {
+        List<String> felts = readFelts(parser);
+        if (felts.isEmpty()) {
+            return Optional.empty();
+        }
         try {
-            String response = callContract("verify_file", List.of(fileHash));
-            JsonNode jsonResponse = objectMapper.readTree(response);
-            
-            if (jsonResponse.has("result")) {
-                JsonNode result = jsonResponse.get("result");
-                if (result.isArray() && result.size() >= 5) {
-                    return Map.of(
-                        "authorAddress", result.get(0).asText(),
-                        "filename", hexToString(result.get(1).asText()),
-                        "fileType", hexToString(result.get(2).asText()),
-                        "fileSize", Long.parseLong(result.get(3).asText().replace("0x", ""), 16),
-                        "timestamp", Long.parseLong(result.get(4).asText().replace("0x", ""), 16)
-                    );
-                }
+            StarknetCalldata.Reader result = new StarknetCalldata.Reader(felts);
+            Felt252 author = Felt252.fromHex(result.nextFelt());
+            if (author.isZero()) {
+                return Optional.empty();
             }
-            return Map.of();
-        } catch (Exception e) {
-            log.error("Error verifying file: {}", e.getMessage());
-            return Map.of();
+            return Optional.of(new ChainFileDetails(
+                    author,
+                    result.nextByteArray(),
+                    result.nextByteArray(),
+                    result.nextLong(),
+                    result.nextLong()));
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new IOException("Malformed verify_file result: " + felts, e);
         }
     }
     
-    private String callContract(String functionName, List<String> calldata) {
-        try {
-            Map<String, Object> requestBody = Map.of(
-                "jsonrpc", "2.0",
-                "method", "starknet_call",
-                "params", Map.of(
-                    "request", Map.of(
-                        "contract_address", CONTRACT_ADDRESS,
-                        "entry_point_selector", getFunctionSelector(functionName),
-                        "calldata", calldata
-                    ),
-                    "block_id", "latest"
-                ),
-                "id", 1
-            );
-            
-            return webClient.post()
-                    .uri(STARKNET_RPC_URL)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-                    
-        } catch (Exception e) {
-            log.error("Error calling Starknet contract: {}", e.getMessage());
-            throw new RuntimeException("Failed to call Starknet contract", e);
+    /**
+     * Read a result array of felts; any other value is skipped and read as empty
+     */
+    private static List<String> readFelts(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        List<String> felts = new ArrayList<>(8);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            felts.add(parser.getValueAsString());
+            parser.skipChildren();
         }
+        return felts;
     }
     
-    private String getFunctionSelector(String functionName) {
-        // Pre-computed Starknet selectors for contract functions
-        return switch (functionName) {
-            case "is_file_registered" -> "0x1a35984060b2d68f9cabb1ce57ac41c090d5f03c80ad8b1d44d7f5e8b5e5fb7a";
-            case "verify_file" -> "0x2e4263afad30923c891518314c3c95dbe830a16874e8abc5777a9a20b54c76e";
-            case "get_author_files" -> "0x1c3e4b13e6e1c9b9a9c9b9a9c9b9a9c9b9a9c9b9a9c9b9a9c9b9a9c9b9a9c9";
-            default -> throw new IllegalArgumentException("Unknown function: " + functionName);
-        };
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
     
-    private String hexToString(String hex) {
+    String hexToString(String hex) {
         try {
             if (hex.startsWith("0x")) {
                 hex = hex.substring(2);
@@ -126,4 +268,33 @@ public class StarknetCommunicator {
             return hex;
         }
     }
+    
+    /**
+     * Registry functions taking a single felt, with the starknet_call params pre-encoded
+     * around that argument
+     */
+    enum ContractFunction {
+        IS_FILE_REGISTERED("0x1a2c839a056a83cf9d47a29ce27aa3b6a335aefb095cb35da450b987b777810"),
+        VERIFY_FILE("0x25e3c325242d290f34f272d7363b9547289ea2390ed5134e12e85622203a02e");
+        
+        private static final byte[] SUFFIX = "\"]},\"block_id\":\"latest\"}".getBytes(StandardCharsets.US_ASCII);
+        
+        final String selector;
+        private final byte[] prefix;
+        
+        ContractFunction(String selector) {
+            this.selector = selector;
+            this.prefix = ("{\"request\":{\"contract_address\":\"" + CONTRACT_ADDRESS
+                    + "\",\"entry_point_selector\":\"" + selector
+                    + "\",\"calldata\":[\"").getBytes(StandardCharsets.US_ASCII);
+        }
+        
+        byte[] params(Felt252 argument) {
+            byte[] hex = argument.toHex().getBytes(StandardCharsets.US_ASCII);
+            byte[] params = Arrays.copyOf(prefix, prefix.length + hex.length + SUFFIX.length);
+            System.arraycopy(hex, 0, params, prefix.length, hex.length);
+            System.arraycopy(SUFFIX, 0, params, prefix.length + hex.length, SUFFIX.length);
+            return params;
+        }
+    }
 }
\ No newline at end of file
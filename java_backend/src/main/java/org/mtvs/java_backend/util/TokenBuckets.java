@@ -0,0 +1,71 @@
+package org.mtvs.java_backend.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket per key, refilled at {@code ratePerSecond} up to {@code burst} tokens.
+ * Each bucket is kept as a single theoretical arrival time (the GCRA form of a token
+ * bucket), so taking a token is one compare-and-set and never locks; the map is a
+ * {@link ConcurrentHashMap}, which only locks a bin when a key is first seen.
+ */
+public class TokenBuckets<K> {
+    
+    private final ConcurrentHashMap<K, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier nanoClock;
+    
+    public TokenBuckets(double ratePerSecond, int burst) {
+        this(ratePerSecond, burst, System::nanoTime);
+    }
+    
+    TokenBuckets(double ratePerSecond, int burst, LongSupplier nanoClock) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.nanoClock = nanoClock;
+    }
+    
+    /**
+     * Take a token for {@code key}. Returns 0 when one was taken, otherwise the nanoseconds
+     * until the next token is available (nothing is taken then).
+     */
+    public long tryAcquire(K key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            // A new bucket starts full
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long arrival = bucket.get();
+            long start = Math.max(arrival, now);
+            long wait = start - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * Drop the buckets that have refilled completely; they behave exactly like a new one.
+     * A key that takes a token while its bucket is being dropped gets at most one extra.
+     */
+    public int evictFull() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+        return before - buckets.size();
+    }
+    
+    public int size() {
+        return buckets.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+-- Schema previously generated by Hibernate (ddl-auto=create); Hibernate now only validates it
+
+CREATE SEQUENCE files_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE files (
+    id               BIGINT       NOT NULL PRIMARY KEY,
+    filename         VARCHAR(255) NOT NULL,
+    file_type        VARCHAR(255) NOT NULL,
+    file_size        BIGINT       NOT NULL,
+    poseidon_hash    BYTEA        NOT NULL,
+    author_address   BYTEA        NOT NULL,
+    starknet_tx_hash BYTEA,
+    content_prefix   BYTEA,
+    chunk_count      INTEGER,
+    created_at       TIMESTAMP(6) NOT NULL,
+    updated_at       TIMESTAMP(6),
+    CONSTRAINT uk_files_poseidon_hash UNIQUE (poseidon_hash)
+);
+
+CREATE SEQUENCE registration_outbox_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE registration_outbox (
+    id              BIGINT        NOT NULL PRIMARY KEY,
+    poseidon_hash   BYTEA         NOT NULL,
+    filename        VARCHAR(255)  NOT NULL,
+    file_type       VARCHAR(255)  NOT NULL,
+    file_size       BIGINT        NOT NULL,
+    status          VARCHAR(16)   NOT NULL CHECK (status IN ('PENDING', 'FAILED')),
+    attempts        INTEGER       NOT NULL,
+    next_attempt_at TIMESTAMP(6)  NOT NULL,
+    last_error      VARCHAR(1024),
+    created_at      TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT uk_registration_outbox_poseidon_hash UNIQUE (poseidon_hash)
+);
+
+CREATE INDEX idx_registration_outbox_due ON registration_outbox (status, next_attempt_at);
+
+CREATE TABLE chain_files (
+    poseidon_hash    VARCHAR(66)  NOT NULL PRIMARY KEY,
+    author_address   VARCHAR(66)  NOT NULL,
+    filename         VARCHAR(255) NOT NULL,
+    file_type        VARCHAR(255) NOT NULL,
+    file_size        BIGINT       NOT NULL,
+    registered_at    BIGINT       NOT NULL,
+    block_number     BIGINT       NOT NULL,
+    block_hash       VARCHAR(66)  NOT NULL,
+    transaction_hash VARCHAR(66)  NOT NULL
+);
+
+CREATE INDEX idx_chain_files_block ON chain_files (block_number);
+
+CREATE TABLE indexer_checkpoints (
+    name         VARCHAR(64)  NOT NULL PRIMARY KEY,
+    block_number BIGINT       NOT NULL,
+    block_hash   VARCHAR(66),
+    updated_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE SEQUENCE file_chunks_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE file_chunks (
+    id            BIGINT  NOT NULL PRIMARY KEY,
+    poseidon_hash BYTEA   NOT NULL,
+    chunk_index   INTEGER NOT NULL,
+    chunk_offset  BIGINT  NOT NULL,
+    chunk_length  INTEGER NOT NULL,
+    chunk_hash    BYTEA   NOT NULL,
+    sha256        BYTEA   NOT NULL
+);
+
+CREATE UNIQUE INDEX idx_file_chunks_root_index ON file_chunks (poseidon_hash, chunk_index);
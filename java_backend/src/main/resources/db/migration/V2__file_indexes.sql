@@ -0,0 +1,6 @@
+-- Indexes from the old init.sql, which ran before Hibernate created the table and so never
+-- took effect. idx_files_hash is left out: the unique constraint on poseidon_hash already
+-- provides that index.
+
+CREATE INDEX idx_files_author ON files (author_address);
+CREATE INDEX idx_files_created_at ON files (created_at);
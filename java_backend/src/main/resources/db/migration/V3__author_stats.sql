@@ -0,0 +1,31 @@
+-- Newest-first author listings (ORDER BY created_at DESC, id DESC) read this index in order
+-- instead of sorting the author's rows. It also serves plain author lookups, so the
+-- single-column index goes.
+CREATE INDEX idx_files_author_created_at ON files (author_address, created_at DESC, id DESC);
+DROP INDEX idx_files_author;
+
+-- Per-author totals kept up to date by the upload transactions
+CREATE TABLE author_stats (
+    author_address       BYTEA        NOT NULL PRIMARY KEY,
+    file_count           BIGINT       NOT NULL,
+    total_bytes          BIGINT       NOT NULL,
+    latest_upload_at     TIMESTAMP(6) NOT NULL,
+    latest_poseidon_hash BYTEA        NOT NULL,
+    file_types           JSONB        NOT NULL
+);
+
+INSERT INTO author_stats (author_address, file_count, total_bytes, latest_upload_at, latest_poseidon_hash, file_types)
+SELECT t.author_address,
+       SUM(t.files),
+       SUM(t.bytes),
+       MAX(t.latest_at),
+       (SELECT f.poseidon_hash
+        FROM files f
+        WHERE f.author_address = t.author_address
+        ORDER BY f.created_at DESC, f.id DESC
+        LIMIT 1),
+       jsonb_object_agg(t.file_type, t.files)
+FROM (SELECT author_address, file_type, COUNT(*) AS files, SUM(file_size) AS bytes, MAX(created_at) AS latest_at
+      FROM files
+      GROUP BY author_address, file_type) t
+GROUP BY t.author_address;
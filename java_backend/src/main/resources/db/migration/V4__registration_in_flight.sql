@@ -0,0 +1,7 @@
+-- Registrations are claimed (IN_FLIGHT, with the id of the attempt) and committed before the
+-- multicall is submitted; next_attempt_at is then the claim's lease, after which a claim left
+-- behind by a crash is picked up again.
+ALTER TABLE registration_outbox DROP CONSTRAINT registration_outbox_status_check;
+ALTER TABLE registration_outbox
+    ADD CONSTRAINT registration_outbox_status_check CHECK (status IN ('PENDING', 'IN_FLIGHT', 'FAILED'));
+ALTER TABLE registration_outbox ADD COLUMN attempt_id UUID;
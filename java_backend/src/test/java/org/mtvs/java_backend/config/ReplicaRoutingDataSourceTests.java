@@ -0,0 +1,127 @@
+package org.mtvs.java_backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReplicaRoutingDataSourceTests {
+    
+    private final StubDataSource primary = new StubDataSource(0);
+    private final StubDataSource replica = new StubDataSource(0);
+    
+    @AfterEach
+    void clearReadOnlyFlag() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+    
+    @Test
+    void writesAlwaysGoToThePrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-1", replica.dataSource()));
+        routing.checkLag();
+        
+        assertSame(primary.connection(), routing.getConnection());
+    }
+    
+    @Test
+    void readOnlyTransactionsGoToAReplicaOnceItIsChecked() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(Map.of("replica-1", replica.dataSource()));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        // Not yet known to be caught up
+        assertSame(primary.connection(), routing.getConnection());
+        routing.checkLag();
+        assertSame(replica.connection(), routing.getConnection());
+    }
+    
+    @Test
+    void laggingOrUnreachableReplicasAreSkipped() throws SQLException {
+        StubDataSource lagging = new StubDataSource(30);
+        StubDataSource down = new StubDataSource(-1);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", lagging.dataSource());
+        replicas.put("replica-2", down.dataSource());
+        replicas.put("replica-3", replica.dataSource());
+        ReplicaRoutingDataSource routing = routing(replicas);
+        routing.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        for (int i = 0; i < 6; i++) {
+            assertSame(replica.connection(), routing.getConnection());
+        }
+        
+        replica.lagSeconds = 30;
+        routing.checkLag();
+        assertSame(primary.connection(), routing.getConnection());
+    }
+    
+    private ReplicaRoutingDataSource routing(Map<String, DataSource> replicas) {
+        return new ReplicaRoutingDataSource(primary.dataSource(), replicas, Duration.ofSeconds(5));
+    }
+    
+    /**
+     * Hands out one connection whose lag query reports {@code lagSeconds}; negative means unreachable
+     */
+    private static class StubDataSource {
+        
+        private volatile double lagSeconds;
+        private final Connection connection;
+        
+        StubDataSource(double lagSeconds) {
+            this.lagSeconds = lagSeconds;
+            this.connection = proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, (statement, m, a) -> switch (m.getName()) {
+                    case "executeQuery" -> proxy(ResultSet.class, (result, r, ra) -> switch (r.getName()) {
+                        case "next" -> true;
+                        case "getDouble" -> this.lagSeconds;
+                        default -> null;
+                    });
+                    default -> null;
+                });
+                default -> null;
+            });
+        }
+        
+        Connection connection() {
+            return connection;
+        }
+        
+        DataSource dataSource() {
+            return proxy(DataSource.class, (proxy, method, args) -> {
+                if (!method.getName().equals("getConnection")) {
+                    return null;
+                }
+                if (lagSeconds < 0) {
+                    throw new SQLException("Connection refused");
+                }
+                return connection;
+            });
+        }
+        
+        /**
+         * Object methods keep identity semantics, since data sources end up as map values
+         */
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        case "toString" -> "Stub" + type.getSimpleName();
+                        default -> handler.invoke(proxy, method, args);
+                    });
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,244 @@
+package org.mtvs.java_backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mtvs.java_backend.dto.FileSummary;
+import org.mtvs.java_backend.dto.FileVerificationResponse;
+import org.mtvs.java_backend.repository.AuthorStatsRepository;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.repository.RegistrationOutboxRepository;
+import org.mtvs.java_backend.service.AuthorStatsService;
+import org.mtvs.java_backend.service.ChunkedHashService;
+import org.mtvs.java_backend.service.DisabledBlobStore;
+import org.mtvs.java_backend.service.FileSearchIndex;
+import org.mtvs.java_backend.service.FileService;
+import org.mtvs.java_backend.service.KnownPrefixFilter;
+import org.mtvs.java_backend.service.NoOpTransactionManager;
+import org.mtvs.java_backend.service.RegisteredHashFilter;
+import org.mtvs.java_backend.service.RegistrationFeed;
+import org.mtvs.java_backend.service.StageMetrics;
+import org.mtvs.java_backend.service.StarknetService;
+import org.mtvs.java_backend.service.VerificationCache;
+import org.mtvs.java_backend.util.BufferPool;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.PoseidonHashUtil;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mtvs.java_backend.service.Repositories.repository;
+
+class FileControllerTests {
+    
+    private static final Felt252 AUTHOR = Felt252.fromHex("0x6ecb9425da32b868721a6b9dd609879eb81d6b80494bff9dcf2e3b002801d2f");
+    private static final Felt252 OTHER_AUTHOR = Felt252.fromHex("0x4a1496c2a1d2e3bc0f2c5d4b1ea5c28f4e4dfc3a2b0e17c0d5b8e9f1a2b3c4d");
+    // Prints without seconds ("2026-10-17T12:00"), which the cursor has to parse back
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 10, 17, 12, 0);
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<FileSummary> rows = new ArrayList<>();
+    private FileController controller;
+    
+    @BeforeEach
+    void createController() {
+        row(1, NOON.minusHours(2), AUTHOR);
+        row(2, NOON, AUTHOR);
+        row(3, NOON, AUTHOR);
+        row(4, NOON, AUTHOR);
+        row(5, NOON.plusNanos(1), AUTHOR);
+        row(6, NOON.plusSeconds(30), AUTHOR);
+        row(7, NOON.plusSeconds(30), OTHER_AUTHOR);
+        controller = new FileController(fileService(), null, null, null, null, objectMapper);
+    }
+    
+    @Test
+    void cursorFromEachPageLeadsToTheNextUntilTheLastPage() {
+        List<List<Long>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseEntity<?> response = controller.getAllFiles(cursor, 3);
+            assertEquals(200, response.getStatusCode().value());
+            pages.add(ids(response));
+            cursor = response.getHeaders().getFirst("X-Next-Cursor");
+        } while (cursor != null);
+        
+        assertEquals(List.of(List.of(7L, 6L, 5L), List.of(4L, 3L, 2L), List.of(1L)), pages);
+    }
+    
+    @Test
+    void rowsSharingCreatedAtAreSplitAcrossPagesByTheirId() {
+        ResponseEntity<?> first = controller.getAllFiles(null, 4);
+        assertEquals(List.of(7L, 6L, 5L, 4L), ids(first));
+        
+        // 4 and 3 were created at the same instant; the cursor carries the id to tell them apart
+        ResponseEntity<?> second = controller.getAllFiles(first.getHeaders().getFirst("X-Next-Cursor"), 2);
+        assertEquals(List.of(3L, 2L), ids(second));
+        
+        // 7 and 6 tie as well, with a one-row page ending between them
+        ResponseEntity<?> newest = controller.getAllFiles(null, 1);
+        assertEquals(List.of(7L), ids(newest));
+        assertEquals(List.of(6L), ids(controller.getAllFiles(newest.getHeaders().getFirst("X-Next-Cursor"), 1)));
+    }
+    
+    @Test
+    void cursorEncodesTheLastRowOfThePage() {
+        String cursor = controller.getAllFiles(null, 3).getHeaders().getFirst("X-Next-Cursor");
+        
+        String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        assertEquals(NOON.plusNanos(1) + "|5", position);
+        assertFalse(cursor.contains("="));
+    }
+    
+    @Test
+    void exactlyFullLastPageHasNoNextCursor() {
+        String author = AUTHOR.toHex();
+        ResponseEntity<?> first = controller.getFilesByAuthor(author, null, 3);
+        assertEquals(List.of(6L, 5L, 4L), ids(first));
+        
+        ResponseEntity<?> last = controller.getFilesByAuthor(author, first.getHeaders().getFirst("X-Next-Cursor"), 3);
+        assertEquals(List.of(3L, 2L, 1L), ids(last));
+        assertNull(last.getHeaders().getFirst("X-Next-Cursor"));
+        
+        ResponseEntity<?> all = controller.getAllFiles(null, 1000);
+        assertEquals(7, ids(all).size());
+        assertNull(all.getHeaders().getFirst("X-Next-Cursor"));
+    }
+    
+    @Test
+    void malformedCursorIsABadRequest() {
+        String notDate = Base64.getUrlEncoder().encodeToString("yesterday|7".getBytes(StandardCharsets.UTF_8));
+        String noId = Base64.getUrlEncoder().encodeToString(NOON.toString().getBytes(StandardCharsets.UTF_8));
+        
+        for (String cursor : List.of("%%%", notDate, noId)) {
+            ResponseEntity<?> response = controller.getAllFiles(cursor, 10);
+            assertEquals(400, response.getStatusCode().value(), cursor);
+            assertEquals(Map.of("error", "Invalid cursor"), response.getBody());
+        }
+        assertEquals(400, controller.getFilesByAuthor(AUTHOR.toHex(), "%%%", 10).getStatusCode().value());
+    }
+    
+    @Test
+    void streamsEveryFileAsOneJsonObjectPerLine() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = controller.streamAllFiles();
+        
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        List<JsonNode> lines = ndjson(response);
+        assertEquals(List.of(7L, 6L, 5L, 4L, 3L, 2L, 1L), lines.stream().map(line -> line.get("id").asLong()).toList());
+        assertEquals(AUTHOR.toHex(), lines.get(1).get("authorAddress").asText());
+    }
+    
+    @Test
+    void streamsOneAuthorsFiles() throws IOException {
+        List<JsonNode> lines = ndjson(controller.streamFilesByAuthor(OTHER_AUTHOR.toHex()));
+        
+        assertEquals(1, lines.size());
+        assertEquals(7L, lines.get(0).get("id").asLong());
+        assertEquals(400, controller.streamFilesByAuthor("0xnot-a-felt").getStatusCode().value());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static List<Long> ids(ResponseEntity<?> response) {
+        return ((List<FileVerificationResponse>) response.getBody()).stream()
+                .map(FileVerificationResponse::getId)
+                .toList();
+    }
+    
+    private List<JsonNode> ndjson(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+    
+    private void row(long id, LocalDateTime createdAt, Felt252 author) {
+        rows.add(new FileSummary(id, "file-" + id + ".txt", "text/plain", 1024L,
+                Felt252.fromHex("0x" + Long.toHexString(0x1000 + id)), author, null, createdAt));
+    }
+    
+    /**
+     * Rows newest first, as ORDER BY created_at DESC, id DESC returns them
+     */
+    private List<FileSummary> newestFirst(Predicate<FileSummary> where) {
+        return rows.stream()
+                .filter(where)
+                .sorted(Comparator.comparing(FileSummary::getCreatedAt).thenComparing(FileSummary::getId).reversed())
+                .toList();
+    }
+    
+    /**
+     * FileRepository.BEFORE_CURSOR: strictly after the cursor row in newest-first order
+     */
+    private static Predicate<FileSummary> beforeCursor(Object createdAt, Object id) {
+        return row -> row.getCreatedAt().isBefore((LocalDateTime) createdAt)
+                || (row.getCreatedAt().isEqual((LocalDateTime) createdAt) && row.getId() < (Long) id);
+    }
+    
+    private static Predicate<FileSummary> byAuthor(Object author) {
+        return row -> row.getAuthorAddress().equals(author);
+    }
+    
+    private static List<FileSummary> limit(List<FileSummary> rows, Object pageable) {
+        return rows.stream().limit(((Pageable) pageable).getPageSize()).toList();
+    }
+    
+    private FileService fileService() {
+        FileRepository fileRepository = repository(FileRepository.class, (method, args) -> switch (method) {
+            case "findFirstPage" -> limit(newestFirst(row -> true), args[0]);
+            case "findPageBefore" -> limit(newestFirst(beforeCursor(args[0], args[1])), args[2]);
+            case "findFirstPageByAuthor" -> limit(newestFirst(byAuthor(args[0])), args[1]);
+            case "findPageByAuthorBefore" -> limit(newestFirst(byAuthor(args[0]).and(beforeCursor(args[1], args[2]))), args[3]);
+            case "streamAll" -> newestFirst(row -> true).stream();
+            case "streamByAuthor" -> newestFirst(byAuthor(args[0])).stream();
+            default -> throw new UnsupportedOperationException(method);
+        });
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        return new FileService(
+                fileRepository,
+                repository(RegistrationOutboxRepository.class, (method, args) -> {
+                    throw new UnsupportedOperationException(method);
+                }),
+                new PoseidonHashUtil(new BufferPool()),
+                new StarknetService(),
+                new VerificationCache(1000, Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ZERO, Duration.ZERO),
+                new RegisteredHashFilter(fileRepository, transactionTemplate, 1000, 0.01),
+                hash -> Optional.empty(),
+                new StageMetrics(ObservationRegistry.NOOP, new SimpleMeterRegistry()),
+                transactionTemplate,
+                new ChunkedHashService(null, DataSize.ofKilobytes(256), DataSize.ofMegabytes(1), DataSize.ofMegabytes(4),
+                        DataSize.ofGigabytes(64), 1),
+                new KnownPrefixFilter(fileRepository, transactionTemplate, 1000, 0.01),
+                new DisabledBlobStore(),
+                new AuthorStatsService(repository(AuthorStatsRepository.class, (method, args) -> 1)),
+                new FileSearchIndex(fileRepository, transactionTemplate, 1000, 1000),
+                new RegistrationFeed(64, Duration.ofSeconds(15)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package org.mtvs.java_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.Part;
+import org.junit.jupiter.api.Test;
+import org.mtvs.java_backend.service.ChunkedHashService;
+import org.mtvs.java_backend.service.UploadAdmission;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UploadAdmissionFilterTests {
+    
+    private static final String AUTHOR = "0x06ecb9425da32b868721a6b9dd609879eb81d6b80494bff9dcf2e3b002801d2f";
+    
+    private final UploadAdmission uploadAdmission = new UploadAdmission(
+            new ChunkedHashService(null, DataSize.ofKilobytes(256), DataSize.ofMegabytes(1), DataSize.ofMegabytes(4),
+                    DataSize.ofGigabytes(64), 1),
+            new SimpleMeterRegistry(), DataSize.ofMegabytes(512), 64, Duration.ZERO, Duration.ofSeconds(1), 1, 1);
+    private final UploadAdmissionFilter filter = new UploadAdmissionFilter(uploadAdmission, new ObjectMapper());
+    
+    @Test
+    void oversizedUploadIsRejectedWithoutParsingTheBody() throws Exception {
+        UnreadMultipartRequest request = new UnreadMultipartRequest(
+                "/api/v1/files/upload", "authorAddress=" + AUTHOR + "&chunked=true", DataSize.ofMegabytes(20).toBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        
+        filter.doFilter(request, response, chain);
+        
+        // chunked=true does not raise the limit of /upload, only /upload/chunked has it
+        assertEquals(413, response.getStatus());
+        assertEquals("close", response.getHeader("Connection"));
+        assertNull(chain.getRequest());
+    }
+    
+    @Test
+    void chunkedPathAdmitsLargeUploads() throws Exception {
+        UnreadMultipartRequest request = new UnreadMultipartRequest(
+                "/api/v1/files/upload/chunked", "authorAddress=" + AUTHOR, DataSize.ofMegabytes(20).toBytes());
+        MockFilterChain chain = new MockFilterChain();
+        
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        
+        assertNotNull(chain.getRequest());
+    }
+    
+    @Test
+    void authorInTheQueryStringIsRateLimitedBeforeTheBodyIsRead() throws Exception {
+        MockFilterChain first = new MockFilterChain();
+        filter.doFilter(new UnreadMultipartRequest("/api/v1/files/upload", "authorAddress=" + AUTHOR, 1024),
+                new MockHttpServletResponse(), first);
+        assertEquals(Boolean.TRUE, first.getRequest().getAttribute(UploadAdmission.AUTHOR_CHECKED));
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain second = new MockFilterChain();
+        filter.doFilter(new UnreadMultipartRequest("/api/v1/files/upload", "authorAddress=" + AUTHOR, 1024),
+                response, second);
+        
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertNull(second.getRequest());
+    }
+    
+    @Test
+    void authorOutsideTheQueryStringIsLeftToTheController() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new UnreadMultipartRequest("/api/v1/files/upload", null, 1024), new MockHttpServletResponse(), chain);
+        
+        assertNull(chain.getRequest().getAttribute(UploadAdmission.AUTHOR_CHECKED));
+    }
+    
+    /**
+     * Multipart upload that fails the test if the filter reads its body or asks for a
+     * parameter, which makes the container parse the whole multipart body first
+     */
+    private static class UnreadMultipartRequest extends MockHttpServletRequest {
+        
+        private final long declaredLength;
+        
+        UnreadMultipartRequest(String path, String query, long declaredLength) {
+            super("POST", path);
+            this.declaredLength = declaredLength;
+            setQueryString(query);
+            setContentType("multipart/form-data; boundary=upload");
+            setContent(("--upload\r\nContent-Disposition: form-data; name=\"authorAddress\"\r\n\r\n" + AUTHOR
+                    + "\r\n--upload--\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+        
+        @Override
+        public long getContentLengthLong() {
+            return declaredLength;
+        }
+        
+        @Override
+        public String getParameter(String name) {
+            throw new AssertionError("Parameter " + name + " read from the body");
+        }
+        
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            throw new AssertionError("Parameters read from the body");
+        }
+        
+        @Override
+        public Enumeration<String> getParameterNames() {
+            throw new AssertionError("Parameters read from the body");
+        }
+        
+        @Override
+        public String[] getParameterValues(String name) {
+            throw new AssertionError("Parameter " + name + " read from the body");
+        }
+        
+        @Override
+        public Collection<Part> getParts() {
+            throw new AssertionError("Multipart body parsed");
+        }
+        
+        @Override
+        public Part getPart(String name) {
+            throw new AssertionError("Multipart body parsed");
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            throw new AssertionError("Body read");
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            throw new AssertionError("Body read");
+        }
+    }
+}
\ No newline at end of file
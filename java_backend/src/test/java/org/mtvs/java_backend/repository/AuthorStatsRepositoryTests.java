@@ -0,0 +1,251 @@
+package org.mtvs.java_backend.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mtvs.java_backend.dto.AuthorSummary;
+import org.mtvs.java_backend.entity.AuthorStatsEntity;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.service.AuthorStatsService;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mtvs.java_backend.service.Repositories.repository;
+
+/**
+ * Runs the native upsert and the V3 backfill on PostgreSQL, as both rely on its jsonb
+ * functions and ON CONFLICT; skipped where Docker is not available
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AuthorStatsRepositoryTests {
+    
+    private static final Felt252 AUTHOR = Felt252.fromHex("0x6ecb9425da32b868721a6b9dd609879eb81d6b80494bff9dcf2e3b002801d2f");
+    private static final Felt252 OTHER_AUTHOR = Felt252.fromHex("0x4a1496c2a1d2e3bc0f2c5d4b1ea5c28f4e4dfc3a2b0e17c0d5b8e9f1a2b3c4d");
+    private static final LocalDateTime MORNING = LocalDateTime.of(2026, 10, 17, 9, 0);
+    private static final String PDF = "application/pdf";
+    private static final String PNG = "image/png";
+    
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    private static NamedParameterJdbcTemplate jdbc;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @BeforeAll
+    static void migrate() {
+        flyway("public", null).migrate();
+        jdbc = new NamedParameterJdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+    }
+    
+    @BeforeEach
+    void clearTotals() {
+        jdbc.update("TRUNCATE author_stats", Map.of());
+    }
+    
+    @Test
+    void upsertAddsToTheTotalsAndTheTypeHistogram() {
+        add(AUTHOR, PDF, 2, 3000, MORNING.plusHours(1), hash(1));
+        add(AUTHOR, PNG, 1, 500, MORNING.plusHours(2), hash(2));
+        // Older than what is already counted: the latest upload stays
+        add(AUTHOR, PDF, 1, 100, MORNING, hash(3));
+        
+        AuthorStatsEntity stats = find(AUTHOR).orElseThrow();
+        assertEquals(4L, stats.getFileCount());
+        assertEquals(3600L, stats.getTotalBytes());
+        assertEquals(MORNING.plusHours(2), stats.getLatestUploadAt());
+        assertEquals(hash(2), stats.getLatestPoseidonHash());
+        assertEquals(Map.of(PDF, 3L, PNG, 1L), stats.getFileTypes());
+    }
+    
+    @Test
+    void repeatedUploadsByOneAuthorAddUp() {
+        AuthorStatsService service = service();
+        
+        service.record(List.of(file(1, AUTHOR, PDF, 1000, MORNING)));
+        service.record(List.of(file(2, AUTHOR, PDF, 2000, MORNING.plusMinutes(1))));
+        // A bulk batch: one upsert per author and type
+        service.record(List.of(
+                file(3, AUTHOR, PNG, 300, MORNING.plusMinutes(2)),
+                file(4, AUTHOR, PDF, 400, MORNING.plusMinutes(3)),
+                file(5, OTHER_AUTHOR, PNG, 50, MORNING.plusMinutes(4)),
+                file(6, AUTHOR, PNG, 600, MORNING.plusMinutes(2))));
+        service.record(List.of(file(7, AUTHOR, PDF, 700, MORNING.plusMinutes(5))));
+        
+        AuthorSummary summary = service.getSummary(AUTHOR);
+        assertEquals(6, summary.getFileCount());
+        assertEquals(5000, summary.getTotalBytes());
+        assertEquals(MORNING.plusMinutes(5), summary.getLatestUploadAt());
+        assertEquals(hash(7), summary.getLatestPoseidonHash());
+        assertEquals(Map.of(PDF, 4L, PNG, 2L), summary.getFileTypes());
+        
+        AuthorSummary other = service.getSummary(OTHER_AUTHOR);
+        assertEquals(1, other.getFileCount());
+        assertEquals(Map.of(PNG, 1L), other.getFileTypes());
+    }
+    
+    @Test
+    void authorWithoutUploadsHasAnEmptySummary() {
+        AuthorSummary summary = service().getSummary(AUTHOR);
+        
+        assertEquals(0, summary.getFileCount());
+        assertNull(summary.getLatestUploadAt());
+        assertEquals(Map.of(), summary.getFileTypes());
+    }
+    
+    @Test
+    void migrationBackfillsTheTotalsOfExistingFiles() {
+        flyway("backfill", "2").migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Properties schema = new Properties();
+        schema.setProperty("currentSchema", "backfill");
+        dataSource.setConnectionProperties(schema);
+        NamedParameterJdbcTemplate backfill = new NamedParameterJdbcTemplate(dataSource);
+        insertFile(backfill, 1, AUTHOR, PDF, 1000, MORNING);
+        insertFile(backfill, 2, AUTHOR, PNG, 200, MORNING.plusHours(1));
+        // Same instant as file 2: the higher id is the newer upload
+        insertFile(backfill, 3, AUTHOR, PDF, 30, MORNING.plusHours(1));
+        insertFile(backfill, 4, OTHER_AUTHOR, PNG, 4, MORNING.plusHours(3));
+        
+        flyway("backfill", "3").migrate();
+        
+        Map<String, Object> stats = backfill.queryForMap("""
+                SELECT file_count, total_bytes, latest_upload_at, latest_poseidon_hash, CAST(file_types AS text) AS file_types
+                FROM author_stats WHERE author_address = :author
+                """, Map.of("author", AUTHOR.toBytes()));
+        assertEquals(3L, stats.get("file_count"));
+        assertEquals(1230L, stats.get("total_bytes"));
+        assertEquals(MORNING.plusHours(1), ((Timestamp) stats.get("latest_upload_at")).toLocalDateTime());
+        assertEquals(hash(3), Felt252.fromBytes((byte[]) stats.get("latest_poseidon_hash")));
+        assertEquals(Map.of(PDF, 2L, PNG, 1L), fileTypes((String) stats.get("file_types")));
+        assertEquals(2, backfill.queryForObject("SELECT COUNT(*) FROM author_stats", Map.of(), Integer.class));
+    }
+    
+    private static Flyway flyway(String schema, String target) {
+        var configuration = Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .schemas(schema);
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+    
+    /**
+     * The statement {@link AuthorStatsRepository#add} runs, with its parameters bound by name
+     */
+    private static void add(Felt252 author, String fileType, long files, long bytes, LocalDateTime latestAt,
+                            Felt252 latestHash) {
+        jdbc.update(upsertStatement(), new MapSqlParameterSource()
+                .addValue("author", author.toBytes())
+                .addValue("fileType", fileType)
+                .addValue("files", files)
+                .addValue("bytes", bytes)
+                .addValue("latestAt", latestAt)
+                .addValue("latestHash", latestHash.toBytes()));
+    }
+    
+    private static String upsertStatement() {
+        try {
+            return AuthorStatsRepository.class.getMethod("add", byte[].class, String.class, long.class, long.class,
+                    LocalDateTime.class, byte[].class).getAnnotation(Query.class).value();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private Optional<AuthorStatsEntity> find(Felt252 author) {
+        return jdbc.query("""
+                SELECT file_count, total_bytes, latest_upload_at, latest_poseidon_hash, CAST(file_types AS text) AS file_types
+                FROM author_stats WHERE author_address = :author
+                """, Map.of("author", author.toBytes()), (row, index) -> entity(author, row)).stream().findFirst();
+    }
+    
+    private AuthorStatsEntity entity(Felt252 author, ResultSet row) throws SQLException {
+        return AuthorStatsEntity.builder()
+                .authorAddress(author)
+                .fileCount(row.getLong("file_count"))
+                .totalBytes(row.getLong("total_bytes"))
+                .latestUploadAt(row.getObject("latest_upload_at", LocalDateTime.class))
+                .latestPoseidonHash(Felt252.fromBytes(row.getBytes("latest_poseidon_hash")))
+                .fileTypes(fileTypes(row.getString("file_types")))
+                .build();
+    }
+    
+    private Map<String, Long> fileTypes(String json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<>() {
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Service over the repository methods it uses, answered by the same SQL
+     */
+    private AuthorStatsService service() {
+        return new AuthorStatsService(repository(AuthorStatsRepository.class, (method, args) -> switch (method) {
+            case "add" -> {
+                add(Felt252.fromBytes((byte[]) args[0]), (String) args[1], (Long) args[2], (Long) args[3],
+                        (LocalDateTime) args[4], Felt252.fromBytes((byte[]) args[5]));
+                yield 1;
+            }
+            case "findById" -> find((Felt252) args[0]);
+            default -> throw new UnsupportedOperationException(method);
+        }));
+    }
+    
+    private static FileEntity file(long id, Felt252 author, String fileType, long size, LocalDateTime createdAt) {
+        return FileEntity.builder()
+                .id(id)
+                .filename("file-" + id)
+                .fileType(fileType)
+                .fileSize(size)
+                .poseidonHash(hash(id))
+                .authorAddress(author)
+                .createdAt(createdAt)
+                .build();
+    }
+    
+    private static void insertFile(NamedParameterJdbcTemplate jdbc, long id, Felt252 author, String fileType, long size,
+                                   LocalDateTime createdAt) {
+        jdbc.update("""
+                INSERT INTO files (id, filename, file_type, file_size, poseidon_hash, author_address, created_at)
+                VALUES (:id, :filename, :fileType, :size, :hash, :author, :createdAt)
+                """, new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("filename", "file-" + id)
+                .addValue("fileType", fileType)
+                .addValue("size", size)
+                .addValue("hash", hash(id).toBytes())
+                .addValue("author", author.toBytes())
+                .addValue("createdAt", createdAt));
+    }
+    
+    private static Felt252 hash(long id) {
+        return Felt252.fromHex("0x" + Long.toHexString(0xf11e0000L + id));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,316 @@
+package org.mtvs.java_backend.service;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mtvs.java_backend.dto.BulkUploadResult;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.entity.RegistrationOutboxEntity;
+import org.mtvs.java_backend.repository.AuthorStatsRepository;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.repository.RegistrationOutboxRepository;
+import org.mtvs.java_backend.util.BufferPool;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.PoseidonHashUtil;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mtvs.java_backend.service.Repositories.repository;
+
+class BulkUploadServiceTests {
+    
+    private static final Felt252 AUTHOR = Felt252.fromHex("0x6ecb9425da32b868721a6b9dd609879eb81d6b80494bff9dcf2e3b002801d2f");
+    
+    private final PoseidonHashUtil poseidonHashUtil = new PoseidonHashUtil(new BufferPool());
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+    private final Set<Felt252> storedHashes = ConcurrentHashMap.newKeySet();
+    private final List<Collection<Felt252>> existenceQueries = new CopyOnWriteArrayList<>();
+    private final List<FileEntity> savedFiles = new CopyOnWriteArrayList<>();
+    private final List<RegistrationOutboxEntity> savedRegistrations = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private RuntimeException saveFailure;
+    private RegisteredHashFilter registeredHashFilter;
+    private LocalBlobStore blobStore;
+    private BulkUploadService service;
+    
+    @TempDir
+    Path dir;
+    
+    @BeforeEach
+    void createService() throws IOException {
+        FileRepository fileRepository = fileRepository();
+        registeredHashFilter = new RegisteredHashFilter(fileRepository, transactionTemplate, 1000, 0.01);
+        blobStore = new LocalBlobStore(dir.resolve("blobs"));
+        service = new BulkUploadService(
+                fileRepository,
+                outboxRepository(),
+                poseidonHashUtil,
+                new VerificationCache(1000, Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ZERO, Duration.ZERO),
+                registeredHashFilter,
+                new KnownPrefixFilter(fileRepository, transactionTemplate, 1000, 0.01),
+                hash -> Optional.empty(),
+                new AuthorStatsService(repository(AuthorStatsRepository.class, (method, args) -> 1)),
+                new FileSearchIndex(fileRepository, transactionTemplate, 1000, 1000),
+                new RegistrationFeed(64, Duration.ofSeconds(15)),
+                blobStore,
+                transactionTemplate,
+                2,
+                100,
+                // Longer than any test: each upload is stored as one batch when its entries run out
+                Duration.ofMinutes(1));
+    }
+    
+    @AfterEach
+    void closeService() {
+        service.close();
+    }
+    
+    @Test
+    void readsTheFileEntriesOfZipAndTarArchives() throws IOException {
+        byte[] report = "quarterly report".getBytes(StandardCharsets.UTF_8);
+        byte[] notes = "meeting notes".getBytes(StandardCharsets.UTF_8);
+        byte[] data = "raw data".getBytes(StandardCharsets.UTF_8);
+        MultipartFile zip = archive("docs.zip", zip(Map.of("reports/", new byte[0], "reports/q3.txt", report)));
+        MultipartFile tarGz = archive("more.tar.gz", gzip(tar(Map.of("notes.txt", notes, "dir/data", data))));
+        MultipartFile broken = archive("broken.zip", "not an archive".getBytes(StandardCharsets.UTF_8));
+        
+        Map<String, BulkUploadResult> results = byFilename(upload(List.of(), List.of(zip, tarGz, broken)));
+        
+        assertEquals(Set.of("reports/q3.txt", "notes.txt", "dir/data", "broken.zip"), results.keySet());
+        BulkUploadResult q3 = results.get("reports/q3.txt");
+        assertEquals(BulkUploadResult.Status.UPLOADED, q3.getStatus());
+        assertEquals(hash(report), q3.getPoseidonHash());
+        assertEquals("text/plain", q3.getFileType());
+        assertEquals(report.length, q3.getFileSize());
+        assertNotNull(q3.getId());
+        assertEquals(hash(notes), results.get("notes.txt").getPoseidonHash());
+        assertEquals(BulkUploadService.DEFAULT_FILE_TYPE, results.get("dir/data").getFileType());
+        assertEquals(hash(data), results.get("dir/data").getPoseidonHash());
+        
+        BulkUploadResult unreadable = results.get("broken.zip");
+        assertEquals(BulkUploadResult.Status.FAILED, unreadable.getStatus());
+        assertEquals("Failed to read archive", unreadable.getMessage());
+        
+        assertEquals(3, savedFiles.size());
+        assertEquals(3, savedRegistrations.size());
+        assertTrue(savedFiles.stream().allMatch(file -> AUTHOR.equals(file.getAuthorAddress())));
+    }
+    
+    @Test
+    void oversizedEntryIsRejectedWithoutBufferingItAll() throws IOException {
+        byte[] oversized = new byte[(int) FileService.MAX_FILE_SIZE + 4096];
+        byte[] small = "small".getBytes(StandardCharsets.UTF_8);
+        MultipartFile zip = archive("mixed.zip", zip(Map.of("big.bin", oversized, "small.txt", small, "empty.txt", new byte[0])));
+        
+        Map<String, BulkUploadResult> results = byFilename(upload(List.of(), List.of(zip)));
+        
+        BulkUploadResult big = results.get("big.bin");
+        assertEquals(BulkUploadResult.Status.FAILED, big.getStatus());
+        assertEquals("File size exceeds 10MB limit", big.getMessage());
+        // Read up to one byte past the limit, no further
+        assertEquals(FileService.MAX_FILE_SIZE + 1, big.getFileSize());
+        assertNull(big.getPoseidonHash());
+        assertEquals("File cannot be empty", results.get("empty.txt").getMessage());
+        assertEquals(BulkUploadResult.Status.UPLOADED, results.get("small.txt").getStatus());
+        assertEquals(List.of("small.txt"), savedFiles.stream().map(FileEntity::getFilename).toList());
+    }
+    
+    @Test
+    void sameContentTwiceInOneBatchIsStoredOnce() {
+        byte[] content = "same content".getBytes(StandardCharsets.UTF_8);
+        
+        List<BulkUploadResult> results = upload(
+                List.of(file("a.txt", content), file("b.txt", content), file("c.txt", "other".getBytes(StandardCharsets.UTF_8))),
+                List.of());
+        
+        Map<BulkUploadResult.Status, Long> statuses = results.stream()
+                .filter(result -> !result.getFilename().equals("c.txt"))
+                .collect(Collectors.groupingBy(BulkUploadResult::getStatus, Collectors.counting()));
+        assertEquals(Map.of(BulkUploadResult.Status.UPLOADED, 1L, BulkUploadResult.Status.DUPLICATE, 1L), statuses);
+        assertEquals(2, savedFiles.size());
+        // The filter is not loaded yet, so the database is asked about every distinct hash
+        assertEquals(List.of(Set.of(hash(content), hash("other".getBytes(StandardCharsets.UTF_8)))),
+                existenceQueries.stream().map(Set::copyOf).toList());
+    }
+    
+    @Test
+    void onlyHashesTheFilterCannotRuleOutAreLookedUp() {
+        byte[] existing = "stored last week".getBytes(StandardCharsets.UTF_8);
+        byte[] fresh = "brand new".getBytes(StandardCharsets.UTF_8);
+        storedHashes.add(hash(existing));
+        registeredHashFilter.rebuild();
+        
+        Map<String, BulkUploadResult> results = byFilename(upload(
+                List.of(file("existing.txt", existing), file("fresh.txt", fresh)), List.of()));
+        
+        assertEquals(BulkUploadResult.Status.DUPLICATE, results.get("existing.txt").getStatus());
+        assertEquals("File with this hash already exists", results.get("existing.txt").getMessage());
+        assertEquals(BulkUploadResult.Status.UPLOADED, results.get("fresh.txt").getStatus());
+        assertEquals(List.of(List.of(hash(existing))), existenceQueries);
+        // Committed hashes are added, so the next upload of the same content goes to the database
+        assertFalse(registeredHashFilter.isDefinitelyNew(hash(fresh)));
+    }
+    
+    @Test
+    void batchThatCannotBeStoredFailsEveryEntry() {
+        saveFailure = new DataIntegrityViolationException("duplicate key value violates unique constraint");
+        byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+        registeredHashFilter.rebuild();
+        
+        Map<String, BulkUploadResult> results = byFilename(upload(
+                List.of(file("a.txt", content), file("b.txt", "more".getBytes(StandardCharsets.UTF_8)),
+                        file("empty.txt", new byte[0])),
+                List.of()));
+        
+        assertEquals(BulkUploadResult.Status.FAILED, results.get("a.txt").getStatus());
+        assertEquals("Failed to store file", results.get("a.txt").getMessage());
+        assertNull(results.get("a.txt").getId());
+        assertEquals(BulkUploadResult.Status.FAILED, results.get("b.txt").getStatus());
+        // Entries that failed on their own keep their reason
+        assertEquals("File cannot be empty", results.get("empty.txt").getMessage());
+        // Nothing is published for a batch that rolled back
+        assertTrue(registeredHashFilter.isDefinitelyNew(hash(content)));
+    }
+    
+    @Test
+    void keepsTheContentOfFilesAndArchiveEntriesInTheBlobStore() throws IOException {
+        byte[] uploaded = "sent as a file".getBytes(StandardCharsets.UTF_8);
+        byte[] archived = "sent in an archive".getBytes(StandardCharsets.UTF_8);
+        
+        upload(List.of(file("file.txt", uploaded)),
+                List.of(archive("entries.tar", tar(Map.of("entry.txt", archived)))));
+        
+        assertArrayEquals(uploaded, Files.readAllBytes(blobStore.pathOf(hash(uploaded))));
+        assertArrayEquals(archived, Files.readAllBytes(blobStore.pathOf(hash(archived))));
+    }
+    
+    private List<BulkUploadResult> upload(List<MultipartFile> files, List<MultipartFile> archives) {
+        return service.upload(files, archives, AUTHOR).collectList().block(Duration.ofSeconds(30));
+    }
+    
+    private static Map<String, BulkUploadResult> byFilename(List<BulkUploadResult> results) {
+        return results.stream().collect(Collectors.toMap(BulkUploadResult::getFilename, Function.identity()));
+    }
+    
+    private Felt252 hash(byte[] content) {
+        try {
+            return poseidonHashUtil.generatePoseidonFelt(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static MultipartFile file(String filename, byte[] content) {
+        return new MockMultipartFile("files", filename, "text/plain", content);
+    }
+    
+    private static MultipartFile archive(String filename, byte[] content) {
+        return new MockMultipartFile("archives", filename, "application/octet-stream", content);
+    }
+    
+    private static byte[] zip(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+    
+    private static byte[] tar(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                TarArchiveEntry tarEntry = new TarArchiveEntry(entry.getKey());
+                tarEntry.setSize(entry.getValue().length);
+                tar.putArchiveEntry(tarEntry);
+                tar.write(entry.getValue());
+                tar.closeArchiveEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+    
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private FileRepository fileRepository() {
+        return repository(FileRepository.class, (method, args) -> switch (method) {
+            case "findExistingHashes" -> {
+                Collection<Felt252> hashes = (Collection<Felt252>) args[0];
+                existenceQueries.add(List.copyOf(hashes));
+                yield hashes.stream().filter(storedHashes::contains).toList();
+            }
+            case "saveAll" -> {
+                if (saveFailure != null) {
+                    throw saveFailure;
+                }
+                List<FileEntity> files = new ArrayList<>();
+                ((Iterable<FileEntity>) args[0]).forEach(files::add);
+                for (FileEntity file : files) {
+                    file.setId(ids.incrementAndGet());
+                    file.setCreatedAt(LocalDateTime.now());
+                    storedHashes.add(file.getPoseidonHash());
+                }
+                savedFiles.addAll(files);
+                yield files;
+            }
+            case "streamAllHashes" -> List.copyOf(storedHashes).stream();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private RegistrationOutboxRepository outboxRepository() {
+        return repository(RegistrationOutboxRepository.class, (method, args) -> switch (method) {
+            case "saveAll" -> {
+                ((Iterable<RegistrationOutboxEntity>) args[0]).forEach(savedRegistrations::add);
+                yield args[0];
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package org.mtvs.java_backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mtvs.java_backend.entity.ChainFileEntity;
+import org.mtvs.java_backend.entity.IndexerCheckpointEntity;
+import org.mtvs.java_backend.repository.ChainFileRepository;
+import org.mtvs.java_backend.repository.IndexerCheckpointRepository;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.StarknetCommunicator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mtvs.java_backend.service.Repositories.repository;
+
+class ChainIndexerTests {
+    
+    private static final String AUTHOR = "0x04a1496c2a1d2e3bc0f2c5d4b1ea5c28f4e4dfc3a2b0e17c0d5b8e9f1a2b3c4d";
+    
+    private final Map<String, ChainFileEntity> chainFiles = new ConcurrentHashMap<>();
+    private final Map<String, IndexerCheckpointEntity> checkpoints = new ConcurrentHashMap<>();
+    private FakeStarknetNode node;
+    private StarknetCommunicator communicator;
+    private ChainStateIndex index;
+    
+    @BeforeEach
+    void startNode() throws IOException {
+        node = new FakeStarknetNode();
+        communicator = new StarknetCommunicator(node.url(), Duration.ofMillis(1), 50, Duration.ofSeconds(5));
+        index = new ChainStateIndex(1000, 1, Duration.ofMinutes(1));
+    }
+    
+    @AfterEach
+    void stopNode() {
+        communicator.close();
+        node.close();
+    }
+    
+    @Test
+    void mirrorsEventsAcrossPagesAndCheckpointsTheLastBlock() {
+        node.mine(registration("0x1", "quarterly-financial-report-2024-final.pdf"),
+                registration("0x2", "a.txt"), registration("0x3", "b.txt"));
+        node.mine();
+        node.mine(registration("0x4", "c.txt"));
+        
+        indexer(1000).poll();
+        
+        assertEquals(4, chainFiles.size());
+        assertEquals("quarterly-financial-report-2024-final.pdf", chainFiles.get("0x1").getFilename());
+        assertEquals(4096L, chainFiles.get("0x4").getFileSize());
+        assertEquals(2L, chainFiles.get("0x4").getBlockNumber());
+        assertEquals(2L, checkpoints.get(ChainIndexer.CHECKPOINT_NAME).getBlockNumber());
+        // Four events with a chunk size of two take two pages
+        assertEquals(2, node.eventFilters().size());
+        assertEquals(Optional.of(true), index.isRegistered(Felt252.fromHex("0x0004")));
+        assertEquals(Optional.of(false), index.isRegistered(Felt252.fromHex("0x5")));
+    }
+    
+    @Test
+    void resumesFromTheCheckpointAfterRestart() {
+        node.mine(registration("0x1", "a.txt"));
+        indexer(1000).poll();
+        node.mine(registration("0x2", "b.txt"));
+        
+        index = new ChainStateIndex(1000, 1, Duration.ofMinutes(1));
+        indexer(1000).poll();
+        
+        assertEquals(1L, node.eventFilters().get(node.eventFilters().size() - 1)
+                .get("from_block").get("block_number").asLong());
+        assertEquals(Optional.of(true), index.isRegistered(Felt252.fromHex("0x1")));
+        assertEquals(Optional.of(true), index.isRegistered(Felt252.fromHex("0x2")));
+    }
+    
+    @Test
+    void dropsRegistrationsFromOrphanedBlocks() {
+        node.mine(registration("0x1", "a.txt"));
+        node.mine(registration("0x2", "b.txt"));
+        node.mine(registration("0x3", "c.txt"));
+        ChainIndexer indexer = indexer(1000);
+        indexer.poll();
+        
+        node.reorg(1);
+        node.mine(registration("0x22", "b2.txt"));
+        node.mine();
+        node.mine(registration("0x44", "d.txt"));
+        indexer.poll();
+        
+        assertEquals(List.of("0x1", "0x22", "0x44"), chainFiles.keySet().stream().sorted().toList());
+        assertEquals(3L, checkpoints.get(ChainIndexer.CHECKPOINT_NAME).getBlockNumber());
+        assertEquals(Optional.of(false), index.isRegistered(Felt252.fromHex("0x3")));
+        assertEquals(Optional.of(true), index.isRegistered(Felt252.fromHex("0x22")));
+    }
+    
+    @Test
+    void defersToRpcWhileBehindTheHead() {
+        for (int i = 1; i <= 5; i++) {
+            node.mine(registration("0x" + i, i + ".txt"));
+        }
+        ChainIndexer indexer = indexer(2);
+        
+        assertTrue(indexer.syncOnce());
+        assertFalse(index.isCaughtUp());
+        assertEquals(Optional.of(true), index.isRegistered(Felt252.fromHex("0x1")));
+        assertEquals(Optional.empty(), index.isRegistered(Felt252.fromHex("0x5")));
+        
+        indexer.poll();
+        assertTrue(index.isCaughtUp());
+        assertEquals(Optional.of(true), index.isRegistered(Felt252.fromHex("0x5")));
+        assertEquals(Optional.of(false), index.isRegistered(Felt252.fromHex("0x6")));
+    }
+    
+    private ChainIndexer indexer(long maxBlockRange) {
+        return new ChainIndexer(communicator, chainFileRepository(), checkpointRepository(), index,
+                new TransactionTemplate(new NoOpTransactionManager()), 0, 0, 4, maxBlockRange, 2);
+    }
+    
+    private static FakeStarknetNode.Registration registration(String fileHash, String filename) {
+        return new FakeStarknetNode.Registration(fileHash, AUTHOR, filename, "application/octet-stream", 4096);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private ChainFileRepository chainFileRepository() {
+        return repository(ChainFileRepository.class, (method, args) -> switch (method) {
+            case "saveAll" -> {
+                ((Iterable<ChainFileEntity>) args[0]).forEach(file -> chainFiles.put(file.getPoseidonHash(), file));
+                yield args[0];
+            }
+            case "deleteByBlockNumberGreaterThan" -> {
+                int before = chainFiles.size();
+                chainFiles.values().removeIf(file -> file.getBlockNumber() > (Long) args[0]);
+                yield before - chainFiles.size();
+            }
+            case "streamAllHashes" -> List.copyOf(chainFiles.keySet()).stream();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+    
+    private IndexerCheckpointRepository checkpointRepository() {
+        return repository(IndexerCheckpointRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Optional.ofNullable(checkpoints.get((String) args[0]));
+            case "save" -> {
+                IndexerCheckpointEntity checkpoint = (IndexerCheckpointEntity) args[0];
+                checkpoints.put(checkpoint.getName(), checkpoint);
+                yield checkpoint;
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,208 @@
+package org.mtvs.java_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.StarknetCalldata;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process Starknet JSON-RPC node for indexer and dispatcher tests. It keeps a chain of
+ * blocks carrying FileRegistered events and serves the calls the indexer makes, with
+ * {@code starknet_getEvents} paging and reorgs under test control, and answers
+ * {@code is_file_registered} from the same blocks.
+ */
+class FakeStarknetNode implements AutoCloseable {
+    
+    static final String FILE_REGISTERED_SELECTOR = "0x22ea322d63f1396ce707626b1e29dc2ebcf058d4c23d202d4e9de17e953d6b";
+    static final String CONTRACT_ADDRESS = "0x06ebf0234be358bd087fdf5165d4b5cf7103fa1d00b8a4edb32b6e61b6d764f0";
+    static final String IS_FILE_REGISTERED_SELECTOR = "0x1a2c839a056a83cf9d47a29ce27aa3b6a335aefb095cb35da450b987b777810";
+    
+    record Registration(String fileHash, String author, String filename, String fileType, long fileSize) {
+    }
+    
+    private record Block(long number, String hash, List<Registration> registrations) {
+    }
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final List<Block> blocks = new ArrayList<>();
+    private final List<JsonNode> eventFilters = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger contractCalls = new AtomicInteger();
+    private int fork;
+    
+    FakeStarknetNode() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/rpc", exchange -> {
+            try (exchange) {
+                ArrayNode batch = (ArrayNode) objectMapper.readTree(exchange.getRequestBody());
+                ArrayNode responses = objectMapper.createArrayNode();
+                for (JsonNode request : batch) {
+                    responses.add(handle(request));
+                }
+                byte[] body = objectMapper.writeValueAsBytes(responses);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        });
+        server.start();
+    }
+    
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/rpc";
+    }
+    
+    /**
+     * Append a block with the given registrations and return its number
+     */
+    synchronized long mine(Registration... registrations) {
+        long number = blocks.size();
+        blocks.add(new Block(number, blockHash(number), List.of(registrations)));
+        return number;
+    }
+    
+    /**
+     * Drop every block from {@code fromBlock} on; blocks mined afterwards get new hashes
+     */
+    synchronized void reorg(long fromBlock) {
+        fork++;
+        blocks.subList((int) fromBlock, blocks.size()).clear();
+    }
+    
+    /**
+     * Filters of every starknet_getEvents call received, in order
+     */
+    List<JsonNode> eventFilters() {
+        return eventFilters;
+    }
+    
+    /**
+     * Number of {@code starknet_call} requests received
+     */
+    int contractCalls() {
+        return contractCalls.get();
+    }
+    
+    private synchronized ObjectNode handle(JsonNode request) {
+        JsonNode params = request.get("params");
+        return switch (request.get("method").asText()) {
+            case "starknet_blockHashAndNumber" -> {
+                Block head = blocks.get(blocks.size() - 1);
+                yield result(request, objectMapper.createObjectNode()
+                        .put("block_hash", head.hash())
+                        .put("block_number", head.number()));
+            }
+            case "starknet_getBlockWithTxHashes" -> {
+                long number = params.get("block_id").get("block_number").asLong();
+                if (number >= blocks.size()) {
+                    yield error(request, 24, "Block not found");
+                }
+                yield result(request, objectMapper.createObjectNode()
+                        .put("block_hash", blocks.get((int) number).hash())
+                        .put("block_number", number)
+                        .put("status", "ACCEPTED_ON_L2"));
+            }
+            case "starknet_getEvents" -> result(request, events(params.get("filter")));
+            case "starknet_call" -> {
+                contractCalls.incrementAndGet();
+                JsonNode call = params.get("request");
+                if (!IS_FILE_REGISTERED_SELECTOR.equals(call.get("entry_point_selector").asText())) {
+                    yield error(request, 21, "Invalid message selector");
+                }
+                boolean registered = isRegistered(Felt252.fromHex(call.get("calldata").get(0).asText()));
+                yield result(request, objectMapper.createArrayNode().add(registered ? "0x1" : "0x0"));
+            }
+            default -> error(request, -32601, "Method not found");
+        };
+    }
+    
+    private ObjectNode events(JsonNode filter) {
+        eventFilters.add(filter);
+        long fromBlock = filter.get("from_block").get("block_number").asLong();
+        long toBlock = Math.min(filter.get("to_block").get("block_number").asLong(), blocks.size() - 1);
+        int chunkSize = filter.get("chunk_size").asInt();
+        int offset = filter.hasNonNull("continuation_token") ? filter.get("continuation_token").asInt() : 0;
+        
+        List<ObjectNode> matching = new ArrayList<>();
+        for (long number = fromBlock; number <= toBlock; number++) {
+            Block block = blocks.get((int) number);
+            for (int i = 0; i < block.registrations().size(); i++) {
+                matching.add(event(block, i));
+            }
+        }
+        
+        ObjectNode page = objectMapper.createObjectNode();
+        ArrayNode events = page.putArray("events");
+        matching.subList(Math.min(offset, matching.size()), Math.min(offset + chunkSize, matching.size()))
+                .forEach(events::add);
+        if (offset + chunkSize < matching.size()) {
+            page.put("continuation_token", String.valueOf(offset + chunkSize));
+        }
+        return page;
+    }
+    
+    private boolean isRegistered(Felt252 fileHash) {
+        return blocks.stream()
+                .flatMap(block -> block.registrations().stream())
+                .anyMatch(registration -> Felt252.fromHex(registration.fileHash()).equals(fileHash));
+    }
+    
+    private ObjectNode event(Block block, int index) {
+        Registration registration = block.registrations().get(index);
+        ObjectNode event = objectMapper.createObjectNode();
+        event.put("from_address", CONTRACT_ADDRESS);
+        event.putArray("keys")
+                .add(FILE_REGISTERED_SELECTOR)
+                .add(registration.fileHash())
+                .add(registration.author());
+        ArrayNode data = event.putArray("data");
+        StarknetCalldata.byteArray(registration.filename()).forEach(data::add);
+        StarknetCalldata.byteArray(registration.fileType()).forEach(data::add);
+        data.add(StarknetCalldata.felt(registration.fileSize()));
+        data.add(StarknetCalldata.felt(1_700_000_000L + block.number()));
+        event.put("block_hash", block.hash());
+        event.put("block_number", block.number());
+        event.put("transaction_hash", StarknetCalldata.felt(block.number() * 1000 + index + 1));
+        return event;
+    }
+    
+    private String blockHash(long number) {
+        return StarknetCalldata.felt((number << 8) | fork);
+    }
+    
+    private ObjectNode result(JsonNode request, JsonNode result) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+        response.set("result", result);
+        return response;
+    }
+    
+    private ObjectNode error(JsonNode request, int code, String message) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+        response.putObject("error").put("code", code).put("message", message);
+        return response;
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,246 @@
+package org.mtvs.java_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.repository.AuthorStatsRepository;
+import org.mtvs.java_backend.repository.ChainFileRepository;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.repository.RegistrationOutboxRepository;
+import org.mtvs.java_backend.util.BufferPool;
+import org.mtvs.java_backend.util.ChainFileDetails;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.PoseidonHashUtil;
+import org.mtvs.java_backend.util.RpcUnavailableException;
+import org.mtvs.java_backend.util.StarknetCommunicator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mtvs.java_backend.service.Repositories.repository;
+
+class FileServiceTests {
+    
+    private static final Felt252 AUTHOR = Felt252.fromHex("0x6ecb9425da32b868721a6b9dd609879eb81d6b80494bff9dcf2e3b002801d2f");
+    private static final Felt252 STORED = Felt252.fromHex("0x5107ed");
+    private static final Felt252 UNKNOWN = Felt252.fromHex("0xacc0");
+    private static final Duration TIMEOUT = Duration.ofMillis(200);
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch releaseDatabase = new CountDownLatch(1);
+    private ScriptedCommunicator communicator;
+    private volatile boolean slowDatabase;
+    
+    @BeforeEach
+    void createCommunicator() {
+        communicator = new ScriptedCommunicator();
+    }
+    
+    @AfterEach
+    void closeCommunicator() {
+        releaseDatabase.countDown();
+        communicator.close();
+    }
+    
+    @Test
+    void chainTimeoutIsAnsweredFromTheLocalRecord() {
+        communicator.registered = CompletableFuture::new;
+        communicator.details = CompletableFuture::new;
+        
+        Duration elapsed = StepVerifier.create(fileService().verifyFileReactive(STORED))
+                .assertNext(response -> {
+                    assertTrue(response.isRegistered());
+                    assertEquals(7L, response.getId());
+                    assertEquals("report.pdf", response.getFilename());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, elapsed::toString);
+        assertEquals(1, fallbacks("chain-verify"));
+        assertEquals(1, fallbacks("chain-details"));
+        assertEquals(0, fallbacks("db-lookup"));
+    }
+    
+    @Test
+    void failingNodeLeavesTheDatabaseAsTheOnlySource() {
+        communicator.registered = () -> CompletableFuture.failedFuture(new RpcUnavailableException("Node unreachable"));
+        communicator.details = () -> CompletableFuture.failedFuture(new RpcUnavailableException("Node unreachable"));
+        FileService fileService = fileService();
+        
+        StepVerifier.create(fileService.verifyFileReactive(STORED))
+                .assertNext(response -> {
+                    assertTrue(response.isRegistered());
+                    assertEquals(AUTHOR, response.getAuthorAddress());
+                })
+                .verifyComplete();
+        StepVerifier.create(fileService.verifyFileReactive(UNKNOWN))
+                .assertNext(response -> {
+                    assertFalse(response.isRegistered());
+                    assertNull(response.getFilename());
+                })
+                .verifyComplete();
+        
+        assertEquals(2, fallbacks("chain-verify"));
+        assertEquals(2, meterRegistry.counter("starknet.rpc.errors", "method", "is_file_registered").count());
+    }
+    
+    @Test
+    void openCircuitSkipsTheNode() {
+        communicator.available = false;
+        FileService fileService = fileService();
+        
+        StepVerifier.create(fileService.verifyFileReactive(STORED))
+                .assertNext(response -> {
+                    assertTrue(response.isRegistered());
+                    assertEquals(7L, response.getId());
+                })
+                .verifyComplete();
+        StepVerifier.create(fileService.verifyFileReactive(UNKNOWN))
+                .assertNext(response -> assertFalse(response.isRegistered()))
+                .verifyComplete();
+        
+        assertEquals(0, communicator.calls.get());
+        // Both the registration check and the details lookup, for each hash
+        assertEquals(4, fallbacks("circuit-open"));
+        assertEquals(0, fallbacks("chain-verify"));
+    }
+    
+    @Test
+    void slowDatabaseIsAnsweredFromTheChain() {
+        slowDatabase = true;
+        communicator.registered = () -> CompletableFuture.completedFuture(true);
+        communicator.details = () -> CompletableFuture.completedFuture(
+                Optional.of(new ChainFileDetails(AUTHOR, "chain.pdf", "application/pdf", 40960L, 1_700_000_000L)));
+        
+        StepVerifier.create(fileService().verifyFileReactive(STORED))
+                .assertNext(response -> {
+                    assertTrue(response.isRegistered());
+                    assertNull(response.getId());
+                    assertEquals("chain.pdf", response.getFilename());
+                    assertEquals(40960L, response.getFileSize());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        
+        assertEquals(1, fallbacks("db-lookup"));
+    }
+    
+    private double fallbacks(String reason) {
+        return meterRegistry.counter("verification.fallbacks", "reason", reason).count();
+    }
+    
+    private Optional<FileEntity> findLocally(Felt252 poseidonHash) {
+        if (slowDatabase) {
+            try {
+                releaseDatabase.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!poseidonHash.equals(STORED)) {
+            return Optional.empty();
+        }
+        return Optional.of(FileEntity.builder()
+                .id(7L)
+                .filename("report.pdf")
+                .fileType("application/pdf")
+                .fileSize(1024L)
+                .poseidonHash(STORED)
+                .authorAddress(AUTHOR)
+                .createdAt(LocalDateTime.of(2026, 10, 17, 12, 0))
+                .build());
+    }
+    
+    /**
+     * Real reactive path over a scripted node; the chain index is never synced, so every
+     * lookup goes to the communicator
+     */
+    private FileService fileService() {
+        StageMetrics stageMetrics = new StageMetrics(ObservationRegistry.NOOP, meterRegistry);
+        StarknetService starknetService = new StarknetService();
+        ReflectionTestUtils.setField(starknetService, "starknetCommunicator", communicator);
+        ReflectionTestUtils.setField(starknetService, "chainStateIndex", new ChainStateIndex(1000, 1, Duration.ofMinutes(1)));
+        ReflectionTestUtils.setField(starknetService, "chainFileRepository",
+                repository(ChainFileRepository.class, (method, args) -> {
+                    throw new UnsupportedOperationException(method);
+                }));
+        ReflectionTestUtils.setField(starknetService, "stageMetrics", stageMetrics);
+        
+        FileRepository fileRepository = repository(FileRepository.class, (method, args) -> {
+            throw new UnsupportedOperationException(method);
+        });
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        FileService fileService = new FileService(
+                fileRepository,
+                repository(RegistrationOutboxRepository.class, (method, args) -> {
+                    throw new UnsupportedOperationException(method);
+                }),
+                new PoseidonHashUtil(new BufferPool()),
+                starknetService,
+                new VerificationCache(1000, Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ZERO, Duration.ZERO),
+                new RegisteredHashFilter(fileRepository, transactionTemplate, 1000, 0.01),
+                this::findLocally,
+                stageMetrics,
+                transactionTemplate,
+                new ChunkedHashService(null, DataSize.ofKilobytes(256), DataSize.ofMegabytes(1), DataSize.ofMegabytes(4),
+                        DataSize.ofGigabytes(64), 1),
+                new KnownPrefixFilter(fileRepository, transactionTemplate, 1000, 0.01),
+                new DisabledBlobStore(),
+                new AuthorStatsService(repository(AuthorStatsRepository.class, (method, args) -> 1)),
+                new FileSearchIndex(fileRepository, transactionTemplate, 1000, 1000),
+                new RegistrationFeed(64, Duration.ofSeconds(15)));
+        ReflectionTestUtils.setField(fileService, "dbTimeout", TIMEOUT);
+        ReflectionTestUtils.setField(fileService, "chainTimeout", TIMEOUT);
+        return fileService;
+    }
+    
+    /**
+     * Communicator whose contract calls answer from the test instead of an RPC node
+     */
+    private static final class ScriptedCommunicator extends StarknetCommunicator {
+        
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean available = true;
+        private volatile Supplier<CompletableFuture<Boolean>> registered;
+        private volatile Supplier<CompletableFuture<Optional<ChainFileDetails>>> details;
+        
+        ScriptedCommunicator() {
+            super("http://127.0.0.1:9", Duration.ofMillis(1), 50, Duration.ofSeconds(5));
+        }
+        
+        @Override
+        public boolean isAvailable() {
+            return available;
+        }
+        
+        @Override
+        public CompletableFuture<Boolean> isFileRegisteredAsync(Felt252 fileHash) {
+            calls.incrementAndGet();
+            return registered.get();
+        }
+        
+        @Override
+        public CompletableFuture<Optional<ChainFileDetails>> verifyFileAsync(Felt252 fileHash) {
+            calls.incrementAndGet();
+            return details.get();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,225 @@
+package org.mtvs.java_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mtvs.java_backend.controller.FileController;
+import org.mtvs.java_backend.dto.FileVerificationResponse;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.repository.AuthorStatsRepository;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.repository.RegistrationOutboxRepository;
+import org.mtvs.java_backend.util.BufferPool;
+import org.mtvs.java_backend.util.ContentPrefix;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.PoseidonHashUtil;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mtvs.java_backend.service.Repositories.repository;
+
+class KnownPrefixFilterTests {
+    
+    private static final Felt252 AUTHOR = Felt252.fromHex("0x6ecb9425da32b868721a6b9dd609879eb81d6b80494bff9dcf2e3b002801d2f");
+    
+    private final Random random = new Random(42);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<Felt252, FileEntity> storedFiles = new ConcurrentHashMap<>();
+    // Files stored before the filter loads, as (content prefix or null) rows
+    private final List<byte[]> storedPrefixes = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private KnownPrefixFilter knownPrefixFilter;
+    private FileService fileService;
+    
+    @BeforeEach
+    void createService() {
+        FileRepository fileRepository = fileRepository();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+        knownPrefixFilter = new KnownPrefixFilter(fileRepository, transactionTemplate, 10_000, 0.01);
+        fileService = new FileService(
+                fileRepository,
+                repository(RegistrationOutboxRepository.class, (method, args) -> args[0]),
+                new PoseidonHashUtil(new BufferPool()),
+                new StarknetService(),
+                new VerificationCache(1000, Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ZERO, Duration.ZERO),
+                new RegisteredHashFilter(fileRepository, transactionTemplate, 10_000, 0.01),
+                new FileRecordStore() {
+            
+                    @Override
+                    public Optional<FileEntity> findByPoseidonHash(Felt252 poseidonHash) {
+                        return Optional.ofNullable(storedFiles.get(poseidonHash));
+                    }
+                },
+                new StageMetrics(ObservationRegistry.NOOP, meterRegistry),
+                transactionTemplate,
+                new ChunkedHashService(null, DataSize.ofKilobytes(256), DataSize.ofMegabytes(1), DataSize.ofMegabytes(4),
+                        DataSize.ofGigabytes(64), 1),
+                knownPrefixFilter,
+                new DisabledBlobStore(),
+                new AuthorStatsService(repository(AuthorStatsRepository.class, (method, args) -> 1)),
+                new FileSearchIndex(fileRepository, transactionTemplate, 1000, 1000),
+                new RegistrationFeed(64, Duration.ofSeconds(15)));
+    }
+    
+    @Test
+    void unknownContentIsRejectedAfterItsPrefix() {
+        storedPrefixes.add(fingerprint(content(10_000)));
+        knownPrefixFilter.rebuild();
+        FileController controller = new FileController(fileService, null, null, null, null, new ObjectMapper());
+        CountingInputStream body = new CountingInputStream(content(1024 * 1024));
+        
+        ResponseEntity<?> response = controller.verifyContent(body, false);
+        
+        assertEquals(200, response.getStatusCode().value());
+        FileVerificationResponse verification = (FileVerificationResponse) response.getBody();
+        assertFalse(verification.isRegistered());
+        assertNull(verification.getPoseidonHash());
+        assertEquals(ContentPrefix.LENGTH, body.read);
+        assertEquals(1, earlyExits());
+    }
+    
+    @Test
+    void uploadedContentIsNeverRejected() throws IOException {
+        knownPrefixFilter.rebuild();
+        assertEquals(true, knownPrefixFilter.stats().get("ready"));
+        
+        List<byte[]> uploads = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            uploads.add(content(1 + random.nextInt(3 * ContentPrefix.LENGTH)));
+        }
+        // Same first 4 KiB, different tails: both must hash in full
+        byte[] sharedPrefix = content(2 * ContentPrefix.LENGTH);
+        byte[] otherTail = sharedPrefix.clone();
+        otherTail[otherTail.length - 1]++;
+        uploads.add(sharedPrefix);
+        uploads.add(otherTail);
+        for (byte[] upload : uploads) {
+            fileService.uploadFile(new MockMultipartFile("file", "file.bin", "application/octet-stream", upload), AUTHOR);
+        }
+        
+        for (byte[] upload : uploads) {
+            FileVerificationResponse verification = fileService.verifyContent(new ByteArrayInputStream(upload), false);
+            assertTrue(verification.isRegistered(), () -> upload.length + " byte upload rejected");
+        }
+        assertEquals(0, earlyExits());
+        assertEquals(uploads.size(), storedFiles.size());
+    }
+    
+    @Test
+    void contentStoredBeforeTheFilterLoadedIsNeverRejected() throws IOException {
+        byte[] stored = content(5000);
+        Felt252 hash = new PoseidonHashUtil(new BufferPool()).generatePoseidonFelt(new ByteArrayInputStream(stored));
+        storedFiles.put(hash, FileEntity.builder()
+                .id(1L)
+                .filename("file.bin")
+                .poseidonHash(hash)
+                .authorAddress(AUTHOR)
+                .contentPrefix(fingerprint(stored))
+                .build());
+        storedPrefixes.add(fingerprint(stored));
+        
+        knownPrefixFilter.rebuild();
+        
+        assertTrue(fileService.verifyContent(new ByteArrayInputStream(stored), false).isRegistered());
+        assertFalse(fileService.verifyContent(new ByteArrayInputStream(content(5000)), false).isRegistered());
+        assertEquals(1, earlyExits());
+    }
+    
+    @Test
+    void fileWithoutFingerprintKeepsTheFilterOff() throws IOException {
+        storedPrefixes.add(fingerprint(content(100)));
+        storedPrefixes.add(null);
+        
+        knownPrefixFilter.rebuild();
+        
+        assertEquals(false, knownPrefixFilter.stats().get("ready"));
+        assertEquals(1L, knownPrefixFilter.stats().get("missingFingerprints"));
+        assertFalse(fileService.verifyContent(new ByteArrayInputStream(content(5000)), false).isRegistered());
+        // Hashed and looked up instead
+        assertEquals(0, earlyExits());
+    }
+    
+    private double earlyExits() {
+        return meterRegistry.counter("verification.early-exits", "reason", "unknown-prefix").count();
+    }
+    
+    private byte[] content(int length) {
+        byte[] content = new byte[length];
+        random.nextBytes(content);
+        return content;
+    }
+    
+    private static byte[] fingerprint(byte[] content) {
+        ContentPrefix prefix = new ContentPrefix();
+        prefix.update(content, 0, content.length);
+        return prefix.fingerprint().toBytes();
+    }
+    
+    private FileRepository fileRepository() {
+        return repository(FileRepository.class, (method, args) -> switch (method) {
+            case "existsByPoseidonHash" -> storedFiles.containsKey((Felt252) args[0]);
+            case "save" -> {
+                FileEntity file = (FileEntity) args[0];
+                file.setId(ids.incrementAndGet());
+                file.setCreatedAt(LocalDateTime.now());
+                storedFiles.put(file.getPoseidonHash(), file);
+                yield file;
+            }
+            case "streamAllContentPrefixes" -> storedPrefixes.stream()
+                    .map(prefix -> prefix == null ? null : Arrays.copyOf(prefix, prefix.length));
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+    
+    /**
+     * Request body that records how much of it was read
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        
+        private int read;
+        
+        CountingInputStream(byte[] content) {
+            super(new ByteArrayInputStream(content));
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                read++;
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count > 0) {
+                read += count;
+            }
+            return count;
+        }
+    }
+}
\ No newline at end of file
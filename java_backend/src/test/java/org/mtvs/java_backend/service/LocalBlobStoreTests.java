@@ -0,0 +1,140 @@
+package org.mtvs.java_backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mtvs.java_backend.util.Felt252;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalBlobStoreTests {
+    
+    private static final Felt252 HASH = Felt252.fromHex("0x4a1496c2a1d2e3bc0f2c5d4b1ea5c28f4e4dfc3a2b0e17c0d5b8e9f1a2b3c4d");
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void storesFileBackedContentUnderAShardedPath() throws IOException {
+        LocalBlobStore store = new LocalBlobStore(dir.resolve("blobs"));
+        byte[] content = content(200_000);
+        Path upload = Files.write(dir.resolve("upload.part"), content);
+        
+        try (FileInputStream in = new FileInputStream(upload.toFile())) {
+            assertTrue(store.put(HASH, in, content.length));
+        }
+        Path stored = store.pathOf(HASH);
+        assertEquals(dir.resolve("blobs/4d/3c").toAbsolutePath(), stored.getParent());
+        assertArrayEquals(content, Files.readAllBytes(stored));
+        assertTrue(store.contains(HASH));
+    }
+    
+    @Test
+    void takesOverTheFileASpooledUploadWasWrittenTo() throws IOException {
+        LocalBlobStore store = new LocalBlobStore(dir.resolve("blobs"));
+        byte[] content = content(200_000);
+        Path spooled = Files.write(dir.resolve("upload_0001.tmp"), content);
+        
+        assertTrue(store.put(HASH, new SpooledUpload(spooled, content.length)));
+        assertArrayEquals(content, Files.readAllBytes(store.pathOf(HASH)));
+        assertFalse(Files.exists(spooled));
+        
+        // Already stored: the second upload is left where it is
+        Path again = Files.write(dir.resolve("upload_0002.tmp"), content);
+        assertFalse(store.put(HASH, new SpooledUpload(again, content.length)));
+        assertTrue(Files.exists(again));
+    }
+    
+    @Test
+    void storingTheSameContentAgainWritesNothing() throws IOException {
+        LocalBlobStore store = new LocalBlobStore(dir.resolve("blobs"));
+        byte[] content = content(1_000);
+        assertTrue(store.put(HASH, new ByteArrayInputStream(content), content.length));
+        
+        ByteArrayInputStream again = new ByteArrayInputStream(content);
+        assertFalse(store.put(HASH, again, content.length));
+        // The duplicate was not even read
+        assertEquals(content.length, again.available());
+        assertEquals(1L, store.stats().get("deduplicated"));
+    }
+    
+    @Test
+    void servesByteRanges() throws IOException {
+        LocalBlobStore store = new LocalBlobStore(dir.resolve("blobs"));
+        byte[] content = content(100_000);
+        store.put(HASH, new ByteArrayInputStream(content), content.length);
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BlobStore.Blob blob = store.open(HASH).orElseThrow()) {
+            assertEquals(content.length, blob.size());
+            blob.transferTo(70_000, 20_000, Channels.newChannel(out));
+        }
+        assertArrayEquals(Arrays.copyOfRange(content, 70_000, 90_000), out.toByteArray());
+    }
+    
+    @Test
+    void truncatedContentLeavesNothingBehind() throws IOException {
+        LocalBlobStore store = new LocalBlobStore(dir.resolve("blobs"));
+        
+        assertThrows(IOException.class, () -> store.put(HASH, new ByteArrayInputStream(content(10)), 20));
+        assertFalse(store.contains(HASH));
+        try (var temp = Files.list(dir.resolve("blobs/tmp"))) {
+            assertEquals(0, temp.count());
+        }
+    }
+    
+    /**
+     * A part the container spooled to disk: writing it out moves its file, and reading it
+     * as a stream fails the test
+     */
+    private static class SpooledUpload extends MockMultipartFile {
+        
+        private final Path file;
+        private final long size;
+        
+        SpooledUpload(Path file, long size) {
+            super("file", "upload.bin", "application/octet-stream", new byte[0]);
+            this.file = file;
+            this.size = size;
+        }
+        
+        @Override
+        public long getSize() {
+            return size;
+        }
+        
+        @Override
+        public InputStream getInputStream() {
+            throw new AssertionError("Spooled upload copied through the heap");
+        }
+        
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.move(file, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i * 31 + i / 251);
+        }
+        return content;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package org.mtvs.java_backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.util.Felt252;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class MappedFileRecordStoreTests {
+    
+    private static final Felt252 AUTHOR = Felt252.fromHex("0x4a1496c2a1d2e3bc0f2c5d4b1ea5c28f4e4dfc3a2b0e17c0d5b8e9f1a2b3c4d");
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void deltaRecordsSurviveRestart() throws IOException {
+        MappedFileRecordStore store = new MappedFileRecordStore(dir.resolve("index.bin"), 100);
+        store.add(file("0x1f"));
+        store.add(file("0x2e"));
+        store.setStarknetTxHash(List.of(felt("0x001f")), felt("0xbeef"));
+        assertEquals(felt("0xbeef"), store.findByPoseidonHash(felt("0x1f")).orElseThrow().getStarknetTxHash());
+        store.close();
+        
+        MappedFileRecordStore reopened = new MappedFileRecordStore(dir.resolve("index.bin"), 100);
+        assertEquals(felt("0xbeef"), reopened.findByPoseidonHash(felt("0x1f")).orElseThrow().getStarknetTxHash());
+        assertEquals(AUTHOR, reopened.findByPoseidonHash(felt("0x2e")).orElseThrow().getAuthorAddress());
+        assertEquals(Optional.empty(), reopened.findByPoseidonHash(felt("0x3d")));
+        reopened.close();
+    }
+    
+    @Test
+    void mergesTheDeltaOnceItReachesTheThreshold() throws IOException {
+        MappedFileRecordStore store = new MappedFileRecordStore(dir.resolve("index.bin"), 3);
+        store.add(file("0x3"));
+        store.add(file("0x1"));
+        store.mergeIfNeeded();
+        assertEquals(0L, store.stats().get("indexedRecords"));
+        
+        store.add(file("0x2"));
+        store.mergeIfNeeded();
+        assertEquals(3L, store.stats().get("indexedRecords"));
+        assertEquals(0, store.stats().get("deltaRecords"));
+        
+        // Updates after the merge shadow the indexed copy until the next one
+        store.setStarknetTxHash(List.of(felt("0x2")), felt("0xbeef"));
+        assertEquals(felt("0xbeef"), store.findByPoseidonHash(felt("0x2")).orElseThrow().getStarknetTxHash());
+        store.close();
+        
+        assertFalse(Files.exists(dir.resolve("index.bin.delta.merging")));
+        MappedFileRecordStore reopened = new MappedFileRecordStore(dir.resolve("index.bin"), 3);
+        assertEquals(3L, reopened.stats().get("indexedRecords"));
+        assertEquals(felt("0xbeef"), reopened.findByPoseidonHash(felt("0x2")).orElseThrow().getStarknetTxHash());
+        assertEquals(1024L, reopened.findByPoseidonHash(felt("0x1")).orElseThrow().getFileSize());
+        reopened.close();
+    }
+    
+    private static FileEntity file(String poseidonHash) {
+        return FileEntity.builder()
+                .poseidonHash(felt(poseidonHash))
+                .authorAddress(AUTHOR)
+                .fileSize(1024L)
+                .createdAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+                .build();
+    }
+    
+    private static Felt252 felt(String hex) {
+        return Felt252.fromHex(hex);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package org.mtvs.java_backend.service;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Runs callbacks without a real transaction
+ */
+public class NoOpTransactionManager implements PlatformTransactionManager {
+    
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) {
+        return new SimpleTransactionStatus();
+    }
+    
+    @Override
+    public void commit(TransactionStatus status) {
+    }
+    
+    @Override
+    public void rollback(TransactionStatus status) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,431 @@
+package org.mtvs.java_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mtvs.java_backend.entity.ChainFileEntity;
+import org.mtvs.java_backend.entity.FileEntity;
+import org.mtvs.java_backend.entity.IndexerCheckpointEntity;
+import org.mtvs.java_backend.entity.RegistrationOutboxEntity;
+import org.mtvs.java_backend.repository.ChainFileRepository;
+import org.mtvs.java_backend.repository.FileRepository;
+import org.mtvs.java_backend.repository.IndexerCheckpointRepository;
+import org.mtvs.java_backend.repository.RegistrationOutboxRepository;
+import org.mtvs.java_backend.util.Felt252;
+import org.mtvs.java_backend.util.RpcUnavailableException;
+import org.mtvs.java_backend.util.StarknetCalldata;
+import org.mtvs.java_backend.util.StarknetCommunicator;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mtvs.java_backend.service.Repositories.repository;
+
+class RegistrationDispatcherTests {
+    
+    private static final String AUTHOR = "0x04a1496c2a1d2e3bc0f2c5d4b1ea5c28f4e4dfc3a2b0e17c0d5b8e9f1a2b3c4d";
+    private static final Duration INITIAL_BACKOFF = Duration.ofMinutes(1);
+    private static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(5);
+    
+    private final Map<Long, RegistrationOutboxEntity> outbox = new TreeMap<>();
+    private final Map<Felt252, Felt252> fileTxHashes = new ConcurrentHashMap<>();
+    private final Map<Felt252, Felt252> publishedTxHashes = new ConcurrentHashMap<>();
+    private final Map<String, ChainFileEntity> chainFiles = new ConcurrentHashMap<>();
+    private final Map<String, IndexerCheckpointEntity> checkpoints = new ConcurrentHashMap<>();
+    private FakeStarknetNode node;
+    private StarknetCommunicator communicator;
+    private ChainStateIndex index;
+    private ChainSubmitter starknetService;
+    
+    @BeforeEach
+    void startNode() throws IOException {
+        node = new FakeStarknetNode();
+        communicator = new StarknetCommunicator(node.url(), Duration.ofMillis(1), 50, Duration.ofSeconds(5));
+        index = new ChainStateIndex(1000, 1, Duration.ofMinutes(1));
+        starknetService = new ChainSubmitter(node);
+        ReflectionTestUtils.setField(starknetService, "starknetCommunicator", communicator);
+        ReflectionTestUtils.setField(starknetService, "chainStateIndex", index);
+        ReflectionTestUtils.setField(starknetService, "chainFileRepository", chainFileRepository());
+        ReflectionTestUtils.setField(starknetService, "stageMetrics",
+                new StageMetrics(ObservationRegistry.NOOP, new SimpleMeterRegistry()));
+    }
+    
+    @AfterEach
+    void stopNode() {
+        communicator.close();
+        node.close();
+    }
+    
+    @Test
+    void claimsDueRegistrationsAndSubmitsThemAsOneMulticallPerBatch() {
+        for (long id = 1; id <= 5; id++) {
+            enqueue(id);
+        }
+        starknetService.onSubmit = batch -> {
+            // Claimed and committed before the node is called
+            UUID attemptId = outbox.get(batch.get(0).getId()).getAttemptId();
+            for (RegistrationOutboxEntity registration : batch) {
+                RegistrationOutboxEntity row = outbox.get(registration.getId());
+                assertEquals(RegistrationOutboxEntity.Status.IN_FLIGHT, row.getStatus());
+                assertEquals(attemptId, row.getAttemptId());
+                assertEquals(1, row.getAttempts());
+                assertTrue(row.getNextAttemptAt().isAfter(LocalDateTime.now().plus(CLAIM_TIMEOUT).minusMinutes(1)));
+            }
+        };
+        
+        dispatcher(4, 3).flush();
+        
+        assertEquals(List.of(hashes(1, 2, 3, 4), hashes(5)), starknetService.submitted);
+        assertTrue(outbox.isEmpty());
+        Felt252 firstTx = txHash(0);
+        for (long id = 1; id <= 4; id++) {
+            assertEquals(firstTx, fileTxHashes.get(hash(id)));
+            assertEquals(firstTx, publishedTxHashes.get(hash(id)));
+        }
+        assertEquals(txHash(1), fileTxHashes.get(hash(5)));
+        // First attempts are not checked against the contract
+        assertEquals(0, node.contractCalls());
+    }
+    
+    @Test
+    void rejectedBatchIsSplitUntilTheBadEntryIsAlone() {
+        for (long id = 1; id <= 4; id++) {
+            enqueue(id);
+        }
+        starknetService.rejected.add(hash(3));
+        LocalDateTime before = LocalDateTime.now();
+        
+        dispatcher(4, 3).flush();
+        
+        assertEquals(List.of(hashes(1, 2, 3, 4), hashes(1, 2), hashes(3, 4), hashes(3), hashes(4)),
+                starknetService.submitted);
+        assertEquals(Set.of(hash(1), hash(2), hash(4)), fileTxHashes.keySet());
+        assertEquals(txHash(0), fileTxHashes.get(hash(1)));
+        assertEquals(txHash(1), fileTxHashes.get(hash(4)));
+        
+        assertEquals(Set.of(3L), outbox.keySet());
+        RegistrationOutboxEntity rejected = outbox.get(3L);
+        assertEquals(RegistrationOutboxEntity.Status.PENDING, rejected.getStatus());
+        assertEquals(1, rejected.getAttempts());
+        assertNull(rejected.getAttemptId());
+        assertTrue(rejected.getLastError().contains("reverted"));
+        assertDueAfter(rejected, before, INITIAL_BACKOFF);
+    }
+    
+    @Test
+    void backsOffWhileTheNodeIsUnreachableAndGivesUpAfterMaxAttempts() {
+        enqueue(1);
+        starknetService.unavailable = true;
+        RegistrationDispatcher dispatcher = dispatcher(4, 2);
+        
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.flush();
+        RegistrationOutboxEntity row = outbox.get(1L);
+        assertEquals(RegistrationOutboxEntity.Status.PENDING, row.getStatus());
+        assertEquals("Node unreachable", row.getLastError());
+        assertDueAfter(row, before, INITIAL_BACKOFF);
+        
+        // Not due yet
+        dispatcher.flush();
+        assertEquals(1, starknetService.submitted.size());
+        
+        makeDue();
+        dispatcher.flush();
+        // A second attempt asks the contract first, in case the first one went through
+        assertEquals(1, node.contractCalls());
+        assertEquals(2, starknetService.submitted.size());
+        assertEquals(RegistrationOutboxEntity.Status.FAILED, row.getStatus());
+        assertEquals(2, row.getAttempts());
+        assertNull(row.getAttemptId());
+        
+        makeDue();
+        dispatcher.flush();
+        assertEquals(2, starknetService.submitted.size());
+        assertTrue(fileTxHashes.isEmpty());
+    }
+    
+    @Test
+    void backoffDoublesWithEachAttempt() {
+        enqueue(1);
+        starknetService.rejected.add(hash(1));
+        RegistrationDispatcher dispatcher = dispatcher(4, 10);
+        
+        dispatcher.flush();
+        makeDue();
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.flush();
+        
+        RegistrationOutboxEntity row = outbox.get(1L);
+        assertEquals(2, row.getAttempts());
+        assertDueAfter(row, before, INITIAL_BACKOFF.multipliedBy(2));
+    }
+    
+    @Test
+    void retryLeavesARegistrationClaimedByANewerAttemptAlone() {
+        enqueue(1);
+        UUID newerAttempt = UUID.randomUUID();
+        starknetService.onSubmit = batch -> {
+            // The claim expired while the node was slow and another dispatcher took the row
+            RegistrationOutboxEntity claimed = outbox.get(1L);
+            outbox.put(1L, RegistrationOutboxEntity.builder()
+                    .id(claimed.getId())
+                    .poseidonHash(claimed.getPoseidonHash())
+                    .filename(claimed.getFilename())
+                    .fileType(claimed.getFileType())
+                    .fileSize(claimed.getFileSize())
+                    .status(RegistrationOutboxEntity.Status.IN_FLIGHT)
+                    .attempts(claimed.getAttempts() + 1)
+                    .attemptId(newerAttempt)
+                    .nextAttemptAt(LocalDateTime.now().plus(CLAIM_TIMEOUT))
+                    .createdAt(claimed.getCreatedAt())
+                    .build());
+            throw new IllegalStateException("Transaction reverted");
+        };
+        
+        dispatcher(4, 1).flush();
+        
+        RegistrationOutboxEntity row = outbox.get(1L);
+        assertEquals(RegistrationOutboxEntity.Status.IN_FLIGHT, row.getStatus());
+        assertEquals(newerAttempt, row.getAttemptId());
+        assertEquals(2, row.getAttempts());
+        assertNull(row.getLastError());
+    }
+    
+    @Test
+    void registrationAlreadyIndexedIsCompletedWithoutResubmitting() {
+        enqueue(1);
+        long block = node.mine(registration(hash(1)));
+        indexer().poll();
+        
+        dispatcher(4, 3).flush();
+        
+        assertTrue(starknetService.submitted.isEmpty());
+        assertTrue(outbox.isEmpty());
+        assertEquals(txHash(block), fileTxHashes.get(hash(1)));
+        assertEquals(txHash(block), publishedTxHashes.get(hash(1)));
+    }
+    
+    @Test
+    void registrationOnChainBeforeItsTransactionIsIndexedIsKept() {
+        enqueue(1);
+        starknetService.onSubmit = batch -> {
+            // Accepted by the node, but the response never arrived
+            node.mine(batch.stream().map(registration -> registration(registration.getPoseidonHash()))
+                    .toArray(FakeStarknetNode.Registration[]::new));
+            throw new RpcUnavailableException("Timed out");
+        };
+        RegistrationDispatcher dispatcher = dispatcher(4, 2);
+        dispatcher.flush();
+        starknetService.onSubmit = batch -> {
+        };
+        
+        // The contract knows the file but the chain index has no transaction for it yet
+        for (int attempt = 2; attempt <= 4; attempt++) {
+            makeDue();
+            LocalDateTime before = LocalDateTime.now();
+            dispatcher.flush();
+            
+            RegistrationOutboxEntity row = outbox.get(1L);
+            assertEquals(RegistrationOutboxEntity.Status.PENDING, row.getStatus());
+            assertEquals(attempt, row.getAttempts());
+            assertEquals(RegistrationDispatcher.TX_HASH_PENDING, row.getLastError());
+            assertDueAfter(row, before, INITIAL_BACKOFF.multipliedBy(1L << (attempt - 1)));
+        }
+        assertEquals(1, starknetService.submitted.size());
+        assertTrue(fileTxHashes.isEmpty());
+        
+        indexer().poll();
+        makeDue();
+        dispatcher.flush();
+        
+        assertTrue(outbox.isEmpty());
+        assertEquals(txHash(0), fileTxHashes.get(hash(1)));
+        assertEquals(1, starknetService.submitted.size());
+    }
+    
+    private RegistrationDispatcher dispatcher(int batchSize, int maxAttempts) {
+        return new RegistrationDispatcher(outboxRepository(), fileRepository(), starknetService,
+                new VerificationCache(1000, Duration.ofMinutes(1), Duration.ofSeconds(1), Duration.ZERO, Duration.ZERO),
+                fileRecordStore(), new TransactionTemplate(new NoOpTransactionManager()),
+                batchSize, maxAttempts, INITIAL_BACKOFF, Duration.ofHours(1), CLAIM_TIMEOUT);
+    }
+    
+    private ChainIndexer indexer() {
+        return new ChainIndexer(communicator, chainFileRepository(), checkpointRepository(), index,
+                new TransactionTemplate(new NoOpTransactionManager()), 0, 0, 4, 1000, 10);
+    }
+    
+    private void enqueue(long id) {
+        outbox.put(id, RegistrationOutboxEntity.builder()
+                .id(id)
+                .poseidonHash(hash(id))
+                .filename("file-" + id + ".txt")
+                .fileType("text/plain")
+                .fileSize(1024 * id)
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+    
+    private void makeDue() {
+        outbox.values().forEach(row -> row.setNextAttemptAt(LocalDateTime.now().minusSeconds(1)));
+    }
+    
+    private static void assertDueAfter(RegistrationOutboxEntity row, LocalDateTime before, Duration backoff) {
+        LocalDateTime due = row.getNextAttemptAt();
+        assertTrue(!due.isBefore(before.plus(backoff)) && due.isBefore(LocalDateTime.now().plus(backoff).plusSeconds(1)),
+                "due at " + due + ", expected about " + backoff + " after " + before);
+    }
+    
+    private static Felt252 hash(long id) {
+        return Felt252.fromHex(StarknetCalldata.felt(0x1000 + id));
+    }
+    
+    private static List<Felt252> hashes(long... ids) {
+        List<Felt252> hashes = new ArrayList<>();
+        for (long id : ids) {
+            hashes.add(hash(id));
+        }
+        return hashes;
+    }
+    
+    /**
+     * Transaction of the first event in a block of the fake node
+     */
+    private static Felt252 txHash(long block) {
+        return Felt252.fromHex(StarknetCalldata.felt(block * 1000 + 1));
+    }
+    
+    private static FakeStarknetNode.Registration registration(Felt252 hash) {
+        return new FakeStarknetNode.Registration(hash.toHex(), AUTHOR, "file.txt", "text/plain", 1024);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private RegistrationOutboxRepository outboxRepository() {
+        return repository(RegistrationOutboxRepository.class, (method, args) -> switch (method) {
+            case "findDueForUpdate" -> {
+                Collection<RegistrationOutboxEntity.Status> statuses = (Collection<RegistrationOutboxEntity.Status>) args[0];
+                LocalDateTime now = (LocalDateTime) args[1];
+                yield new ArrayList<>(outbox.values().stream()
+                        .filter(row -> statuses.contains(row.getStatus()) && !row.getNextAttemptAt().isAfter(now))
+                        .limit(((Pageable) args[2]).getPageSize())
+                        .toList());
+            }
+            case "findAllById" -> {
+                List<RegistrationOutboxEntity> rows = new ArrayList<>();
+                ((Iterable<Long>) args[0]).forEach(id -> Optional.ofNullable(outbox.get(id)).ifPresent(rows::add));
+                yield rows;
+            }
+            case "deleteAllByIdInBatch" -> {
+                ((Iterable<Long>) args[0]).forEach(outbox::remove);
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private FileRepository fileRepository() {
+        return repository(FileRepository.class, (method, args) -> switch (method) {
+            case "updateStarknetTxHash" -> {
+                Collection<Felt252> hashes = (Collection<Felt252>) args[1];
+                hashes.forEach(hash -> fileTxHashes.put(hash, (Felt252) args[0]));
+                yield hashes.size();
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+    
+    private FileRecordStore fileRecordStore() {
+        return new FileRecordStore() {
+            @Override
+            public Optional<FileEntity> findByPoseidonHash(Felt252 poseidonHash) {
+                return Optional.empty();
+            }
+            
+            @Override
+            public void setStarknetTxHash(Collection<Felt252> poseidonHashes, Felt252 txHash) {
+                poseidonHashes.forEach(hash -> publishedTxHashes.put(hash, txHash));
+            }
+        };
+    }
+    
+    @SuppressWarnings("unchecked")
+    private ChainFileRepository chainFileRepository() {
+        return repository(ChainFileRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Optional.ofNullable(chainFiles.get((String) args[0]));
+            case "saveAll" -> {
+                ((Iterable<ChainFileEntity>) args[0]).forEach(file -> chainFiles.put(file.getPoseidonHash(), file));
+                yield args[0];
+            }
+            case "deleteByBlockNumberGreaterThan" -> 0;
+            case "streamAllHashes" -> List.copyOf(chainFiles.keySet()).stream();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+    
+    private IndexerCheckpointRepository checkpointRepository() {
+        return repository(IndexerCheckpointRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Optional.ofNullable(checkpoints.get((String) args[0]));
+            case "save" -> {
+                IndexerCheckpointEntity checkpoint = (IndexerCheckpointEntity) args[0];
+                checkpoints.put(checkpoint.getName(), checkpoint);
+                yield checkpoint;
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+    
+    /**
+     * Submits multicalls by mining them into the fake node, one block per transaction
+     */
+    private static class ChainSubmitter extends StarknetService {
+        
+        private final FakeStarknetNode node;
+        final List<List<Felt252>> submitted = new ArrayList<>();
+        final Set<Felt252> rejected = new HashSet<>();
+        boolean unavailable;
+        Consumer<List<RegistrationOutboxEntity>> onSubmit = batch -> {
+        };
+        
+        ChainSubmitter(FakeStarknetNode node) {
+            this.node = node;
+        }
+        
+        @Override
+        public Felt252 registerFilesOnChain(List<RegistrationOutboxEntity> registrations) {
+            List<Felt252> hashes = registrations.stream().map(RegistrationOutboxEntity::getPoseidonHash).toList();
+            submitted.add(hashes);
+            onSubmit.accept(registrations);
+            if (unavailable) {
+                throw new RpcUnavailableException("Node unreachable");
+            }
+            if (hashes.stream().anyMatch(rejected::contains)) {
+                throw new IllegalStateException("Transaction reverted: file already registered");
+            }
+            long block = node.mine(hashes.stream().map(RegistrationDispatcherTests::registration)
+                    .toArray(FakeStarknetNode.Registration[]::new));
+            return txHash(block);
+        }
+    }
+}
\ No newline at end of file
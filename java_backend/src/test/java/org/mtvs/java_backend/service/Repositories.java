@@ -0,0 +1,25 @@
+package org.mtvs.java_backend.service;
+
+import java.lang.reflect.Proxy;
+import java.util.function.BiFunction;
+
+/**
+ * In-memory stand-ins for Spring Data repositories: calls are answered by method name and
+ * arguments, so a test only implements the queries the code under test makes
+ */
+public final class Repositories {
+    
+    private Repositories() {
+    }
+    
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, BiFunction<String, Object[], Object> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName();
+                    default -> handler.apply(method.getName(), args);
+                });
+    }
+}
\ No newline at end of file
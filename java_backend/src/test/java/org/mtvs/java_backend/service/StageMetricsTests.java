@@ -0,0 +1,84 @@
+package org.mtvs.java_backend.service;
+
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StageMetricsTests {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+    private final List<Observation.Context> stopped = new CopyOnWriteArrayList<>();
+    private StageMetrics stageMetrics;
+    
+    @BeforeEach
+    void setUp() {
+        observationRegistry.observationConfig()
+                .observationHandler(new DefaultMeterObservationHandler(meterRegistry))
+                .observationHandler(new ObservationHandler<Observation.Context>() {
+                    @Override
+                    public boolean supportsContext(Observation.Context context) {
+                        return true;
+                    }
+            
+                    @Override
+                    public void onStop(Observation.Context context) {
+                        stopped.add(context);
+                    }
+                });
+        stageMetrics = new StageMetrics(observationRegistry, meterRegistry);
+    }
+    
+    @Test
+    void stagesAreTimedUnderTheirOperation() {
+        String hash = stageMetrics.observe(StageMetrics.UPLOAD,
+                () -> stageMetrics.stage(StageMetrics.UPLOAD, "hash", () -> "0x1"));
+        
+        assertEquals("0x1", hash);
+        assertEquals(1, meterRegistry.get("file.upload.stage").tag("stage", "hash").timer().count());
+        assertEquals(1, meterRegistry.get("file.upload").timer().count());
+        assertEquals("file.upload", parentOf("file.upload.stage"));
+    }
+    
+    @Test
+    void reactiveStagesKeepTheirParentAcrossThreads() {
+        Mono<String> lookup = stageMetrics.stage(StageMetrics.VERIFY, "db-lookup",
+                Mono.fromCallable(() -> "row").subscribeOn(Schedulers.boundedElastic()));
+        
+        assertEquals("row", stageMetrics.observe(StageMetrics.VERIFY, lookup).block());
+        assertEquals(1, meterRegistry.get("file.verify.stage").tag("stage", "db-lookup").timer().count());
+        assertEquals("file.verify", parentOf("file.verify.stage"));
+    }
+    
+    @Test
+    void readsAreRecordedOnClose() throws IOException {
+        try (InputStream in = stageMetrics.timedReads(new ByteArrayInputStream(new byte[4096]))) {
+            in.readAllBytes();
+        }
+        assertEquals(1, meterRegistry.get("file.upload.read").timer().count());
+    }
+    
+    private String parentOf(String name) {
+        return stopped.stream()
+                .filter(context -> context.getName().equals(name))
+                .findFirst()
+                .orElseThrow()
+                .getParentObservation()
+                .getContextView()
+                .getName();
+    }
+}
\ No newline at end of file
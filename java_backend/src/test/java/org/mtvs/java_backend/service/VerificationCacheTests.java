@@ -0,0 +1,29 @@
+package org.mtvs.java_backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.mtvs.java_backend.dto.FileVerificationResponse;
+import org.mtvs.java_backend.util.Felt252;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class VerificationCacheTests {
+    
+    private final VerificationCache cache = new VerificationCache(100, Duration.ofHours(24), Duration.ofSeconds(30),
+            Duration.ofSeconds(5), Duration.ofSeconds(2));
+    
+    @Test
+    void aLoaderThatThrowsAnErrorLeavesNothingBehind() {
+        Felt252 hash = Felt252.fromHex("0x4a1");
+        assertThrows(OutOfMemoryError.class, () -> cache.get(hash, key -> {
+            throw new OutOfMemoryError("loader");
+        }));
+        
+        FileVerificationResponse response = FileVerificationResponse.builder().isRegistered(false).build();
+        // Used to block forever on the placeholder the failed load left in the cache
+        assertSame(response, assertTimeoutPreemptively(Duration.ofSeconds(5), () -> cache.get(hash, key -> response)));
+    }
+}
\ No newline at end of file
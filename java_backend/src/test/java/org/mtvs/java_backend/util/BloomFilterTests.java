@@ -0,0 +1,60 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+    
+    @Test
+    void neverReportsAnInsertedKeyAsNew() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (long i = 0; i < 100_000; i++) {
+            filter.put(i >>> 3, i);
+        }
+        for (long i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain(i >>> 3, i));
+        }
+        assertEquals(100_000, filter.insertions());
+    }
+    
+    @Test
+    void falsePositiveRateStaysNearConfiguredRate() {
+        SplittableRandom random = new SplittableRandom(42);
+        BloomFilter filter = new BloomFilter(200_000, 0.01);
+        for (int i = 0; i < 200_000; i++) {
+            filter.put(random.nextLong(), random.nextLong());
+        }
+        
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(random.nextLong(), random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.015, "false-positive rate " + rate);
+        assertTrue(Math.abs(filter.expectedFpp() - 0.01) < 0.002, "expected fpp " + filter.expectedFpp());
+    }
+    
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1_000, 0.001);
+        assertFalse(filter.mightContain(1, 2));
+        assertEquals(0.0, filter.expectedFpp());
+    }
+    
+    @Test
+    void sizesFollowTheStandardFormula() {
+        assertEquals(95_850_624L, BloomFilter.bitSize(10_000_000L, 0.01));
+        assertEquals(958_505_856L, BloomFilter.bitSize(100_000_000L, 0.01));
+        assertEquals(7, new BloomFilter(10_000, 0.01).hashFunctions());
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1.5));
+    }
+}
\ No newline at end of file
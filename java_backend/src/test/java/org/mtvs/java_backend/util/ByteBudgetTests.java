@@ -0,0 +1,58 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ByteBudgetTests {
+    
+    private final ByteBudget budget = new ByteBudget(100, 1);
+    
+    @Test
+    void refusesWhatDoesNotFitWithoutWaiting() throws InterruptedException {
+        assertTrue(budget.tryAcquire(60, Duration.ZERO));
+        assertFalse(budget.tryAcquire(50, Duration.ZERO));
+        assertTrue(budget.tryAcquire(40, Duration.ZERO));
+        assertEquals(100, budget.inFlightBytes());
+        assertEquals(2, budget.inFlightRequests());
+    }
+    
+    @Test
+    void oversizedRequestsRunAlone() throws InterruptedException {
+        assertTrue(budget.tryAcquire(1_000, Duration.ZERO));
+        assertEquals(100, budget.inFlightBytes());
+        assertFalse(budget.tryAcquire(1, Duration.ZERO));
+        
+        budget.release(1_000);
+        assertEquals(0, budget.inFlightBytes());
+        assertEquals(0, budget.inFlightRequests());
+    }
+    
+    @Test
+    void waitersGetRoomWhenItIsReleased() throws Exception {
+        assertTrue(budget.tryAcquire(100, Duration.ZERO));
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return budget.tryAcquire(50, Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (budget.waiting() == 0) {
+            Thread.onSpinWait();
+        }
+        // The queue holds one waiter; the next caller is turned away at once
+        assertFalse(budget.tryAcquire(50, Duration.ofSeconds(10)));
+        
+        budget.release(100);
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(50, budget.inFlightBytes());
+        assertEquals(0, budget.waiting());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTests {
+    
+    private final AtomicLong clock = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 0.5, Duration.ofSeconds(30), clock::get);
+    
+    @Test
+    void opensOnceTheFailureRateIsReached() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+        // Four of four failed, but fewer than half the window has been seen
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        
+        breaker.tryAcquire();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.isCallPermitted());
+    }
+    
+    @Test
+    void staysClosedWhileMostCallsSucceed() {
+        for (int i = 0; i < 100; i++) {
+            breaker.tryAcquire();
+            if (i % 3 == 0) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+    
+    @Test
+    void closesAfterSuccessfulTrialCalls() {
+        trip();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        
+        assertTrue(breaker.isCallPermitted());
+        for (int i = 0; i < CircuitBreaker.TRIAL_CALLS; i++) {
+            assertTrue(breaker.tryAcquire());
+        }
+        // Only the trial calls get through while half-open
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        
+        for (int i = 0; i < CircuitBreaker.TRIAL_CALLS; i++) {
+            breaker.onSuccess();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+    
+    @Test
+    void reopensWhenATrialCallFails() {
+        trip();
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+    
+    private void trip() {
+        for (int i = 0; i < 10; i++) {
+            breaker.tryAcquire();
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentDefinedChunkerTests {
+    
+    private final ContentDefinedChunker chunker = new ContentDefinedChunker(2048, 8192, 32768);
+    
+    @Test
+    void chunksCoverTheContentWithinSizeBounds() throws IOException {
+        byte[] content = random(1_000_000, 1);
+        List<ContentDefinedChunker.Chunk> chunks = split(content);
+        
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        long offset = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            ContentDefinedChunker.Chunk chunk = chunks.get(i);
+            assertEquals(i, chunk.index());
+            assertEquals(offset, chunk.offset());
+            assertTrue(chunk.data().length <= 32768);
+            if (i < chunks.size() - 1) {
+                assertTrue(chunk.data().length > 2048);
+            }
+            joined.writeBytes(chunk.data());
+            offset += chunk.data().length;
+        }
+        assertArrayEquals(content, joined.toByteArray());
+        // Normalized chunking keeps the average near 8KB
+        double average = (double) content.length / chunks.size();
+        assertTrue(average > 4096 && average < 16384, "average chunk size " + average);
+    }
+    
+    @Test
+    void insertionOnlyChangesNearbyChunks() throws IOException {
+        byte[] original = random(1_000_000, 2);
+        byte[] edited = new byte[original.length + 100];
+        System.arraycopy(original, 0, edited, 0, 500_000);
+        System.arraycopy(random(100, 3), 0, edited, 500_000, 100);
+        System.arraycopy(original, 500_000, edited, 500_100, original.length - 500_000);
+        
+        Set<String> before = new HashSet<>();
+        for (ContentDefinedChunker.Chunk chunk : split(original)) {
+            before.add(new String(chunk.data(), StandardCharsets.ISO_8859_1));
+        }
+        List<ContentDefinedChunker.Chunk> after = split(edited);
+        long changed = after.stream()
+                .filter(chunk -> !before.contains(new String(chunk.data(), StandardCharsets.ISO_8859_1)))
+                .count();
+        assertTrue(changed >= 1 && changed <= 3, changed + " of " + after.size() + " chunks changed");
+    }
+    
+    @Test
+    void contentShorterThanMinimumIsOneChunk() throws IOException {
+        assertEquals(1, split(random(100, 4)).size());
+        assertEquals(0, split(new byte[0]).size());
+    }
+    
+    @Test
+    void averageMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new ContentDefinedChunker(2048, 8000, 32768));
+    }
+    
+    private List<ContentDefinedChunker.Chunk> split(byte[] content) throws IOException {
+        ContentDefinedChunker.Reader reader = chunker.open(new ByteArrayInputStream(content));
+        List<ContentDefinedChunker.Chunk> chunks = new ArrayList<>();
+        ContentDefinedChunker.Chunk chunk;
+        while ((chunk = reader.next()) != null) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+    
+    private static byte[] random(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
\ No newline at end of file
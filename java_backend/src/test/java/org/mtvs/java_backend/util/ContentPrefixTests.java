@@ -0,0 +1,44 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentPrefixTests {
+    
+    @Test
+    void onlyTheFirstBytesAreFingerprinted() throws IOException {
+        byte[] content = new byte[3 * ContentPrefix.LENGTH];
+        new Random(1).nextBytes(content);
+        byte[] edited = content.clone();
+        edited[edited.length - 1] ^= 1;
+        
+        ContentPrefix recorded = new ContentPrefix();
+        try (InputStream in = recorded.recording(new ByteArrayInputStream(content))) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        assertTrue(recorded.isComplete());
+        
+        ContentPrefix direct = new ContentPrefix();
+        direct.update(edited, 0, edited.length);
+        assertEquals(recorded.fingerprint(), direct.fingerprint());
+        
+        ContentPrefix shorter = new ContentPrefix();
+        shorter.update(content, 0, ContentPrefix.LENGTH - 1);
+        assertNotEquals(recorded.fingerprint(), shorter.fingerprint());
+    }
+    
+    @Test
+    void fingerprintRoundTripsThroughBytes() {
+        ContentPrefix.Fingerprint fingerprint = new ContentPrefix.Fingerprint(0x8000_0000_0000_0001L, -2L);
+        assertEquals(fingerprint, ContentPrefix.Fingerprint.fromBytes(fingerprint.toBytes()));
+    }
+}
\ No newline at end of file
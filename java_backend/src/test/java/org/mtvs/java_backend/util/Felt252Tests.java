@@ -0,0 +1,68 @@
+package org.mtvs.java_backend.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Felt252Tests {
+    
+    private static final String P_MINUS_ONE = "0x800000000000011000000000000000000000000000000000000000000000000";
+    private static final BigInteger FIELD_SIZE = new BigInteger("3618502788666131213697322783095070105623107215331596699973092056135872020481");
+    
+    @Test
+    void hexIsMinimalLowercase() {
+        assertEquals("0x0", Felt252.fromHex("0x0000").toHex());
+        assertEquals("0xabc", Felt252.fromHex("0x0ABC").toHex());
+        assertEquals("0x10000000000000000", Felt252.fromHex("10000000000000000").toHex());
+        assertEquals(P_MINUS_ONE, Felt252.fromHex(P_MINUS_ONE).toHex());
+        assertEquals(Felt252.fromHex("0x00ff"), Felt252.fromHex("0xFF"));
+    }
+    
+    @Test
+    void rejectsValuesOutsideTheField() {
+        assertThrows(NumberFormatException.class, () -> Felt252.fromHex("0x800000000000011000000000000000000000000000000000000000000000001"));
+        assertThrows(NumberFormatException.class, () -> Felt252.fromHex("0xfelt"));
+        assertTrue(Felt252.isValid(P_MINUS_ONE));
+        assertFalse(Felt252.isValid("0x" + "f".repeat(64)));
+        assertFalse(Felt252.isValid(null));
+    }
+    
+    @Test
+    void bytesAreBigEndianAndSortNumerically() {
+        Random random = new Random(3);
+        for (int i = 0; i < 1_000; i++) {
+            BigInteger a = new BigInteger(252, random).mod(FIELD_SIZE);
+            BigInteger b = new BigInteger(252, random).mod(FIELD_SIZE);
+            Felt252 feltA = Felt252.fromHex(a.toString(16));
+            Felt252 feltB = Felt252.fromHex(b.toString(16));
+            
+            assertEquals("0x" + a.toString(16), feltA.toHex());
+            assertEquals(feltA, Felt252.fromBytes(feltA.toBytes()));
+            assertEquals(Integer.signum(a.compareTo(b)), Integer.signum(feltA.compareTo(feltB)));
+            assertEquals(Integer.signum(a.compareTo(b)), Integer.signum(Arrays.compareUnsigned(feltA.toBytes(), feltB.toBytes())));
+        }
+        byte[] one = new byte[Felt252.BYTES];
+        one[31] = 1;
+        assertArrayEquals(one, Felt252.fromHex("0x1").toBytes());
+    }
+    
+    @Test
+    void jsonCarriesHexStrings() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals("{\"hash\":\"0xab\"}", objectMapper.writeValueAsString(Map.of("hash", Felt252.fromHex("0x00ab"))));
+        assertEquals(Felt252.fromHex("0xab"), objectMapper.readValue("\"0x00AB\"", Felt252.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("\"alice\"", Felt252.class));
+    }
+}
\ No newline at end of file
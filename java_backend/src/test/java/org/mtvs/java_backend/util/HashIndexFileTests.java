@@ -0,0 +1,137 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashIndexFileTests {
+    
+    private static final BigInteger FIELD_SIZE = new BigInteger("3618502788666131213697322783095070105623107215331596699973092056135872020481");
+    private static final Felt252 AUTHOR = Felt252.fromHex("0x4a1496c2a1d2e3bc0f2c5d4b1ea5c28f4e4dfc3a2b0e17c0d5b8e9f1a2b3c4d");
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000);
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void findsEveryRecordAndNothingElse() throws IOException {
+        List<BigInteger> hashes = randomHashes(20_000, new Random(42));
+        Path path = write(hashes.subList(0, 10_000));
+        
+        try (HashIndexFile index = HashIndexFile.open(path)) {
+            assertEquals(10_000, index.size());
+            for (int i = 0; i < 10_000; i++) {
+                Felt252 hash = felt(hashes.get(i));
+                HashIndexFile.Entry entry = index.find(hash).orElseThrow();
+                assertEquals(hash, entry.poseidonHash());
+                assertEquals(i, entry.fileSize());
+            }
+            for (int i = 10_000; i < 20_000; i++) {
+                assertEquals(Optional.empty(), index.find(felt(hashes.get(i))));
+            }
+        }
+    }
+    
+    @Test
+    void roundTripsAllFields() throws IOException {
+        Path path = dir.resolve("fields.bin");
+        try (HashIndexFile.Writer writer = HashIndexFile.create(path)) {
+            writer.append(new HashIndexFile.Entry(felt("0x1"), AUTHOR, 4096, CREATED_AT, null));
+            writer.append(new HashIndexFile.Entry(felt("0x2"), AUTHOR, 0, CREATED_AT, felt("0x6f1d2e")));
+        }
+        
+        try (HashIndexFile index = HashIndexFile.open(path)) {
+            assertEquals(new HashIndexFile.Entry(felt("0x1"), AUTHOR, 4096, CREATED_AT, null), index.find(felt("0x0001")).orElseThrow());
+            assertEquals(new HashIndexFile.Entry(felt("0x2"), AUTHOR, 0, CREATED_AT, felt("0x6f1d2e")), index.find(felt("0x2")).orElseThrow());
+        }
+    }
+    
+    @Test
+    void rejectsRecordsOutOfOrder() throws IOException {
+        try (HashIndexFile.Writer writer = HashIndexFile.create(dir.resolve("unordered.bin"))) {
+            writer.append(new HashIndexFile.Entry(felt("0x20"), AUTHOR, 1, CREATED_AT, null));
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.append(new HashIndexFile.Entry(felt("0x3"), AUTHOR, 1, CREATED_AT, null)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.append(new HashIndexFile.Entry(felt("0x20"), AUTHOR, 1, CREATED_AT, null)));
+            assertEquals(1, writer.recordCount());
+        }
+    }
+    
+    @Test
+    void mergeReplacesMatchingRecordsAndKeepsOrder() throws IOException {
+        List<BigInteger> hashes = randomHashes(1_000, new Random(7));
+        Path path = write(hashes.subList(0, 900));
+        
+        // Half of the updates replace existing records, half are new
+        List<HashIndexFile.Entry> updates = new ArrayList<>();
+        for (int i = 850; i < 950; i++) {
+            updates.add(new HashIndexFile.Entry(felt(hashes.get(i)), AUTHOR, -1, CREATED_AT, felt("0xabc")));
+        }
+        
+        Path merged = dir.resolve("merged.bin");
+        try (HashIndexFile base = HashIndexFile.open(path)) {
+            assertEquals(950, HashIndexFile.merge(base, updates, merged));
+        }
+        
+        try (HashIndexFile index = HashIndexFile.open(merged)) {
+            assertEquals(950, index.size());
+            assertEquals(0, index.find(felt(hashes.get(0))).orElseThrow().fileSize());
+            assertEquals(-1, index.find(felt(hashes.get(860))).orElseThrow().fileSize());
+            assertEquals(felt("0xabc"), index.find(felt(hashes.get(940))).orElseThrow().starknetTxHash());
+            assertTrue(index.find(felt(hashes.get(960))).isEmpty());
+        }
+    }
+    
+    /**
+     * Write the hashes sorted, each record's file size being its position in {@code hashes}
+     */
+    private Path write(List<BigInteger> hashes) throws IOException {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < hashes.size(); i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> hashes.get(a).compareTo(hashes.get(b)));
+        
+        Path path = dir.resolve("index-" + hashes.size() + ".bin");
+        try (HashIndexFile.Writer writer = HashIndexFile.create(path)) {
+            for (int i : order) {
+                writer.append(new HashIndexFile.Entry(felt(hashes.get(i)), AUTHOR, i, CREATED_AT, null));
+            }
+        }
+        return path;
+    }
+    
+    private static List<BigInteger> randomHashes(int count, Random random) {
+        Set<BigInteger> hashes = new LinkedHashSet<>();
+        while (hashes.size() < count) {
+            BigInteger hash = new BigInteger(252, random);
+            if (hash.compareTo(FIELD_SIZE) < 0) {
+                hashes.add(hash);
+            }
+        }
+        return new ArrayList<>(hashes);
+    }
+    
+    private static Felt252 felt(String hex) {
+        return Felt252.fromHex(hex);
+    }
+    
+    private static Felt252 felt(BigInteger value) {
+        return Felt252.fromHex(value.toString(16));
+    }
+}
\ No newline at end of file
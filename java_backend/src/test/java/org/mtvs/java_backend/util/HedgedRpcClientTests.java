@@ -0,0 +1,118 @@
+package org.mtvs.java_backend.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgedRpcClientTests {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubRpcServer slow;
+    private StubRpcServer fast;
+    
+    @BeforeEach
+    void startServers() throws IOException {
+        slow = new StubRpcServer();
+        fast = new StubRpcServer();
+        slow.delay(2_000);
+    }
+    
+    @AfterEach
+    void stopServers() {
+        slow.close();
+        fast.close();
+    }
+    
+    @Test
+    void hedgesSlowCallsToTheNextEndpoint() throws Exception {
+        try (HedgedRpcClient client = client(Duration.ofSeconds(5), 64, slow.url(), fast.url())) {
+            long started = System.nanoTime();
+            JsonNode result = client.call("starknet_call", List.of("0x1")).get(5, TimeUnit.SECONDS);
+            
+            assertEquals("0x1", result.get(0).asText());
+            assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1));
+            assertEquals(1, client.hedges());
+            assertEquals(1, fast.receivedBatches().size());
+        }
+    }
+    
+    @Test
+    void losingAttemptsHoldTheirPermitUntilTheyReturn() throws Exception {
+        try (HedgedRpcClient client = client(Duration.ofSeconds(5), 64, slow.url(), fast.url())) {
+            client.call("starknet_call", List.of("0x1")).get(5, TimeUnit.SECONDS);
+            
+            // The slow endpoint is still working on the first attempt
+            assertEquals(1, client.inFlight());
+            long giveUpAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (client.inFlight() > 0 && System.nanoTime() < giveUpAt) {
+                Thread.sleep(20);
+            }
+            assertEquals(0, client.inFlight());
+        }
+    }
+    
+    @Test
+    void failsOverWhenAnEndpointIsDown() throws Exception {
+        String down;
+        try (StubRpcServer stopped = new StubRpcServer()) {
+            down = stopped.url();
+        }
+        
+        try (HedgedRpcClient client = client(Duration.ofSeconds(5), 64, down, fast.url())) {
+            assertEquals("0x2", client.call("starknet_call", List.of("0x2")).get(5, TimeUnit.SECONDS).get(0).asText());
+        }
+    }
+    
+    @Test
+    void opensTheCircuitWhenCallsMissTheirDeadline() throws Exception {
+        try (HedgedRpcClient client = client(Duration.ofMillis(100), 64, slow.url())) {
+            for (int i = 0; i < 2; i++) {
+                CompletableFuture<JsonNode> call = client.call("starknet_call", List.of("0x" + i));
+                assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+            }
+            
+            // Rejected without reaching the node
+            CompletableFuture<JsonNode> rejected = client.call("starknet_call", List.of("0x3"));
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(RpcUnavailableException.class, failure.getCause());
+            assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+        }
+    }
+    
+    @Test
+    void rejectsCallsBeyondTheBulkhead() throws Exception {
+        try (HedgedRpcClient client = client(Duration.ofSeconds(5), 1, slow.url())) {
+            client.call("starknet_call", List.of("0x1"));
+            
+            CompletableFuture<JsonNode> rejected = client.call("starknet_call", List.of("0x2"));
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(RpcUnavailableException.class, failure.getCause());
+            assertEquals(1, client.rejectedByBulkhead());
+        }
+    }
+    
+    private HedgedRpcClient client(Duration deadline, int maxConcurrentCalls, String... urls) {
+        WebClient webClient = WebClient.create();
+        List<JsonRpcBatchClient> endpoints = Arrays.stream(urls)
+                .map(url -> new JsonRpcBatchClient(webClient, objectMapper, url, Duration.ofMillis(1), 50, Duration.ofSeconds(5)))
+                .toList();
+        return new HedgedRpcClient(endpoints, deadline, Duration.ofMillis(50), maxConcurrentCalls,
+                new CircuitBreaker(4, 0.5, Duration.ofMinutes(1)));
+    }
+}
\ No newline at end of file
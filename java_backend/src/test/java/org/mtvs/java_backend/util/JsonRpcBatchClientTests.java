@@ -0,0 +1,180 @@
+package org.mtvs.java_backend.util;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonRpcBatchClientTests {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubRpcServer server;
+    
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new StubRpcServer();
+    }
+    
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+    
+    @Test
+    void coalescesConcurrentCallsAndRoutesResponsesById() throws Exception {
+        try (JsonRpcBatchClient client = client(Duration.ofMillis(50), 100, Duration.ofSeconds(5))) {
+            List<CompletableFuture<JsonNode>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(client.call("starknet_call", List.of("0x" + i)));
+            }
+            
+            // The stub answers in reverse order; each caller must still get its own result
+            for (int i = 0; i < 10; i++) {
+                assertEquals("0x" + i, futures.get(i).get(5, TimeUnit.SECONDS).get(0).asText());
+            }
+            assertEquals(1, server.receivedBatches().size());
+            assertEquals(10, server.receivedBatches().get(0).size());
+        }
+    }
+    
+    @Test
+    void splitsAtMaxBatchSize() throws Exception {
+        try (JsonRpcBatchClient client = client(Duration.ofSeconds(10), 4, Duration.ofSeconds(5))) {
+            List<CompletableFuture<JsonNode>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(client.call("starknet_call", List.of("0x" + i)));
+            }
+            
+            // Full batches are sent right away without waiting for the window
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+            assertEquals(2, server.receivedBatches().size());
+            assertEquals(4, server.receivedBatches().get(0).size());
+            assertEquals(4, server.receivedBatches().get(1).size());
+        }
+    }
+    
+    @Test
+    void withdrawnCallsAreNotSent() throws Exception {
+        try (JsonRpcBatchClient client = client(Duration.ofMillis(50), 100, Duration.ofSeconds(5))) {
+            CompletableFuture<JsonNode> withdrawn = client.call("starknet_call", List.of("0x1"));
+            CompletableFuture<JsonNode> kept = client.call("starknet_call", List.of("0x2"));
+            
+            assertTrue(client.withdraw(withdrawn));
+            assertEquals("0x2", kept.get(5, TimeUnit.SECONDS).get(0).asText());
+            assertTrue(withdrawn.isCancelled());
+            assertEquals(1, server.receivedBatches().get(0).size());
+            // Already answered
+            assertFalse(client.withdraw(kept));
+        }
+    }
+    
+    @Test
+    void failsOnlyTheCallsTheNodeRejected() throws Exception {
+        server.respondWith(batch -> {
+            ArrayNode responses = objectMapper.createArrayNode();
+            for (JsonNode request : batch) {
+                String argument = request.get("params").get(0).asText();
+                responses.add(argument.equals("0xbad")
+                        ? server.error(request, 40, "Contract error")
+                        : server.result(request, request.get("params")));
+            }
+            return responses;
+        });
+        
+        try (JsonRpcBatchClient client = client(Duration.ofMillis(50), 100, Duration.ofSeconds(5))) {
+            CompletableFuture<JsonNode> good = client.call("starknet_call", List.of("0x1"));
+            CompletableFuture<JsonNode> bad = client.call("starknet_call", List.of("0xbad"));
+            
+            assertEquals("0x1", good.get(5, TimeUnit.SECONDS).get(0).asText());
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+            JsonRpcException error = assertInstanceOf(JsonRpcException.class, failure.getCause());
+            assertEquals(40, error.getCode());
+        }
+    }
+    
+    @Test
+    void failsCallsMissingFromTheResponse() throws Exception {
+        server.respondWith(batch -> {
+            ArrayNode responses = objectMapper.createArrayNode();
+            responses.add(server.result(batch.get(0), batch.get(0).get("params")));
+            return responses;
+        });
+        
+        try (JsonRpcBatchClient client = client(Duration.ofMillis(50), 100, Duration.ofSeconds(5))) {
+            CompletableFuture<JsonNode> answered = client.call("starknet_call", List.of("0x1"));
+            CompletableFuture<JsonNode> dropped = client.call("starknet_call", List.of("0x2"));
+            
+            assertEquals("0x1", answered.get(5, TimeUnit.SECONDS).get(0).asText());
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> dropped.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(JsonRpcException.class, failure.getCause());
+        }
+    }
+    
+    @Test
+    void sendsPreEncodedParamsAndDecodesResultsInEitherFieldOrder() throws Exception {
+        server.respondWith(batch -> {
+            ArrayNode responses = objectMapper.createArrayNode();
+            for (JsonNode request : batch) {
+                // Some nodes write the result before the id
+                ObjectNode response = responses.addObject();
+                response.set("result", request.get("params").get("calldata"));
+                response.set("id", request.get("id"));
+            }
+            return responses;
+        });
+        
+        try (JsonRpcBatchClient client = client(Duration.ofMillis(50), 100, Duration.ofSeconds(5))) {
+            byte[] params = "{\"calldata\":[\"0x1\",\"0x2\"]}".getBytes(StandardCharsets.US_ASCII);
+            CompletableFuture<Integer> count = client.call("starknet_call", params, parser -> {
+                int felts = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    felts++;
+                }
+                return felts;
+            });
+            CompletableFuture<JsonNode> tree = client.call("starknet_call", Map.of("calldata", List.of("0x3")));
+            
+            assertEquals(2, count.get(5, TimeUnit.SECONDS));
+            assertEquals("0x3", tree.get(5, TimeUnit.SECONDS).get(0).asText());
+            assertEquals("starknet_call", server.receivedBatches().get(0).get(0).get("method").asText());
+        }
+    }
+    
+    @Test
+    void timesOutSlowNodes() throws Exception {
+        server.delay(2_000);
+        
+        try (JsonRpcBatchClient client = client(Duration.ofMillis(10), 100, Duration.ofMillis(200))) {
+            CompletableFuture<JsonNode> call = client.call("starknet_call", List.of("0x1"));
+            
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, failure.getCause());
+        }
+    }
+    
+    private JsonRpcBatchClient client(Duration batchWindow, int maxBatchSize, Duration callTimeout) {
+        return new JsonRpcBatchClient(WebClient.create(), objectMapper, server.url(), batchWindow, maxBatchSize, callTimeout);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conformance vectors for the Starknet Poseidon hash. Felt vectors match
+ * cairo-lang's poseidon_utils and Cairo's core::poseidon.
+ */
+class PoseidonHashUtilTests {
+    
+    private static final String P_MINUS_ONE = "0x800000000000011000000000000000000000000000000000000000000000000";
+    private static final String P_MINUS_TWO = "0x800000000000010ffffffffffffffffffffffffffffffffffffffffffffffff";
+    
+    private final PoseidonHashUtil poseidonHashUtil = new PoseidonHashUtil(new BufferPool());
+    
+    @Test
+    void poseidonHashMatchesStarknet() {
+        assertEquals("0x5d44a3decb2b2e0cc71071f7b802f45dd792d064f0fc7316c46514f70f9891a",
+                poseidonHashUtil.poseidonHash("0x1", "0x2"));
+        assertEquals("0x293d3e8a80f400daaaffdd5932e2bcc8814bab8f414a75dcacf87318f8b14c5",
+                poseidonHashUtil.poseidonHash("0x0", "0x0"));
+        assertEquals("0x36c538ae097e8746f0aefe1dad0f630463da09877565c272f0c9f2ea0e8fd73",
+                poseidonHashUtil.poseidonHash(P_MINUS_ONE, P_MINUS_TWO));
+    }
+    
+    @Test
+    void poseidonHashManyMatchesStarknet() {
+        assertEquals("0x2272be0f580fd156823304800919530eaa97430e972d7213ee13f4fbf7a5dbc",
+                poseidonHashUtil.poseidonHashMany(List.of()));
+        assertEquals("0x371cb6995ea5e7effcd2e174de264b5b407027a75a231a70c2c8d196107f0e7",
+                poseidonHashUtil.poseidonHashMany(List.of("0x1", "0x2")));
+        assertEquals("0x2f0d8840bcf3bc629598d8a6cc80cb7c0d9e52d93dab244bbf9cd0dca0ad082",
+                poseidonHashUtil.poseidonHashMany(List.of("0x1", "0x2", "0x3")));
+        assertEquals("0x1555d379a6128a26b9daf261ccd0c74aa623586f23a438dcedef9fce89e2f6b",
+                poseidonHashUtil.poseidonHashMany(List.of(P_MINUS_ONE, "0x123456789abcdef", "0x7")));
+    }
+    
+    @Test
+    void fileHashMatchesWordEncoding() {
+        assertEquals("0x1fb7169b936dd880cb7ebc50e932a495a60e0084cdab94a681040cb4006e1a0",
+                poseidonHashUtil.generatePoseidonHash(new byte[0]));
+        assertEquals("0x48070bda21e8affd42ed6e71bfbb94a53f14627cc1815abc6c6bf124384c40f",
+                poseidonHashUtil.generatePoseidonHashFromString("hello"));
+        assertEquals("0x417810242deeccb686d16aca38c02d03bfe61d62c33b11944186d696866ae27",
+                poseidonHashUtil.generatePoseidonHash(sequence(62)));
+        assertEquals("0x268b450bf7c8eca61da62da58d008f5aceb74deaebdf8c88074fe0411219a97",
+                poseidonHashUtil.generatePoseidonHash(sequence(1024)));
+        
+        // "hello" is a single partial word followed by its length
+        assertEquals(poseidonHashUtil.generatePoseidonHashFromString("hello"),
+                poseidonHashUtil.poseidonHashMany(List.of("0x68656c6c6f", "0x5")));
+    }
+    
+    @Test
+    void chunkedAndStreamedHashesMatchOneShot() throws IOException {
+        byte[] data = sequence(100_000);
+        String expected = poseidonHashUtil.generatePoseidonHash(data);
+        
+        PoseidonHasher hasher = poseidonHashUtil.newHasher();
+        int offset = 0;
+        int chunk = 1;
+        while (offset < data.length) {
+            int length = Math.min(chunk, data.length - offset);
+            ByteBuffer direct = ByteBuffer.allocateDirect(length).put(data, offset, length).flip();
+            hasher.update(direct);
+            offset += length;
+            chunk = chunk * 3 + 1;
+        }
+        assertEquals(expected, hasher.digest());
+        
+        assertEquals(expected, poseidonHashUtil.generatePoseidonHash(new ByteArrayInputStream(data)));
+        assertEquals(expected, poseidonHashUtil.generatePoseidonHash(Channels.newChannel(new ByteArrayInputStream(data))));
+    }
+    
+    @Test
+    void rejectsValuesOutsideTheField() {
+        assertThrows(NumberFormatException.class,
+                () -> poseidonHashUtil.poseidonHash("0x800000000000011000000000000000000000000000000000000000000000001", "0x1"));
+        assertTrue(poseidonHashUtil.isValidFelt252(P_MINUS_ONE));
+        assertFalse(poseidonHashUtil.isValidFelt252("0x" + "f".repeat(64)));
+    }
+    
+    private static byte[] sequence(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+}
\ No newline at end of file
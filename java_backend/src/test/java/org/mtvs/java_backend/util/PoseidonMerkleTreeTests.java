@@ -0,0 +1,45 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PoseidonMerkleTreeTests {
+    
+    private final PoseidonHashUtil poseidonHashUtil = new PoseidonHashUtil(new BufferPool());
+    
+    @Test
+    void singleLeafIsItsOwnRoot() {
+        Felt252 leaf = new PoseidonHasher().update("hello".getBytes(), 0, 5).digestFelt();
+        assertEquals(leaf, PoseidonMerkleTree.root(List.of(leaf)));
+        assertEquals(poseidonHashUtil.generatePoseidonHashFromString("hello"), leaf.toHex());
+    }
+    
+    @Test
+    void nodesArePoseidonPairsWithTheOddNodeCarriedUp() {
+        List<Felt252> leaves = List.of(Felt252.fromHex("0x1"), Felt252.fromHex("0x2"), Felt252.fromHex("0x3"));
+        String left = poseidonHashUtil.poseidonHash("0x1", "0x2");
+        assertEquals(poseidonHashUtil.poseidonHash(left, "0x3"), PoseidonMerkleTree.root(leaves).toHex());
+    }
+    
+    @Test
+    void everyProofVerifiesAgainstTheRoot() {
+        for (int size = 1; size <= 9; size++) {
+            List<Felt252> leaves = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                leaves.add(Felt252.fromHex("0x" + Integer.toHexString(1000 + i)));
+            }
+            Felt252 root = PoseidonMerkleTree.root(leaves);
+            for (int i = 0; i < size; i++) {
+                List<PoseidonMerkleTree.ProofStep> proof = PoseidonMerkleTree.proof(leaves, i);
+                assertTrue(PoseidonMerkleTree.verify(leaves.get(i), proof, root), size + " leaves, index " + i);
+                assertFalse(PoseidonMerkleTree.verify(Felt252.fromHex("0x7"), proof, root));
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTests {
+    
+    private final SearchIndex index = new SearchIndex(16, 1_000);
+    
+    @Test
+    void splitsNamesIntoLowercaseTerms() {
+        assertEquals(List.of("img", "2024", "report", "final", "pdf"),
+                SearchIndex.tokenize("IMG_2024Report-final.PDF"));
+        assertEquals(List.of(), SearchIndex.tokenize("--"));
+    }
+    
+    @Test
+    void ranksExactTermsAbovePrefixesThenNewestFirst() {
+        index.add(1, "report.pdf", "application/pdf", hash(1));
+        index.add(2, "reports-2023.pdf", "application/pdf", hash(2));
+        index.add(3, "quarterly report.docx", "application/msword", hash(3));
+        index.add(4, "holiday.jpg", "image/jpeg", hash(4));
+        
+        assertEquals(List.of(3L, 1L, 2L), fileIds(search("report", null, null)));
+        assertEquals(List.of(1L, 2L), fileIds(search("report pdf", null, null)));
+        assertEquals(List.of(), fileIds(search("report jpg", null, null)));
+    }
+    
+    @Test
+    void filtersByTypeAndHashPrefix() {
+        index.add(1, "a.png", "image/png", hash(0x4a1c0));
+        index.add(2, "b.jpg", "image/jpeg", hash(0x4a1c1));
+        index.add(3, "c.pdf", "application/pdf", hash(0x4b1c0));
+        
+        assertEquals(List.of(1L), fileIds(search(null, "IMAGE/PNG", null)));
+        assertEquals(List.of(2L, 1L), fileIds(search(null, "image/*", null)));
+        assertEquals(List.of(2L, 1L), fileIds(search(null, null, "0x4a1c")));
+        assertEquals(List.of(1L), fileIds(search(null, "image/png", hex(0x4a1c0))));
+        assertEquals(List.of(), fileIds(search(null, "image/", hex(0x4b1c0))));
+    }
+    
+    @Test
+    void pagesFollowTheRanking() {
+        for (int i = 1; i <= 7; i++) {
+            index.add(i, i % 2 == 0 ? "note " + i : "notes " + i, "text/plain", hash(i));
+        }
+        SearchIndex.Query query = SearchIndex.Query.of("note", null, null);
+        
+        SearchIndex.Page first = index.search(query, null, 4);
+        assertEquals(List.of(6L, 4L, 2L, 7L), fileIds(first));
+        SearchIndex.Page second = index.search(query, first.next(), 4);
+        assertEquals(List.of(5L, 3L, 1L), fileIds(second));
+        assertNull(second.next());
+        
+        SearchIndex.Query unranked = SearchIndex.Query.of(null, "text/plain", null);
+        SearchIndex.Page newest = index.search(unranked, null, 3);
+        assertEquals(List.of(7L, 6L, 5L), fileIds(newest));
+        assertEquals(List.of(4L, 3L, 2L), fileIds(index.search(unranked, newest.next(), 3)));
+    }
+    
+    @Test
+    void capsTheCandidatesARankedQueryScores() {
+        SearchIndex small = new SearchIndex(16, 3);
+        for (int i = 1; i <= 5; i++) {
+            small.add(i, i == 1 ? "scan" : "scans", "image/png", hash(i));
+        }
+        SearchIndex.Page page = small.search(SearchIndex.Query.of("scan", null, null), null, 10);
+        // The exact match is older than the three newest candidates
+        assertEquals(List.of(5L, 4L, 3L), fileIds(page));
+        assertTrue(page.truncated());
+    }
+    
+    @Test
+    void ignoresAFileAddedTwice() {
+        assertTrue(index.add(1, "a.txt", "text/plain", hash(1)));
+        assertFalse(index.add(1, "a.txt", "text/plain", hash(1)));
+        assertTrue(index.add(2, "a.txt", "text/plain", hash(2)));
+        assertEquals(2, index.size());
+    }
+    
+    @Test
+    void keysHashesByTheirPrintedDigits() {
+        Felt252 hash = Felt252.fromHex("0x4a1496c2a1d2e3bc0f2c5d4b1ea5c28f4e4dfc3a2b0e17c0d5b8e9f1a2b3c4d");
+        assertEquals(Long.parseUnsignedLong("4a1496c2a1d2e3bc", 16), SearchIndex.hashKey(hash));
+        assertEquals(0xab00_0000_0000_0000L, SearchIndex.hashKey(Felt252.fromHex("0xab")));
+    }
+    
+    @Test
+    void rejectsQueriesWithoutCriteriaOrWithShortHashPrefixes() {
+        assertThrows(IllegalArgumentException.class, () -> SearchIndex.Query.of(" ", null, ""));
+        assertThrows(IllegalArgumentException.class, () -> SearchIndex.Query.of(null, null, "0x4a1"));
+        assertThrows(IllegalArgumentException.class, () -> SearchIndex.Query.of(null, null, "0xzzzz"));
+    }
+    
+    private SearchIndex.Page search(String text, String type, String hashPrefix) {
+        return index.search(SearchIndex.Query.of(text, type, hashPrefix), null, 10);
+    }
+    
+    private static List<Long> fileIds(SearchIndex.Page page) {
+        return page.hits().stream().map(SearchIndex.Hit::fileId).toList();
+    }
+    
+    /**
+     * A 63-digit hash whose printed form starts with the hex digits of {@code head}
+     */
+    private static Felt252 hash(long head) {
+        return Felt252.fromHex(hex(head));
+    }
+    
+    private static String hex(long head) {
+        String digits = Long.toHexString(head);
+        return "0x" + digits + "1".repeat(63 - digits.length());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SequenceRingTests {
+    
+    private final SequenceRing<String> ring = new SequenceRing<>(4, 100);
+    
+    @Test
+    void readsEverythingAfterAPosition() {
+        assertEquals(100, ring.publish("a"));
+        assertEquals(101, ring.publish("b"));
+        assertEquals(102, ring.publish("c"));
+        
+        assertEquals(List.of("a", "b", "c"), items(ring.readAfter(99, 10)));
+        assertEquals(List.of("c"), items(ring.readAfter(101, 10)));
+        assertEquals(List.of("a", "b"), items(ring.readAfter(99, 2)));
+        assertEquals(List.of(), items(ring.readAfter(102, 10)));
+    }
+    
+    @Test
+    void readerThatFellAFullRingBehindOverran() {
+        for (int i = 0; i < 6; i++) {
+            ring.publish("item " + i);
+        }
+        // 100 and 101 have been overwritten; 101 is still a valid position to read after
+        assertTrue(ring.readAfter(99, 10).overran());
+        SequenceRing.Read<String> read = ring.readAfter(101, 10);
+        assertFalse(read.overran());
+        assertEquals(List.of("item 2", "item 3", "item 4", "item 5"), items(read));
+    }
+    
+    @Test
+    void positionsNeverHandedOutOverran() {
+        ring.publish("a");
+        assertTrue(ring.readAfter(150, 10).overran());
+        assertTrue(ring.readAfter(42, 10).overran());
+        assertFalse(ring.readAfter(100, 10).overran());
+    }
+    
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertEquals(4, new SequenceRing<>(3, 0).capacity());
+        assertEquals(4, new SequenceRing<>(4, 0).capacity());
+        assertEquals(8, new SequenceRing<>(5, 0).capacity());
+    }
+    
+    private static List<String> items(SequenceRing.Read<String> read) {
+        return read.entries().stream().map(SequenceRing.Entry::item).toList();
+    }
+}
\ No newline at end of file
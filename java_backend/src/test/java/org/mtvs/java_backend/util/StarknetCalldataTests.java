@@ -0,0 +1,50 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Calldata layouts as produced by Cairo's Serde for ByteArray and an account's Array<Call>
+ */
+class StarknetCalldataTests {
+    
+    @Test
+    void shortStringIsOnlyPendingWord() {
+        assertEquals(List.of("0x0", "0x68656c6c6f", "0x5"), StarknetCalldata.byteArray("hello"));
+        assertEquals(List.of("0x0", "0x0", "0x0"), StarknetCalldata.byteArray(""));
+    }
+    
+    @Test
+    void longStringIsSplitIntoFullWords() {
+        // 31 bytes fill exactly one word and leave an empty pending word
+        assertEquals(List.of("0x1", "0x6162636465666768696a6b6c6d6e6f707172737475767778797a3132333435", "0x0", "0x0"),
+                StarknetCalldata.byteArray("abcdefghijklmnopqrstuvwxyz12345"));
+        assertEquals(List.of("0x1", "0x6162636465666768696a6b6c6d6e6f707172737475767778797a3132333435", "0x36", "0x1"),
+                StarknetCalldata.byteArray("abcdefghijklmnopqrstuvwxyz123456"));
+    }
+    
+    @Test
+    void multicallPrefixesEachCallWithItsCalldataLength() {
+        List<String> calldata = StarknetCalldata.multicall(List.of(
+                new StarknetCalldata.Call("0xc0", "0x5e1", List.of("0x1", "0x2")),
+                new StarknetCalldata.Call("0xc0", "0x5e1", List.of())));
+        
+        assertEquals(List.of("0x2", "0xc0", "0x5e1", "0x2", "0x1", "0x2", "0xc0", "0x5e1", "0x0"), calldata);
+    }
+    
+    @Test
+    void readerDecodesWhatWasEncoded() {
+        List<String> data = new ArrayList<>(StarknetCalldata.byteArray("quarterly-financial-report-2024-final.pdf"));
+        data.addAll(StarknetCalldata.byteArray("héllo"));
+        data.add(StarknetCalldata.felt(4096));
+        
+        StarknetCalldata.Reader reader = new StarknetCalldata.Reader(data);
+        assertEquals("quarterly-financial-report-2024-final.pdf", reader.nextByteArray());
+        assertEquals("héllo", reader.nextByteArray());
+        assertEquals(4096L, reader.nextLong());
+    }
+}
\ No newline at end of file
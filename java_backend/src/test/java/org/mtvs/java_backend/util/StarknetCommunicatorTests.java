@@ -0,0 +1,72 @@
+package org.mtvs.java_backend.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StarknetCommunicatorTests {
+    
+    private static final String AUTHOR = "0x6ecb9425da32b868721a6b9dd609879eb81d6b80494bff9dcf2e3b002801d2f";
+    
+    @Test
+    void decodesTheByteArraysOfAVerifyFileResult() throws IOException {
+        // starknet_call result for a 41-byte filename (one full word and a 10-byte pending word)
+        String result = """
+                ["%s",
+                 "0x1", "0x717561727465726c792d66696e616e6369616c2d7265706f72742d32303234", "0x2d66696e616c2e706466", "0xa",
+                 "0x0", "0x6170706c69636174696f6e2f706466", "0xf",
+                 "0xa000",
+                 "0x6553f100"]
+                """.formatted(AUTHOR);
+        
+        ChainFileDetails details = readFileDetails(result).orElseThrow();
+        
+        assertEquals(Felt252.fromHex(AUTHOR), details.authorAddress());
+        assertEquals("quarterly-financial-report-2024-final.pdf", details.filename());
+        assertEquals("application/pdf", details.fileType());
+        assertEquals(40960L, details.fileSize());
+        assertEquals(1_700_000_000L, details.timestamp());
+    }
+    
+    @Test
+    void emptyNamesAreEmptyByteArrays() throws IOException {
+        ChainFileDetails details = readFileDetails("""
+                ["%s", "0x0", "0x0", "0x0", "0x0", "0x0", "0x0", "0x1", "0x2"]
+                """.formatted(AUTHOR)).orElseThrow();
+        
+        assertEquals("", details.filename());
+        assertEquals("", details.fileType());
+        assertEquals(1L, details.fileSize());
+        assertEquals(2L, details.timestamp());
+    }
+    
+    @Test
+    void emptyResultOrZeroAuthorIsAnUnknownFile() throws IOException {
+        assertTrue(readFileDetails("[]").isEmpty());
+        assertTrue(readFileDetails("""
+                ["0x0", "0x0", "0x0", "0x0", "0x0", "0x0", "0x0", "0x0", "0x0"]
+                """).isEmpty());
+    }
+    
+    @Test
+    void truncatedResultIsAnError() {
+        // Five felts used to be read as author, filename, type, size and timestamp
+        assertThrows(IOException.class, () -> readFileDetails("""
+                ["%s", "0x1", "0x2", "0x3", "0x4"]
+                """.formatted(AUTHOR)));
+    }
+    
+    private static Optional<ChainFileDetails> readFileDetails(String result) throws IOException {
+        try (JsonParser parser = new JsonFactory().createParser(result)) {
+            parser.nextToken();
+            return StarknetCommunicator.readFileDetails(parser);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package org.mtvs.java_backend.util;
+
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pre-encoded selectors must be sn_keccak of the entry point or event name: the low 250
+ * bits of its Keccak-256
+ */
+class StarknetSelectorsTests {
+    
+    @Test
+    void contractFunctionSelectorsMatchTheirNames() {
+        assertEquals(snKeccak("is_file_registered"), StarknetCommunicator.ContractFunction.IS_FILE_REGISTERED.selector);
+        assertEquals(snKeccak("verify_file"), StarknetCommunicator.ContractFunction.VERIFY_FILE.selector);
+    }
+    
+    @Test
+    void eventSelectorMatchesItsName() {
+        assertEquals(snKeccak("FileRegistered"), StarknetCommunicator.FILE_REGISTERED_SELECTOR);
+    }
+    
+    private static String snKeccak(String name) {
+        byte[] input = name.getBytes(StandardCharsets.US_ASCII);
+        KeccakDigest digest = new KeccakDigest(256);
+        digest.update(input, 0, input.length);
+        byte[] hash = new byte[32];
+        digest.doFinal(hash, 0);
+        BigInteger mask = BigInteger.ONE.shiftLeft(250).subtract(BigInteger.ONE);
+        return "0x" + new BigInteger(1, hash).and(mask).toString(16);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package org.mtvs.java_backend.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Local JSON-RPC node for tests. Each batch is passed to a handler that returns
+ * the response body, so tests control ordering, errors and delays.
+ */
+class StubRpcServer implements AutoCloseable {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final List<ArrayNode> receivedBatches = Collections.synchronizedList(new ArrayList<>());
+    private volatile Function<ArrayNode, JsonNode> handler = this::echo;
+    private volatile long delayMillis;
+    
+    StubRpcServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/rpc", exchange -> {
+            try (exchange) {
+                ArrayNode batch = (ArrayNode) objectMapper.readTree(exchange.getRequestBody());
+                receivedBatches.add(batch);
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+                byte[] body = objectMapper.writeValueAsBytes(handler.apply(batch));
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+    }
+    
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/rpc";
+    }
+    
+    List<ArrayNode> receivedBatches() {
+        return receivedBatches;
+    }
+    
+    void respondWith(Function<ArrayNode, JsonNode> handler) {
+        this.handler = handler;
+    }
+    
+    void delay(long millis) {
+        this.delayMillis = millis;
+    }
+    
+    /**
+     * Default handler: answer every call with its own params, in reverse order
+     */
+    ArrayNode echo(ArrayNode batch) {
+        ArrayNode responses = objectMapper.createArrayNode();
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            responses.add(result(batch.get(i), batch.get(i).get("params")));
+        }
+        return responses;
+    }
+    
+    ObjectNode result(JsonNode request, JsonNode result) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+        response.set("result", result);
+        return response;
+    }
+    
+    ObjectNode error(JsonNode request, int code, String message) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+        response.putObject("error").put("code", code).put("message", message);
+        return response;
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
\ No newline at end of file
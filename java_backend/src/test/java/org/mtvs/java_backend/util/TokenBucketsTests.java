@@ -0,0 +1,63 @@
+package org.mtvs.java_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketsTests {
+    
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    // Two tokens a second, bursts of up to four
+    private final TokenBuckets<String> buckets = new TokenBuckets<>(2, 4, clock::get);
+    
+    @Test
+    void allowsABurstThenReportsTheWait() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, buckets.tryAcquire("alice"));
+        }
+        long wait = buckets.tryAcquire("alice");
+        assertEquals(Duration.ofMillis(500).toNanos(), wait);
+        
+        clock.addAndGet(wait);
+        assertEquals(0, buckets.tryAcquire("alice"));
+        assertTrue(buckets.tryAcquire("alice") > 0);
+    }
+    
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        for (int i = 0; i < 4; i++) {
+            buckets.tryAcquire("alice");
+        }
+        assertTrue(buckets.tryAcquire("alice") > 0);
+        assertEquals(0, buckets.tryAcquire("bob"));
+    }
+    
+    @Test
+    void refillsNoFurtherThanTheBurst() {
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, buckets.tryAcquire("alice"));
+        }
+        assertTrue(buckets.tryAcquire("alice") > 0);
+    }
+    
+    @Test
+    void evictsOnlyRefilledBuckets() {
+        buckets.tryAcquire("alice");
+        buckets.tryAcquire("bob");
+        buckets.tryAcquire("bob");
+        clock.addAndGet(Duration.ofMillis(500).toNanos());
+        
+        assertEquals(1, buckets.evictFull());
+        assertEquals(1, buckets.size());
+        // Bob still owes half a second
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryAcquire("bob"));
+        }
+        assertTrue(buckets.tryAcquire("bob") > 0);
+    }
+}
\ No newline at end of file
@@ -1,6 +1,6 @@
 'use client';
 
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import styles from './FileList.module.css';
 
 interface FileVerificationResponse {
@@ -16,15 +16,63 @@ interface FileVerificationResponse {
   starknetExplorerUrl?: string;
 }
 
+// Pushed by GET /api/v1/files/feed as each file is stored
+interface FileUploadResponse {
+  id: number;
+  filename: string;
+  fileType: string;
+  fileSize: number;
+  poseidonHash: string;
+  authorAddress: string;
+  starknetTxHash?: string;
+  createdAt: string;
+}
+
+const FEED_URL = 'http://localhost:8080/api/v1/files/feed';
+
+// Newest first; a fetched row replaces a pushed one with the same id
+const mergeFiles = (fetched: FileVerificationResponse[], pushed: FileVerificationResponse[]) => {
+  const byId = new Map<number, FileVerificationResponse>();
+  pushed.forEach(file => byId.set(file.id, file));
+  fetched.forEach(file => byId.set(file.id, file));
+  return Array.from(byId.values()).sort((a, b) =>
+    Date.parse(b.createdAt) - Date.parse(a.createdAt) || b.id - a.id);
+};
+
 export default function FileList() {
   const [files, setFiles] = useState<FileVerificationResponse[]>([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
+  const feed = useRef<EventSource | null>(null);
 
   useEffect(() => {
+    // Subscribe before loading, so nothing stored in between is missed; duplicates are skipped
+    subscribe();
     fetchFiles();
+    return () => feed.current?.close();
   }, []);
 
+  const subscribe = (after?: number) => {
+    feed.current?.close();
+    const source = new EventSource(after === undefined ? FEED_URL : `${FEED_URL}?after=${after}`);
+
+    source.addEventListener('registration', (event) => {
+      const file: FileUploadResponse = JSON.parse((event as MessageEvent).data);
+      setFiles(prev => prev.some(existing => existing.id === file.id)
+        ? prev
+        : [{ ...file, isRegistered: true }, ...prev]);
+    });
+
+    // Fell too far behind to catch up: reload, then resume from where the reload stands
+    source.addEventListener('reset', (event) => {
+      const { lastSequence } = JSON.parse((event as MessageEvent).data);
+      subscribe(lastSequence);
+      fetchFiles();
+    });
+
+    feed.current = source;
+  };
+
   const fetchFiles = async () => {
     setLoading(true);
     setError('');
@@ -37,7 +85,8 @@ export default function FileList() {
       }
 
       const data: FileVerificationResponse[] = await response.json();
-      setFiles(data);
+      // Keep whatever the feed delivered while the list was loading
+      setFiles(prev => mergeFiles(data, prev));
       
     } catch (err) {
       setError(err instanceof Error ? err.message : 'Failed to fetch files');
@@ -54,9 +54,10 @@ export default function FileUpload() {
     try {
       const formData = new FormData();
       formData.append('file', file);
-      formData.append('authorAddress', authorAddress);
 
-      const response = await fetch('http://localhost:8080/api/v1/files/upload', {
+      // The author goes in the query string so the server can rate limit before reading the file
+      const url = `http://localhost:8080/api/v1/files/upload?authorAddress=${encodeURIComponent(authorAddress)}`;
+      const response = await fetch(url, {
         method: 'POST',
         body: formData,
       });